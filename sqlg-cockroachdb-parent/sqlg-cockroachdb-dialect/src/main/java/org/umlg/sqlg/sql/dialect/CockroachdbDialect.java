@@ -1522,6 +1522,11 @@ public class CockroachdbDialect extends BaseSqlDialect {
         return true;
     }
 
+    @Override
+    public boolean supportsParentIdsAsArrayParameters() {
+        return true;
+    }
+
     @Override
     public boolean isPostgresql() {
         return true;
@@ -2,6 +2,7 @@ package org.umlg.sqlg.sql.dialect;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Preconditions;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.lang3.tuple.Triple;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
@@ -12,12 +13,15 @@ import org.umlg.sqlg.structure.topology.GlobalUniqueIndex;
 import org.umlg.sqlg.structure.topology.PropertyColumn;
 import org.umlg.sqlg.structure.topology.Schema;
 import org.umlg.sqlg.structure.topology.Topology;
+import org.umlg.sqlg.structure.topology.VertexLabel;
 import org.umlg.sqlg.util.SqlgUtil;
 
 import java.io.IOException;
+import java.io.Writer;
 import java.security.SecureRandom;
 import java.sql.*;
 import java.util.*;
+import java.util.function.ToLongFunction;
 
 import static org.umlg.sqlg.structure.topology.Topology.*;
 
@@ -27,6 +31,8 @@ import static org.umlg.sqlg.structure.topology.Topology.*;
  */
 public abstract class BaseSqlDialect implements SqlDialect, SqlBulkDialect, SqlSchemaChangeDialect {
 
+    private static final int BULK_WITHIN_OUT_BATCH_SIZE = 10000;
+
     protected Logger logger = LoggerFactory.getLogger(getClass().getName());
 
     public BaseSqlDialect() {
@@ -139,6 +145,8 @@ public abstract class BaseSqlDialect implements SqlDialect, SqlBulkDialect, SqlS
             } else {
                 properties = sqlgGraph.getTopology().getPublicSchema().getTemporaryTable(VERTEX_PREFIX + schemaTable.getTable());
             }
+            StringBuilder values = new StringBuilder();
+            int parameterCount = 0;
             if (!columns.isEmpty()) {
                 Map<String, PropertyType> propertyTypeMap = new HashMap<>();
                 for (String column : columns) {
@@ -170,8 +178,9 @@ public abstract class BaseSqlDialect implements SqlDialect, SqlBulkDialect, SqlS
                         sql.append(", ");
                     }
                 }
-                sql.append(") VALUES ( ");
+                sql.append(") VALUES ");
 
+                values.append("( ");
                 i = 1;
                 //noinspection Duplicates
                 for (String column : columns) {
@@ -180,59 +189,48 @@ public abstract class BaseSqlDialect implements SqlDialect, SqlBulkDialect, SqlS
                     int count = 1;
                     //noinspection Duplicates
                     for (@SuppressWarnings("unused") String sqlDefinition : sqlDefinitions) {
-                        if (count > 1) {
-                            sql.append("?");
-                        } else {
-                            sql.append("?");
-                        }
+                        values.append("?");
+                        parameterCount++;
                         if (count++ < sqlDefinitions.length) {
-                            sql.append(",");
+                            values.append(",");
                         }
                     }
                     if (i++ < columns.size()) {
-                        sql.append(", ");
+                        values.append(", ");
                     }
                 }
-                sql.append(")");
-            } else {
-                sql.append(sqlgGraph.getSqlDialect().sqlInsertEmptyValues());
-            }
-            if (sqlgGraph.getSqlDialect().needsSemicolon()) {
-                sql.append(";");
+                values.append(")");
             }
-            if (logger.isDebugEnabled()) {
-                logger.debug(sql.toString());
+            int rowsPerInsert = sqlgGraph.getSqlDialect().batchInsertRowCount(parameterCount);
+            if (columns.isEmpty()) {
+                if (rowsPerInsert > 1) {
+                    sql.append(" VALUES ");
+                    values.append("()");
+                } else {
+                    values.append(sqlgGraph.getSqlDialect().sqlInsertEmptyValues());
+                }
             }
-            Connection conn = sqlgGraph.tx().getConnection();
-            try (PreparedStatement preparedStatement = conn.prepareStatement(sql.toString(), Statement.RETURN_GENERATED_KEYS)) {
-                List<SqlgVertex> sqlgVertices = new ArrayList<>();
-                for (Map.Entry<SqlgVertex, Map<String, Object>> rowEntry : rows.entrySet()) {
-                    int i = 1;
-                    SqlgVertex sqlgVertex = rowEntry.getKey();
-                    sqlgVertices.add(sqlgVertex);
-                    if (!columns.isEmpty()) {
-                        Map<String, Object> parameterValueMap = rowEntry.getValue();
-                        List<Pair<PropertyType, Object>> typeAndValues = new ArrayList<>();
-                        for (String column : columns) {
-                            if (!schemaTable.isTemporary()) {
-                                PropertyColumn propertyColumn = propertyColumns.get(column);
-                                typeAndValues.add(Pair.of(propertyColumn.getPropertyType(), parameterValueMap.get(column)));
-                            } else {
-                                typeAndValues.add(Pair.of(properties.get(column), parameterValueMap.get(column)));
-                            }
-                        }
-                        SqlgUtil.setKeyValuesAsParameterUsingPropertyColumn(sqlgGraph, true, i, preparedStatement, typeAndValues);
-                    }
-                    preparedStatement.addBatch();
+            List<SqlgVertex> sqlgVertices = new ArrayList<>(rows.keySet());
+            Map<String, PropertyColumn> finalPropertyColumns = propertyColumns;
+            Map<String, PropertyType> finalProperties = properties;
+            List<Long> ids = batchInsert(sqlgGraph, sql.toString(), values.toString(), rowsPerInsert, sqlgVertices, sqlgVertex -> estimateSize(rows.get(sqlgVertex).values()), (preparedStatement, parameterIndex, sqlgVertex) -> {
+                if (columns.isEmpty()) {
+                    return parameterIndex;
                 }
-                preparedStatement.executeBatch();
-                ResultSet generatedKeys = preparedStatement.getGeneratedKeys();
-                int i = 0;
-                while (generatedKeys.next()) {
-                    sqlgVertices.get(i++).setInternalPrimaryKey(RecordId.from(schemaTable, generatedKeys.getLong(1)));
+                Map<String, Object> parameterValueMap = rows.get(sqlgVertex);
+                List<Pair<PropertyType, Object>> typeAndValues = new ArrayList<>();
+                for (String column : columns) {
+                    if (!schemaTable.isTemporary()) {
+                        PropertyColumn propertyColumn = finalPropertyColumns.get(column);
+                        typeAndValues.add(Pair.of(propertyColumn.getPropertyType(), parameterValueMap.get(column)));
+                    } else {
+                        typeAndValues.add(Pair.of(finalProperties.get(column), parameterValueMap.get(column)));
+                    }
                 }
-            } catch (SQLException e) {
-                throw new RuntimeException(e);
+                return SqlgUtil.setKeyValuesAsParameterUsingPropertyColumn(sqlgGraph, true, parameterIndex, preparedStatement, typeAndValues);
+            });
+            for (int i = 0; i < ids.size(); i++) {
+                sqlgVertices.get(i).setInternalPrimaryKey(RecordId.from(schemaTable, ids.get(i)));
             }
         }
     }
@@ -281,8 +279,10 @@ public abstract class BaseSqlDialect implements SqlDialect, SqlBulkDialect, SqlS
             sql.append(sqlgGraph.getSqlDialect().maybeWrapInQoutes(metaEdge.getOutLabel() + OUT_VERTEX_COLUMN_END));
             sql.append(", ");
             sql.append(sqlgGraph.getSqlDialect().maybeWrapInQoutes(metaEdge.getInLabel() + IN_VERTEX_COLUMN_END));
-            sql.append(") VALUES (");
+            sql.append(") VALUES ");
 
+            StringBuilder values = new StringBuilder("(");
+            int parameterCount = 2;
             i = 1;
             for (String column : columns) {
                 PropertyType propertyType = propertyTypeMap.get(column);
@@ -290,58 +290,439 @@ public abstract class BaseSqlDialect implements SqlDialect, SqlBulkDialect, SqlS
                 int count = 1;
                 //noinspection Duplicates
                 for (@SuppressWarnings("unused") String sqlDefinition : sqlDefinitions) {
-                    if (count > 1) {
-                        sql.append("?");
-                    } else {
-                        sql.append("?");
-                    }
+                    values.append("?");
+                    parameterCount++;
                     if (count++ < sqlDefinitions.length) {
-                        sql.append(",");
+                        values.append(",");
                     }
                 }
                 if (i++ < columns.size()) {
-                    sql.append(", ");
+                    values.append(", ");
                 }
             }
             if (!columns.isEmpty()) {
-                sql.append(", ");
-            }
-            sql.append("?, ?");
-            sql.append(")");
-            if (sqlgGraph.getSqlDialect().needsSemicolon()) {
-                sql.append(";");
+                values.append(", ");
             }
-            if (logger.isDebugEnabled()) {
-                logger.debug(sql.toString());
+            values.append("?, ?");
+            values.append(")");
+            List<SqlgEdge> sqlgEdges = new ArrayList<>(rows.keySet());
+            List<Long> ids = batchInsert(sqlgGraph, sql.toString(), values.toString(), sqlgGraph.getSqlDialect().batchInsertRowCount(parameterCount), sqlgEdges, sqlgEdge -> estimateSize(rows.get(sqlgEdge).getRight().values()) + 2 * estimateSize(0L), (preparedStatement, parameterIndex, sqlgEdge) -> {
+                Triple<SqlgVertex, SqlgVertex, Map<String, Object>> parameterValueMap = rows.get(sqlgEdge);
+                List<Pair<PropertyType, Object>> typeAndValues = new ArrayList<>();
+                for (String column : columns) {
+                    PropertyColumn propertyColumn = propertyColumns.get(column);
+                    typeAndValues.add(Pair.of(propertyColumn.getPropertyType(), parameterValueMap.getRight().get(column)));
+                }
+                int index = SqlgUtil.setKeyValuesAsParameterUsingPropertyColumn(sqlgGraph, true, parameterIndex, preparedStatement, typeAndValues);
+                preparedStatement.setLong(index++, ((RecordId) parameterValueMap.getLeft().id()).getId());
+                preparedStatement.setLong(index++, ((RecordId) parameterValueMap.getMiddle().id()).getId());
+                return index;
+            });
+            for (int j = 0; j < ids.size(); j++) {
+                sqlgEdges.get(j).setInternalPrimaryKey(RecordId.from(metaEdge.getSchemaTable(), ids.get(j)));
             }
-            Connection conn = sqlgGraph.tx().getConnection();
-            try (PreparedStatement preparedStatement = conn.prepareStatement(sql.toString(), Statement.RETURN_GENERATED_KEYS)) {
-                List<SqlgEdge> sqlgEdges = new ArrayList<>();
-                for (Map.Entry<SqlgEdge, Triple<SqlgVertex, SqlgVertex, Map<String, Object>>> rowEntry : rows.entrySet()) {
-                    i = 1;
-                    SqlgEdge sqlgEdge = rowEntry.getKey();
-                    sqlgEdges.add(sqlgEdge);
-                    Triple<SqlgVertex, SqlgVertex, Map<String, Object>> parameterValueMap = rowEntry.getValue();
-                    List<Pair<PropertyType, Object>> typeAndValues = new ArrayList<>();
-                    for (String column : columns) {
-                        PropertyColumn propertyColumn = propertyColumns.get(column);
-                        typeAndValues.add(Pair.of(propertyColumn.getPropertyType(), parameterValueMap.getRight().get(column)));
+        }
+    }
+
+    /**
+     * Sets a row's parameters on an insert statement.
+     */
+    @FunctionalInterface
+    private interface RowParameterSetter<T> {
+
+        /**
+         * @return the index of the next row's first parameter.
+         */
+        int setParameters(PreparedStatement preparedStatement, int parameterIndex, T row) throws SQLException;
+    }
+
+    /**
+     * Inserts the rows with a jdbc batch of single row inserts or,
+     * if rowsPerInsert is greater than 1, with multi row inserts of at most rowsPerInsert rows
+     * and at most {@link SqlDialect#batchInsertMaxBytes(SqlgGraph)} estimated bytes.
+     *
+     * @param insert  the insert up to and including the 'VALUES' keyword.
+     * @param values  a row's values.
+     * @param rowSize the estimated size in bytes of a row's parameters.
+     * @return the generated ids in the order of the rows.
+     */
+    private <T> List<Long> batchInsert(SqlgGraph sqlgGraph, String insert, String values, int rowsPerInsert, List<T> rows, ToLongFunction<T> rowSize, RowParameterSetter<T> rowParameterSetter) {
+        Connection conn = sqlgGraph.tx().getConnection();
+        List<Long> ids = new ArrayList<>(rows.size());
+        String semicolon = sqlgGraph.getSqlDialect().needsSemicolon() ? ";" : "";
+        try {
+            if (rowsPerInsert <= 1) {
+                String sql = insert + values + semicolon;
+                if (logger.isDebugEnabled()) {
+                    logger.debug(sql);
+                }
+                try (PreparedStatement preparedStatement = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                    for (T row : rows) {
+                        rowParameterSetter.setParameters(preparedStatement, 1, row);
+                        preparedStatement.addBatch();
+                    }
+                    preparedStatement.executeBatch();
+                    readGeneratedKeys(preparedStatement, ids);
+                }
+            } else {
+                long maxBytes = sqlgGraph.getSqlDialect().batchInsertMaxBytes(sqlgGraph);
+                int from = 0;
+                while (from < rows.size()) {
+                    int to = from;
+                    long bytes = insert.length() + semicolon.length();
+                    while (to < rows.size() && to - from < rowsPerInsert) {
+                        long rowBytes = values.length() + 2 + rowSize.applyAsLong(rows.get(to));
+                        if (to > from && bytes + rowBytes > maxBytes) {
+                            break;
+                        }
+                        bytes += rowBytes;
+                        to++;
+                    }
+                    List<T> chunk = rows.subList(from, to);
+                    from = to;
+                    String sql = insert + String.join(", ", Collections.nCopies(chunk.size(), values)) + semicolon;
+                    if (logger.isDebugEnabled()) {
+                        logger.debug(sql);
+                    }
+                    try (PreparedStatement preparedStatement = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                        int parameterIndex = 1;
+                        for (T row : chunk) {
+                            parameterIndex = rowParameterSetter.setParameters(preparedStatement, parameterIndex, row);
+                        }
+                        preparedStatement.executeUpdate();
+                        readGeneratedKeys(preparedStatement, ids);
                     }
-                    i = SqlgUtil.setKeyValuesAsParameterUsingPropertyColumn(sqlgGraph, true, i, preparedStatement, typeAndValues);
-                    preparedStatement.setLong(i++, ((RecordId) parameterValueMap.getLeft().id()).getId());
-                    preparedStatement.setLong(i, ((RecordId) parameterValueMap.getMiddle().id()).getId());
-                    preparedStatement.addBatch();
                 }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+        return ids;
+    }
+
+    private static long estimateSize(Collection<Object> values) {
+        long size = 0;
+        for (Object value : values) {
+            size += estimateSize(value);
+        }
+        return size;
+    }
+
+    /**
+     * A generous estimate of a value's size in an insert statement.
+     * Drivers that inline the parameters quote and escape strings and bytes, a char is at most 3 bytes in utf8.
+     */
+    private static long estimateSize(Object value) {
+        if (value == null) {
+            return 4;
+        } else if (value instanceof String) {
+            return 3L * ((String) value).length() + 2;
+        } else if (value instanceof byte[]) {
+            return 2L * ((byte[]) value).length + 10;
+        } else if (value instanceof Byte[]) {
+            return 2L * ((Byte[]) value).length + 10;
+        } else if (value.getClass().isArray()) {
+            long size = 2;
+            for (int i = 0; i < java.lang.reflect.Array.getLength(value); i++) {
+                size += estimateSize(java.lang.reflect.Array.get(value, i)) + 1;
+            }
+            return size;
+        } else if (value instanceof JsonNode) {
+            return 3L * value.toString().length() + 2;
+        } else {
+            return 32;
+        }
+    }
+
+    private static void readGeneratedKeys(PreparedStatement preparedStatement, List<Long> ids) throws SQLException {
+        try (ResultSet generatedKeys = preparedStatement.getGeneratedKeys()) {
+            while (generatedKeys.next()) {
+                ids.add(generatedKeys.getLong(1));
+            }
+        }
+    }
+
+    /**
+     * Streaming batch mode for dialects without a copy command. The vertices are inserted with a {@link BatchInsertWriter}.
+     * In {@link BatchManager.BatchModeType#STREAMING_WITH_LOCK} mode the ids allocated by the {@link BatchManager} are inserted.
+     */
+    protected Writer streamInsertVertex(SqlgGraph sqlgGraph, SqlgVertex vertex, Map<String, Object> keyValueMap, boolean temporary) {
+        StringBuilder table = new StringBuilder();
+        if (!temporary || needsTemporaryTableSchema()) {
+            table.append(maybeWrapInQoutes(vertex.getSchema()));
+            table.append(".");
+        }
+        if (!temporary || !needsTemporaryTablePrefix()) {
+            table.append(maybeWrapInQoutes(VERTEX_PREFIX + vertex.getTable()));
+        } else {
+            table.append(maybeWrapInQoutes(temporaryTablePrefix() + VERTEX_PREFIX + vertex.getTable()));
+        }
+        Map<String, PropertyType> propertyTypeMap;
+        if (temporary) {
+            propertyTypeMap = sqlgGraph.getTopology().getPublicSchema().getTemporaryTable(VERTEX_PREFIX + vertex.getTable());
+        } else {
+            propertyTypeMap = sqlgGraph.getTopology().getTableFor(SchemaTable.of(vertex.getSchema(), VERTEX_PREFIX + vertex.getTable()));
+        }
+        LinkedHashMap<String, PropertyType> columns = new LinkedHashMap<>();
+        for (String key : keyValueMap.keySet()) {
+            columns.put(key, propertyTypeMap.get(key));
+        }
+        boolean withId = !temporary && sqlgGraph.tx().isInStreamingWithLockBatchMode();
+        String sql = streamingInsertSql(table.toString(), withId, columns, Collections.emptyList());
+        return new BatchInsertWriter(sqlgGraph, sql, withId, columns, sqlgGraph.tx().getBatchManager().getStreamingInsertBatchSize());
+    }
+
+    protected Writer streamInsertEdge(SqlgGraph sqlgGraph, SqlgEdge sqlgEdge, SqlgVertex outVertex, SqlgVertex inVertex, Map<String, Object> keyValueMap) {
+        String table = maybeWrapInQoutes(sqlgEdge.getSchema()) + "." + maybeWrapInQoutes(EDGE_PREFIX + sqlgEdge.getTable());
+        Map<String, PropertyType> propertyTypeMap = sqlgGraph.getTopology().getTableFor(SchemaTable.of(sqlgEdge.getSchema(), EDGE_PREFIX + sqlgEdge.getTable()));
+        LinkedHashMap<String, PropertyType> columns = new LinkedHashMap<>();
+        for (String key : keyValueMap.keySet()) {
+            columns.put(key, propertyTypeMap.get(key));
+        }
+        boolean withId = sqlgGraph.tx().isInStreamingWithLockBatchMode();
+        String sql = streamingInsertSql(table, withId, columns, Arrays.asList(
+                outVertex.getSchema() + "." + outVertex.getTable() + OUT_VERTEX_COLUMN_END,
+                inVertex.getSchema() + "." + inVertex.getTable() + IN_VERTEX_COLUMN_END
+        ));
+        return new BatchInsertWriter(sqlgGraph, sql, withId, columns, sqlgGraph.tx().getBatchManager().getStreamingInsertBatchSize());
+    }
+
+    protected void writeStreamingInsertVertex(Writer writer, SqlgVertex vertex, Map<String, Object> keyValueMap) {
+        ((BatchInsertWriter) writer).writeRow(vertex, keyValueMap);
+    }
+
+    protected void writeStreamingInsertEdge(Writer writer, SqlgEdge sqlgEdge, SqlgVertex outVertex, SqlgVertex inVertex, Map<String, Object> keyValueMap) {
+        ((BatchInsertWriter) writer).writeRow(sqlgEdge, keyValueMap, outVertex, inVertex);
+    }
+
+    private String streamingInsertSql(String table, boolean withId, Map<String, PropertyType> columns, List<String> vertexColumns) {
+        List<String> columnNames = new ArrayList<>();
+        if (withId) {
+            columnNames.add(maybeWrapInQoutes(ID));
+        }
+        for (Map.Entry<String, PropertyType> column : columns.entrySet()) {
+            PropertyType propertyType = column.getValue();
+            String[] sqlDefinitions = propertyTypeToSqlDefinition(propertyType);
+            columnNames.add(maybeWrapInQoutes(column.getKey()));
+            for (int i = 1; i < sqlDefinitions.length; i++) {
+                columnNames.add(maybeWrapInQoutes(column.getKey() + propertyType.getPostFixes()[i - 1]));
+            }
+        }
+        for (String vertexColumn : vertexColumns) {
+            columnNames.add(maybeWrapInQoutes(vertexColumn));
+        }
+        StringBuilder sql = new StringBuilder("INSERT INTO ");
+        sql.append(table);
+        if (columnNames.isEmpty()) {
+            sql.append(sqlInsertEmptyValues());
+        } else {
+            sql.append(" (");
+            sql.append(String.join(", ", columnNames));
+            sql.append(") VALUES (");
+            sql.append(String.join(", ", Collections.nCopies(columnNames.size(), "?")));
+            sql.append(")");
+        }
+        if (needsSemicolon()) {
+            sql.append(";");
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug(sql.toString());
+        }
+        return sql.toString();
+    }
+
+    /**
+     * bulkAddEdges for dialects without a copy command. Every pair is an insert of the edge selecting the ids of the
+     * vertices whose idFields match the pair, the inserts are executed as a jdbc batch per chunk.
+     * The edge's properties are the same for every pair and are bound as parameters.
+     */
+    protected <L, R> void insertBulkEdges(SqlgGraph sqlgGraph, SchemaTable out, SchemaTable in, String edgeLabel, Pair<String, String> idFields, Iterator<Pair<L, R>> uids, int chunkSize, Map<String, PropertyType> edgeColumns, Map<String, Object> edgePropertyMap) {
+        if (!sqlgGraph.tx().isInStreamingBatchMode() && !sqlgGraph.tx().isInStreamingWithLockBatchMode()) {
+            throw SqlgExceptions.invalidMode("Transaction must be in " + BatchManager.BatchModeType.STREAMING + " or " + BatchManager.BatchModeType.STREAMING_WITH_LOCK + " mode for bulkAddEdges");
+        }
+        if (!uids.hasNext()) {
+            return;
+        }
+        VertexLabel outVertexLabel = sqlgGraph.getTopology().getVertexLabel(out.getSchema(), out.getTable())
+                .orElseThrow(() -> new IllegalStateException(String.format("Out VertexLabel must be present. Not found for %s", out.toString())));
+        VertexLabel inVertexLabel = sqlgGraph.getTopology().getVertexLabel(in.getSchema(), in.getTable())
+                .orElseThrow(() -> new IllegalStateException(String.format("In VertexLabel must be present. Not found for %s", in.toString())));
+        sqlgGraph.getTopology().ensureEdgeLabelExist(edgeLabel, outVertexLabel, inVertexLabel, edgeColumns);
+        PropertyType outPropertyType = bulkEdgeIdFieldPropertyType(outVertexLabel, idFields.getLeft());
+        PropertyType inPropertyType = bulkEdgeIdFieldPropertyType(inVertexLabel, idFields.getRight());
+
+        StringBuilder sql = new StringBuilder("INSERT INTO ");
+        sql.append(maybeWrapInQoutes(out.getSchema()));
+        sql.append(".");
+        sql.append(maybeWrapInQoutes(EDGE_PREFIX + edgeLabel));
+        sql.append(" (");
+        sql.append(maybeWrapInQoutes(out.getSchema() + "." + out.getTable() + OUT_VERTEX_COLUMN_END));
+        sql.append(", ");
+        sql.append(maybeWrapInQoutes(in.getSchema() + "." + in.getTable() + IN_VERTEX_COLUMN_END));
+        int edgePropertyParameterCount = 0;
+        for (String key : edgePropertyMap.keySet()) {
+            PropertyType propertyType = edgeColumns.get(key);
+            String[] sqlDefinitions = propertyTypeToSqlDefinition(propertyType);
+            sql.append(", ").append(maybeWrapInQoutes(key));
+            for (int i = 1; i < sqlDefinitions.length; i++) {
+                sql.append(", ").append(maybeWrapInQoutes(key + propertyType.getPostFixes()[i - 1]));
+            }
+            edgePropertyParameterCount += sqlDefinitions.length;
+        }
+        String outAlias = maybeWrapInQoutes("_out");
+        String inAlias = maybeWrapInQoutes("_in");
+        sql.append(") SELECT ");
+        sql.append(outAlias).append(".").append(maybeWrapInQoutes(ID));
+        sql.append(", ");
+        sql.append(inAlias).append(".").append(maybeWrapInQoutes(ID));
+        for (int i = 0; i < edgePropertyParameterCount; i++) {
+            sql.append(", ?");
+        }
+        sql.append(" FROM ");
+        sql.append(maybeWrapInQoutes(out.getSchema()));
+        sql.append(".");
+        sql.append(maybeWrapInQoutes(VERTEX_PREFIX + out.getTable()));
+        sql.append(" ").append(outAlias).append(", ");
+        sql.append(maybeWrapInQoutes(in.getSchema()));
+        sql.append(".");
+        sql.append(maybeWrapInQoutes(VERTEX_PREFIX + in.getTable()));
+        sql.append(" ").append(inAlias);
+        sql.append(" WHERE ");
+        sql.append(outAlias).append(".").append(maybeWrapInQoutes(idFields.getLeft()));
+        sql.append(" = ? AND ");
+        sql.append(inAlias).append(".").append(maybeWrapInQoutes(idFields.getRight()));
+        sql.append(" = ?");
+        if (needsSemicolon()) {
+            sql.append(";");
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug(sql.toString());
+        }
+        Connection conn = sqlgGraph.tx().getConnection();
+        try (PreparedStatement preparedStatement = conn.prepareStatement(sql.toString())) {
+            int count = 0;
+            while (uids.hasNext()) {
+                Pair<L, R> uid = uids.next();
+                List<Pair<PropertyType, Object>> typeAndValues = new ArrayList<>(edgePropertyMap.size() + 2);
+                edgePropertyMap.forEach((k, v) -> typeAndValues.add(Pair.of(edgeColumns.get(k), v)));
+                typeAndValues.add(Pair.of(outPropertyType, bulkEdgeIdFieldValue(outPropertyType, uid.getLeft())));
+                typeAndValues.add(Pair.of(inPropertyType, bulkEdgeIdFieldValue(inPropertyType, uid.getRight())));
+                SqlgUtil.setKeyValuesAsParameterUsingPropertyColumn(sqlgGraph, true, 1, preparedStatement, typeAndValues);
+                preparedStatement.addBatch();
+                if (++count == chunkSize) {
+                    preparedStatement.executeBatch();
+                    count = 0;
+                }
+            }
+            if (count > 0) {
                 preparedStatement.executeBatch();
-                ResultSet generatedKeys = preparedStatement.getGeneratedKeys();
-                i = 0;
-                while (generatedKeys.next()) {
-                    sqlgEdges.get(i++).setInternalPrimaryKey(RecordId.from(metaEdge.getSchemaTable(), generatedKeys.getLong(1)));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * For dialects whose ids are identity columns {@link BatchManager.BatchModeType#STREAMING_WITH_LOCK} mode allocates
+     * the ids following the label's highest id and inserts them explicitly.
+     *
+     * @return the label's highest id, or the id before {@link #getPrimaryKeyStartValue()} if the label is empty.
+     */
+    protected long maxId(SqlgGraph sqlgGraph, SchemaTable schemaTable, String prefix) {
+        Preconditions.checkArgument(prefix.equals(VERTEX_PREFIX) || prefix.equals(EDGE_PREFIX), "prefix must be " + VERTEX_PREFIX + " or " + EDGE_PREFIX);
+        StringBuilder sql = new StringBuilder("SELECT MAX(");
+        sql.append(maybeWrapInQoutes(ID));
+        sql.append(") FROM ");
+        sql.append(maybeWrapInQoutes(schemaTable.getSchema()));
+        sql.append(".");
+        sql.append(maybeWrapInQoutes(prefix + schemaTable.getTable()));
+        if (needsSemicolon()) {
+            sql.append(";");
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug(sql.toString());
+        }
+        Connection conn = sqlgGraph.tx().getConnection();
+        try (Statement statement = conn.createStatement()) {
+            ResultSet resultSet = statement.executeQuery(sql.toString());
+            resultSet.next();
+            long maxId = resultSet.getLong(1);
+            return resultSet.wasNull() ? getPrimaryKeyStartValue() - 1 : maxId;
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Inserts the values with a jdbc batch, executed every {@link #BULK_WITHIN_OUT_BATCH_SIZE} values.
+     */
+    @Override
+    public void loadBulkWithinOutTemporaryTable(SqlgGraph sqlgGraph, String table, String column, PropertyType propertyType, Object[] values, boolean create) {
+        prepareBulkWithinOutTemporaryTable(sqlgGraph, table, column, propertyType, create);
+        String sql = "INSERT INTO " + maybeWrapInQoutes(table) + " (" + column + ") VALUES (?)";
+        if (logger.isDebugEnabled()) {
+            logger.debug(sql);
+        }
+        Connection conn = sqlgGraph.tx().getConnection();
+        try (PreparedStatement preparedStatement = conn.prepareStatement(sql)) {
+            int count = 0;
+            for (Object value : values) {
+                SqlgUtil.setKeyValuesAsParameterUsingPropertyColumn(sqlgGraph, true, 1, preparedStatement, Collections.singletonList(Pair.of(propertyType, value)));
+                preparedStatement.addBatch();
+                if (++count == BULK_WITHIN_OUT_BATCH_SIZE) {
+                    preparedStatement.executeBatch();
+                    count = 0;
                 }
-//                insertGlobalUniqueIndex(keyValueMap, propertyColumns);
-            } catch (SQLException e) {
-                throw new RuntimeException(e);
             }
+            if (count > 0) {
+                preparedStatement.executeBatch();
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Creates the temporary table of a within/without list if it is not used yet in this transaction, else removes its
+     * previous values. 'DELETE' is used rather than 'TRUNCATE' as a result set of a previous query may still be reading the table.
+     */
+    protected void prepareBulkWithinOutTemporaryTable(SqlgGraph sqlgGraph, String table, String column, PropertyType propertyType, boolean create) {
+        String sql;
+        if (create) {
+            sql = createTemporaryTableStatement() + "IF NOT EXISTS " + maybeWrapInQoutes(table) +
+                    " (" + column + " " + propertyTypeToSqlDefinition(propertyType)[0] + ") " +
+                    afterCreateTemporaryTableStatement();
+        } else {
+            sql = "DELETE FROM " + maybeWrapInQoutes(table);
+        }
+        if (needsSemicolon()) {
+            sql += ";";
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug(sql);
+        }
+        Connection conn = sqlgGraph.tx().getConnection();
+        try (Statement statement = conn.createStatement()) {
+            statement.execute(sql);
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static PropertyType bulkEdgeIdFieldPropertyType(VertexLabel vertexLabel, String idField) {
+        if (idField.equals(ID)) {
+            return PropertyType.LONG;
+        } else {
+            return vertexLabel.getProperties().get(idField).getPropertyType();
+        }
+    }
+
+    private static Object bulkEdgeIdFieldValue(PropertyType propertyType, Object value) {
+        //the vertices' ids may be given as integers
+        if (propertyType == PropertyType.LONG && value instanceof Number) {
+            return ((Number) value).longValue();
+        } else {
+            return value;
         }
     }
 
@@ -1011,57 +1392,140 @@ public abstract class BaseSqlDialect implements SqlDialect, SqlBulkDialect, SqlS
 
     private <T extends SqlgElement> void flushElementGlobalUniqueIndexPropertyCache(SqlgGraph sqlgGraph, boolean forVertices, Map<SchemaTable, Pair<SortedSet<String>, Map<T, Map<String, Object>>>> schemaVertexPropertyCache) {
 
-        Connection conn = sqlgGraph.tx().getConnection();
         for (SchemaTable schemaTable : schemaVertexPropertyCache.keySet()) {
 
             Pair<SortedSet<String>, Map<T, Map<String, Object>>> vertexPropertyCache = schemaVertexPropertyCache.get(schemaTable);
             SortedSet<String> propertyNames = vertexPropertyCache.getKey();
-            Map<String, PropertyColumn> globalUniqueIndexPropertyMap = sqlgGraph.getTopology().getPropertiesWithGlobalUniqueIndexFor(schemaTable.withPrefix(VERTEX_PREFIX));
+            Map<String, PropertyColumn> globalUniqueIndexPropertyMap = sqlgGraph.getTopology().getPropertiesWithGlobalUniqueIndexFor(schemaTable.withPrefix(forVertices ? VERTEX_PREFIX : EDGE_PREFIX));
 
             for (Map.Entry<String, PropertyColumn> propertyColumnEntry : globalUniqueIndexPropertyMap.entrySet()) {
                 PropertyColumn propertyColumn = propertyColumnEntry.getValue();
                 if (propertyNames.contains(propertyColumn.getName())) {
-                    for (GlobalUniqueIndex globalUniqueIndex : propertyColumn.getGlobalUniqueIndices()) {
-                        StringBuilder sql = new StringBuilder();
-                        sql.append("UPDATE ");
-                        sql.append(maybeWrapInQoutes(Schema.GLOBAL_UNIQUE_INDEX_SCHEMA));
-                        sql.append(".");
-                        sql.append(maybeWrapInQoutes((forVertices ? VERTEX_PREFIX : EDGE_PREFIX) + globalUniqueIndex.getName()));
-                        sql.append(" \nSET\n\t");
-                        sql.append(maybeWrapInQoutes("value"));
-                        sql.append(" = ?\nWHERE\n\t");
-                        sql.append(maybeWrapInQoutes("recordId"));
-                        sql.append(" = ? AND ");
-                        sql.append(maybeWrapInQoutes("property"));
-                        sql.append(" = ?");
-                        if (needsSemicolon()) {
-                            sql.append(";");
-                        }
-                        if (logger.isDebugEnabled()) {
-                            logger.debug(sql.toString());
-                        }
-                        try (PreparedStatement preparedStatement = conn.prepareStatement(sql.toString())) {
-                            boolean foundSomething = false;
-                            for (T t : vertexPropertyCache.getRight().keySet()) {
-                                Object value = vertexPropertyCache.getRight().get(t).get(propertyColumn.getName());
-                                if (value != null) {
-                                    foundSomething = true;
-                                    SqlgUtil.setKeyValuesAsParameterUsingPropertyColumn(sqlgGraph, true, 1, preparedStatement, Collections.singleton(Pair.of(propertyColumn.getPropertyType(), value)));
-                                    preparedStatement.setString(2, t.id().toString());
-                                    preparedStatement.setString(3, propertyColumn.getName());
-                                    preparedStatement.addBatch();
-                                }
-                            }
-                            if (foundSomething) {
-                                preparedStatement.executeBatch();
-                            }
-                        } catch (SQLException e) {
-                            throw new RuntimeException(e);
+                    Map<RecordId, Object> values = new LinkedHashMap<>();
+                    for (Map.Entry<T, Map<String, Object>> elementProperties : vertexPropertyCache.getRight().entrySet()) {
+                        Object value = elementProperties.getValue().get(propertyColumn.getName());
+                        if (value != null) {
+                            values.put((RecordId) elementProperties.getKey().id(), value);
                         }
                     }
+                    for (GlobalUniqueIndex globalUniqueIndex : propertyColumn.getGlobalUniqueIndices()) {
+                        upsertGlobalUniqueIndexValues(sqlgGraph, globalUniqueIndex, propertyColumn, values);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Updates the rows and then inserts the rows that were not there, two statements at most per batch.
+     * Dialects that support an upsert override this to do it in one.
+     */
+    @Override
+    public void upsertGlobalUniqueIndexValues(SqlgGraph sqlgGraph, GlobalUniqueIndex globalUniqueIndex, PropertyColumn propertyColumn, Map<RecordId, Object> values) {
+        if (values.isEmpty()) {
+            return;
+        }
+        List<String> valueColumns = globalUniqueIndexValueColumns(propertyColumn.getPropertyType());
+        StringBuilder sql = new StringBuilder();
+        sql.append("UPDATE ");
+        sql.append(maybeWrapInQoutes(Schema.GLOBAL_UNIQUE_INDEX_SCHEMA));
+        sql.append(".");
+        sql.append(maybeWrapInQoutes(VERTEX_PREFIX + globalUniqueIndex.getName()));
+        sql.append(" \nSET\n\t");
+        int count = 1;
+        for (String valueColumn : valueColumns) {
+            sql.append(maybeWrapInQoutes(valueColumn));
+            sql.append(" = ?");
+            if (count++ < valueColumns.size()) {
+                sql.append(", ");
+            }
+        }
+        sql.append("\nWHERE\n\t");
+        sql.append(maybeWrapInQoutes(GlobalUniqueIndex.GLOBAL_UNIQUE_INDEX_RECORD_ID));
+        sql.append(" = ? AND ");
+        sql.append(maybeWrapInQoutes(GlobalUniqueIndex.GLOBAL_UNIQUE_INDEX_PROPERTY_NAME));
+        sql.append(" = ?");
+        if (needsSemicolon()) {
+            sql.append(";");
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug(sql.toString());
+        }
+        Connection conn = sqlgGraph.tx().getConnection();
+        Map<RecordId, Object> missing = new LinkedHashMap<>();
+        try (PreparedStatement preparedStatement = conn.prepareStatement(sql.toString())) {
+            for (Map.Entry<RecordId, Object> recordIdValue : values.entrySet()) {
+                int idx = SqlgUtil.setKeyValuesAsParameterUsingPropertyColumn(sqlgGraph, true, 1, preparedStatement, Collections.singleton(Pair.of(propertyColumn.getPropertyType(), recordIdValue.getValue())));
+                preparedStatement.setString(idx++, recordIdValue.getKey().toString());
+                preparedStatement.setString(idx, propertyColumn.getName());
+                preparedStatement.addBatch();
+            }
+            int[] updateCounts = preparedStatement.executeBatch();
+            int i = 0;
+            for (Map.Entry<RecordId, Object> recordIdValue : values.entrySet()) {
+                if (updateCounts[i++] == 0) {
+                    missing.put(recordIdValue.getKey(), recordIdValue.getValue());
                 }
             }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+        if (!missing.isEmpty()) {
+            insertGlobalUniqueIndexValues(sqlgGraph, globalUniqueIndex, propertyColumn, missing);
+        }
+    }
+
+    private void insertGlobalUniqueIndexValues(SqlgGraph sqlgGraph, GlobalUniqueIndex globalUniqueIndex, PropertyColumn propertyColumn, Map<RecordId, Object> values) {
+        List<String> valueColumns = globalUniqueIndexValueColumns(propertyColumn.getPropertyType());
+        StringBuilder sql = new StringBuilder();
+        sql.append("INSERT INTO ");
+        sql.append(maybeWrapInQoutes(Schema.GLOBAL_UNIQUE_INDEX_SCHEMA));
+        sql.append(".");
+        sql.append(maybeWrapInQoutes(VERTEX_PREFIX + globalUniqueIndex.getName()));
+        sql.append(" (");
+        for (String valueColumn : valueColumns) {
+            sql.append(maybeWrapInQoutes(valueColumn));
+            sql.append(", ");
+        }
+        sql.append(maybeWrapInQoutes(GlobalUniqueIndex.GLOBAL_UNIQUE_INDEX_RECORD_ID));
+        sql.append(", ");
+        sql.append(maybeWrapInQoutes(GlobalUniqueIndex.GLOBAL_UNIQUE_INDEX_PROPERTY_NAME));
+        sql.append(") VALUES (");
+        for (@SuppressWarnings("unused") String valueColumn : valueColumns) {
+            sql.append("?, ");
+        }
+        sql.append("?, ?)");
+        if (needsSemicolon()) {
+            sql.append(";");
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug(sql.toString());
+        }
+        Connection conn = sqlgGraph.tx().getConnection();
+        try (PreparedStatement preparedStatement = conn.prepareStatement(sql.toString())) {
+            for (Map.Entry<RecordId, Object> recordIdValue : values.entrySet()) {
+                int idx = SqlgUtil.setKeyValuesAsParameterUsingPropertyColumn(sqlgGraph, true, 1, preparedStatement, Collections.singleton(Pair.of(propertyColumn.getPropertyType(), recordIdValue.getValue())));
+                preparedStatement.setString(idx++, recordIdValue.getKey().toString());
+                preparedStatement.setString(idx, propertyColumn.getName());
+                preparedStatement.addBatch();
+            }
+            preparedStatement.executeBatch();
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @return the GlobalUniqueIndex's value column followed by the extra columns of property types that need more than one.
+     */
+    protected List<String> globalUniqueIndexValueColumns(PropertyType propertyType) {
+        String[] sqlDefinitions = propertyTypeToSqlDefinition(propertyType);
+        List<String> valueColumns = new ArrayList<>(sqlDefinitions.length);
+        valueColumns.add(GlobalUniqueIndex.GLOBAL_UNIQUE_INDEX_VALUE);
+        for (int i = 1; i < sqlDefinitions.length; i++) {
+            valueColumns.add(GlobalUniqueIndex.GLOBAL_UNIQUE_INDEX_VALUE + propertyType.getPostFixes()[i - 1]);
         }
+        return valueColumns;
     }
 
     @Override
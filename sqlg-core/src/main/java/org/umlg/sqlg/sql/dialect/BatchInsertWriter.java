@@ -0,0 +1,99 @@
+package org.umlg.sqlg.sql.dialect;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.umlg.sqlg.structure.*;
+import org.umlg.sqlg.util.SqlgUtil;
+
+import java.io.Writer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The streaming batch mode {@link Writer} of dialects without a copy command.
+ * Every row is bound to the same prepared insert statement and added to its jdbc batch,
+ * the batch is executed every batchSize rows and on close. Only the current batch is held in memory.
+ * <p>
+ * The insert's columns are the element's id if withId, the property columns and then the ids of the vertices passed to
+ * {@link #writeRow(SqlgElement, Map, SqlgVertex...)}. The character based write methods are not supported.
+ * <p>
+ * Date: 2026/10/17
+ */
+class BatchInsertWriter extends Writer {
+
+    private final SqlgGraph sqlgGraph;
+    private final PreparedStatement preparedStatement;
+    private final boolean withId;
+    private final LinkedHashMap<String, PropertyType> columns;
+    private final int batchSize;
+    private int count = 0;
+
+    BatchInsertWriter(SqlgGraph sqlgGraph, String sql, boolean withId, LinkedHashMap<String, PropertyType> columns, int batchSize) {
+        this.sqlgGraph = sqlgGraph;
+        this.withId = withId;
+        this.columns = columns;
+        this.batchSize = batchSize;
+        Connection conn = sqlgGraph.tx().getConnection();
+        try {
+            this.preparedStatement = conn.prepareStatement(sql);
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    void writeRow(SqlgElement element, Map<String, Object> keyValueMap, SqlgVertex... vertices) {
+        List<Pair<PropertyType, Object>> typeAndValues = new ArrayList<>(this.columns.size() + vertices.length + 1);
+        if (this.withId) {
+            typeAndValues.add(Pair.of(PropertyType.LONG, ((RecordId) element.id()).getId()));
+        }
+        for (Map.Entry<String, PropertyType> column : this.columns.entrySet()) {
+            typeAndValues.add(Pair.of(column.getValue(), keyValueMap.get(column.getKey())));
+        }
+        for (SqlgVertex vertex : vertices) {
+            typeAndValues.add(Pair.of(PropertyType.LONG, ((RecordId) vertex.id()).getId()));
+        }
+        try {
+            SqlgUtil.setKeyValuesAsParameterUsingPropertyColumn(this.sqlgGraph, true, 1, this.preparedStatement, typeAndValues);
+            this.preparedStatement.addBatch();
+            if (++this.count == this.batchSize) {
+                flush();
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) {
+        throw new UnsupportedOperationException("BatchInsertWriter only writes rows");
+    }
+
+    @Override
+    public void flush() {
+        if (this.count > 0) {
+            try {
+                this.preparedStatement.executeBatch();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+            this.count = 0;
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            flush();
+        } finally {
+            try {
+                this.preparedStatement.close();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+}
@@ -5,6 +5,7 @@ import org.apache.commons.lang3.tuple.Triple;
 import org.umlg.sqlg.structure.*;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
 import java.util.*;
 
@@ -58,6 +59,13 @@ public interface SqlBulkDialect extends SqlDialect {
         throw SqlgExceptions.batchModeNotSupported(dialectName());
     }
 
+    /**
+     * Streaming variant of bulkAddEdges, the pairs are copied and joined in chunks of chunkSize.
+     */
+    default <L, R> void bulkAddEdges(SqlgGraph sqlgGraph, SchemaTable in, SchemaTable out, String edgeLabel, Pair<String, String> idFields, Iterator<Pair<L, R>> uids, int chunkSize, Map<String, PropertyType> edgeColumns, Map<String, Object> edgePropertyMap) {
+        throw SqlgExceptions.batchModeNotSupported(dialectName());
+    }
+
     default String constructCompleteCopyCommandTemporarySqlVertex(SqlgGraph sqlgGraph, SqlgVertex vertex, Map<String, Object> keyValueMap) {
         throw SqlgExceptions.batchModeNotSupported(dialectName());
     }
@@ -82,6 +90,57 @@ public interface SqlBulkDialect extends SqlDialect {
         throw SqlgExceptions.batchModeNotSupported(dialectName());
     }
 
+    /**
+     * Opens the {@link Writer} streaming batch mode writes the vertex's label to.
+     * Defaults to streaming the copy command of {@link #constructCompleteCopyCommandSqlVertex(SqlgGraph, SqlgVertex, Map)}.
+     */
+    default Writer streamVertex(SqlgGraph sqlgGraph, SqlgVertex vertex, Map<String, Object> keyValueMap) {
+        return streamSql(sqlgGraph, constructCompleteCopyCommandSqlVertex(sqlgGraph, vertex, keyValueMap));
+    }
+
+    default Writer streamTemporaryVertex(SqlgGraph sqlgGraph, SqlgVertex vertex, Map<String, Object> keyValueMap) {
+        return streamSql(sqlgGraph, constructCompleteCopyCommandTemporarySqlVertex(sqlgGraph, vertex, keyValueMap));
+    }
+
+    default Writer streamEdge(SqlgGraph sqlgGraph, SqlgEdge sqlgEdge, SqlgVertex outVertex, SqlgVertex inVertex, Map<String, Object> keyValueMap) {
+        return streamSql(sqlgGraph, constructCompleteCopyCommandSqlEdge(sqlgGraph, sqlgEdge, outVertex, inVertex, keyValueMap));
+    }
+
+    /**
+     * Writes a vertex to the {@link Writer} of {@link #streamVertex(SqlgGraph, SqlgVertex, Map)} or
+     * {@link #streamTemporaryVertex(SqlgGraph, SqlgVertex, Map)}. In {@link BatchManager.BatchModeType#STREAMING_WITH_LOCK}
+     * mode the vertex's id is already set.
+     */
+    default void writeStreamingVertex(Writer writer, SqlgVertex vertex, Map<String, Object> keyValueMap) {
+        writeStreamingVertex(writer, keyValueMap);
+    }
+
+    /**
+     * Binary copy writes the batch in the database's native binary format, i.e. without formatting and escaping the values as text.
+     *
+     * @param propertyType the type of a column that is part of the copy.
+     * @return true if the column can be written in the binary format.
+     */
+    default boolean supportsBinaryCopy(PropertyType propertyType) {
+        return false;
+    }
+
+    default OutputStream streamBinaryCopyVertex(SqlgGraph sqlgGraph, SqlgVertex vertex, Map<String, Object> keyValueMap) {
+        throw SqlgExceptions.batchModeNotSupported(dialectName());
+    }
+
+    default OutputStream streamBinaryCopyEdge(SqlgGraph sqlgGraph, SqlgEdge sqlgEdge, SqlgVertex outVertex, SqlgVertex inVertex, Map<String, Object> keyValueMap) {
+        throw SqlgExceptions.batchModeNotSupported(dialectName());
+    }
+
+    default void writeStreamingVertex(OutputStream outputStream, Map<String, Object> keyValueMap) {
+        throw SqlgExceptions.batchModeNotSupported(dialectName());
+    }
+
+    default void writeStreamingEdge(OutputStream outputStream, SqlgEdge sqlgEdge, SqlgVertex outVertex, SqlgVertex inVertex, Map<String, Object> keyValueMap) {
+        throw SqlgExceptions.batchModeNotSupported(dialectName());
+    }
+
     default String temporaryTableCopyCommandSqlVertex(SqlgGraph sqlgGraph, SchemaTable schemaTable, Set<String> keys) {
         throw new UnsupportedOperationException(ERROR_MESSAGE + dialectName());
     }
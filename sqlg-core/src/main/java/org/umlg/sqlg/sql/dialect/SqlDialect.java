@@ -13,6 +13,8 @@ import org.umlg.sqlg.sql.parse.SchemaTableTree;
 import org.umlg.sqlg.strategy.SqlgSqlExecutor;
 import org.umlg.sqlg.structure.*;
 import org.umlg.sqlg.structure.topology.EdgeLabel;
+import org.umlg.sqlg.structure.topology.GlobalUniqueIndex;
+import org.umlg.sqlg.structure.topology.PropertyColumn;
 import org.umlg.sqlg.structure.topology.Schema;
 import org.umlg.sqlg.structure.topology.Topology;
 import org.umlg.sqlg.structure.topology.VertexLabel;
@@ -85,6 +87,14 @@ public interface SqlDialect {
         return true;
     }
 
+    /**
+     * @return true if transactions can change different schemas and labels of the topology at the same time.
+     * Else every topology change locks the whole topology until the transaction ends.
+     */
+    default boolean supportsConcurrentTopologyChanges() {
+        return false;
+    }
+
     default boolean supportsBooleanArrayValues() {
         return true;
     }
@@ -408,6 +418,38 @@ public interface SqlDialect {
         return false;
     }
 
+    /**
+     * Streaming with lock batch mode allocates the ids up front, this needs {@link #lockTable(SqlgGraph, SchemaTable, String)}.
+     *
+     * @return true if the table can be locked while the ids are allocated.
+     */
+    default boolean supportsStreamingWithLockBatchMode() {
+        return supportsStreamingBatchMode();
+    }
+
+    /**
+     * The normal batch mode inserts new vertices and edges with a jdbc batch of single row inserts.
+     * Some jdbc drivers, i.e. MySql's, send every statement of a batch in a separate round trip. Such dialects can
+     * insert many rows per 'INSERT ... VALUES (...), (...)' statement instead, which requires the driver to return
+     * the generated keys of all the rows.
+     *
+     * @param parameterCount the number of parameters of a row.
+     * @return the maximum number of rows per insert statement, 1 to insert the rows with a jdbc batch.
+     */
+    default int batchInsertRowCount(int parameterCount) {
+        return 1;
+    }
+
+    /**
+     * The multi row inserts of {@link #batchInsertRowCount(int)} are also cut by their estimated size,
+     * i.e. MySql rejects statements larger than its max_allowed_packet.
+     *
+     * @return the maximum size in bytes of a multi row insert statement.
+     */
+    default long batchInsertMaxBytes(SqlgGraph sqlgGraph) {
+        return Long.MAX_VALUE;
+    }
+
     default boolean supportsJsonType() {
         return false;
     }
@@ -506,6 +548,14 @@ public interface SqlDialect {
 
     void lockTable(SqlgGraph sqlgGraph, SchemaTable schemaTable, String prefix);
 
+    /**
+     * Sets the value of the property in the GlobalUniqueIndex for every element, in one batch.
+     * An element that did not have the property yet has no row in the GlobalUniqueIndex, its row is inserted.
+     *
+     * @param values the new value of the property per element.
+     */
+    void upsertGlobalUniqueIndexValues(SqlgGraph sqlgGraph, GlobalUniqueIndex globalUniqueIndex, PropertyColumn propertyColumn, Map<RecordId, Object> values);
+
     void alterSequenceCacheSize(SqlgGraph sqlgGraph, SchemaTable schemaTable, String sequence, int batchSize);
 
     long nextSequenceVal(SqlgGraph sqlgGraph, SchemaTable schemaTable, String prefix);
@@ -688,6 +738,99 @@ public interface SqlDialect {
         return true;
     }
 
+    /**
+     * Indicates if the parent ids and indexes of a vertex step can be bound as two bigint array parameters and joined
+     * via <code>UNNEST(?::BIGINT[], ?::BIGINT[])</code> instead of being inlined in a 'VALUES' expression.
+     * This keeps the sql the same regardless of the number of parents.
+     *
+     * @return true if the parent ids and indexes are bound as array parameters.
+     */
+    default boolean supportsParentIdsAsArrayParameters() {
+        return false;
+    }
+
+    /**
+     * Indicates if the rdbms supports recursive common table expressions.
+     * If so repeat().until()/emit() over a self referencing edge label is executed in one recursive query instead of
+     * one query per iteration.
+     *
+     * @return true if recursive common table expressions are supported.
+     */
+    default boolean supportsRecursiveQueries() {
+        return false;
+    }
+
+    /**
+     * Sql Server does not use the 'RECURSIVE' keyword.
+     *
+     * @return The sql that starts a recursive common table expression.
+     */
+    default String withRecursive() {
+        return "WITH RECURSIVE";
+    }
+
+    /**
+     * Sql Server limits the recursion to 100 levels by default.
+     *
+     * @return A hint appended to a recursive query, or an empty string.
+     */
+    default String recursiveQueryHint() {
+        return "";
+    }
+
+    /**
+     * Hsqldb evaluates the recursive part of a 'UNION ALL' recursive query on all the rows so far and never terminates.
+     * If not supported the rows are made distinct with the path of edge ids and joined with 'UNION'.
+     *
+     * @return true if the recursive part of a recursive query can be joined with 'UNION ALL'.
+     */
+    default boolean supportsRecursiveUnionAll() {
+        return true;
+    }
+
+    /**
+     * Indicates if a within/without list larger than 'bulk.within.count' can be bound as one array parameter.
+     * The sql then stays the same regardless of the size of the list.
+     *
+     * @return true if {@link #bulkWithinOutArrayParameter(boolean, PropertyType)} is supported.
+     */
+    default boolean supportsBulkWithinOutArrayParameter() {
+        return false;
+    }
+
+    /**
+     * @param within       true for P.within, false for P.without.
+     * @param propertyType The type of the values in the array.
+     * @return The sql that follows the column to compare it to the values of the array parameter.
+     */
+    default String bulkWithinOutArrayParameter(boolean within, PropertyType propertyType) {
+        throw new UnsupportedOperationException("Array parameters for within/without are not supported on " + dialectName());
+    }
+
+    /**
+     * Indicates if a within/without list larger than 'bulk.within.temporary.table.count' can be loaded into a
+     * temporary table that is joined on.
+     *
+     * @return true if {@link #loadBulkWithinOutTemporaryTable(SqlgGraph, String, String, PropertyType, Object[], boolean)} is supported.
+     */
+    default boolean supportsBulkWithinOutTemporaryTable() {
+        return false;
+    }
+
+    /**
+     * Loads the values of a within/without list into the temporary table the query joins on.
+     * The table is reused by later queries in the same transaction, its previous values are removed.
+     *
+     * @param table        The name of the temporary table.
+     * @param column       The table's only column.
+     * @param propertyType The type of the column.
+     * @param values       The distinct values of the list.
+     * @param create       true if the table has not been used yet in this transaction.
+     */
+    default void loadBulkWithinOutTemporaryTable(SqlgGraph sqlgGraph, String table, String column, PropertyType propertyType, Object[] values, boolean create) {
+        throw new UnsupportedOperationException("Temporary tables for within/without are not supported on " + dialectName());
+    }
+
     /**
      * This is needed for Cockroachdb where the index needs to be specified as a part of the 'CREATE TABLE' statement.
      *
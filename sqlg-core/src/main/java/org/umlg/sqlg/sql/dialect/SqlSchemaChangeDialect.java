@@ -1,10 +1,12 @@
 package org.umlg.sqlg.sql.dialect;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import org.umlg.sqlg.structure.RecordId;
 import org.umlg.sqlg.structure.SqlgExceptions;
 import org.umlg.sqlg.structure.SqlgGraph;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 
 /**
  * Date: 2016/09/03
@@ -16,6 +18,25 @@ public interface SqlSchemaChangeDialect extends SqlDialect {
         throw SqlgExceptions.multipleJvmNotSupported(dialectName());
     }
 
+    /**
+     * Takes the topology lock for the given key only, until the end of the transaction, waiting for it if need be.
+     * The key is the empty string for the whole topology, a schema name or a qualified table name.
+     *
+     * @param exclusive true to lock the key exclusively, false to lock it in shared mode.
+     */
+    default void lock(SqlgGraph sqlgGraph, String key, boolean exclusive) {
+        throw SqlgExceptions.multipleJvmNotSupported(dialectName());
+    }
+
+    /**
+     * As {@link #lock(SqlgGraph, String, boolean)} but does not wait.
+     *
+     * @return false if another transaction holds the key.
+     */
+    default boolean tryLock(SqlgGraph sqlgGraph, String key, boolean exclusive) {
+        throw SqlgExceptions.multipleJvmNotSupported(dialectName());
+    }
+
     default void registerListener(SqlgGraph sqlgGraph) {
         throw SqlgExceptions.multipleJvmNotSupported(dialectName());
     }
@@ -24,8 +45,25 @@ public interface SqlSchemaChangeDialect extends SqlDialect {
         throw SqlgExceptions.multipleJvmNotSupported(dialectName());
     }
 
+    /**
+     * @return the state of the listener registered by {@link #registerListener(SqlgGraph)} as json, whether it is
+     * connected, how often it reconnected and when it last heard from the database.
+     */
+    default String getListenerStatsAsJson() {
+        throw SqlgExceptions.multipleJvmNotSupported(dialectName());
+    }
+
     default int notifyChange(SqlgGraph sqlgGraph, LocalDateTime timestamp, JsonNode jsonNode) {
         throw SqlgExceptions.multipleJvmNotSupported(dialectName());
     }
 
+    /**
+     * Publishes, as part of the current transaction, the vertices to invalidate in the other graphs' vertex caches.
+     *
+     * @param recordIds the vertices to invalidate, null to invalidate all vertices.
+     */
+    default void notifyVertexCacheInvalidation(SqlgGraph sqlgGraph, Collection<RecordId> recordIds) {
+        throw SqlgExceptions.multipleJvmNotSupported(dialectName());
+    }
+
 }
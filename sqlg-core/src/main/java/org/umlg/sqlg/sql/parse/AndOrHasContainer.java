@@ -103,7 +103,7 @@ public class AndOrHasContainer {
                         if (pts!=null && !pts.containsKey(k)){
                         	// verify if we have a value
                         	Multimap<String, Object> keyValueMap=LinkedListMultimap.create();
-                        	whereClause.putKeyValueMap(h, keyValueMap);
+                        	whereClause.putKeyValueMap(sqlgGraph, h, keyValueMap);
                         	// we do
                         	if (keyValueMap.size()>0){
                         		bool="? is null";
@@ -160,13 +160,13 @@ public class AndOrHasContainer {
         }
     }
 
-    public void setParameterOnStatement(Multimap<String, Object> keyValueMap) {
+    public void setParameterOnStatement(SqlgGraph sqlgGraph, Multimap<String, Object> keyValueMap) {
         for (HasContainer hasContainer : this.hasContainers) {
             WhereClause whereClause = WhereClause.from(hasContainer.getPredicate());
-            whereClause.putKeyValueMap(hasContainer, keyValueMap);
+            whereClause.putKeyValueMap(sqlgGraph, hasContainer, keyValueMap);
         }
         for (AndOrHasContainer andOrHasContainer : this.andOrHasContainers) {
-            andOrHasContainer.setParameterOnStatement(keyValueMap);
+            andOrHasContainer.setParameterOnStatement(sqlgGraph, keyValueMap);
         }
     }
 }
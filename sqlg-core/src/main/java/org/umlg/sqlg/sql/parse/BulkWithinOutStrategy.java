@@ -0,0 +1,29 @@
+package org.umlg.sqlg.sql.parse;
+
+/**
+ * How the values of a P.within or P.without are passed to the rdbms.
+ * Chosen per has container by {@link org.umlg.sqlg.util.SqlgUtil#bulkWithinOutStrategy(org.umlg.sqlg.structure.SqlgGraph, org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer)}
+ * from the size of the list and what the dialect supports.
+ * <p>
+ * Date: 2026/10/17
+ */
+public enum BulkWithinOutStrategy {
+
+    /**
+     * An 'IN' list with a parameter per value, for lists up to 'bulk.within.count' values.
+     */
+    IN,
+    /**
+     * One array parameter, the sql does not grow with the list.
+     */
+    ARRAY,
+    /**
+     * The values are inlined in a 'VALUES' expression that is joined on.
+     */
+    VALUES,
+    /**
+     * The values are loaded into a temporary table that is joined on, for lists larger than 'bulk.within.temporary.table.count'.
+     * The table is reused for the rest of the transaction.
+     */
+    TEMPORARY_TABLE
+}
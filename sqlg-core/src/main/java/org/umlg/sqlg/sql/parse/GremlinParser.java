@@ -37,6 +37,7 @@ public class GremlinParser<S extends SqlgElement, E extends SqlgElement> {
                 toRemove.add(rootSchemaTableTree);
             }
             rootSchemaTableTree.removeAllButDeepestAndAddCacheLeafNodes(replacedStepTree.getDepth());
+            rootSchemaTableTree.setRestrictedProperties(replacedStepTree.getRestrictedProperties());
         }
         rootSchemaTableTrees.removeAll(toRemove);
         return rootSchemaTableTrees;
@@ -74,6 +75,7 @@ public class GremlinParser<S extends SqlgElement, E extends SqlgElement> {
         }
         rootSchemaTableTree.removeNodesInvalidatedByHas();
         rootSchemaTableTree.removeAllButDeepestAndAddCacheLeafNodes(replacedSteps.size() - 1);
+        rootSchemaTableTree.setRestrictedProperties(replacedSteps.get(replacedSteps.size() - 1).getRestrictedProperties());
         rootSchemaTableTree.setLocalStep(true);
         return rootSchemaTableTree;
     }
@@ -0,0 +1,487 @@
+package org.umlg.sqlg.sql.parse;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.LinkedListMultimap;
+import com.google.common.collect.Multimap;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.Contains;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.lambda.LoopTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.lambda.TrueTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.branch.RepeatStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.IsStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.PathFilterStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.LoopsStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.util.EmptyTraversal;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.umlg.sqlg.predicate.PropertyReference;
+import org.umlg.sqlg.sql.dialect.SqlDialect;
+import org.umlg.sqlg.structure.PropertyType;
+import org.umlg.sqlg.structure.SchemaTable;
+import org.umlg.sqlg.structure.SqlgGraph;
+import org.umlg.sqlg.structure.SqlgVertex;
+import org.umlg.sqlg.structure.topology.EdgeLabel;
+import org.umlg.sqlg.structure.topology.Topology;
+import org.umlg.sqlg.structure.topology.VertexLabel;
+import org.umlg.sqlg.util.SqlgUtil;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.umlg.sqlg.structure.topology.Topology.EDGE_PREFIX;
+import static org.umlg.sqlg.structure.topology.Topology.VERTEX_PREFIX;
+
+/**
+ * A repeat().until()/emit() whose repeat traversal is a single out(label) or in(label), optionally followed by
+ * simplePath(), compiled into a recursive common table expression.
+ * All the iterations of the repeat for a batch of start vertices are then executed in one query.
+ * <p>
+ * The until and emit traversals may only be has steps with simple predicates or, for until, loops().is(predicate) or times(n).
+ * The recursive query is only possible if the edge label only connects the start vertex label with itself,
+ * i.e. an org chart's reportsTo edge between employees. {@link #toSql(SqlgGraph, SchemaTable, Collection)}
+ * returns empty for any other topology and the repeat is then executed in memory.
+ * <p>
+ * The query returns a row per walk with the start vertex's id, the reached vertex's id, the depth,
+ * whether the until and emit traversals hold on the reached vertex, followed by the reached vertex's columns.
+ * <p>
+ * Date: 2026/10/17
+ */
+public class RecursiveRepeat {
+
+    private static final String ALIAS = "sqlg_recursive";
+    private static final String START = "start";
+    private static final String ID = "ID";
+    private static final String DEPTH = "depth";
+    private static final String UNTIL = "until";
+    private static final String EMIT = "emit";
+    private static final String PATH = "path";
+    private static final String EDGES = "edges";
+
+    /**
+     * The index of the first column of the reached vertex in the result set.
+     */
+    public static final int FIRST_VERTEX_COLUMN = 6;
+
+    private final Direction direction;
+    private final String edgeLabel;
+    private final boolean simplePath;
+    private final boolean hasUntil;
+    private final boolean untilFirst;
+    private final List<HasContainer> untilHasContainers;
+    private final P<?> untilLoops;
+    private final boolean hasEmit;
+    private final boolean emitFirst;
+    private final List<HasContainer> emitHasContainers;
+
+    private RecursiveRepeat(
+            Direction direction,
+            String edgeLabel,
+            boolean simplePath,
+            boolean hasUntil,
+            boolean untilFirst,
+            List<HasContainer> untilHasContainers,
+            P<?> untilLoops,
+            boolean hasEmit,
+            boolean emitFirst,
+            List<HasContainer> emitHasContainers) {
+
+        this.direction = direction;
+        this.edgeLabel = edgeLabel;
+        this.simplePath = simplePath;
+        this.hasUntil = hasUntil;
+        this.untilFirst = untilFirst;
+        this.untilHasContainers = untilHasContainers;
+        this.untilLoops = untilLoops;
+        this.hasEmit = hasEmit;
+        this.emitFirst = emitFirst;
+        this.emitHasContainers = emitHasContainers;
+    }
+
+    /**
+     * Must be called before the strategies are applied to the repeat step's children.
+     *
+     * @return the recursive repeat or empty if the repeat step can not be executed as a recursive query.
+     */
+    public static Optional<RecursiveRepeat> from(SqlgGraph sqlgGraph, RepeatStep<?> repeatStep) {
+        Traversal.Admin<?, ?> repeatTraversal = repeatStep.getRepeatTraversal();
+        List<Step> steps = repeatTraversal.getSteps();
+        if (steps.size() < 2 || steps.size() > 3 || !(steps.get(steps.size() - 1) instanceof RepeatStep.RepeatEndStep)) {
+            return Optional.empty();
+        }
+        if (steps.stream().anyMatch(s -> !s.getLabels().isEmpty())) {
+            return Optional.empty();
+        }
+        if (!(steps.get(0) instanceof VertexStep)) {
+            return Optional.empty();
+        }
+        VertexStep<?> vertexStep = (VertexStep<?>) steps.get(0);
+        if (!vertexStep.returnsVertex() || vertexStep.getDirection() == Direction.BOTH || vertexStep.getEdgeLabels().length != 1) {
+            return Optional.empty();
+        }
+        boolean simplePath = false;
+        if (steps.size() == 3) {
+            if (!isSimplePath(steps.get(1))) {
+                return Optional.empty();
+            }
+            simplePath = true;
+        }
+
+        Traversal.Admin<?, ?> untilTraversal = repeatStep.getUntilTraversal();
+        List<HasContainer> untilHasContainers = Collections.emptyList();
+        P<?> untilLoops = null;
+        if (untilTraversal instanceof LoopTraversal) {
+            untilLoops = P.gte(((LoopTraversal) untilTraversal).getMaxLoops());
+        } else if (untilTraversal != null) {
+            untilLoops = loopsPredicate(untilTraversal);
+            if (untilLoops == null) {
+                Optional<List<HasContainer>> hasContainers = hasContainers(sqlgGraph, untilTraversal);
+                if (!hasContainers.isPresent()) {
+                    return Optional.empty();
+                }
+                untilHasContainers = hasContainers.get();
+            }
+        }
+
+        Traversal.Admin<?, ?> emitTraversal = repeatStep.getEmitTraversal();
+        List<HasContainer> emitHasContainers = Collections.emptyList();
+        if (emitTraversal != null && !(emitTraversal instanceof TrueTraversal)) {
+            Optional<List<HasContainer>> hasContainers = hasContainers(sqlgGraph, emitTraversal);
+            if (!hasContainers.isPresent()) {
+                return Optional.empty();
+            }
+            emitHasContainers = hasContainers.get();
+        }
+        if (untilTraversal == null && emitTraversal == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new RecursiveRepeat(
+                vertexStep.getDirection(),
+                vertexStep.getEdgeLabels()[0],
+                simplePath,
+                untilTraversal != null,
+                repeatStep.untilFirst,
+                untilHasContainers,
+                untilLoops,
+                emitTraversal != null,
+                repeatStep.emitFirst,
+                emitHasContainers
+        ));
+    }
+
+    /**
+     * PathFilterStep does not expose if it is simple or cyclic nor its from and to labels.
+     */
+    private static boolean isSimplePath(Step<?, ?> step) {
+        return step instanceof PathFilterStep &&
+                step.toString().equals(new PathFilterStep<>(EmptyTraversal.instance(), true).toString());
+    }
+
+    private static P<?> loopsPredicate(Traversal.Admin<?, ?> untilTraversal) {
+        List<Step> steps = untilTraversal.getSteps();
+        if (steps.size() == 2 && steps.get(0) instanceof LoopsStep && steps.get(1) instanceof IsStep) {
+            P<?> p = ((IsStep<?>) steps.get(1)).getPredicate();
+            if (p.getBiPredicate() instanceof Compare && p.getValue() instanceof Number) {
+                return p;
+            }
+        }
+        return null;
+    }
+
+    private static Optional<List<HasContainer>> hasContainers(SqlgGraph sqlgGraph, Traversal.Admin<?, ?> traversal) {
+        List<HasContainer> result = new ArrayList<>();
+        for (Step<?, ?> step : traversal.getSteps()) {
+            if (!(step instanceof HasStep) || !step.getLabels().isEmpty()) {
+                return Optional.empty();
+            }
+            for (HasContainer hasContainer : ((HasStep<?>) step).getHasContainers()) {
+                if (hasContainer.getKey().equals(T.id.getAccessor()) || hasContainer.getKey().equals(T.label.getAccessor())) {
+                    return Optional.empty();
+                }
+                P<?> p = hasContainer.getPredicate();
+                boolean compare = p.getBiPredicate() instanceof Compare && p.getValue() != null && !(p.getValue() instanceof PropertyReference);
+                boolean contains = p.getBiPredicate() instanceof Contains &&
+                        !(sqlgGraph.getSqlDialect().supportsBulkWithinOut() && SqlgUtil.isBulkWithinAndOut(sqlgGraph, hasContainer));
+                if (!compare && !contains) {
+                    return Optional.empty();
+                }
+                result.add(hasContainer);
+            }
+        }
+        return result.isEmpty() ? Optional.empty() : Optional.of(result);
+    }
+
+    public boolean isSimplePath() {
+        return this.simplePath;
+    }
+
+    /**
+     * @return true if the until traversal holds for the row, i.e. the walk ends and the vertex is returned.
+     */
+    public boolean isUntil(int depth, boolean until) {
+        return this.hasUntil && until && (this.untilFirst || depth > 0);
+    }
+
+    /**
+     * @return true if the vertex of the row is emitted.
+     */
+    public boolean isEmit(int depth, boolean until, boolean emit) {
+        if (!this.hasEmit || !emit) {
+            return false;
+        }
+        if (this.emitFirst) {
+            return !isUntil(depth, until);
+        } else {
+            //the until is checked after the emit if it is first.
+            return depth > 0 && (this.untilFirst || !isUntil(depth, until));
+        }
+    }
+
+    /**
+     * @param vertexSchemaTable the start vertices' schema and label, without the vertex prefix.
+     * @param ids               the start vertices' ids.
+     * @return the recursive sql or empty if the edge label does not only connect the vertex label with itself.
+     */
+    public Optional<String> toSql(SqlgGraph sqlgGraph, SchemaTable vertexSchemaTable, Collection<Long> ids) {
+        Preconditions.checkArgument(!ids.isEmpty(), "There must be at least one start vertex.");
+        Optional<VertexLabel> vertexLabelOptional = sqlgGraph.getTopology().getVertexLabel(vertexSchemaTable.getSchema(), vertexSchemaTable.getTable());
+        if (!vertexLabelOptional.isPresent()) {
+            return Optional.empty();
+        }
+        VertexLabel vertexLabel = vertexLabelOptional.get();
+        Map<String, EdgeLabel> edgeLabels = this.direction == Direction.OUT ? vertexLabel.getOutEdgeLabels() : vertexLabel.getInEdgeLabels();
+        List<EdgeLabel> candidates = edgeLabels.values().stream()
+                .filter(e -> e.getLabel().equals(this.edgeLabel))
+                .collect(Collectors.toList());
+        if (candidates.size() != 1) {
+            return Optional.empty();
+        }
+        EdgeLabel edge = candidates.get(0);
+        Set<VertexLabel> otherVertexLabels = this.direction == Direction.OUT ? edge.getInVertexLabels() : edge.getOutVertexLabels();
+        if (!otherVertexLabels.equals(Collections.singleton(vertexLabel))) {
+            return Optional.empty();
+        }
+
+        SqlDialect sqlDialect = sqlgGraph.getSqlDialect();
+        SchemaTable vertexTable = SchemaTable.of(vertexSchemaTable.getSchema(), VERTEX_PREFIX + vertexSchemaTable.getTable());
+        Map<String, PropertyType> columns = sqlgGraph.getTopology().getTableFor(vertexTable);
+        String vertex = sqlDialect.maybeWrapInQoutes(vertexTable.getSchema()) + "." + sqlDialect.maybeWrapInQoutes(vertexTable.getTable());
+        String edgeTable = sqlDialect.maybeWrapInQoutes(edge.getSchema().getName()) + "." + sqlDialect.maybeWrapInQoutes(EDGE_PREFIX + edge.getLabel());
+        String foreignKey = vertexSchemaTable.getSchema() + "." + vertexSchemaTable.getTable();
+        String fromColumn = edgeTable + "." + sqlDialect.maybeWrapInQoutes(foreignKey + (this.direction == Direction.OUT ? Topology.OUT_VERTEX_COLUMN_END : Topology.IN_VERTEX_COLUMN_END));
+        String toColumn = edgeTable + "." + sqlDialect.maybeWrapInQoutes(foreignKey + (this.direction == Direction.OUT ? Topology.IN_VERTEX_COLUMN_END : Topology.OUT_VERTEX_COLUMN_END));
+        String alias = sqlDialect.maybeWrapInQoutes(ALIAS);
+        String vertexId = vertex + "." + sqlDialect.maybeWrapInQoutes(ID);
+        String pathType = sqlDialect.propertyTypeToSqlDefinition(PropertyType.STRING)[0];
+        String vertexIdAsString = "CAST(" + vertexId + " AS " + pathType + ")";
+        String edgeIdAsString = "CAST(" + edgeTable + "." + sqlDialect.maybeWrapInQoutes(ID) + " AS " + pathType + ")";
+        //without 'UNION ALL' the edge ids keep the rows of different walks to the same vertex apart
+        boolean unionAll = sqlDialect.supportsRecursiveUnionAll();
+
+        StringBuilder sql = new StringBuilder(sqlDialect.withRecursive());
+        sql.append(" ");
+        sql.append(alias);
+        sql.append("(");
+        sql.append(sqlDialect.maybeWrapInQoutes(START)).append(", ");
+        sql.append(sqlDialect.maybeWrapInQoutes(ID)).append(", ");
+        sql.append(sqlDialect.maybeWrapInQoutes(DEPTH)).append(", ");
+        sql.append(sqlDialect.maybeWrapInQoutes(UNTIL)).append(", ");
+        sql.append(sqlDialect.maybeWrapInQoutes(EMIT));
+        if (this.simplePath) {
+            sql.append(", ").append(sqlDialect.maybeWrapInQoutes(PATH));
+        }
+        if (!unionAll) {
+            sql.append(", ").append(sqlDialect.maybeWrapInQoutes(EDGES));
+        }
+        sql.append(") AS (\n\tSELECT\n\t\t");
+        sql.append(vertexId).append(",\n\t\t");
+        sql.append(vertexId).append(",\n\t\t");
+        sql.append("0,\n\t\t");
+        sql.append(condition(sqlgGraph, vertexTable, columns, this.untilHasContainers, this.untilLoops, "0")).append(",\n\t\t");
+        sql.append(condition(sqlgGraph, vertexTable, columns, this.emitHasContainers, null, "0"));
+        if (this.simplePath) {
+            sql.append(",\n\t\tCAST(CONCAT(',', ").append(vertexIdAsString).append(", ',') AS ").append(pathType).append(")");
+        }
+        if (!unionAll) {
+            sql.append(",\n\t\tCAST(',' AS ").append(pathType).append(")");
+        }
+        sql.append("\n\tFROM\n\t\t");
+        sql.append(vertex);
+        sql.append("\n\tWHERE\n\t\t");
+        sql.append(vertexId);
+        sql.append(" IN (");
+        sql.append(ids.stream().map(Object::toString).collect(Collectors.joining(",")));
+        sql.append(")\n\t").append(unionAll ? "UNION ALL" : "UNION").append("\n\tSELECT\n\t\t");
+        String depth = alias + "." + sqlDialect.maybeWrapInQoutes(DEPTH);
+        String until = alias + "." + sqlDialect.maybeWrapInQoutes(UNTIL);
+        String path = alias + "." + sqlDialect.maybeWrapInQoutes(PATH);
+        String edges = alias + "." + sqlDialect.maybeWrapInQoutes(EDGES);
+        sql.append(alias).append(".").append(sqlDialect.maybeWrapInQoutes(START)).append(",\n\t\t");
+        sql.append(vertexId).append(",\n\t\t");
+        sql.append(depth).append(" + 1,\n\t\t");
+        sql.append(condition(sqlgGraph, vertexTable, columns, this.untilHasContainers, this.untilLoops, depth + " + 1")).append(",\n\t\t");
+        sql.append(condition(sqlgGraph, vertexTable, columns, this.emitHasContainers, null, depth + " + 1"));
+        if (this.simplePath) {
+            sql.append(",\n\t\tCAST(CONCAT(").append(path).append(", ").append(vertexIdAsString).append(", ',') AS ").append(pathType).append(")");
+        }
+        if (!unionAll) {
+            sql.append(",\n\t\tCAST(CONCAT(").append(edges).append(", ").append(edgeIdAsString).append(", ',') AS ").append(pathType).append(")");
+        }
+        sql.append("\n\tFROM\n\t\t");
+        sql.append(alias);
+        sql.append(" INNER JOIN\n\t\t");
+        sql.append(edgeTable).append(" ON ").append(fromColumn).append(" = ").append(alias).append(".").append(sqlDialect.maybeWrapInQoutes(ID));
+        sql.append(" INNER JOIN\n\t\t");
+        sql.append(vertex).append(" ON ").append(vertexId).append(" = ").append(toColumn);
+        List<String> where = new ArrayList<>();
+        if (this.hasUntil) {
+            if (this.untilFirst) {
+                where.add(until + " = 0");
+            } else {
+                where.add("(" + depth + " = 0 OR " + until + " = 0)");
+            }
+        }
+        if (this.simplePath) {
+            where.add(path + " NOT LIKE CONCAT('%,', " + vertexIdAsString + ", ',%')");
+        }
+        if (!where.isEmpty()) {
+            sql.append("\n\tWHERE\n\t\t");
+            sql.append(String.join(" AND\n\t\t", where));
+        }
+        sql.append("\n)\nSELECT\n\t");
+        sql.append(alias).append(".").append(sqlDialect.maybeWrapInQoutes(START)).append(",\n\t");
+        sql.append(alias).append(".").append(sqlDialect.maybeWrapInQoutes(ID)).append(",\n\t");
+        sql.append(depth).append(",\n\t");
+        sql.append(until).append(",\n\t");
+        sql.append(alias).append(".").append(sqlDialect.maybeWrapInQoutes(EMIT)).append(",\n\t");
+        sql.append(vertex).append(".*");
+        sql.append("\nFROM\n\t");
+        sql.append(alias);
+        sql.append(" INNER JOIN\n\t");
+        sql.append(vertex).append(" ON ").append(vertexId).append(" = ").append(alias).append(".").append(sqlDialect.maybeWrapInQoutes(ID));
+        sql.append("\nORDER BY\n\t");
+        sql.append(depth);
+        sql.append(sqlDialect.recursiveQueryHint());
+        if (sqlDialect.needsSemicolon()) {
+            sql.append(";");
+        }
+        return Optional.of(sql.toString());
+    }
+
+    /**
+     * Sets the has containers' values in the order they appear in {@link #toSql(SqlgGraph, SchemaTable, Collection)}.
+     */
+    public void setParametersOnStatement(SqlgGraph sqlgGraph, SchemaTable vertexSchemaTable, PreparedStatement preparedStatement) throws SQLException {
+        SchemaTable vertexTable = SchemaTable.of(vertexSchemaTable.getSchema(), VERTEX_PREFIX + vertexSchemaTable.getTable());
+        Map<String, PropertyType> columns = sqlgGraph.getTopology().getTableFor(vertexTable);
+        Multimap<String, Object> keyValueMap = LinkedListMultimap.create();
+        //the anchor and the recursive part of the query have the same conditions
+        for (int i = 0; i < 2; i++) {
+            for (List<HasContainer> hasContainers : Arrays.asList(this.untilHasContainers, this.emitHasContainers)) {
+                for (HasContainer hasContainer : hasContainers) {
+                    if (columns.containsKey(hasContainer.getKey())) {
+                        WhereClause.from(hasContainer.getPredicate()).putKeyValueMap(sqlgGraph, hasContainer, keyValueMap);
+                    }
+                }
+            }
+        }
+        List<ImmutablePair<PropertyType, Object>> typeAndValues = SqlgUtil.transformToTypeAndValue(keyValueMap);
+        SqlgUtil.setKeyValuesAsParameter(sqlgGraph, false, 1, preparedStatement, typeAndValues);
+    }
+
+    /**
+     * A has container on a property the vertex label does not have never holds.
+     *
+     * @return 1 if the has containers and the loops predicate hold on the vertex, else 0.
+     */
+    private static String condition(SqlgGraph sqlgGraph, SchemaTable vertexTable, Map<String, PropertyType> columns, List<HasContainer> hasContainers, P<?> loops, String depth) {
+        if (hasContainers.isEmpty() && loops == null) {
+            return "1";
+        }
+        List<String> conditions = new ArrayList<>();
+        for (HasContainer hasContainer : hasContainers) {
+            if (columns.containsKey(hasContainer.getKey())) {
+                conditions.add(WhereClause.from(hasContainer.getPredicate()).toSql(sqlgGraph, vertexTable, hasContainer));
+            } else {
+                conditions.add("1 = 0");
+            }
+        }
+        if (loops != null) {
+            conditions.add(depth + compareToSql((Compare) loops.getBiPredicate()) + ((Number) loops.getValue()).longValue());
+        }
+        return "CASE WHEN " + String.join(" AND ", conditions) + " THEN 1 ELSE 0 END";
+    }
+
+    private static String compareToSql(Compare compare) {
+        switch (compare) {
+            case eq:
+                return " = ";
+            case neq:
+                return " <> ";
+            case gt:
+                return " > ";
+            case gte:
+                return " >= ";
+            case lt:
+                return " < ";
+            case lte:
+                return " <= ";
+            default:
+                throw new IllegalStateException("Unknown Compare " + compare.name());
+        }
+    }
+
+    /**
+     * A row of the recursive query.
+     */
+    public static class Row {
+
+        private final long startId;
+        private final int depth;
+        private final boolean until;
+        private final boolean emit;
+        private final SqlgVertex vertex;
+
+        public Row(long startId, int depth, boolean until, boolean emit, SqlgVertex vertex) {
+            this.startId = startId;
+            this.depth = depth;
+            this.until = until;
+            this.emit = emit;
+            this.vertex = vertex;
+        }
+
+        public long getStartId() {
+            return this.startId;
+        }
+
+        public int getDepth() {
+            return this.depth;
+        }
+
+        /**
+         * @return true if the until traversal's has containers and loops predicate hold on the vertex.
+         */
+        public boolean isUntil() {
+            return this.until;
+        }
+
+        /**
+         * @return true if the emit traversal's has containers hold on the vertex.
+         */
+        public boolean isEmit() {
+            return this.emit;
+        }
+
+        public SqlgVertex getVertex() {
+            return this.vertex;
+        }
+    }
+}
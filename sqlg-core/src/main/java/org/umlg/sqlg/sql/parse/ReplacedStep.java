@@ -62,6 +62,8 @@ public class ReplacedStep<S, E> {
     private boolean fake;
     private boolean joinToLeftJoin;
     private boolean drop;
+    //the properties the traversal reads from the elements this step returns, null if all properties are needed.
+    private Set<String> restrictedProperties;
 
     private ReplacedStep() {
     }
@@ -630,6 +632,14 @@ public class ReplacedStep<S, E> {
         return drop;
     }
 
+    public Set<String> getRestrictedProperties() {
+        return this.restrictedProperties;
+    }
+
+    public void setRestrictedProperties(Set<String> restrictedProperties) {
+        this.restrictedProperties = restrictedProperties;
+    }
+
     public boolean isJoinToLeftJoin() {
         return joinToLeftJoin;
     }
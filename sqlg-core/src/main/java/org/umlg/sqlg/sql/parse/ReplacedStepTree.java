@@ -110,6 +110,11 @@ public class ReplacedStepTree {
         return replacedStep.hasRange();
     }
 
+    public Set<String> getRestrictedProperties() {
+        List<ReplacedStep<?, ?>> replacedSteps = linearPathToLeafNode();
+        return replacedSteps.get(replacedSteps.size() - 1).getRestrictedProperties();
+    }
+
     public boolean hasOrderBy() {
         for (ReplacedStep<?, ?> replacedStep : linearPathToLeafNode()) {
             if (replacedStep.getSqlgComparatorHolder().hasComparators()) {
@@ -12,9 +12,11 @@ import org.apache.tinkerpop.gremlin.process.traversal.step.map.SelectOneStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.ElementValueComparator;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.util.ConnectiveP;
 import org.apache.tinkerpop.gremlin.structure.*;
 import org.umlg.sqlg.predicate.Existence;
 import org.umlg.sqlg.predicate.FullText;
+import org.umlg.sqlg.predicate.PropertyReference;
 import org.umlg.sqlg.strategy.*;
 import org.umlg.sqlg.structure.PropertyType;
 import org.umlg.sqlg.structure.*;
@@ -28,6 +30,7 @@ import java.security.SecureRandom;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.*;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -76,12 +79,21 @@ public class SchemaTableTree {
 
     //Only root SchemaTableTrees have these maps;
     private AliasMapHolder aliasMapHolder;
+    //Only set on the root SchemaTableTree while constructing the sql of an aggregate query.
+    private AGGREGATE aggregate;
+    private String aggregatePropertyKey;
+    private String aggregateGroupByPropertyKey;
+    private String aggregateGroupByColumn;
 
     //This counter is used for the within predicate when aliasing the temporary table
     private int tmpTableAliasCounter = 1;
+    //Only used on the root, the temporary tables the constructed sql joins on and the has containers whose values they hold.
+    private List<Pair<String, HasContainer>> bulkWithinOutTemporaryTables = new ArrayList<>();
 
     //This represents all tables filtered by TopologyStrategy
     private Map<String, Map<String, PropertyType>> filteredAllTables;
+    //Only set on the root, the properties of the leaf elements that are selected. null means all of them.
+    private Set<String> restrictedProperties;
 
     private int replacedStepDepth;
 
@@ -112,6 +124,24 @@ public class SchemaTableTree {
         EDGE_VERTEX_STEP
     }
 
+    /**
+     * The aggregates that are executed on the database, see {@link #constructAggregateSql(LinkedList, AGGREGATE, String, String)}.
+     * The mean is calculated from the sum and the count.
+     */
+    public enum AGGREGATE {
+        COUNT("COUNT"),
+        SUM("SUM"),
+        MIN("MIN"),
+        MAX("MAX"),
+        MEAN("SUM");
+
+        private final String sqlFunction;
+
+        AGGREGATE(String sqlFunction) {
+            this.sqlFunction = sqlFunction;
+        }
+    }
+
     SchemaTableTree(SqlgGraph sqlgGraph, SchemaTable schemaTable, int stepDepth, int replacedStepDepth) {
         this.sqlgGraph = sqlgGraph;
         this.schemaTable = schemaTable;
@@ -334,6 +364,120 @@ public class SchemaTableTree {
         this.optionalLeftJoin = optionalLeftJoin;
     }
 
+    AliasMapHolder getAliasMapHolder() {
+        return this.aliasMapHolder;
+    }
+
+    /**
+     * Calculates the {@link SqlTemplateCache} key for the sql of the query stack.
+     * The sql must only depend on the structure of the stack, the has container values must all be bound as parameters.
+     *
+     * @return the key or empty if the sql can not be cached.
+     */
+    Optional<String> sqlTemplateKey(String kind, LinkedList<SchemaTableTree> distinctQueryStack, Set<SchemaTableTree> leftJoinOn) {
+        SchemaTableTree first = distinctQueryStack.getFirst();
+        //the parents are only bound as parameters if the dialect supports arrays, else they are in the sql
+        if (first.stepType != STEP_TYPE.GRAPH_STEP &&
+                (!this.sqlgGraph.getSqlDialect().supportsParentIdsAsArrayParameters() || first.parentIdsAndIndexes.size() == 1)) {
+            return Optional.empty();
+        }
+        StringBuilder sb = new StringBuilder();
+        for (SchemaTableTree schemaTableTree : distinctQueryStack) {
+            if (!schemaTableTree.appendSqlTemplateKey(sb)) {
+                return Optional.empty();
+            }
+        }
+        if (!leftJoinOn.isEmpty()) {
+            List<String> leftJoinKeys = new ArrayList<>();
+            for (SchemaTableTree schemaTableTree : leftJoinOn) {
+                StringBuilder leftJoinKey = new StringBuilder();
+                if (!schemaTableTree.appendSqlTemplateKey(leftJoinKey)) {
+                    return Optional.empty();
+                }
+                leftJoinKeys.add(leftJoinKey.toString());
+            }
+            Collections.sort(leftJoinKeys);
+            sb.append("leftJoin");
+            leftJoinKeys.forEach(sb::append);
+        }
+        return Optional.of(sb.toString());
+    }
+
+    private boolean appendSqlTemplateKey(StringBuilder sb) {
+        if (!this.andOrHasContainers.isEmpty() ||
+                !this.dbComparators.isEmpty() ||
+                this.localStep ||
+                this.fakeEmit ||
+                this.drop ||
+                Topology.SQLG_SCHEMA.equals(this.schemaTable.getSchema()) ||
+                (this.sqlgGraph.getSqlDialect().supportsBulkWithinOut() && hasBulkWithinOrOut(this.sqlgGraph))) {
+            return false;
+        }
+        sb.append(this.schemaTable).append(':')
+                .append(this.stepDepth).append(':')
+                .append(this.replacedStepDepth).append(':')
+                .append(this.stepType).append(':')
+                .append(this.direction).append(':')
+                .append(new TreeSet<>(this.labels)).append(':')
+                .append(this.emit).append(':')
+                .append(this.untilFirst).append(':')
+                .append(this.optionalLeftJoin);
+        if (isPropertiesRestricted()) {
+            sb.append(":select").append(new TreeSet<>(getRoot().restrictedProperties));
+        }
+        if (this.sqlgRangeHolder != null) {
+            sb.append(":range").append(this.sqlgRangeHolder.getRange())
+                    .append(':').append(this.sqlgRangeHolder.hasSkip() ? this.sqlgRangeHolder.getSkip() : -1)
+                    .append(':').append(this.sqlgRangeHolder.isApplyOnDb());
+        }
+        for (HasContainer hasContainer : this.hasContainers) {
+            sb.append(":has").append(hasContainer.getKey()).append(' ');
+            //an array parameter's sql does not depend on the number of values, only on their type
+            if (SqlgUtil.bulkWithinOutStrategy(this.sqlgGraph, hasContainer) == BulkWithinOutStrategy.ARRAY) {
+                sb.append(hasContainer.getBiPredicate()).append(' ')
+                        .append(BulkWithinOutStrategy.ARRAY)
+                        .append(SqlgUtil.bulkWithinOutPropertyType(hasContainer));
+                continue;
+            }
+            if (!appendSqlTemplateKey(sb, hasContainer.getPredicate())) {
+                return false;
+            }
+        }
+        sb.append(';');
+        return true;
+    }
+
+    private static boolean appendSqlTemplateKey(StringBuilder sb, P<?> p) {
+        if (p instanceof ConnectiveP) {
+            sb.append(p.getClass().getSimpleName()).append('(');
+            for (P<?> predicate : ((ConnectiveP<?>) p).getPredicates()) {
+                if (!appendSqlTemplateKey(sb, predicate)) {
+                    return false;
+                }
+            }
+            sb.append(')');
+            return true;
+        }
+        if (p.getBiPredicate() instanceof FullText) {
+            return false;
+        }
+        sb.append(p.getBiPredicate()).append(' ');
+        Object value = p.getValue();
+        if (value instanceof Collection) {
+            Collection<?> values = (Collection<?>) value;
+            sb.append('#').append(values.size());
+            if (!values.isEmpty()) {
+                Object firstValue = values.iterator().next();
+                sb.append(firstValue != null ? firstValue.getClass().getName() : "null");
+            }
+        } else if (value instanceof PropertyReference) {
+            sb.append("ref").append(((PropertyReference) value).getColumnName());
+        } else {
+            sb.append(value != null ? value.getClass().getName() : "null");
+        }
+        return true;
+    }
+
     public void resetColumnAliasMaps() {
         this.aliasMapHolder.clear();
         this.rootAliasCounter = 1;
@@ -357,6 +501,10 @@ public class SchemaTableTree {
 
     public String constructSql(LinkedList<SchemaTableTree> distinctQueryStack) {
         Preconditions.checkState(this.parent == null, CONSTRUCT_SQL_MAY_ONLY_BE_CALLED_ON_THE_ROOT_OBJECT);
+        return this.sqlgGraph.getSqlTemplateCache().sql(this, "REGULAR", distinctQueryStack, Collections.emptySet(), () -> internalConstructSql(distinctQueryStack));
+    }
+
+    private String internalConstructSql(LinkedList<SchemaTableTree> distinctQueryStack) {
         //If the same element occurs multiple times in the stack then the sql needs to be different.
         //This is because the same element can not be joined on more than once in sql
         //The way to overcome this is to break up the path in select sections with no duplicates and then join them together.
@@ -452,6 +600,10 @@ public class SchemaTableTree {
 
     public String constructSqlForOptional(LinkedList<SchemaTableTree> innerJoinStack, Set<SchemaTableTree> leftJoinOn) {
         Preconditions.checkState(this.parent == null, CONSTRUCT_SQL_MAY_ONLY_BE_CALLED_ON_THE_ROOT_OBJECT);
+        return this.sqlgGraph.getSqlTemplateCache().sql(this, "OPTIONAL", innerJoinStack, leftJoinOn, () -> internalConstructSqlForOptional(innerJoinStack, leftJoinOn));
+    }
+
+    private String internalConstructSqlForOptional(LinkedList<SchemaTableTree> innerJoinStack, Set<SchemaTableTree> leftJoinOn) {
         if (duplicatesInStack(innerJoinStack)) {
             List<LinkedList<SchemaTableTree>> subQueryStacks = splitIntoSubStacks(innerJoinStack);
             return constructDuplicatePathSql(this.sqlgGraph, subQueryStacks, leftJoinOn);
@@ -463,6 +615,10 @@ public class SchemaTableTree {
 
     public String constructSqlForEmit(LinkedList<SchemaTableTree> innerJoinStack) {
         Preconditions.checkState(this.parent == null, CONSTRUCT_SQL_MAY_ONLY_BE_CALLED_ON_THE_ROOT_OBJECT);
+        return this.sqlgGraph.getSqlTemplateCache().sql(this, "EMIT", innerJoinStack, Collections.emptySet(), () -> internalConstructSqlForEmit(innerJoinStack));
+    }
+
+    private String internalConstructSqlForEmit(LinkedList<SchemaTableTree> innerJoinStack) {
         if (duplicatesInStack(innerJoinStack)) {
             List<LinkedList<SchemaTableTree>> subQueryStacks = splitIntoSubStacks(innerJoinStack);
             return constructDuplicatePathSql(this.sqlgGraph, subQueryStacks);
@@ -472,6 +628,118 @@ public class SchemaTableTree {
         }
     }
 
+    /**
+     * Constructs the regular sql of the distinct query with the aggregate as the only select, the database returns one row.
+     * The first column is the aggregate, for anything but {@link AGGREGATE#COUNT} the second column is the number of
+     * values that were aggregated.
+     * <p>
+     * If grouped the database returns a row per value of the group by property with the value as the first column,
+     * followed by the aggregate columns.
+     *
+     * @param propertyKey        the property of the leaf element to aggregate, if null the leaf elements are counted.
+     * @param groupByPropertyKey the property of the leaf element to group by, may be null.
+     * @return the sql or empty if the leaf element does not have the property or the group by property.
+     */
+    public Optional<String> constructAggregateSql(LinkedList<SchemaTableTree> distinctQueryStack, AGGREGATE aggregate, String propertyKey, String groupByPropertyKey) {
+        Preconditions.checkState(this.parent == null, CONSTRUCT_SQL_MAY_ONLY_BE_CALLED_ON_THE_ROOT_OBJECT);
+        Preconditions.checkArgument(propertyKey != null || aggregate == AGGREGATE.COUNT, "Only COUNT can aggregate the elements themselves.");
+        SchemaTableTree lastSchemaTableTree = distinctQueryStack.getLast();
+        if ((propertyKey != null && lastSchemaTableTree.getPropertyType(propertyKey) == null) ||
+                (groupByPropertyKey != null && lastSchemaTableTree.getPropertyType(groupByPropertyKey) == null)) {
+            return Optional.empty();
+        }
+        this.aggregate = aggregate;
+        this.aggregatePropertyKey = propertyKey;
+        this.aggregateGroupByPropertyKey = groupByPropertyKey;
+        try {
+            return Optional.of(this.sqlgGraph.getSqlTemplateCache().sql(
+                    this,
+                    "AGGREGATE_" + aggregate.name() + ":" + propertyKey + ":" + groupByPropertyKey,
+                    distinctQueryStack,
+                    Collections.emptySet(),
+                    () -> {
+                        String sql = internalConstructSql(distinctQueryStack);
+                        if (groupByPropertyKey != null) {
+                            sql += "\nGROUP BY\n\t" + this.aggregateGroupByColumn;
+                        }
+                        return sql;
+                    }
+            ));
+        } finally {
+            this.aggregate = null;
+            this.aggregatePropertyKey = null;
+            this.aggregateGroupByPropertyKey = null;
+            this.aggregateGroupByColumn = null;
+        }
+    }
+
+    /**
+     * @param column maps a property of the leaf element to its column in the select.
+     */
+    private String aggregateSelect(Function<String, String> column) {
+        String aggregateSelect = "";
+        if (this.aggregateGroupByPropertyKey != null) {
+            this.aggregateGroupByColumn = column.apply(this.aggregateGroupByPropertyKey);
+            aggregateSelect += this.aggregateGroupByColumn + ", ";
+        }
+        if (this.aggregatePropertyKey == null) {
+            return aggregateSelect + this.aggregate.sqlFunction + "(*)";
+        }
+        String propertyColumn = column.apply(this.aggregatePropertyKey);
+        aggregateSelect += this.aggregate.sqlFunction + "(" + propertyColumn + ")";
+        if (this.aggregate != AGGREGATE.COUNT) {
+            aggregateSelect += ", COUNT(" + propertyColumn + ")";
+        }
+        return aggregateSelect;
+    }
+
+    /**
+     * Restricts the properties selected for the leaf elements to the given properties.
+     * The leaf elements are loaded partially and load the rest of their properties when they are accessed.
+     *
+     * @param restrictedProperties the properties the traversal reads from the leaf elements, null for all properties.
+     */
+    void setRestrictedProperties(Set<String> restrictedProperties) {
+        Preconditions.checkState(this.parent == null, "setRestrictedProperties may only be called on the root object");
+        this.restrictedProperties = restrictedProperties;
+    }
+
+    /**
+     * @return true if only some of this element's properties are selected.
+     * Only unlabeled leaf elements are restricted, labeled elements can be selected by later steps.
+     */
+    public boolean isPropertiesRestricted() {
+        return getRoot().restrictedProperties != null &&
+                this.stepDepth == this.replacedStepDepth &&
+                getRealLabels().stream().allMatch(BaseStrategy.SQLG_PATH_FAKE_LABEL::equals);
+    }
+
+    /**
+     * @return the properties of this element's table that are selected.
+     */
+    private Map<String, PropertyType> getSelectedProperties() {
+        Map<String, PropertyType> propertyTypeMap = getFilteredAllTables().get(getSchemaTable().toString());
+        if (!isPropertiesRestricted()) {
+            return propertyTypeMap;
+        }
+        Map<String, PropertyType> selectedProperties = new HashMap<>();
+        for (String restrictedProperty : getRoot().restrictedProperties) {
+            PropertyType propertyType = propertyTypeMap.get(restrictedProperty);
+            if (propertyType != null) {
+                selectedProperties.put(restrictedProperty, propertyType);
+            }
+        }
+        return selectedProperties;
+    }
+
+    /**
+     * @return the type of the property on this element's table or null if the table does not have the property.
+     */
+    public PropertyType getPropertyType(String propertyKey) {
+        Map<String, PropertyType> propertyTypeMap = getFilteredAllTables().get(getSchemaTable().toString());
+        return propertyTypeMap == null ? null : propertyTypeMap.get(propertyKey);
+    }
+
     public List<LinkedList<SchemaTableTree>> constructDistinctQueries() {
         Preconditions.checkState(this.parent == null, "constructDistinctQueries may only be called on the root object");
         List<LinkedList<SchemaTableTree>> result = new ArrayList<>();
@@ -573,7 +841,16 @@ public class SchemaTableTree {
             lastOfPrevious = subQueryLinkedList.getLast();
         }
         singlePathSql += constructOuterOrderByClause(sqlgGraph, subQueryLinkedLists);
-        String result = "SELECT\n\t" + constructOuterFromClause(subQueryLinkedLists);
+        String result;
+        if (this.aggregate != null) {
+            //the leaf's properties are selected by the last sub query
+            SchemaTableTree lastSchemaTableTree = lastOfPrevious;
+            result = "SELECT\n\t" + aggregateSelect(key -> "a" + subQueryLinkedLists.size() + "." + sqlgGraph.getSqlDialect().maybeWrapInQoutes(
+                    lastSchemaTableTree.mappedAliasPropertyName(key, getColumnNameAliasMap())
+            ));
+        } else {
+            result = "SELECT\n\t" + constructOuterFromClause(subQueryLinkedLists);
+        }
         return result + singlePathSql;
     }
 
@@ -666,7 +943,7 @@ public class SchemaTableTree {
 
     private String printOuterFromClause(int count, Map<String, String> columnNameAliasMapCopy, SchemaTableTree previousSchemaTableTree) {
         String sql = "";
-        Map<String, PropertyType> propertyTypeMap = this.getFilteredAllTables().get(this.toString());
+        Map<String, PropertyType> propertyTypeMap = this.getSelectedProperties();
         Optional<String> optional = this.lastMappedAliasIdForOuterFrom(columnNameAliasMapCopy);
         if (optional.isPresent()) {
             sql = "a" + count + "." + this.sqlgGraph.getSqlDialect().maybeWrapInQoutes(optional.get());
@@ -831,7 +1108,16 @@ public class SchemaTableTree {
             singlePathSql.append(",\n\t");
         }
 
-        singlePathSql.append(constructFromClause(sqlgGraph, distinctQueryStack, lastOfPrevious, firstOfNextStack, dropStep));
+        String fromClause = constructFromClause(sqlgGraph, distinctQueryStack, lastOfPrevious, firstOfNextStack, dropStep);
+        if (this.aggregate != null && !partOfDuplicateQuery) {
+            SchemaTableTree lastSchemaTableTree = distinctQueryStack.getLast();
+            singlePathSql.append(aggregateSelect(key -> sqlgGraph.getSqlDialect().maybeWrapInQoutes(lastSchemaTableTree.getSchemaTable().getSchema()) + "." +
+                    sqlgGraph.getSqlDialect().maybeWrapInQoutes(lastSchemaTableTree.getSchemaTable().getTable()) + "." +
+                    sqlgGraph.getSqlDialect().maybeWrapInQoutes(key)
+            ));
+        } else {
+            singlePathSql.append(fromClause);
+        }
         singlePathSql.append("\nFROM\n\t");
         singlePathSql.append(sqlgGraph.getSqlDialect().maybeWrapInQoutes(firstSchemaTableTree.getSchemaTable().getSchema()));
         singlePathSql.append(".");
@@ -871,7 +1157,21 @@ public class SchemaTableTree {
 
         //lastOfPrevious is null for the first call in the call stack it needs the id parameter in the where clause.
         if (lastOfPrevious == null && distinctQueryStack.getFirst().stepType != STEP_TYPE.GRAPH_STEP) {
-            if (this.parentIdsAndIndexes.size() != 1 && sqlgGraph.getSqlDialect().supportsValuesExpression()) {
+            if (this.parentIdsAndIndexes.size() != 1 && !dropStep && sqlgGraph.getSqlDialect().supportsParentIdsAsArrayParameters()) {
+                //The ids and indexes are bound as parameters in SqlgUtil.setParentIdsAndIndexesOnStatement
+                singlePathSql.append(" INNER JOIN\n\tUNNEST(?::BIGINT[], ?::BIGINT[]) AS tmp (");
+                singlePathSql.append(sqlgGraph.getSqlDialect().maybeWrapInQoutes("tmpId"));
+                singlePathSql.append(", ");
+                singlePathSql.append(sqlgGraph.getSqlDialect().maybeWrapInQoutes("index"));
+                singlePathSql.append(") ON ");
+                singlePathSql.append(sqlgGraph.getSqlDialect().maybeWrapInQoutes(firstSchemaTable.getSchema()));
+                singlePathSql.append(".");
+                singlePathSql.append(sqlgGraph.getSqlDialect().maybeWrapInQoutes(firstSchemaTable.getTable()));
+                singlePathSql.append(".");
+                singlePathSql.append(sqlgGraph.getSqlDialect().maybeWrapInQoutes(Topology.ID));
+                singlePathSql.append(" = tmp.");
+                singlePathSql.append(sqlgGraph.getSqlDialect().maybeWrapInQoutes("tmpId"));
+            } else if (this.parentIdsAndIndexes.size() != 1 && sqlgGraph.getSqlDialect().supportsValuesExpression()) {
                 singlePathSql.append(" INNER JOIN\n\t(VALUES");
                 int count = 1;
                 for (Pair<Long, Long> parentIdAndIndex : this.parentIdsAndIndexes) {
@@ -1010,30 +1310,38 @@ public class SchemaTableTree {
                 //left join and in the where clause add a IS NULL, to find the values not in the right hand table
                 sb.append(" LEFT JOIN\n\t");
             }
-            sb.append("(VALUES ");
-            boolean first = true;
-            for (Object withInOutValue : withInOuts) {
-                if (!first) {
-                    sb.append(", ");
-                }
-                first = false;
-                if (withInOutValue instanceof RecordId) {
-                    withInOutValue = ((RecordId) withInOutValue).getId();
+            if (SqlgUtil.bulkWithinOutStrategy(sqlgGraph, hasContainer) == BulkWithinOutStrategy.TEMPORARY_TABLE) {
+                String table = this.rootSchemaTableTree().addBulkWithinOutTemporaryTable(hasContainer);
+                sb.append(sqlgGraph.getSqlDialect().maybeWrapInQoutes(table));
+                sb.append(" as tmp");
+                sb.append(this.rootSchemaTableTree().tmpTableAliasCounter);
+                sb.append(" ");
+            } else {
+                sb.append("(VALUES ");
+                boolean first = true;
+                for (Object withInOutValue : withInOuts) {
+                    if (!first) {
+                        sb.append(", ");
+                    }
+                    first = false;
+                    if (withInOutValue instanceof RecordId) {
+                        withInOutValue = ((RecordId) withInOutValue).getId();
+                    }
+                    sb.append("(");
+                    PropertyType propertyType = PropertyType.from(withInOutValue);
+                    sb.append(sqlgGraph.getSqlDialect().valueToValuesString(propertyType, withInOutValue));
+                    sb.append(")");
                 }
+                sb.append(") as tmp");
+                sb.append(this.rootSchemaTableTree().tmpTableAliasCounter);
                 sb.append("(");
-                PropertyType propertyType = PropertyType.from(withInOutValue);
-                sb.append(sqlgGraph.getSqlDialect().valueToValuesString(propertyType, withInOutValue));
-                sb.append(")");
-            }
-            sb.append(") as tmp");
-            sb.append(this.rootSchemaTableTree().tmpTableAliasCounter);
-            sb.append("(");
-            if (hasContainer.getBiPredicate() == Contains.within) {
-                sb.append(WITHIN);
-            } else {
-                sb.append(WITHOUT);
+                if (hasContainer.getBiPredicate() == Contains.within) {
+                    sb.append(WITHIN);
+                } else {
+                    sb.append(WITHOUT);
+                }
+                sb.append(") ");
             }
-            sb.append(") ");
             sb.append(" on ");
             sb.append(sqlgGraph.getSqlDialect().maybeWrapInQoutes(this.getSchemaTable().getSchema()));
             sb.append(".");
@@ -1058,6 +1366,42 @@ public class SchemaTableTree {
         return sb.toString();
     }
 
+    /**
+     * The temporary tables are named by their type and position in the sql, so that the next query reuses them.
+     *
+     * @return the name of the temporary table that holds the values of the has container.
+     */
+    private String addBulkWithinOutTemporaryTable(HasContainer hasContainer) {
+        String prefix = Topology.BULK_TEMP_WITHIN_OUT + "_" +
+                (hasContainer.getBiPredicate() == Contains.within ? WITHIN : WITHOUT) + "_" +
+                SqlgUtil.bulkWithinOutPropertyType(hasContainer).name() + "_";
+        long position = this.bulkWithinOutTemporaryTables.stream().filter(t -> t.getLeft().startsWith(prefix)).count();
+        String table = prefix + position;
+        this.bulkWithinOutTemporaryTables.add(Pair.of(table, hasContainer));
+        return table;
+    }
+
+    /**
+     * Loads the values of the P.within and P.without that the constructed sql joins on as a temporary table.
+     * Must be called on the root after constructing the sql and before executing it.
+     */
+    public void loadBulkWithinOutTemporaryTables() {
+        Preconditions.checkState(this.parent == null, "loadBulkWithinOutTemporaryTables must be called on the root SchemaTableTree");
+        for (Pair<String, HasContainer> tableAndHasContainer : this.bulkWithinOutTemporaryTables) {
+            String table = tableAndHasContainer.getLeft();
+            HasContainer hasContainer = tableAndHasContainer.getRight();
+            this.sqlgGraph.getSqlDialect().loadBulkWithinOutTemporaryTable(
+                    this.sqlgGraph,
+                    table,
+                    hasContainer.getBiPredicate() == Contains.within ? WITHIN : WITHOUT,
+                    SqlgUtil.bulkWithinOutPropertyType(hasContainer),
+                    SqlgUtil.bulkWithinOutValues(hasContainer),
+                    this.sqlgGraph.tx().addBulkWithinOutTemporaryTable(table)
+            );
+        }
+        this.bulkWithinOutTemporaryTables.clear();
+    }
+
     private String toOptionalLeftJoinWhereClause(SqlgGraph sqlgGraph, MutableBoolean printedWhere) {
         final StringBuilder result = new StringBuilder();
         if (!printedWhere.booleanValue()) {
@@ -1517,7 +1861,7 @@ public class SchemaTableTree {
 
     private String printLabeledOuterFromClause(String sql, int counter, Map<String, String> columnNameAliasMapCopy) {
         sql += " a" + counter + "." + this.sqlgGraph.getSqlDialect().maybeWrapInQoutes(this.labeledMappedAliasIdForOuterFromClause(columnNameAliasMapCopy));
-        Map<String, PropertyType> propertyTypeMap = this.getFilteredAllTables().get(this.getSchemaTable().toString());
+        Map<String, PropertyType> propertyTypeMap = this.getSelectedProperties();
         if (!propertyTypeMap.isEmpty()) {
             sql += ", ";
         }
@@ -1577,7 +1921,7 @@ public class SchemaTableTree {
     }
 
     private static void printFromClauseFor(SchemaTableTree lastSchemaTableTree, ColumnList cols) {
-        Map<String, PropertyType> propertyTypeMap = lastSchemaTableTree.getFilteredAllTables().get(lastSchemaTableTree.getSchemaTable().toString());
+        Map<String, PropertyType> propertyTypeMap = lastSchemaTableTree.getSelectedProperties();
         for (Map.Entry<String, PropertyType> propertyTypeMapEntry : propertyTypeMap.entrySet()) {
             String alias = lastSchemaTableTree.calculateAliasPropertyName(propertyTypeMapEntry.getKey());
             cols.add(lastSchemaTableTree, propertyTypeMapEntry.getKey(), alias);
@@ -1589,7 +1933,7 @@ public class SchemaTableTree {
     }
 
     private String printLabeledOuterFromClauseFor(String sql, int counter, Map<String, String> columnNameAliasMapCopy) {
-        Map<String, PropertyType> propertyTypeMap = this.getFilteredAllTables().get(this.getSchemaTable().toString());
+        Map<String, PropertyType> propertyTypeMap = this.getSelectedProperties();
         int count = 1;
         for (Map.Entry<String, PropertyType> property : propertyTypeMap.entrySet()) {
             sql += " a" + counter + ".";
@@ -1619,7 +1963,7 @@ public class SchemaTableTree {
     }
 
     private static void printLabeledFromClauseFor(SchemaTableTree lastSchemaTableTree, ColumnList cols) {
-        Map<String, PropertyType> propertyTypeMap = lastSchemaTableTree.getFilteredAllTables().get(lastSchemaTableTree.getSchemaTable().toString());
+        Map<String, PropertyType> propertyTypeMap = lastSchemaTableTree.getSelectedProperties();
         for (Map.Entry<String, PropertyType> propertyTypeMapEntry : propertyTypeMap.entrySet()) {
             String col = propertyTypeMapEntry.getKey();
             String alias = cols.getAlias(lastSchemaTableTree, col);
@@ -2331,6 +2675,7 @@ public class SchemaTableTree {
     }
 
     public void loadProperty(ResultSet resultSet, SqlgElement sqlgElement) throws SQLException {
+        sqlgElement.loadingProperties(!isPropertiesRestricted());
         for (int ix = 1; ix <= resultSet.getMetaData().getColumnCount(); ix++) {
             String columnName = resultSet.getMetaData().getColumnLabel(ix);//entry.getKey();
             Pair<String, PropertyType> p = getColumnNamePropertyName().get(columnName);
@@ -0,0 +1,210 @@
+package org.umlg.sqlg.sql.parse;
+
+import com.google.common.base.Preconditions;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.umlg.sqlg.sql.dialect.SqlDialect;
+import org.umlg.sqlg.strategy.SqlgSqlExecutor;
+import org.umlg.sqlg.structure.PropertyType;
+import org.umlg.sqlg.structure.RecordId;
+import org.umlg.sqlg.structure.SchemaTable;
+import org.umlg.sqlg.structure.SqlgGraph;
+import org.umlg.sqlg.structure.topology.EdgeLabel;
+import org.umlg.sqlg.structure.topology.VertexLabel;
+import org.umlg.sqlg.util.SqlgUtil;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.umlg.sqlg.structure.topology.Topology.*;
+
+/**
+ * Finds a shortest path between two vertices with a bidirectional breadth first search.
+ * <p>
+ * Each level of the search is one query per edge table with the ids of the frontier's vertices,
+ * only the ids of the edges' vertices are selected. The ids are bound as one array parameter if the dialect supports it,
+ * else as an 'IN' list of parameters, so the statements are reused across levels. The vertices already visited from either side are kept in memory
+ * and are not expanded again, this keeps the frontiers linear to the size of the graph instead of exponential to the
+ * number of paths as with repeat(both().simplePath()).until(hasId(to)).
+ * The side with the smallest frontier is expanded first, the search stops at the first level the frontiers meet.
+ * <p>
+ * Date: 2026/10/17
+ */
+public class ShortestPath {
+
+    private final RecordId from;
+    private final RecordId to;
+    private final Direction direction;
+    private final int maxHops;
+    private final Set<String> edgeLabels;
+
+    /**
+     * @param direction  the direction of the edges from the from vertex towards the to vertex.
+     * @param maxHops    the maximum number of edges on the path.
+     * @param edgeLabels the edge labels to traverse, all edge labels if empty.
+     */
+    public ShortestPath(RecordId from, RecordId to, Direction direction, int maxHops, Set<String> edgeLabels) {
+        Preconditions.checkArgument(maxHops >= 0, "maxHops must be greater or equal to 0, found %s", maxHops);
+        this.from = from;
+        this.to = to;
+        this.direction = direction;
+        this.maxHops = maxHops;
+        this.edgeLabels = edgeLabels;
+    }
+
+    /**
+     * @return the ids of the vertices on a shortest path starting with from and ending with to,
+     * or empty if to is not reachable from from in at most maxHops.
+     */
+    public Optional<List<RecordId>> execute(SqlgGraph sqlgGraph) {
+        if (this.from.equals(this.to)) {
+            return Optional.of(Collections.singletonList(this.from));
+        }
+        //the visited vertices with the vertex they were reached from, the from and to vertex have no parent.
+        Map<RecordId, RecordId> forwardParents = new HashMap<>();
+        Map<RecordId, RecordId> backwardParents = new HashMap<>();
+        forwardParents.put(this.from, null);
+        backwardParents.put(this.to, null);
+        List<RecordId> forwardFrontier = Collections.singletonList(this.from);
+        List<RecordId> backwardFrontier = Collections.singletonList(this.to);
+        int hops = 0;
+        while (hops < this.maxHops && !forwardFrontier.isEmpty() && !backwardFrontier.isEmpty()) {
+            boolean forward = forwardFrontier.size() <= backwardFrontier.size();
+            List<RecordId> frontier = forward ? forwardFrontier : backwardFrontier;
+            Map<RecordId, RecordId> parents = forward ? forwardParents : backwardParents;
+            Map<RecordId, RecordId> otherParents = forward ? backwardParents : forwardParents;
+            List<RecordId> next = new ArrayList<>();
+            List<RecordId> meetings = new ArrayList<>();
+            for (Pair<RecordId, RecordId> adjacent : adjacent(sqlgGraph, frontier, forward ? this.direction : this.direction.opposite())) {
+                RecordId reached = adjacent.getRight();
+                if (!parents.containsKey(reached)) {
+                    parents.put(reached, adjacent.getLeft());
+                    next.add(reached);
+                    if (otherParents.containsKey(reached)) {
+                        meetings.add(reached);
+                    }
+                }
+            }
+            hops++;
+            if (!meetings.isEmpty()) {
+                //all the meetings are as far from this side, the other side's visited vertices are at different levels.
+                RecordId meeting = Collections.min(meetings, Comparator.comparingInt(m -> chain(otherParents, m).size()));
+                List<RecordId> path = chain(forwardParents, meeting);
+                Collections.reverse(path);
+                List<RecordId> toPath = chain(backwardParents, meeting);
+                path.addAll(toPath.subList(1, toPath.size()));
+                return Optional.of(path);
+            }
+            if (forward) {
+                forwardFrontier = next;
+            } else {
+                backwardFrontier = next;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @return the vertex followed by its parents up to the vertex the search started from.
+     */
+    private static List<RecordId> chain(Map<RecordId, RecordId> parents, RecordId recordId) {
+        List<RecordId> chain = new ArrayList<>();
+        for (RecordId current = recordId; current != null; current = parents.get(current)) {
+            chain.add(current);
+        }
+        return chain;
+    }
+
+    /**
+     * @return the frontier's vertices with the vertices adjacent to them in the direction.
+     */
+    private List<Pair<RecordId, RecordId>> adjacent(SqlgGraph sqlgGraph, List<RecordId> frontier, Direction direction) {
+        List<Pair<RecordId, RecordId>> result = new ArrayList<>();
+        Map<SchemaTable, List<Long>> idsPerSchemaTable = new LinkedHashMap<>();
+        for (RecordId recordId : frontier) {
+            idsPerSchemaTable.computeIfAbsent(recordId.getSchemaTable(), k -> new ArrayList<>()).add(recordId.getId());
+        }
+        int batchSize = sqlgGraph.getSqlDialect().supportsBulkWithinOutArrayParameter() ? Integer.MAX_VALUE : sqlgGraph.getSqlDialect().sqlInParameterLimit();
+        for (Map.Entry<SchemaTable, List<Long>> schemaTableIds : idsPerSchemaTable.entrySet()) {
+            SchemaTable schemaTable = schemaTableIds.getKey();
+            Optional<VertexLabel> vertexLabel = sqlgGraph.getTopology().getVertexLabel(schemaTable.getSchema(), schemaTable.getTable());
+            if (!vertexLabel.isPresent()) {
+                continue;
+            }
+            List<Long> ids = schemaTableIds.getValue();
+            for (Direction edgeDirection : direction == Direction.BOTH ? Arrays.asList(Direction.OUT, Direction.IN) : Collections.singletonList(direction)) {
+                Map<String, EdgeLabel> edgeLabels = edgeDirection == Direction.OUT ? vertexLabel.get().getOutEdgeLabels() : vertexLabel.get().getInEdgeLabels();
+                for (EdgeLabel edgeLabel : edgeLabels.values()) {
+                    if (!this.edgeLabels.isEmpty() && !this.edgeLabels.contains(edgeLabel.getLabel())) {
+                        continue;
+                    }
+                    List<SchemaTable> otherSchemaTables = (edgeDirection == Direction.OUT ? edgeLabel.getInVertexLabels() : edgeLabel.getOutVertexLabels()).stream()
+                            .map(v -> SchemaTable.of(v.getSchema().getName(), v.getLabel()))
+                            .collect(Collectors.toList());
+                    for (int i = 0; i < ids.size(); i += batchSize) {
+                        List<Long> batch = ids.subList(i, Math.min(i + batchSize, ids.size()));
+                        String sql = adjacentSql(sqlgGraph, schemaTable, edgeLabel, edgeDirection, otherSchemaTables, batch.size());
+                        result.addAll(SqlgSqlExecutor.executeAdjacentQuery(sqlgGraph, sql, batch, schemaTable, otherSchemaTables));
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Selects the frontier vertex's id followed by the id of the vertex on the other side of the edge, one column per
+     * vertex label the other side of the edge label can be.
+     */
+    private static String adjacentSql(SqlgGraph sqlgGraph, SchemaTable schemaTable, EdgeLabel edgeLabel, Direction direction, List<SchemaTable> otherSchemaTables, int idCount) {
+        SqlDialect sqlDialect = sqlgGraph.getSqlDialect();
+        String fromColumnEnd = direction == Direction.OUT ? OUT_VERTEX_COLUMN_END : IN_VERTEX_COLUMN_END;
+        String toColumnEnd = direction == Direction.OUT ? IN_VERTEX_COLUMN_END : OUT_VERTEX_COLUMN_END;
+        String fromColumn = sqlDialect.maybeWrapInQoutes(schemaTable.getSchema() + "." + schemaTable.getTable() + fromColumnEnd);
+        StringBuilder sql = new StringBuilder("SELECT\n\t");
+        sql.append(fromColumn);
+        for (SchemaTable otherSchemaTable : otherSchemaTables) {
+            sql.append(",\n\t");
+            sql.append(sqlDialect.maybeWrapInQoutes(otherSchemaTable.getSchema() + "." + otherSchemaTable.getTable() + toColumnEnd));
+        }
+        sql.append("\nFROM\n\t");
+        sql.append(sqlDialect.maybeWrapInQoutes(edgeLabel.getSchema().getName()));
+        sql.append(".");
+        sql.append(sqlDialect.maybeWrapInQoutes(EDGE_PREFIX + edgeLabel.getLabel()));
+        sql.append("\nWHERE\n\t");
+        sql.append(fromColumn);
+        if (sqlDialect.supportsBulkWithinOutArrayParameter()) {
+            sql.append(sqlDialect.bulkWithinOutArrayParameter(true, PropertyType.LONG));
+        } else {
+            sql.append(" IN (");
+            sql.append(String.join(",", Collections.nCopies(idCount, "?")));
+            sql.append(")");
+        }
+        if (sqlDialect.needsSemicolon()) {
+            sql.append(";");
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Binds the frontier's ids on the statement of {@link #adjacentSql(SqlgGraph, SchemaTable, EdgeLabel, Direction, List, int)}.
+     */
+    public static void setParametersOnStatement(SqlgGraph sqlgGraph, PreparedStatement preparedStatement, List<Long> ids) throws SQLException {
+        if (sqlgGraph.getSqlDialect().supportsBulkWithinOutArrayParameter()) {
+            SqlgUtil.setKeyValuesAsParameterUsingPropertyColumn(sqlgGraph, true, 1, preparedStatement,
+                    Collections.singletonList(Pair.of(PropertyType.LONG_ARRAY, ids.toArray(new Long[0]))));
+        } else {
+            int parameterIndex = 1;
+            for (Long id : ids) {
+                preparedStatement.setLong(parameterIndex++, id);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return this.from + " " + this.direction + " " + this.to + " maxHops=" + this.maxHops + " " + this.edgeLabels;
+    }
+}
@@ -0,0 +1,83 @@
+package org.umlg.sqlg.sql.parse;
+
+import org.umlg.sqlg.structure.SqlgGraph;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Caches the sql constructed for a distinct query stack, together with the column alias maps needed to load the
+ * result set. The key is the structure of the query stack, i.e. the labels, steps, has container keys and predicates,
+ * and the topology's change version. Has container values are not part of the key as they are bound as parameters.
+ * <p>
+ * Query stacks whose sql depends on more than their structure are never cached, see
+ * {@link SchemaTableTree#sqlTemplateKey(String, LinkedList, Set)}.
+ * <p>
+ * Date: 2026/10/17
+ */
+public class SqlTemplateCache {
+
+    /**
+     * Configuration key, the maximum number of cached sql templates. 0 disables the cache.
+     */
+    public static final String SQL_TEMPLATE_CACHE_SIZE = "sql.template.cache.size";
+
+    private final SqlgGraph sqlgGraph;
+    private final int size;
+    private final Map<String, SqlTemplate> cache;
+
+    public SqlTemplateCache(SqlgGraph sqlgGraph) {
+        this.sqlgGraph = sqlgGraph;
+        this.size = sqlgGraph.configuration().getInt(SQL_TEMPLATE_CACHE_SIZE, 0);
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<String, SqlTemplate>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SqlTemplate> eldest) {
+                return size() > SqlTemplateCache.this.size;
+            }
+        });
+    }
+
+    String sql(SchemaTableTree rootSchemaTableTree, String kind, LinkedList<SchemaTableTree> distinctQueryStack, Set<SchemaTableTree> leftJoinOn, Supplier<String> sqlSupplier) {
+        if (this.size == 0) {
+            return sqlSupplier.get();
+        }
+        Optional<String> keyOptional = rootSchemaTableTree.sqlTemplateKey(kind, distinctQueryStack, leftJoinOn);
+        //uncommitted topology changes are only visible to the current thread
+        if (!keyOptional.isPresent() || this.sqlgGraph.getTopology().isSqlWriteLockHeldByCurrentThread()) {
+            return sqlSupplier.get();
+        }
+        String key = this.sqlgGraph.getTopology().getChangeVersion() + kind + keyOptional.get();
+        AliasMapHolder aliasMapHolder = rootSchemaTableTree.getAliasMapHolder();
+        SqlTemplate sqlTemplate = this.cache.get(key);
+        if (sqlTemplate != null) {
+            aliasMapHolder.clear();
+            aliasMapHolder.getColumnNameAliasMap().putAll(sqlTemplate.columnNameAliasMap);
+            aliasMapHolder.getAliasColumnNameMap().putAll(sqlTemplate.aliasColumnNameMap);
+            return sqlTemplate.sql;
+        }
+        String sql = sqlSupplier.get();
+        this.cache.put(key, new SqlTemplate(sql, aliasMapHolder.getColumnNameAliasMap(), aliasMapHolder.getAliasColumnNameMap()));
+        return sql;
+    }
+
+    public int size() {
+        return this.cache.size();
+    }
+
+    public void clear() {
+        this.cache.clear();
+    }
+
+    private static class SqlTemplate {
+
+        private final String sql;
+        private final Map<String, String> columnNameAliasMap;
+        private final Map<String, String> aliasColumnNameMap;
+
+        private SqlTemplate(String sql, Map<String, String> columnNameAliasMap, Map<String, String> aliasColumnNameMap) {
+            this.sql = sql;
+            this.columnNameAliasMap = new HashMap<>(columnNameAliasMap);
+            this.aliasColumnNameMap = new HashMap<>(aliasColumnNameMap);
+        }
+    }
+}
@@ -14,6 +14,7 @@ import org.umlg.sqlg.predicate.Existence;
 import org.umlg.sqlg.predicate.FullText;
 import org.umlg.sqlg.predicate.Text;
 import org.umlg.sqlg.sql.dialect.SqlDialect;
+import org.umlg.sqlg.structure.SchemaTable;
 import org.umlg.sqlg.structure.SqlgGraph;
 import org.umlg.sqlg.util.SqlgUtil;
 
@@ -37,11 +38,27 @@ public class WhereClause {
     }
 
     String toSql(SqlgGraph sqlgGraph, SchemaTableTree schemaTableTree, HasContainer hasContainer) {
+        return toSql(sqlgGraph, schemaTableTree.getSchemaTable(), schemaTableTree, hasContainer);
+    }
+
+    /**
+     * The where clause for a table that is not part of a {@link SchemaTableTree}.
+     * Bulk within/without is not supported as it joins a temporary table.
+     */
+    String toSql(SqlgGraph sqlgGraph, SchemaTable schemaTable, HasContainer hasContainer) {
+        Preconditions.checkState(
+                !sqlgGraph.getSqlDialect().supportsBulkWithinOut() || !SqlgUtil.isBulkWithinAndOut(sqlgGraph, hasContainer),
+                "Bulk within/without needs a SchemaTableTree."
+        );
+        return toSql(sqlgGraph, schemaTable, null, hasContainer);
+    }
+
+    private String toSql(SqlgGraph sqlgGraph, SchemaTable schemaTable, SchemaTableTree schemaTableTree, HasContainer hasContainer) {
         String result = "";
 
-        String prefix = sqlgGraph.getSqlDialect().maybeWrapInQoutes(schemaTableTree.getSchemaTable().getSchema());
+        String prefix = sqlgGraph.getSqlDialect().maybeWrapInQoutes(schemaTable.getSchema());
         prefix += ".";
-        prefix += sqlgGraph.getSqlDialect().maybeWrapInQoutes(schemaTableTree.getSchemaTable().getTable());
+        prefix += sqlgGraph.getSqlDialect().maybeWrapInQoutes(schemaTable.getTable());
 
         if (p.getValue() instanceof PropertyReference && p.getBiPredicate() instanceof Compare){
         	result += prefix + "." + sqlgGraph.getSqlDialect().maybeWrapInQoutes(hasContainer.getKey());
@@ -62,7 +79,11 @@ public class WhereClause {
             } else {
                 result += prefix + "." + sqlgGraph.getSqlDialect().maybeWrapInQoutes(hasContainer.getKey());
             }
-            result += containsToSql((Contains) p.getBiPredicate(), ((Collection<?>) p.getValue()).size());
+            if (SqlgUtil.bulkWithinOutStrategy(sqlgGraph, hasContainer) == BulkWithinOutStrategy.ARRAY) {
+                result += sqlgGraph.getSqlDialect().bulkWithinOutArrayParameter(p.getBiPredicate() == Contains.within, SqlgUtil.bulkWithinOutPropertyType(hasContainer));
+            } else {
+                result += containsToSql((Contains) p.getBiPredicate(), ((Collection<?>) p.getValue()).size());
+            }
             return result;
         } else if (sqlgGraph.getSqlDialect().supportsBulkWithinOut() && p.getBiPredicate() instanceof Contains) {
             result += " tmp" + (schemaTableTree.rootSchemaTableTree().getTmpTableAliasCounter() - 1);
@@ -235,7 +256,7 @@ public class WhereClause {
         return prefix + result;
     }
 
-    public void putKeyValueMap(HasContainer hasContainer, Multimap<String, Object> keyValueMap) {
+    public void putKeyValueMap(SqlgGraph sqlgGraph, HasContainer hasContainer, Multimap<String, Object> keyValueMap) {
         if (p instanceof OrP) {
             OrP<?> orP = (OrP<?>) p;
             Preconditions.checkState(orP.getPredicates().size() == 2, "Only handling OrP with 2 predicates!");
@@ -250,6 +271,13 @@ public class WhereClause {
             P<?> p2 = andP.getPredicates().get(1);
             keyValueMap.put(hasContainer.getKey(), p1.getValue());
             keyValueMap.put(hasContainer.getKey(), p2.getValue());
+        } else if ((p.getBiPredicate() == Contains.within || p.getBiPredicate() == Contains.without) &&
+                SqlgUtil.bulkWithinOutStrategy(sqlgGraph, hasContainer) == BulkWithinOutStrategy.ARRAY) {
+            if (hasContainer.getKey().equals(T.id.getAccessor())) {
+                keyValueMap.put("ID", SqlgUtil.bulkWithinOutValues(hasContainer));
+            } else {
+                keyValueMap.put(hasContainer.getKey(), SqlgUtil.bulkWithinOutValues(hasContainer));
+            }
         } else if (p.getBiPredicate() == Contains.within || p.getBiPredicate() == Contains.without) {
             Collection<?> values = (Collection<?>) hasContainer.getValue();
             for (Object value : values) {
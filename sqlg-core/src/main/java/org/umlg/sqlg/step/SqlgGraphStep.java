@@ -1,6 +1,8 @@
 package org.umlg.sqlg.step;
 
 import com.google.common.base.Preconditions;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.tuple.Triple;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
 import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
@@ -9,11 +11,14 @@ import org.apache.tinkerpop.gremlin.process.traversal.step.map.SackStep;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
 import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Property;
 import org.umlg.sqlg.sql.parse.ReplacedStep;
 import org.umlg.sqlg.sql.parse.ReplacedStepTree;
 import org.umlg.sqlg.sql.parse.SchemaTableTree;
 import org.umlg.sqlg.strategy.Emit;
 import org.umlg.sqlg.strategy.SqlgComparatorHolder;
+import org.umlg.sqlg.strategy.SqlgSqlExecutor;
+import org.umlg.sqlg.structure.PropertyType;
 import org.umlg.sqlg.structure.SqlgCompiledResultIterator;
 import org.umlg.sqlg.structure.SqlgElement;
 import org.umlg.sqlg.structure.SqlgGraph;
@@ -55,6 +60,15 @@ public class SqlgGraphStep<S, E extends SqlgElement> extends GraphStep implement
     private boolean requiresSack;
     private boolean requiresOneBulk;
 
+    /**
+     * Set by {@link org.umlg.sqlg.strategy.SqlgAggregateStrategy} when the reducing step that follows is executed on the db.
+     */
+    private SchemaTableTree.AGGREGATE aggregate;
+    private String aggregatePropertyKey;
+    private String aggregateGroupByPropertyKey;
+    private Iterator<Traverser.Admin<E>> aggregateTraversers;
+    private boolean aggregateInMemory = false;
+
     public SqlgGraphStep(final SqlgGraph sqlgGraph, final Traversal.Admin traversal, final Class<E> returnClass, final boolean isStart, final Object... ids) {
         super(traversal, returnClass, isStart, ids);
         this.sqlgGraph = sqlgGraph;
@@ -64,6 +78,13 @@ public class SqlgGraphStep<S, E extends SqlgElement> extends GraphStep implement
 
     @Override
     protected Traverser.Admin<E> processNextStart() {
+        if (this.aggregate != null) {
+            return processNextAggregate();
+        }
+        return processNextElement();
+    }
+
+    private Traverser.Admin<E> processNextElement() {
         while (true) {
             if (this.traversersLstIter != null && this.traversersLstIter.hasNext()) {
                 Emit<E> emit = this.traversersLstIter.next();
@@ -107,6 +128,214 @@ public class SqlgGraphStep<S, E extends SqlgElement> extends GraphStep implement
         }
     }
 
+    @SuppressWarnings("unchecked")
+    private Traverser.Admin<E> processNextAggregate() {
+        if (this.aggregateTraversers == null) {
+            List<Traverser.Admin<E>> partialResults = aggregate();
+            if (partialResults == null) {
+                this.aggregateInMemory = true;
+                this.aggregateTraversers = Collections.emptyIterator();
+            } else {
+                this.aggregateTraversers = partialResults.iterator();
+            }
+        }
+        if (this.aggregateInMemory) {
+            while (true) {
+                Traverser.Admin<E> traverser = processNextElement();
+                if (this.aggregateGroupByPropertyKey != null) {
+                    //do what the replaced by modulator would have done, this fails if the element does not have the property
+                    Object groupValue = traverser.get().value(this.aggregateGroupByPropertyKey);
+                    return (Traverser.Admin<E>) traverser.split(new AbstractMap.SimpleImmutableEntry<>(groupValue, traverser.get()), this);
+                }
+                if (this.aggregatePropertyKey == null) {
+                    return traverser;
+                }
+                //do what the removed values step would have done
+                Property<?> property = traverser.get().property(this.aggregatePropertyKey);
+                if (property.isPresent()) {
+                    return (Traverser.Admin<E>) traverser.split(property.value(), this);
+                }
+            }
+        }
+        if (this.aggregateTraversers.hasNext()) {
+            return this.aggregateTraversers.next();
+        }
+        throw FastNoSuchElementException.instance();
+    }
+
+    /**
+     * Executes every distinct query as an aggregate.
+     * The partial results are emitted for the reducing step that follows this step.
+     * Counts are emitted as the bulk of a traverser, means as the mean of the query with its count as bulk.
+     * If grouped every group's partial result is emitted as an entry of the group by property's value and the partial result.
+     *
+     * @return null if the aggregate can not be executed on the db because a property to aggregate is not a number,
+     * a property to group by is not a simple type or not every element has the property to group by.
+     */
+    @SuppressWarnings("unchecked")
+    private List<Traverser.Admin<E>> aggregate() {
+        this.sqlgGraph.tx().readWrite();
+        if (this.sqlgGraph.getSqlDialect().supportsBatchMode() && this.sqlgGraph.tx().getBatchManager().isStreaming()) {
+            throw new IllegalStateException("streaming is in progress, first flush or commit before querying.");
+        }
+        Set<SchemaTableTree> rootSchemaTableTrees = doLast();
+        List<Pair<SchemaTableTree, LinkedList<SchemaTableTree>>> distinctQueries = new ArrayList<>();
+        for (SchemaTableTree rootSchemaTableTree : rootSchemaTableTrees) {
+            for (LinkedList<SchemaTableTree> distinctQueryStack : rootSchemaTableTree.constructDistinctQueries()) {
+                if (this.aggregatePropertyKey != null && this.aggregate != SchemaTableTree.AGGREGATE.COUNT) {
+                    PropertyType propertyType = distinctQueryStack.getLast().getPropertyType(this.aggregatePropertyKey);
+                    if (propertyType != null && !propertyType.isNumber()) {
+                        return null;
+                    }
+                }
+                if (this.aggregateGroupByPropertyKey != null) {
+                    PropertyType groupByPropertyType = distinctQueryStack.getLast().getPropertyType(this.aggregateGroupByPropertyKey);
+                    if (groupByPropertyType != null && groupByPropertyType != PropertyType.STRING &&
+                            groupByPropertyType != PropertyType.BOOLEAN && !groupByPropertyType.isNumber()) {
+                        return null;
+                    }
+                }
+                distinctQueries.add(Pair.of(rootSchemaTableTree, distinctQueryStack));
+            }
+        }
+        List<Traverser.Admin<E>> partialResults = new ArrayList<>();
+        for (Pair<SchemaTableTree, LinkedList<SchemaTableTree>> distinctQuery : distinctQueries) {
+            SchemaTableTree rootSchemaTableTree = distinctQuery.getLeft();
+            LinkedList<SchemaTableTree> distinctQueryStack = distinctQuery.getRight();
+            PropertyType groupByPropertyType = null;
+            if (this.aggregateGroupByPropertyKey != null) {
+                groupByPropertyType = distinctQueryStack.getLast().getPropertyType(this.aggregateGroupByPropertyKey);
+                if (groupByPropertyType == null) {
+                    //none of the elements have the property to group by, grouping them fails as it does in memory
+                    Optional<List<Triple<Object, Object, Long>>> count = executeAggregateQuery(
+                            rootSchemaTableTree, distinctQueryStack, SchemaTableTree.AGGREGATE.COUNT, null, null
+                    );
+                    if (count.isPresent() && count.get().get(0).getRight() > 0) {
+                        return null;
+                    }
+                    continue;
+                }
+            }
+            Optional<List<Triple<Object, Object, Long>>> result = executeAggregateQuery(
+                    rootSchemaTableTree, distinctQueryStack, this.aggregate, this.aggregatePropertyKey, this.aggregateGroupByPropertyKey
+            );
+            if (!result.isPresent()) {
+                continue;
+            }
+            for (Triple<Object, Object, Long> row : result.get()) {
+                if (this.aggregateGroupByPropertyKey != null && row.getLeft() == null) {
+                    //some of the elements do not have the property to group by
+                    return null;
+                }
+                long count = row.getRight();
+                if (count == 0) {
+                    continue;
+                }
+                Object partialResult;
+                switch (this.aggregate) {
+                    case COUNT:
+                        partialResult = count;
+                        break;
+                    case MEAN:
+                        partialResult = ((Number) row.getMiddle()).doubleValue() / count;
+                        break;
+                    default:
+                        partialResult = toPropertyType(
+                                (Number) row.getMiddle(),
+                                distinctQueryStack.getLast().getPropertyType(this.aggregatePropertyKey)
+                        );
+                        count = 1L;
+                }
+                if (groupByPropertyType != null) {
+                    partialResult = new AbstractMap.SimpleImmutableEntry<>(toGroupValue(row.getLeft(), groupByPropertyType), partialResult);
+                }
+                partialResults.add((Traverser.Admin<E>) SqlgTraverserGenerator.instance().generate(partialResult, this, count, this.requiresSack, this.requiresOneBulk));
+            }
+        }
+        return partialResults;
+    }
+
+    private Optional<List<Triple<Object, Object, Long>>> executeAggregateQuery(
+            SchemaTableTree rootSchemaTableTree,
+            LinkedList<SchemaTableTree> distinctQueryStack,
+            SchemaTableTree.AGGREGATE aggregate,
+            String propertyKey,
+            String groupByPropertyKey) {
+
+        rootSchemaTableTree.resetColumnAliasMaps();
+        try {
+            return SqlgSqlExecutor.executeAggregateQuery(
+                    this.sqlgGraph, rootSchemaTableTree, distinctQueryStack, aggregate, propertyKey, groupByPropertyKey
+            );
+        } finally {
+            rootSchemaTableTree.resetColumnAliasMaps();
+        }
+    }
+
+    /**
+     * Convert the group by column's value to the type the property has in memory.
+     */
+    private static Object toGroupValue(Object value, PropertyType propertyType) {
+        switch (propertyType) {
+            case STRING:
+                return value;
+            case BOOLEAN:
+                return value instanceof Boolean ? value : ((Number) value).intValue() != 0;
+            default:
+                return toPropertyType((Number) value, propertyType);
+        }
+    }
+
+    /**
+     * The db widens sums, i.e. the sum of an INTEGER column is a BIGINT.
+     * Narrow it to the type TinkerPop's reducing step would have returned.
+     */
+    private static Number toPropertyType(Number number, PropertyType propertyType) {
+        switch (propertyType) {
+            case BYTE:
+                return number.byteValue();
+            case SHORT:
+                return number.shortValue();
+            case INTEGER:
+                return number.intValue();
+            case LONG:
+                return number.longValue();
+            case FLOAT:
+                return number.floatValue();
+            case DOUBLE:
+                return number.doubleValue();
+            default:
+                throw new IllegalStateException("Unhandled numeric PropertyType " + propertyType.name());
+        }
+    }
+
+    /**
+     * @return true if every row of the regular queries is a traverser, i.e. there are no emits, optionals, order or range.
+     */
+    public boolean isAggregatable() {
+        if (this.replacedSteps.isEmpty()) {
+            return false;
+        }
+        for (ReplacedStep<?, ?> replacedStep : this.replacedSteps) {
+            if (replacedStep.isEmit() || replacedStep.isUntilFirst() || replacedStep.isLeftJoin() || replacedStep.isJoinToLeftJoin() ||
+                    replacedStep.isDrop() || replacedStep.hasRange() || replacedStep.getSqlgComparatorHolder().hasComparators()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param propertyKey        the property to aggregate, if null the elements are counted.
+     * @param groupByPropertyKey the property to group by, may be null.
+     */
+    public void setAggregate(SchemaTableTree.AGGREGATE aggregate, String propertyKey, String groupByPropertyKey) {
+        Preconditions.checkArgument(propertyKey != null || aggregate == SchemaTableTree.AGGREGATE.COUNT, "Only COUNT can aggregate the elements themselves.");
+        this.aggregate = aggregate;
+        this.aggregatePropertyKey = propertyKey;
+        this.aggregateGroupByPropertyKey = groupByPropertyKey;
+    }
+
     private boolean applyRange(Emit<E> emit) {
         if (this.lastReplacedStep.hasRange() && this.lastReplacedStep.applyInStep() && this.lastReplacedStep.getDepth() == emit.getReplacedStepDepth()) {
             if (this.lastReplacedStep.getSqlgRangeHolder().hasRange()) {
@@ -180,6 +409,8 @@ public class SqlgGraphStep<S, E extends SqlgElement> extends GraphStep implement
     public void reset() {
         super.reset();
         this.previousHead = null;
+        this.aggregateTraversers = null;
+        this.aggregateInMemory = false;
     }
 
     @Override
@@ -0,0 +1,68 @@
+package org.umlg.sqlg.step;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Path;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.MutablePath;
+import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.umlg.sqlg.sql.parse.ShortestPath;
+import org.umlg.sqlg.structure.RecordId;
+import org.umlg.sqlg.structure.SqlgGraph;
+import org.umlg.sqlg.structure.SqlgVertex;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/**
+ * The start step of {@link org.umlg.sqlg.structure.SqlgGraphTraversalSource#shortestPath}.
+ * Emits the {@link ShortestPath}'s path of vertices, or nothing if there is none.
+ * The path's vertices are only loaded when their properties are accessed.
+ * <p>
+ * Date: 2026/10/17
+ */
+public class SqlgShortestPathStep<S> extends SqlgAbstractStep<S, Path> {
+
+    private final ShortestPath shortestPath;
+    private boolean done = false;
+
+    public SqlgShortestPathStep(final Traversal.Admin traversal, ShortestPath shortestPath) {
+        super(traversal);
+        this.shortestPath = shortestPath;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected Traverser.Admin<Path> processNextStart() throws NoSuchElementException {
+        if (!this.done) {
+            this.done = true;
+            SqlgGraph sqlgGraph = (SqlgGraph) this.traversal.getGraph().get();
+            Optional<List<RecordId>> recordIds = this.shortestPath.execute(sqlgGraph);
+            if (recordIds.isPresent()) {
+                Path path = MutablePath.make();
+                for (RecordId recordId : recordIds.get()) {
+                    path.extend(
+                            SqlgVertex.of(sqlgGraph, recordId.getId(), recordId.getSchemaTable().getSchema(), recordId.getSchemaTable().getTable()),
+                            Collections.emptySet()
+                    );
+                }
+                return this.traversal.getTraverserGenerator().generate(path, (Step) this, 1L);
+            }
+        }
+        throw FastNoSuchElementException.instance();
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        this.done = false;
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.stepString(this, this.shortestPath);
+    }
+}
@@ -157,6 +157,9 @@ public class SqlgDropStepBarrier<S> extends SqlgFilterStep<S>  implements Mutati
         }
         for (VertexLabel vertexLabel : this.verticesToDelete.keySet()) {
             Collection<Long> ids = this.verticesToDelete.get(vertexLabel);
+            for (Long id : ids) {
+                this.sqlgGraph.tx().invalidateCachedVertex(RecordId.from(SchemaTable.of(vertexLabel.getSchema().getName(), vertexLabel.getName()), id));
+            }
             String sql = this.sqlgGraph.getSqlDialect().drop(vertexLabel, ids);
             SqlgSqlExecutor.executeDrop(this.sqlgGraph, sql);
         }
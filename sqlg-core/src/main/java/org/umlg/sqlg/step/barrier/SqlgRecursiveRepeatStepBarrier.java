@@ -0,0 +1,162 @@
+package org.umlg.sqlg.step.barrier;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
+import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.umlg.sqlg.sql.parse.RecursiveRepeat;
+import org.umlg.sqlg.step.SqlgAbstractStep;
+import org.umlg.sqlg.strategy.SqlgSqlExecutor;
+import org.umlg.sqlg.structure.RecordId;
+import org.umlg.sqlg.structure.SchemaTable;
+import org.umlg.sqlg.structure.SqlgGraph;
+import org.umlg.sqlg.structure.SqlgVertex;
+
+import java.util.*;
+
+/**
+ * Executes a repeat().until()/emit() as a {@link RecursiveRepeat} query per batch of start vertices.
+ * Starts for which the recursive query is not possible, i.e. because their label's edges are not self referencing,
+ * are passed on to the {@link SqlgRepeatStepBarrier} in the repeat traversal that executes the repeat in memory.
+ * <p>
+ * The returned traversers' path does not contain the vertices in between the start and the returned vertex.
+ * The {@link org.umlg.sqlg.strategy.barrier.SqlgRepeatStepStrategy} only uses this step if nothing reads the path.
+ * <p>
+ * Date: 2026/10/17
+ */
+public class SqlgRecursiveRepeatStepBarrier<S> extends SqlgAbstractStep<S, S> implements TraversalParent {
+
+    private final RecursiveRepeat recursiveRepeat;
+    private Traversal.Admin<S, S> repeatTraversal;
+    private boolean first = true;
+    private Iterator<Traverser.Admin<S>> resultIterator;
+
+    /**
+     * @param repeatTraversal a traversal with only the {@link SqlgRepeatStepBarrier} that replaces the repeat step.
+     */
+    public SqlgRecursiveRepeatStepBarrier(final Traversal.Admin traversal, RecursiveRepeat recursiveRepeat, Traversal.Admin<S, S> repeatTraversal) {
+        super(traversal);
+        this.recursiveRepeat = recursiveRepeat;
+        this.repeatTraversal = this.integrateChild(repeatTraversal);
+    }
+
+    @Override
+    protected Traverser.Admin<S> processNextStart() throws NoSuchElementException {
+        if (this.first) {
+            this.first = false;
+            SqlgGraph sqlgGraph = (SqlgGraph) this.traversal.getGraph().get();
+            Map<SchemaTable, List<Traverser.Admin<S>>> startsPerSchemaTable = new LinkedHashMap<>();
+            while (this.starts.hasNext()) {
+                Traverser.Admin<S> start = this.starts.next();
+                //the start's path is only known in memory, simplePath() must check all of it.
+                if (start.get() instanceof SqlgVertex && (!this.recursiveRepeat.isSimplePath() || start.path().size() == 1)) {
+                    SchemaTable schemaTable = ((RecordId) ((SqlgVertex) start.get()).id()).getSchemaTable();
+                    startsPerSchemaTable.computeIfAbsent(schemaTable, k -> new ArrayList<>()).add(start);
+                } else {
+                    this.repeatTraversal.addStart(start);
+                }
+            }
+            List<Pair<Integer, Traverser.Admin<S>>> results = new ArrayList<>();
+            for (Map.Entry<SchemaTable, List<Traverser.Admin<S>>> schemaTableStarts : startsPerSchemaTable.entrySet()) {
+                List<Traverser.Admin<S>> starts = schemaTableStarts.getValue();
+                int batchSize = sqlgGraph.getSqlDialect().sqlInParameterLimit();
+                for (int i = 0; i < starts.size(); i += batchSize) {
+                    List<Traverser.Admin<S>> batch = starts.subList(i, Math.min(i + batchSize, starts.size()));
+                    if (!execute(sqlgGraph, schemaTableStarts.getKey(), batch, results)) {
+                        batch.forEach(this.repeatTraversal::addStart);
+                    }
+                }
+            }
+            //same order as the in memory repeat, the shallow vertices first
+            results.sort(Comparator.comparing(Pair::getLeft));
+            List<Traverser.Admin<S>> traversers = new ArrayList<>(results.size());
+            for (Pair<Integer, Traverser.Admin<S>> result : results) {
+                traversers.add(result.getRight());
+            }
+            while (this.repeatTraversal.hasNext()) {
+                traversers.add(this.repeatTraversal.nextTraverser());
+            }
+            this.resultIterator = traversers.iterator();
+        }
+        if (this.resultIterator.hasNext()) {
+            return this.resultIterator.next();
+        }
+        throw FastNoSuchElementException.instance();
+    }
+
+    /**
+     * @return false if the recursive query is not possible for the schemaTable.
+     */
+    @SuppressWarnings("unchecked")
+    private boolean execute(SqlgGraph sqlgGraph, SchemaTable schemaTable, List<Traverser.Admin<S>> starts, List<Pair<Integer, Traverser.Admin<S>>> results) {
+        Map<Long, List<Traverser.Admin<S>>> startsPerId = new LinkedHashMap<>();
+        for (Traverser.Admin<S> start : starts) {
+            startsPerId.computeIfAbsent(((RecordId) ((SqlgVertex) start.get()).id()).getId(), k -> new ArrayList<>()).add(start);
+        }
+        Optional<List<RecursiveRepeat.Row>> rows = SqlgSqlExecutor.executeRecursiveQuery(sqlgGraph, this.recursiveRepeat, schemaTable, startsPerId.keySet());
+        if (!rows.isPresent()) {
+            return false;
+        }
+        for (RecursiveRepeat.Row row : rows.get()) {
+            boolean isEmit = this.recursiveRepeat.isEmit(row.getDepth(), row.isUntil(), row.isEmit());
+            boolean isUntil = this.recursiveRepeat.isUntil(row.getDepth(), row.isUntil());
+            for (Traverser.Admin<S> start : startsPerId.get(row.getStartId())) {
+                if (isEmit) {
+                    Traverser.Admin<S> split = start.split((S) row.getVertex(), this);
+                    split.resetLoops();
+                    results.add(Pair.of(row.getDepth(), split));
+                }
+                if (isUntil) {
+                    Traverser.Admin<S> split = start.split((S) row.getVertex(), this);
+                    split.resetLoops();
+                    results.add(Pair.of(row.getDepth(), split));
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public List<Traversal.Admin<S, S>> getLocalChildren() {
+        return Collections.singletonList(this.repeatTraversal);
+    }
+
+    @Override
+    public Set<TraverserRequirement> getRequirements() {
+        return this.getSelfAndChildRequirements();
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        this.first = true;
+        this.resultIterator = null;
+        this.repeatTraversal.reset();
+    }
+
+    @Override
+    public SqlgRecursiveRepeatStepBarrier<S> clone() {
+        final SqlgRecursiveRepeatStepBarrier<S> clone = (SqlgRecursiveRepeatStepBarrier<S>) super.clone();
+        clone.repeatTraversal = this.repeatTraversal.clone();
+        return clone;
+    }
+
+    @Override
+    public void setTraversal(final Traversal.Admin<?, ?> parentTraversal) {
+        super.setTraversal(parentTraversal);
+        this.integrateChild(this.repeatTraversal);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode() ^ this.repeatTraversal.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.stepString(this, this.repeatTraversal);
+    }
+}
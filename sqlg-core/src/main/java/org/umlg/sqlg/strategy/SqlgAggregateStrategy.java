@@ -0,0 +1,144 @@
+package org.umlg.sqlg.strategy;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.lambda.ElementValueTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.*;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Column;
+import org.apache.tinkerpop.gremlin.structure.PropertyType;
+import org.umlg.sqlg.sql.parse.SchemaTableTree;
+import org.umlg.sqlg.step.SqlgGraphStep;
+import org.umlg.sqlg.strategy.barrier.SqlgVertexStepStrategy;
+import org.umlg.sqlg.structure.SqlgGraph;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Executes count(), sum(), min(), max() and mean() on the db when they directly follow the {@link SqlgGraphStep},
+ * optionally with a values step of one property in between.
+ * i.e. g.V().hasLabel("A").out().count() or g.V().hasLabel("A").values("amount").sum()
+ * <p>
+ * The values step is removed and the {@link SqlgGraphStep} executes its queries as aggregates that return one row each.
+ * The reducing step stays and reduces the partial results of the queries.
+ * <p>
+ * groupCount() and group() by a property are executed as GROUP BY queries, see {@link #applyGroupBy(Traversal.Admin, SqlgGraphStep, Step)}.
+ * <p>
+ * Only the root traversal's start step is aggregated and only if every row of its queries is a traverser,
+ * see {@link SqlgGraphStep#isAggregatable()}.
+ * <p>
+ * Date: 2026/10/17
+ */
+public class SqlgAggregateStrategy extends AbstractTraversalStrategy<TraversalStrategy.OptimizationStrategy> implements TraversalStrategy.OptimizationStrategy {
+
+    @Override
+    public void apply(Traversal.Admin<?, ?> traversal) {
+        if (!(traversal.getGraph().get() instanceof SqlgGraph)) {
+            return;
+        }
+        if (!(traversal.getParent() instanceof EmptyStep)) {
+            return;
+        }
+        List<Step> steps = traversal.getSteps();
+        if (steps.size() < 2 || !(steps.get(0) instanceof SqlgGraphStep)) {
+            return;
+        }
+        SqlgGraphStep<?, ?> sqlgGraphStep = (SqlgGraphStep<?, ?>) steps.get(0);
+        if (!sqlgGraphStep.isStartStep() || !sqlgGraphStep.isAggregatable()) {
+            return;
+        }
+        //counts and means are emitted as the bulk of the traverser.
+        //The SqlgGraphStep itself always has the ONE_BULK requirement.
+        for (Step<?, ?> step : TraversalHelper.getStepsOfAssignableClassRecursively(Step.class, traversal)) {
+            if (step != sqlgGraphStep && step.getRequirements().contains(TraverserRequirement.ONE_BULK)) {
+                return;
+            }
+        }
+        String propertyKey = null;
+        Step<?, ?> reducingStep = steps.get(1);
+        if (reducingStep instanceof GroupCountStep || reducingStep instanceof GroupStep) {
+            applyGroupBy(traversal, sqlgGraphStep, reducingStep);
+            return;
+        }
+        if (reducingStep instanceof PropertiesStep) {
+            PropertiesStep<?> propertiesStep = (PropertiesStep<?>) reducingStep;
+            if (propertiesStep.getReturnType() != PropertyType.VALUE || propertiesStep.getPropertyKeys().length != 1 || steps.size() < 3) {
+                return;
+            }
+            propertyKey = propertiesStep.getPropertyKeys()[0];
+            reducingStep = steps.get(2);
+        }
+        SchemaTableTree.AGGREGATE aggregate;
+        if (reducingStep instanceof CountGlobalStep) {
+            aggregate = SchemaTableTree.AGGREGATE.COUNT;
+        } else if (propertyKey == null) {
+            //only elements can be counted
+            return;
+        } else if (reducingStep instanceof SumGlobalStep) {
+            aggregate = SchemaTableTree.AGGREGATE.SUM;
+        } else if (reducingStep instanceof MinGlobalStep) {
+            aggregate = SchemaTableTree.AGGREGATE.MIN;
+        } else if (reducingStep instanceof MaxGlobalStep) {
+            aggregate = SchemaTableTree.AGGREGATE.MAX;
+        } else if (reducingStep instanceof MeanGlobalStep) {
+            aggregate = SchemaTableTree.AGGREGATE.MEAN;
+        } else {
+            return;
+        }
+        sqlgGraphStep.setAggregate(aggregate, propertyKey, null);
+        if (propertyKey != null) {
+            traversal.removeStep(1);
+        }
+    }
+
+    /**
+     * groupCount().by("key") and group().by("key").by(count()) are executed as GROUP BY queries that emit an entry
+     * of the property's value and the group's count for every group.
+     * The reducing step is replaced with the same step grouping the entries by their key.
+     * Grouping by anything but a property or reducing the groups with anything but count(), i.e. the default fold(),
+     * needs the elements and is done in memory.
+     */
+    @SuppressWarnings("unchecked")
+    private static void applyGroupBy(Traversal.Admin<?, ?> traversal, SqlgGraphStep<?, ?> sqlgGraphStep, Step<?, ?> reducingStep) {
+        List<? extends Traversal.Admin<?, ?>> children = ((TraversalParent) reducingStep).getLocalChildren();
+        if (children.isEmpty() || !(children.get(0) instanceof ElementValueTraversal)) {
+            return;
+        }
+        String groupByPropertyKey = ((ElementValueTraversal<?>) children.get(0)).getPropertyKey();
+        Step<?, ?> groupByStep;
+        if (reducingStep instanceof GroupCountStep) {
+            GroupCountStep<?, ?> groupCountStep = new GroupCountStep<>(traversal);
+            groupCountStep.modulateBy(__.select(Column.keys).asAdmin());
+            groupByStep = groupCountStep;
+        } else {
+            if (children.size() != 2 || children.get(1).getSteps().size() != 1 || !(children.get(1).getStartStep() instanceof CountGlobalStep)) {
+                return;
+            }
+            GroupStep<?, ?, ?> groupStep = new GroupStep<>(traversal);
+            groupStep.modulateBy(__.select(Column.keys).asAdmin());
+            groupStep.modulateBy(__.select(Column.values).count().asAdmin());
+            groupByStep = groupStep;
+        }
+        reducingStep.getLabels().forEach(groupByStep::addLabel);
+        TraversalHelper.replaceStep((Step) reducingStep, groupByStep, traversal);
+        sqlgGraphStep.setAggregate(SchemaTableTree.AGGREGATE.COUNT, null, groupByPropertyKey);
+    }
+
+    @Override
+    public Set<Class<? extends OptimizationStrategy>> applyPrior() {
+        return Stream.of(
+                SqlgGraphStepStrategy.class,
+                SqlgVertexStepStrategy.class
+        ).collect(Collectors.toSet());
+    }
+
+}
@@ -0,0 +1,124 @@
+package org.umlg.sqlg.strategy;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.IdStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.LabelStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.PropertiesStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.PropertyMapStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.IdentityStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.umlg.sqlg.sql.parse.ReplacedStep;
+import org.umlg.sqlg.step.SqlgStep;
+import org.umlg.sqlg.strategy.barrier.SqlgVertexStepStrategy;
+import org.umlg.sqlg.structure.SqlgGraph;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Restricts the columns selected for the elements a {@link SqlgStep} returns to the properties the steps that follow read.
+ * i.e. g.V().hasLabel("Document").values("title") only selects the "title" column and not the document's body.
+ * <p>
+ * The steps that follow must only read properties, i.e. has, values, properties and valueMap with explicit keys, id or label.
+ * The elements are loaded partially and load the rest of their properties when they are accessed,
+ * so elements that escape the traversal anyway, i.e. through path(), are still complete.
+ * <p>
+ * Date: 2026/10/17
+ */
+public class SqlgRestrictPropertiesStrategy extends AbstractTraversalStrategy<TraversalStrategy.OptimizationStrategy> implements TraversalStrategy.OptimizationStrategy {
+
+    @Override
+    public void apply(Traversal.Admin<?, ?> traversal) {
+        if (!(traversal.getGraph().get() instanceof SqlgGraph)) {
+            return;
+        }
+        List<Step> steps = traversal.getSteps();
+        for (int i = 0; i < steps.size(); i++) {
+            if (steps.get(i) instanceof SqlgStep) {
+                SqlgStep sqlgStep = (SqlgStep) steps.get(i);
+                if (isRestrictable(sqlgStep)) {
+                    Set<String> restrictedProperties = readProperties(steps.subList(i + 1, steps.size()));
+                    if (restrictedProperties != null) {
+                        List<ReplacedStep<?, ?>> replacedSteps = sqlgStep.getReplacedSteps();
+                        replacedSteps.get(replacedSteps.size() - 1).setRestrictedProperties(restrictedProperties);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return true if only the elements of the last replaced step are returned.
+     */
+    private static boolean isRestrictable(SqlgStep sqlgStep) {
+        List<ReplacedStep<?, ?>> replacedSteps = sqlgStep.getReplacedSteps();
+        if (replacedSteps.isEmpty()) {
+            return false;
+        }
+        for (ReplacedStep<?, ?> replacedStep : replacedSteps) {
+            if (replacedStep.isEmit() || replacedStep.isUntilFirst() || replacedStep.isLeftJoin() || replacedStep.isJoinToLeftJoin() ||
+                    replacedStep.isDrop() || replacedStep.getSqlgComparatorHolder().hasComparators()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the properties the steps read from the incoming elements or null if the steps need the complete elements.
+     */
+    private static Set<String> readProperties(List<Step> steps) {
+        Set<String> properties = new HashSet<>();
+        for (Step<?, ?> step : steps) {
+            if (step instanceof NoOpBarrierStep || step instanceof IdentityStep) {
+                continue;
+            }
+            if (step instanceof HasStep) {
+                for (HasContainer hasContainer : ((HasStep<?>) step).getHasContainers()) {
+                    if (!hasContainer.getKey().equals(T.id.getAccessor()) && !hasContainer.getKey().equals(T.label.getAccessor())) {
+                        properties.add(hasContainer.getKey());
+                    }
+                }
+                continue;
+            }
+            if (step instanceof IdStep || step instanceof LabelStep) {
+                return properties;
+            }
+            if (step instanceof PropertiesStep) {
+                String[] propertyKeys = ((PropertiesStep<?>) step).getPropertyKeys();
+                if (propertyKeys.length == 0) {
+                    return null;
+                }
+                properties.addAll(Arrays.asList(propertyKeys));
+                return properties;
+            }
+            if (step instanceof PropertyMapStep) {
+                PropertyMapStep<?, ?> propertyMapStep = (PropertyMapStep<?, ?>) step;
+                if (propertyMapStep.getPropertyKeys().length == 0 || !propertyMapStep.getLocalChildren().isEmpty()) {
+                    return null;
+                }
+                properties.addAll(Arrays.asList(propertyMapStep.getPropertyKeys()));
+                return properties;
+            }
+            return null;
+        }
+        return null;
+    }
+
+    @Override
+    public Set<Class<? extends OptimizationStrategy>> applyPrior() {
+        return Stream.of(
+                SqlgGraphStepStrategy.class,
+                SqlgVertexStepStrategy.class,
+                SqlgAggregateStrategy.class
+        ).collect(Collectors.toSet());
+    }
+
+}
@@ -7,16 +7,23 @@ import org.apache.tinkerpop.gremlin.process.traversal.step.util.event.Event;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.event.EventCallback;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.umlg.sqlg.sql.parse.RecursiveRepeat;
 import org.umlg.sqlg.sql.parse.SchemaTableTree;
+import org.umlg.sqlg.sql.parse.ShortestPath;
+import org.umlg.sqlg.structure.RecordId;
 import org.umlg.sqlg.structure.SchemaTable;
 import org.umlg.sqlg.structure.SqlgEdge;
 import org.umlg.sqlg.structure.SqlgGraph;
+import org.umlg.sqlg.structure.SqlgVertex;
 import org.umlg.sqlg.structure.topology.EdgeLabel;
 import org.umlg.sqlg.util.SqlgUtil;
 
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 /**
@@ -43,6 +50,10 @@ public class SqlgSqlExecutor {
             LinkedList<SchemaTableTree> distinctQueryStack) {
 
         List<Triple<DROP_QUERY, String, SchemaTable>> sqls = rootSchemaTableTree.constructDropSql(distinctQueryStack);
+        if (sqlgGraph.tx().isInBatchMode()) {
+            sqlgGraph.tx().flush();
+        }
+        rootSchemaTableTree.loadBulkWithinOutTemporaryTables();
         for (Triple<DROP_QUERY, String, SchemaTable> sqlPair : sqls) {
             DROP_QUERY dropQuery = sqlPair.getLeft();
             String sql = sqlPair.getMiddle();
@@ -74,7 +85,7 @@ public class SqlgSqlExecutor {
             LinkedList<SchemaTableTree> distinctQueryStack) {
 
         String sql = rootSchemaTableTree.constructSql(distinctQueryStack);
-        return executeQuery(sqlgGraph, sql, distinctQueryStack);
+        return executeQuery(sqlgGraph, rootSchemaTableTree, sql, distinctQueryStack);
     }
 
     public static Triple<ResultSet, ResultSetMetaData, PreparedStatement> executeOptionalQuery(
@@ -83,7 +94,7 @@ public class SqlgSqlExecutor {
 
         String sql = rootSchemaTableTree.constructSqlForOptional(leftJoinQuery.getLeft(), leftJoinQuery.getRight());
         LinkedList<SchemaTableTree> distinctQueryStack = leftJoinQuery.getLeft();
-        return executeQuery(sqlgGraph, sql, distinctQueryStack);
+        return executeQuery(sqlgGraph, rootSchemaTableTree, sql, distinctQueryStack);
     }
 
     public static Triple<ResultSet, ResultSetMetaData, PreparedStatement> executeEmitQuery(
@@ -91,13 +102,156 @@ public class SqlgSqlExecutor {
             LinkedList<SchemaTableTree> leftJoinQuery) {
 
         String sql = rootSchemaTableTree.constructSqlForEmit(leftJoinQuery);
-        return executeQuery(sqlgGraph, sql, leftJoinQuery);
+        return executeQuery(sqlgGraph, rootSchemaTableTree, sql, leftJoinQuery);
     }
 
-    private static Triple<ResultSet, ResultSetMetaData, PreparedStatement> executeQuery(SqlgGraph sqlgGraph, String sql, LinkedList<SchemaTableTree> distinctQueryStack) {
+    /**
+     * @return a row per group with the value of the group by property, the aggregate and the number of values aggregated,
+     * or empty if the leaf element does not have the property or the group by property.
+     * Without a group by property there is exactly one row with a null group value.
+     * The aggregate is null if there was nothing to aggregate.
+     */
+    public static Optional<List<Triple<Object, Object, Long>>> executeAggregateQuery(
+            SqlgGraph sqlgGraph,
+            SchemaTableTree rootSchemaTableTree,
+            LinkedList<SchemaTableTree> distinctQueryStack,
+            SchemaTableTree.AGGREGATE aggregate,
+            String propertyKey,
+            String groupByPropertyKey) {
+
+        Optional<String> sql = rootSchemaTableTree.constructAggregateSql(distinctQueryStack, aggregate, propertyKey, groupByPropertyKey);
+        if (!sql.isPresent()) {
+            return Optional.empty();
+        }
+        Triple<ResultSet, ResultSetMetaData, PreparedStatement> queryResult = executeQuery(sqlgGraph, rootSchemaTableTree, sql.get(), distinctQueryStack);
+        try {
+            ResultSet resultSet = queryResult.getLeft();
+            int aggregateColumn = groupByPropertyKey == null ? 1 : 2;
+            boolean hasCount = queryResult.getMiddle().getColumnCount() > aggregateColumn;
+            List<Triple<Object, Object, Long>> rows = new ArrayList<>();
+            while (resultSet.next()) {
+                Object groupValue = groupByPropertyKey == null ? null : resultSet.getObject(1);
+                Object value = resultSet.getObject(aggregateColumn);
+                long count;
+                if (hasCount) {
+                    count = resultSet.getLong(aggregateColumn + 1);
+                } else {
+                    count = ((Number) value).longValue();
+                }
+                rows.add(Triple.of(groupValue, value, count));
+            }
+            Preconditions.checkState(groupByPropertyKey != null || rows.size() == 1, "An aggregate query must return a row.");
+            resultSet.close();
+            sqlgGraph.tx().getPreparedStatementCache().release(queryResult.getRight());
+            return Optional.of(rows);
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Executes the recursive query of a repeat for a batch of start vertices of the same label.
+     *
+     * @return a row per walk ordered by depth, or empty if the repeat can not be executed as a recursive query for the label.
+     */
+    public static Optional<List<RecursiveRepeat.Row>> executeRecursiveQuery(
+            SqlgGraph sqlgGraph,
+            RecursiveRepeat recursiveRepeat,
+            SchemaTable vertexSchemaTable,
+            Collection<Long> startIds) {
+
+        sqlgGraph.tx().readWrite();
+        if (sqlgGraph.getSqlDialect().supportsBatchMode() && sqlgGraph.tx().getBatchManager().isStreaming()) {
+            throw new IllegalStateException("streaming is in progress, first flush or commit before querying.");
+        }
+        Optional<String> sql = recursiveRepeat.toSql(sqlgGraph, vertexSchemaTable, startIds);
+        if (!sql.isPresent()) {
+            return Optional.empty();
+        }
         if (sqlgGraph.tx().isInBatchMode()) {
             sqlgGraph.tx().flush();
         }
+        Connection conn = sqlgGraph.tx().getConnection();
+        if (logger.isDebugEnabled()) {
+            logger.debug(sql.get());
+        }
+        try {
+            PreparedStatement preparedStatement = sqlgGraph.tx().getPreparedStatementCache().prepareStatement(conn, sql.get());
+            recursiveRepeat.setParametersOnStatement(sqlgGraph, vertexSchemaTable, preparedStatement);
+            List<RecursiveRepeat.Row> rows = new ArrayList<>();
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    SqlgVertex sqlgVertex = SqlgVertex.of(sqlgGraph, resultSet.getLong(2), vertexSchemaTable.getSchema(), vertexSchemaTable.getTable());
+                    sqlgVertex.loadResultSet(resultSet, RecursiveRepeat.FIRST_VERTEX_COLUMN);
+                    rows.add(new RecursiveRepeat.Row(
+                            resultSet.getLong(1),
+                            resultSet.getInt(3),
+                            resultSet.getInt(4) == 1,
+                            resultSet.getInt(5) == 1,
+                            sqlgVertex
+                    ));
+                }
+            }
+            sqlgGraph.tx().getPreparedStatementCache().release(preparedStatement);
+            return Optional.of(rows);
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Executes a level of a {@link ShortestPath} search.
+     *
+     * @param sql               selects the frontier vertex's id followed by an id column per other schemaTable.
+     * @param ids               the ids of the frontier's vertices.
+     * @param otherSchemaTables the schemaTables the other side of the edge can be.
+     * @return the frontier vertices with the vertices adjacent to them.
+     */
+    public static List<Pair<RecordId, RecordId>> executeAdjacentQuery(
+            SqlgGraph sqlgGraph,
+            String sql,
+            List<Long> ids,
+            SchemaTable schemaTable,
+            List<SchemaTable> otherSchemaTables) {
+
+        sqlgGraph.tx().readWrite();
+        if (sqlgGraph.getSqlDialect().supportsBatchMode() && sqlgGraph.tx().getBatchManager().isStreaming()) {
+            throw new IllegalStateException("streaming is in progress, first flush or commit before querying.");
+        }
+        if (sqlgGraph.tx().isInBatchMode()) {
+            sqlgGraph.tx().flush();
+        }
+        Connection conn = sqlgGraph.tx().getConnection();
+        if (logger.isDebugEnabled()) {
+            logger.debug(sql);
+        }
+        List<Pair<RecordId, RecordId>> result = new ArrayList<>();
+        try {
+            PreparedStatement preparedStatement = sqlgGraph.tx().getPreparedStatementCache().prepareStatement(conn, sql);
+            ShortestPath.setParametersOnStatement(sqlgGraph, preparedStatement, ids);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    RecordId recordId = RecordId.from(schemaTable, resultSet.getLong(1));
+                    for (int i = 0; i < otherSchemaTables.size(); i++) {
+                        long otherId = resultSet.getLong(i + 2);
+                        if (!resultSet.wasNull()) {
+                            result.add(Pair.of(recordId, RecordId.from(otherSchemaTables.get(i), otherId)));
+                        }
+                    }
+                }
+            }
+            sqlgGraph.tx().getPreparedStatementCache().release(preparedStatement);
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+        return result;
+    }
+
+    private static Triple<ResultSet, ResultSetMetaData, PreparedStatement> executeQuery(SqlgGraph sqlgGraph, SchemaTableTree rootSchemaTableTree, String sql, LinkedList<SchemaTableTree> distinctQueryStack) {
+        if (sqlgGraph.tx().isInBatchMode()) {
+            sqlgGraph.tx().flush();
+        }
+        rootSchemaTableTree.loadBulkWithinOutTemporaryTables();
         try {
             if (distinctQueryStack.peekFirst().getStepType() != SchemaTableTree.STEP_TYPE.GRAPH_STEP) {
                 Preconditions.checkState(!distinctQueryStack.peekFirst().getParentIdsAndIndexes().isEmpty());
@@ -130,9 +284,8 @@ public class SqlgSqlExecutor {
 //            		logger.warn(sqle.getMessage());
 //            	}
 //            }
-            PreparedStatement preparedStatement = conn.prepareStatement(sql);
-            sqlgGraph.tx().add(preparedStatement);
-            int parameterCount = 1;
+            PreparedStatement preparedStatement = sqlgGraph.tx().getPreparedStatementCache().prepareStatement(conn, sql);
+            int parameterCount = SqlgUtil.setParentIdsAndIndexesOnStatement(sqlgGraph, distinctQueryStack, conn, preparedStatement, 1);
             SqlgUtil.setParametersOnStatement(sqlgGraph, distinctQueryStack, preparedStatement, parameterCount);
             // https://jdbc.postgresql.org/documentation/head/query.html#query-with-cursor
             // this is critical to use a cursor, otherwise we load everything into memory
@@ -151,6 +304,9 @@ public class SqlgSqlExecutor {
         if (sqlgGraph.tx().isInBatchMode()) {
             sqlgGraph.tx().flush();
         }
+        if (deletedSchemaTable == null || deletedSchemaTable.isVertexTable()) {
+            sqlgGraph.tx().invalidateCachedVertices();
+        }
         try {
             if (!distinctQueryStack.isEmpty() && distinctQueryStack.peekFirst().getStepType() != SchemaTableTree.STEP_TYPE.GRAPH_STEP) {
                 Preconditions.checkState(!distinctQueryStack.peekFirst().getParentIdsAndIndexes().isEmpty());
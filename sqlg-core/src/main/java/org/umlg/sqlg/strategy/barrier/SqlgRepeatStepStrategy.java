@@ -4,13 +4,23 @@ import org.apache.commons.lang3.Range;
 import org.apache.tinkerpop.gremlin.process.traversal.Step;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
 import org.apache.tinkerpop.gremlin.process.traversal.step.branch.RepeatStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.PathFilterStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.filter.RangeGlobalStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.filter.SampleGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.MatchStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.PathStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.TreeStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.TreeSideEffectStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.ReducingBarrierStep;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.CountStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.DefaultTraversal;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.umlg.sqlg.sql.parse.RecursiveRepeat;
+import org.umlg.sqlg.step.barrier.SqlgRecursiveRepeatStepBarrier;
 import org.umlg.sqlg.step.barrier.SqlgRepeatStepBarrier;
 import org.umlg.sqlg.strategy.SqlgGraphStepStrategy;
 import org.umlg.sqlg.strategy.SqlgRangeHolder;
@@ -71,13 +81,28 @@ public class SqlgRepeatStepStrategy extends AbstractTraversalStrategy<TraversalS
                     }
                 }
 
+                int indexOfRepeatStep = traversal.getSteps().indexOf(repeatStep);
+                boolean followedByRange = (traversal.getSteps().size() > indexOfRepeatStep + 1) && traversal.getSteps().get(indexOfRepeatStep + 1) instanceof RangeGlobalStep;
+                //Must be done before the SqlgRepeatStepBarrier replaces the RepeatEndStep.
+                Optional<RecursiveRepeat> recursiveRepeat = followedByRange ? Optional.empty() : recursiveRepeat(traversal, repeatStep);
+
                 SqlgRepeatStepBarrier<?> sqlgRepeatStepBarrier = new SqlgRepeatStepBarrier<>(traversal, repeatStep);
+                if (recursiveRepeat.isPresent()) {
+                    Traversal.Admin repeatTraversal = new DefaultTraversal<>();
+                    repeatTraversal.addStep(sqlgRepeatStepBarrier);
+                    @SuppressWarnings("unchecked")
+                    SqlgRecursiveRepeatStepBarrier<?> sqlgRecursiveRepeatStepBarrier = new SqlgRecursiveRepeatStepBarrier<>(traversal, recursiveRepeat.get(), repeatTraversal);
+                    for (String label : repeatStep.getLabels()) {
+                        sqlgRecursiveRepeatStepBarrier.addLabel(label);
+                    }
+                    TraversalHelper.replaceStep((Step) repeatStep, sqlgRecursiveRepeatStepBarrier, traversal);
+                    continue;
+                }
                 for (String label : repeatStep.getLabels()) {
                     sqlgRepeatStepBarrier.addLabel(label);
                 }
 
-                int indexOfRepeatStep = traversal.getSteps().indexOf(repeatStep);
-                if ((traversal.getSteps().size() > indexOfRepeatStep + 1) && traversal.getSteps().get(indexOfRepeatStep + 1) instanceof RangeGlobalStep) {
+                if (followedByRange) {
                     RangeGlobalStep<?> rgs = (RangeGlobalStep<?>) traversal.getSteps().get(indexOfRepeatStep + 1);
                     long high = rgs.getHighRange();
                     if (high == -1) {
@@ -98,6 +123,29 @@ public class SqlgRepeatStepStrategy extends AbstractTraversalStrategy<TraversalS
         }
     }
 
+    /**
+     * The repeat is executed as a recursive query if the rdbms supports it, the repeat is not nested and
+     * no step reads the path as the recursive query does not return the vertices in between.
+     */
+    private static Optional<RecursiveRepeat> recursiveRepeat(final Traversal.Admin<?, ?> traversal, RepeatStep<?> repeatStep) {
+        SqlgGraph sqlgGraph = (SqlgGraph) traversal.getGraph().get();
+        if (!sqlgGraph.getSqlDialect().supportsRecursiveQueries() || !(traversal.getParent() instanceof EmptyStep)) {
+            return Optional.empty();
+        }
+        for (Step<?, ?> step : traversal.getSteps()) {
+            if (step != repeatStep &&
+                    (readsPath(step) || (step instanceof TraversalParent && TraversalHelper.anyStepRecursively(SqlgRepeatStepStrategy::readsPath, (TraversalParent) step)))) {
+                return Optional.empty();
+            }
+        }
+        return RecursiveRepeat.from(sqlgGraph, repeatStep);
+    }
+
+    private static boolean readsPath(Step<?, ?> step) {
+        return step instanceof PathStep || step instanceof PathFilterStep || step instanceof TreeStep ||
+                step instanceof TreeSideEffectStep || step instanceof MatchStep;
+    }
+
     @Override
     public Set<Class<? extends OptimizationStrategy>> applyPost() {
         return Stream.of(
@@ -1,11 +1,13 @@
 package org.umlg.sqlg.structure;
 
+import com.google.common.base.Preconditions;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.lang3.tuple.Triple;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.umlg.sqlg.sql.dialect.SqlBulkDialect;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
 import java.util.*;
 
@@ -18,6 +20,21 @@ import static org.umlg.sqlg.structure.topology.Topology.VERTEX_PREFIX;
  */
 public class BatchManager {
 
+    /**
+     * Configuration key, if true batch mode copies the data in the dialect's binary format where it is supported.
+     */
+    public static final String BINARY_COPY = "batch.copy.binary";
+    /**
+     * Configuration key, the number of (out, in) pairs copied per chunk when bulkAddEdges streams its pairs from an
+     * {@link java.util.Iterator} or {@link java.util.stream.Stream}. Defaults to 100000.
+     */
+    public static final String BULK_EDGES_CHUNK_SIZE = "batch.bulk.edges.chunk.size";
+    /**
+     * Configuration key, the number of rows streaming batch mode executes per jdbc batch on dialects that stream with
+     * a prepared insert statement instead of a copy command. Defaults to 10000.
+     */
+    public static final String STREAMING_INSERT_BATCH_SIZE = "batch.streaming.insert.size";
+
     private SqlgGraph sqlgGraph;
     private SqlBulkDialect sqlDialect;
 
@@ -38,6 +55,8 @@ public class BatchManager {
 
     private Map<SchemaTable, Writer> streamingVertexOutputStreamCache = new LinkedHashMap<>();
     private Map<SchemaTable, Writer> streamingEdgeOutputStreamCache = new LinkedHashMap<>();
+    private Map<SchemaTable, OutputStream> streamingVertexBinaryOutputStreamCache = new LinkedHashMap<>();
+    private Map<SchemaTable, OutputStream> streamingEdgeBinaryOutputStreamCache = new LinkedHashMap<>();
 
     //indicates what is being streamed
     private SchemaTable streamingBatchModeVertexSchemaTable;
@@ -48,6 +67,9 @@ public class BatchManager {
     private int batchCount;
     private long batchIndex;
     private boolean isBusyFlushing;
+    private boolean binaryCopy;
+    private int bulkEdgesChunkSize;
+    private int streamingInsertBatchSize;
 
     public enum BatchModeType {
         NONE, NORMAL, STREAMING, STREAMING_WITH_LOCK
@@ -58,6 +80,57 @@ public class BatchManager {
     BatchManager(SqlgGraph sqlgGraph, SqlBulkDialect sqlDialect) {
         this.sqlgGraph = sqlgGraph;
         this.sqlDialect = sqlDialect;
+        this.binaryCopy = sqlgGraph.configuration().getBoolean(BINARY_COPY, false);
+        this.bulkEdgesChunkSize = sqlgGraph.configuration().getInt(BULK_EDGES_CHUNK_SIZE, 100000);
+        this.streamingInsertBatchSize = sqlgGraph.configuration().getInt(STREAMING_INSERT_BATCH_SIZE, 10000);
+    }
+
+    /**
+     * @return true if the batch is copied in the dialect's binary format. Columns whose type the dialect can not write in
+     * binary fall back to the text format for the whole label.
+     */
+    public boolean isBinaryCopy() {
+        return this.binaryCopy;
+    }
+
+    public void setBinaryCopy(boolean binaryCopy) {
+        this.binaryCopy = binaryCopy;
+    }
+
+    public int getBulkEdgesChunkSize() {
+        return this.bulkEdgesChunkSize;
+    }
+
+    public void setBulkEdgesChunkSize(int bulkEdgesChunkSize) {
+        Preconditions.checkArgument(bulkEdgesChunkSize > 0, "bulkEdgesChunkSize must be greater than 0");
+        this.bulkEdgesChunkSize = bulkEdgesChunkSize;
+    }
+
+    public int getStreamingInsertBatchSize() {
+        return this.streamingInsertBatchSize;
+    }
+
+    public void setStreamingInsertBatchSize(int streamingInsertBatchSize) {
+        Preconditions.checkArgument(streamingInsertBatchSize > 0, "streamingInsertBatchSize must be greater than 0");
+        this.streamingInsertBatchSize = streamingInsertBatchSize;
+    }
+
+    /**
+     * @param schemaTable the prefixed SchemaTable of the label being copied.
+     * @param keys        the property keys being copied.
+     * @return true if all the columns can be copied in the binary format.
+     */
+    public boolean isBinaryCopy(SchemaTable schemaTable, Collection<String> keys) {
+        if (!this.binaryCopy) {
+            return false;
+        }
+        Map<String, PropertyType> propertyTypeMap = this.sqlgGraph.getTopology().getTableFor(schemaTable);
+        for (String key : keys) {
+            if (!this.sqlDialect.supportsBinaryCopy(propertyTypeMap.get(key))) {
+                return false;
+            }
+        }
+        return true;
     }
 
     public boolean isInNormalMode() {
@@ -88,11 +161,10 @@ public class BatchManager {
         SchemaTable schemaTable = SchemaTable.of(sqlgVertex.getSchema(), sqlgVertex.getTable());
         Writer writer = this.streamingVertexOutputStreamCache.get(schemaTable);
         if (writer == null) {
-            String sql = this.sqlDialect.constructCompleteCopyCommandTemporarySqlVertex(sqlgGraph, sqlgVertex, keyValueMap);
-            writer = this.sqlDialect.streamSql(this.sqlgGraph, sql);
+            writer = this.sqlDialect.streamTemporaryVertex(this.sqlgGraph, sqlgVertex, keyValueMap);
             this.streamingVertexOutputStreamCache.put(schemaTable, writer);
         }
-        this.sqlDialect.writeStreamingVertex(writer, keyValueMap);
+        this.sqlDialect.writeStreamingVertex(writer, sqlgVertex, keyValueMap);
 
     }
 
@@ -127,12 +199,21 @@ public class BatchManager {
                 sqlgVertex.setInternalPrimaryKey(RecordId.from(schemaTable, ++this.batchIndex));
             }
             Writer writer = this.streamingVertexOutputStreamCache.get(schemaTable);
-            if (writer == null) {
-                String sql = this.sqlDialect.constructCompleteCopyCommandSqlVertex(sqlgGraph, sqlgVertex, keyValueMap);
-                writer = this.sqlDialect.streamSql(this.sqlgGraph, sql);
-                this.streamingVertexOutputStreamCache.put(schemaTable, writer);
+            OutputStream outputStream = this.streamingVertexBinaryOutputStreamCache.get(schemaTable);
+            if (writer == null && outputStream == null) {
+                if (isBinaryCopy(schemaTable.withPrefix(VERTEX_PREFIX), keyValueMap.keySet())) {
+                    outputStream = this.sqlDialect.streamBinaryCopyVertex(this.sqlgGraph, sqlgVertex, keyValueMap);
+                    this.streamingVertexBinaryOutputStreamCache.put(schemaTable, outputStream);
+                } else {
+                    writer = this.sqlDialect.streamVertex(this.sqlgGraph, sqlgVertex, keyValueMap);
+                    this.streamingVertexOutputStreamCache.put(schemaTable, writer);
+                }
+            }
+            if (outputStream != null) {
+                this.sqlDialect.writeStreamingVertex(outputStream, keyValueMap);
+            } else {
+                this.sqlDialect.writeStreamingVertex(writer, sqlgVertex, keyValueMap);
             }
-            this.sqlDialect.writeStreamingVertex(writer, keyValueMap);
             if (this.isInStreamingModeWithLock()) {
                 this.batchCount++;
             }
@@ -171,13 +252,22 @@ public class BatchManager {
                 sqlgEdge.setInternalPrimaryKey(RecordId.from(outSchemaTable, ++this.batchIndex));
             }
             Writer writer = this.streamingEdgeOutputStreamCache.get(outSchemaTable);
-            if (writer == null) {
-                String sql = this.sqlDialect.constructCompleteCopyCommandSqlEdge(sqlgGraph, sqlgEdge, outVertex, inVertex, keyValueMap);
-                writer = this.sqlDialect.streamSql(this.sqlgGraph, sql);
-                this.streamingEdgeOutputStreamCache.put(outSchemaTable, writer);
+            OutputStream outputStream = this.streamingEdgeBinaryOutputStreamCache.get(outSchemaTable);
+            if (writer == null && outputStream == null) {
+                if (isBinaryCopy(outSchemaTable.withPrefix(EDGE_PREFIX), keyValueMap.keySet())) {
+                    outputStream = this.sqlDialect.streamBinaryCopyEdge(this.sqlgGraph, sqlgEdge, outVertex, inVertex, keyValueMap);
+                    this.streamingEdgeBinaryOutputStreamCache.put(outSchemaTable, outputStream);
+                } else {
+                    writer = this.sqlDialect.streamEdge(this.sqlgGraph, sqlgEdge, outVertex, inVertex, keyValueMap);
+                    this.streamingEdgeOutputStreamCache.put(outSchemaTable, writer);
+                }
             }
             try {
-                this.sqlDialect.writeStreamingEdge(writer, sqlgEdge, outVertex, inVertex, keyValueMap);
+                if (outputStream != null) {
+                    this.sqlDialect.writeStreamingEdge(outputStream, sqlgEdge, outVertex, inVertex, keyValueMap);
+                } else {
+                    this.sqlDialect.writeStreamingEdge(writer, sqlgEdge, outVertex, inVertex, keyValueMap);
+                }
                 if (this.isInStreamingModeWithLock()) {
                     this.batchCount++;
                 }
@@ -214,6 +304,14 @@ public class BatchManager {
             }
         });
         this.streamingVertexOutputStreamCache.clear();
+        this.streamingVertexBinaryOutputStreamCache.values().forEach(o -> {
+            try {
+                o.close();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        this.streamingVertexBinaryOutputStreamCache.clear();
         this.streamingEdgeOutputStreamCache.values().forEach(o -> {
             try {
                 o.close();
@@ -221,6 +319,14 @@ public class BatchManager {
                 throw new RuntimeException(e);
             }
         });
+        this.streamingEdgeBinaryOutputStreamCache.values().forEach(o -> {
+            try {
+                o.close();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        this.streamingEdgeBinaryOutputStreamCache.clear();
         if (this.isInStreamingModeWithLock()) {
             this.batchCount = 0;
         }
@@ -414,11 +520,11 @@ public class BatchManager {
     }
 
     private boolean isStreamingVertices() {
-        return !this.streamingVertexOutputStreamCache.isEmpty();
+        return !this.streamingVertexOutputStreamCache.isEmpty() || !this.streamingVertexBinaryOutputStreamCache.isEmpty();
     }
 
     private boolean isStreamingEdges() {
-        return !this.streamingEdgeOutputStreamCache.isEmpty();
+        return !this.streamingEdgeOutputStreamCache.isEmpty() || !this.streamingEdgeBinaryOutputStreamCache.isEmpty();
     }
 
     boolean isBusyFlushing() {
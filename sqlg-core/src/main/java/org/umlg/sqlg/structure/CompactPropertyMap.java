@@ -0,0 +1,253 @@
+package org.umlg.sqlg.structure;
+
+import java.util.*;
+
+/**
+ * A compact property map for elements.
+ * The keys are resolved to slots via the label's shared {@link PropertyLayout}.
+ * boolean and numeric values are stored unboxed in a long slot array, other values in an object slot array that is
+ * only allocated when needed. Primitive values are boxed on access.
+ * <p>
+ * Like the {@link java.util.concurrent.ConcurrentHashMap} it replaces it is safe for concurrent access and does not
+ * accept null keys or values. Iteration is over a snapshot.
+ * <p>
+ * Date: 2026/10/17
+ */
+class CompactPropertyMap extends AbstractMap<String, Object> {
+
+    static final byte ABSENT = 0;
+    static final byte OBJECT = 1;
+    static final byte BOOLEAN = 2;
+    static final byte BYTE = 3;
+    static final byte SHORT = 4;
+    static final byte INTEGER = 5;
+    static final byte LONG = 6;
+    static final byte FLOAT = 7;
+    static final byte DOUBLE = 8;
+
+    private static final byte[] EMPTY_TYPES = new byte[0];
+
+    private final PropertyLayout layout;
+    private byte[] types = EMPTY_TYPES;
+    private long[] primitives;
+    private Object[] objects;
+    private int size = 0;
+
+    CompactPropertyMap(PropertyLayout layout) {
+        this.layout = layout;
+    }
+
+    /**
+     * Puts a boolean or numeric value without boxing it.
+     *
+     * @param type one of the primitive type constants.
+     * @param bits the value, floats and doubles as their raw bits.
+     */
+    synchronized void putPrimitive(String key, byte type, long bits) {
+        int slot = ensureSlot(key);
+        if (this.primitives == null) {
+            this.primitives = new long[this.types.length];
+        }
+        if (this.types[slot] == ABSENT) {
+            this.size++;
+        } else if (this.types[slot] == OBJECT) {
+            this.objects[slot] = null;
+        }
+        this.types[slot] = type;
+        this.primitives[slot] = bits;
+    }
+
+    @Override
+    public synchronized Object put(String key, Object value) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+        Object previous = get(key);
+        byte type = primitiveType(value);
+        if (type != OBJECT) {
+            putPrimitive(key, type, bits(value));
+        } else {
+            int slot = ensureSlot(key);
+            if (this.objects == null) {
+                this.objects = new Object[this.types.length];
+            }
+            if (this.types[slot] == ABSENT) {
+                this.size++;
+            }
+            this.types[slot] = OBJECT;
+            this.objects[slot] = value;
+        }
+        return previous;
+    }
+
+    @Override
+    public synchronized Object get(Object key) {
+        int slot = slotOf(key);
+        return slot == -1 ? null : valueAt(slot);
+    }
+
+    @Override
+    public synchronized boolean containsKey(Object key) {
+        return slotOf(key) != -1;
+    }
+
+    @Override
+    public synchronized Object remove(Object key) {
+        int slot = slotOf(key);
+        if (slot == -1) {
+            return null;
+        }
+        Object previous = valueAt(slot);
+        if (this.types[slot] == OBJECT) {
+            this.objects[slot] = null;
+        }
+        this.types[slot] = ABSENT;
+        this.size--;
+        return previous;
+    }
+
+    @Override
+    public synchronized int size() {
+        return this.size;
+    }
+
+    @Override
+    public synchronized void clear() {
+        Arrays.fill(this.types, ABSENT);
+        if (this.objects != null) {
+            Arrays.fill(this.objects, null);
+        }
+        this.size = 0;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<Entry<String, Object>>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                Iterator<Entry<String, Object>> snapshot = snapshot().iterator();
+                return new Iterator<Entry<String, Object>>() {
+                    private Entry<String, Object> current;
+
+                    @Override
+                    public boolean hasNext() {
+                        return snapshot.hasNext();
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+                        this.current = snapshot.next();
+                        return this.current;
+                    }
+
+                    @Override
+                    public void remove() {
+                        if (this.current == null) {
+                            throw new IllegalStateException();
+                        }
+                        CompactPropertyMap.this.remove(this.current.getKey());
+                        this.current = null;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return CompactPropertyMap.this.size();
+            }
+        };
+    }
+
+    private synchronized List<Entry<String, Object>> snapshot() {
+        List<Entry<String, Object>> entries = new ArrayList<>(this.size);
+        for (int slot = 0; slot < this.types.length; slot++) {
+            if (this.types[slot] != ABSENT) {
+                entries.add(new SimpleImmutableEntry<>(this.layout.key(slot), valueAt(slot)));
+            }
+        }
+        return entries;
+    }
+
+    private int slotOf(Object key) {
+        if (!(key instanceof String)) {
+            return -1;
+        }
+        int slot = this.layout.slot((String) key);
+        if (slot == -1 || slot >= this.types.length || this.types[slot] == ABSENT) {
+            return -1;
+        }
+        return slot;
+    }
+
+    private int ensureSlot(String key) {
+        int slot = this.layout.slotOrAdd(key);
+        if (slot >= this.types.length) {
+            int length = Math.max(slot + 1, this.types.length + (this.types.length >> 1));
+            this.types = Arrays.copyOf(this.types, length);
+            if (this.primitives != null) {
+                this.primitives = Arrays.copyOf(this.primitives, length);
+            }
+            if (this.objects != null) {
+                this.objects = Arrays.copyOf(this.objects, length);
+            }
+        }
+        return slot;
+    }
+
+    private Object valueAt(int slot) {
+        byte type = this.types[slot];
+        return type == OBJECT ? this.objects[slot] : box(type, this.primitives[slot]);
+    }
+
+    static Object box(byte type, long bits) {
+        switch (type) {
+            case BOOLEAN:
+                return bits != 0;
+            case BYTE:
+                return (byte) bits;
+            case SHORT:
+                return (short) bits;
+            case INTEGER:
+                return (int) bits;
+            case LONG:
+                return bits;
+            case FLOAT:
+                return Float.intBitsToFloat((int) bits);
+            case DOUBLE:
+                return Double.longBitsToDouble(bits);
+            default:
+                throw new IllegalStateException("Unknown primitive type " + type);
+        }
+    }
+
+    private static byte primitiveType(Object value) {
+        if (value instanceof Boolean) {
+            return BOOLEAN;
+        } else if (value instanceof Byte) {
+            return BYTE;
+        } else if (value instanceof Short) {
+            return SHORT;
+        } else if (value instanceof Integer) {
+            return INTEGER;
+        } else if (value instanceof Long) {
+            return LONG;
+        } else if (value instanceof Float) {
+            return FLOAT;
+        } else if (value instanceof Double) {
+            return DOUBLE;
+        } else {
+            return OBJECT;
+        }
+    }
+
+    private static long bits(Object value) {
+        if (value instanceof Boolean) {
+            return (Boolean) value ? 1 : 0;
+        } else if (value instanceof Float) {
+            return Float.floatToRawIntBits((Float) value);
+        } else if (value instanceof Double) {
+            return Double.doubleToRawLongBits((Double) value);
+        } else {
+            return ((Number) value).longValue();
+        }
+    }
+}
@@ -1,39 +1,163 @@
 package org.umlg.sqlg.structure;
 
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.function.LongSupplier;
 
 /**
  * Cache all statements to close them when iteration is done
+ * <p>
+ * Optionally, statements of completed queries are kept open on the transaction's connection, keyed by their sql, so
+ * that repeated queries do not prepare the same sql again.
+ * The cache is per thread and lives as long as the transaction, the statements are closed when the connection goes back
+ * to the pool. Reuse across transactions is left to the pool's statement cache, i.e. c3p0's maxStatementsPerConnection.
+ * Before an idle statement is reused the topology's change events are checked, after ddl by any thread or graph
+ * all the idle statements are closed.
  * Date: 2016/05/15
  * Time: 2:24 PM
  */
 public class PreparedStatementCache {
 
+    /**
+     * Configuration key, the maximum number of idle statements kept per transaction. 0 disables the statement cache.
+     */
+    public static final String STATEMENT_CACHE_SIZE = "statement.cache.size";
+    /**
+     * Configuration key, the eviction policy of the statement cache, either 'lru' or 'fifo'. Defaults to 'lru'.
+     */
+    public static final String STATEMENT_CACHE_EVICTION = "statement.cache.eviction";
+
     private Map<PreparedStatement,Boolean> cache = new IdentityHashMap<>();
+    //the sql of the statements that may be returned to the statement cache
+    private Map<PreparedStatement, String> cacheableStatements = new IdentityHashMap<>();
+    private final int statementCacheSize;
+    private final Map<String, PreparedStatement> statementCache;
+    private final LongSupplier topologyVersion;
+    //the topology's version the idle statements were prepared in
+    private long statementCacheTopologyVersion;
+
+    PreparedStatementCache() {
+        this(0, true, () -> 0);
+    }
+
+    PreparedStatementCache(int statementCacheSize, boolean lru, LongSupplier topologyVersion) {
+        this.statementCacheSize = statementCacheSize;
+        this.topologyVersion = topologyVersion;
+        this.statementCacheTopologyVersion = topologyVersion.getAsLong();
+        this.statementCache = new LinkedHashMap<String, PreparedStatement>(16, 0.75f, lru) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > PreparedStatementCache.this.statementCacheSize) {
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
 
     void add(PreparedStatement preparedStatement) {
         this.cache.put(preparedStatement,Boolean.TRUE);
     }
-    
+
     void remove(PreparedStatement preparedStatement) {
         this.cache.remove(preparedStatement);
     }
-    
+
+    /**
+     * Returns an idle statement for the sql if there is one, else prepares a new one.
+     * The statement must be handed back via {@link #release(PreparedStatement)}.
+     */
+    public PreparedStatement prepareStatement(Connection connection, String sql) throws SQLException {
+        invalidateIfTopologyChanged();
+        PreparedStatement preparedStatement = this.statementCache.remove(sql);
+        if (preparedStatement == null) {
+            preparedStatement = connection.prepareStatement(sql);
+        }
+        add(preparedStatement);
+        if (this.statementCacheSize > 0) {
+            this.cacheableStatements.put(preparedStatement, sql);
+        }
+        return preparedStatement;
+    }
+
+    /**
+     * The statement's query is complete. Keep the statement for reuse if it is cacheable, else close it.
+     */
+    public void release(PreparedStatement preparedStatement) throws SQLException {
+        remove(preparedStatement);
+        String sql = this.cacheableStatements.remove(preparedStatement);
+        //a statement prepared before a topology change is not kept
+        boolean topologyChanged = invalidateIfTopologyChanged();
+        if (sql != null && !topologyChanged && !preparedStatement.isClosed() && !this.statementCache.containsKey(sql)) {
+            preparedStatement.clearParameters();
+            this.statementCache.put(sql, preparedStatement);
+        } else {
+            preparedStatement.close();
+        }
+    }
+
+    /**
+     * @return true if the topology changed since the idle statements were prepared, they are closed.
+     */
+    private boolean invalidateIfTopologyChanged() {
+        long version = this.topologyVersion.getAsLong();
+        if (version != this.statementCacheTopologyVersion) {
+            invalidate();
+            this.statementCacheTopologyVersion = version;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Closes all idle statements. Called after ddl as the statements' plans are no longer valid.
+     */
+    public void invalidate() {
+        for (Iterator<PreparedStatement> iterator = this.statementCache.values().iterator(); iterator.hasNext(); ) {
+            closeQuietly(iterator.next());
+            iterator.remove();
+        }
+    }
+
     public void close() throws SQLException {
         for (PreparedStatement preparedStatement : this.cache.keySet()) {
             preparedStatement.close();
         }
         this.cache.clear();
+        this.cacheableStatements.clear();
+        for (PreparedStatement preparedStatement : this.statementCache.values()) {
+            preparedStatement.close();
+        }
+        this.statementCache.clear();
     }
 
     public boolean isEmpty() {
         return this.cache.isEmpty();
     }
-    
+
     public int size() {
     	return this.cache.size();
     }
+
+    /**
+     * @return the number of idle statements in the statement cache.
+     */
+    public int statementCacheSize() {
+        invalidateIfTopologyChanged();
+        return this.statementCache.size();
+    }
+
+    private static void closeQuietly(PreparedStatement preparedStatement) {
+        try {
+            preparedStatement.close();
+        } catch (SQLException e) {
+            //swallow, the statement is discarded anyhow
+        }
+    }
 }
@@ -0,0 +1,69 @@
+package org.umlg.sqlg.structure;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The property key to slot index table shared by all the elements of a label that use a {@link CompactPropertyMap}.
+ * Slots are only ever added, a property removed from the label keeps its slot.
+ * <p>
+ * Date: 2026/10/17
+ */
+final class PropertyLayout {
+
+    //copy on write, lookups do not lock
+    private volatile Map<String, Integer> slots = Collections.emptyMap();
+    private volatile String[] keys = new String[0];
+
+    /**
+     * @return the slot of the key or -1 if the key has no slot yet.
+     */
+    int slot(String key) {
+        Integer slot = this.slots.get(key);
+        return slot == null ? -1 : slot;
+    }
+
+    int slotOrAdd(String key) {
+        int slot = slot(key);
+        if (slot != -1) {
+            return slot;
+        }
+        synchronized (this) {
+            Integer existing = this.slots.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            slot = this.keys.length;
+            String[] keys = new String[slot + 1];
+            System.arraycopy(this.keys, 0, keys, 0, slot);
+            keys[slot] = key;
+            Map<String, Integer> slots = new HashMap<>(this.slots);
+            slots.put(key, slot);
+            this.keys = keys;
+            this.slots = slots;
+            return slot;
+        }
+    }
+
+    String key(int slot) {
+        return this.keys[slot];
+    }
+
+    /**
+     * The layouts of a graph, one per vertex or edge label.
+     */
+    static final class Layouts {
+
+        private final Map<String, Map<String, PropertyLayout>> vertexLayouts = new ConcurrentHashMap<>();
+        private final Map<String, Map<String, PropertyLayout>> edgeLayouts = new ConcurrentHashMap<>();
+
+        PropertyLayout get(boolean vertex, String schema, String table) {
+            Map<String, Map<String, PropertyLayout>> layouts = vertex ? this.vertexLayouts : this.edgeLayouts;
+            return layouts
+                    .computeIfAbsent(schema, s -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(table, t -> new PropertyLayout());
+        }
+    }
+}
@@ -101,6 +101,10 @@ public enum PropertyType {
         return name().endsWith("_ARRAY");
     }
 
+    public boolean isNumber() {
+        return this == BYTE || this == SHORT || this == INTEGER || this == LONG || this == FLOAT || this == DOUBLE;
+    }
+
     public boolean isString() {
         return this == PropertyType.STRING;
     }
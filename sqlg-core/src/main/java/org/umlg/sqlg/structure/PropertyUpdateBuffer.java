@@ -0,0 +1,140 @@
+package org.umlg.sqlg.structure;
+
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.umlg.sqlg.util.SqlgUtil;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * A transaction scoped write behind buffer for property updates of elements that are already in the db.
+ * Updates are coalesced per element and flushed per label as jdbc batches of multi column updates.
+ * The buffer is flushed before any other statement is executed on the transaction's connection and before commit.
+ * <p>
+ * Date: 2026/10/17
+ */
+class PropertyUpdateBuffer {
+
+    private static Logger logger = LoggerFactory.getLogger(PropertyUpdateBuffer.class);
+
+    private final SqlgGraph sqlgGraph;
+    private final int size;
+    //per label the buffered properties of each element.
+    private final Map<SchemaTable, Map<SqlgElement, SortedMap<String, Object>>> updates = new LinkedHashMap<>();
+    private int elementCount = 0;
+    private boolean busyFlushing = false;
+
+    PropertyUpdateBuffer(SqlgGraph sqlgGraph, int size) {
+        this.sqlgGraph = sqlgGraph;
+        this.size = size;
+    }
+
+    /**
+     * Buffers the update.
+     *
+     * @return true if the buffer is full and must be flushed.
+     */
+    boolean add(SqlgElement sqlgElement, String key, Object value) {
+        Map<SqlgElement, SortedMap<String, Object>> elements = this.updates.computeIfAbsent(sqlgElement.getSchemaTablePrefixed(), k -> new LinkedHashMap<>());
+        SortedMap<String, Object> properties = elements.get(sqlgElement);
+        if (properties == null) {
+            properties = new TreeMap<>();
+            elements.put(sqlgElement, properties);
+            this.elementCount++;
+        }
+        properties.put(key, value);
+        return this.elementCount >= this.size;
+    }
+
+    boolean isEmpty() {
+        return this.elementCount == 0;
+    }
+
+    boolean isBusyFlushing() {
+        return this.busyFlushing;
+    }
+
+    void flush(Connection connection) {
+        if (this.isEmpty() || this.busyFlushing) {
+            return;
+        }
+        this.busyFlushing = true;
+        try {
+            for (Map.Entry<SchemaTable, Map<SqlgElement, SortedMap<String, Object>>> labelEntry : this.updates.entrySet()) {
+                //only elements with the same properties, of the same types, can share an update statement
+                Map<List<Object>, List<Map.Entry<SqlgElement, SortedMap<String, Object>>>> statements = new LinkedHashMap<>();
+                for (Map.Entry<SqlgElement, SortedMap<String, Object>> elementEntry : labelEntry.getValue().entrySet()) {
+                    List<Object> statementKey = new ArrayList<>();
+                    for (Map.Entry<String, Object> property : elementEntry.getValue().entrySet()) {
+                        statementKey.add(property.getKey());
+                        statementKey.add(PropertyType.from(property.getValue()));
+                    }
+                    statements.computeIfAbsent(statementKey, k -> new ArrayList<>()).add(elementEntry);
+                }
+                for (List<Map.Entry<SqlgElement, SortedMap<String, Object>>> elements : statements.values()) {
+                    flushStatement(connection, labelEntry.getKey(), elements);
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        } finally {
+            this.clear();
+            this.busyFlushing = false;
+        }
+    }
+
+    private void flushStatement(Connection connection, SchemaTable schemaTable, List<Map.Entry<SqlgElement, SortedMap<String, Object>>> elements) throws SQLException {
+        SortedMap<String, Object> first = elements.get(0).getValue();
+        StringBuilder sql = new StringBuilder("UPDATE ");
+        sql.append(this.sqlgGraph.getSqlDialect().maybeWrapInQoutes(schemaTable.getSchema()));
+        sql.append(".");
+        sql.append(this.sqlgGraph.getSqlDialect().maybeWrapInQoutes(schemaTable.getTable()));
+        sql.append(" SET ");
+        boolean firstColumn = true;
+        for (Map.Entry<String, Object> property : first.entrySet()) {
+            if (!firstColumn) {
+                sql.append(", ");
+            }
+            firstColumn = false;
+            sql.append(this.sqlgGraph.getSqlDialect().maybeWrapInQoutes(property.getKey()));
+            sql.append(" = ?");
+            // some data types require several columns in the db, make sure to update them all
+            PropertyType pt = PropertyType.from(property.getValue());
+            String[] postfixes = this.sqlgGraph.getSqlDialect().propertyTypeToSqlDefinition(pt);
+            if (postfixes != null && postfixes.length > 1) {
+                for (int i = 1; i < postfixes.length; i++) {
+                    sql.append(", ");
+                    sql.append(this.sqlgGraph.getSqlDialect().maybeWrapInQoutes(property.getKey() + pt.getPostFixes()[i - 1]));
+                    sql.append(" = ?");
+                }
+            }
+        }
+        sql.append(" WHERE ");
+        sql.append(this.sqlgGraph.getSqlDialect().maybeWrapInQoutes("ID"));
+        sql.append(" = ?");
+        if (this.sqlgGraph.getSqlDialect().needsSemicolon()) {
+            sql.append(";");
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug(sql.toString());
+        }
+        try (PreparedStatement preparedStatement = connection.prepareStatement(sql.toString())) {
+            for (Map.Entry<SqlgElement, SortedMap<String, Object>> element : elements) {
+                List<ImmutablePair<PropertyType, Object>> typeAndValues = SqlgUtil.transformToTypeAndValue(element.getValue());
+                int idx = SqlgUtil.setKeyValuesAsParameter(this.sqlgGraph, true, 1, preparedStatement, typeAndValues);
+                preparedStatement.setLong(idx, ((RecordId) element.getKey().id()).getId());
+                preparedStatement.addBatch();
+            }
+            preparedStatement.executeBatch();
+        }
+    }
+
+    void clear() {
+        this.updates.clear();
+        this.elementCount = 0;
+    }
+}
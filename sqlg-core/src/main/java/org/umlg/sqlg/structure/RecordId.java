@@ -19,6 +19,8 @@ import org.umlg.sqlg.util.SqlgUtil;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Date: 2015/02/21
@@ -28,20 +30,25 @@ public class RecordId implements KryoSerializable, Comparable {
 
     @SuppressWarnings("WeakerAccess")
     public final static String RECORD_ID_DELIMITER = ":::";
-    private SchemaTable schemaTable;
-    private Long id;
+    //temporary tables come and go, the interned labels are capped to not grow forever.
+    private static final int MAX_INTERNED_LABELS = 10_000;
+    //the labels of the record ids, record ids of the same table share the one label.
+    private static final ConcurrentMap<SchemaTable, Label> LABELS = new ConcurrentHashMap<>();
+    //the label part of string ids, so that parsing an id does not split and allocate the label every time.
+    private static final ConcurrentMap<String, Label> PARSED_LABELS = new ConcurrentHashMap<>();
+    private Label label;
+    private long id;
 
     //For Kryo
     public RecordId() {
     }
 
-    private RecordId(SchemaTable schemaTable, Long id) {
-        this.schemaTable = schemaTable;
-        this.id = id;
+    private RecordId(SchemaTable schemaTable, long id) {
+        this(label(schemaTable), id);
     }
 
-    private RecordId(String label, Long id) {
-        this.schemaTable = SqlgUtil.parseLabel(label);
+    private RecordId(Label label, long id) {
+        this.label = label;
         this.id = id;
     }
 
@@ -72,26 +79,55 @@ public class RecordId implements KryoSerializable, Comparable {
             throw SqlgExceptions.invalidId(vertexId.toString());
         }
         String stringId = (String) vertexId;
-        String[] splittedId = stringId.split(RECORD_ID_DELIMITER);
-        if (splittedId.length != 2) {
+        int indexOfDelimiter = stringId.indexOf(RECORD_ID_DELIMITER);
+        if (indexOfDelimiter == -1 || stringId.indexOf(RECORD_ID_DELIMITER, indexOfDelimiter + RECORD_ID_DELIMITER.length()) != -1) {
             throw SqlgExceptions.invalidId(vertexId.toString());
         }
-        String label = splittedId[0];
-        String id = splittedId[1];
+        String label = stringId.substring(0, indexOfDelimiter);
+        String id = stringId.substring(indexOfDelimiter + RECORD_ID_DELIMITER.length());
         try {
-            Long labelId = Long.valueOf(id);
-            return new RecordId(label, labelId);
+            long labelId = Long.parseLong(id);
+            return new RecordId(parseLabel(label), labelId);
         } catch (NumberFormatException e) {
             throw SqlgExceptions.invalidId(vertexId.toString());
         }
     }
 
+    private static Label label(SchemaTable schemaTable) {
+        //the temporary flag is not part of SchemaTable's equality, an interned label would lose it.
+        if (schemaTable.isTemporary()) {
+            return new Label(schemaTable);
+        }
+        Label label = LABELS.get(schemaTable);
+        if (label == null) {
+            label = new Label(schemaTable);
+            if (LABELS.size() < MAX_INTERNED_LABELS) {
+                Label previous = LABELS.putIfAbsent(schemaTable, label);
+                if (previous != null) {
+                    label = previous;
+                }
+            }
+        }
+        return label;
+    }
+
+    private static Label parseLabel(String schemaTable) {
+        Label label = PARSED_LABELS.get(schemaTable);
+        if (label == null) {
+            label = label(SqlgUtil.parseLabel(schemaTable));
+            if (PARSED_LABELS.size() < MAX_INTERNED_LABELS) {
+                PARSED_LABELS.putIfAbsent(schemaTable, label);
+            }
+        }
+        return label;
+    }
+
     public SchemaTable getSchemaTable() {
-        return schemaTable;
+        return this.label.schemaTable;
     }
 
     public Long getId() {
-        return id;
+        return this.id;
     }
 
     static Map<SchemaTable, List<Long>> normalizeIds(List<RecordId> vertexId) {
@@ -109,15 +145,12 @@ public class RecordId implements KryoSerializable, Comparable {
 
     @Override
     public String toString() {
-        return this.schemaTable.toString() +
-                RECORD_ID_DELIMITER +
-                this.id.toString();
+        return this.label.prefix + this.id;
     }
 
     @Override
     public int hashCode() {
-        int result = this.schemaTable.hashCode();
-        return result ^ this.id.hashCode();
+        return this.label.hashCode ^ Long.hashCode(this.id);
     }
 
     @Override
@@ -132,19 +165,20 @@ public class RecordId implements KryoSerializable, Comparable {
             return false;
         }
         RecordId otherRecordId = (RecordId) other;
-        return this.schemaTable.equals(otherRecordId.getSchemaTable()) && this.id.equals(otherRecordId.getId());
+        return this.id == otherRecordId.id &&
+                (this.label == otherRecordId.label || this.label.schemaTable.equals(otherRecordId.label.schemaTable));
     }
 
     @Override
     public void write(Kryo kryo, Output output) {
         output.writeString(this.getSchemaTable().getSchema());
         output.writeString(this.getSchemaTable().getTable());
-        output.writeLong(this.getId());
+        output.writeLong(this.id);
     }
 
     @Override
     public void read(Kryo kryo, Input input) {
-        this.schemaTable = SchemaTable.of(input.readString(), input.readString());
+        this.label = label(SchemaTable.of(input.readString(), input.readString()));
         this.id = input.readLong();
     }
 
@@ -158,7 +192,24 @@ public class RecordId implements KryoSerializable, Comparable {
         if (first != 0) {
             return first;
         }
-        return this.getId().compareTo(other.getId());
+        return Long.compare(this.id, other.id);
+    }
+
+    /**
+     * The table of record ids, shared by the record ids of the same table.
+     */
+    private static final class Label {
+
+        private final SchemaTable schemaTable;
+        private final int hashCode;
+        //the toString of the record ids without the id.
+        private final String prefix;
+
+        private Label(SchemaTable schemaTable) {
+            this.schemaTable = schemaTable;
+            this.hashCode = schemaTable.hashCode();
+            this.prefix = schemaTable.toString() + RECORD_ID_DELIMITER;
+        }
     }
 
     public static class RecordIdJacksonSerializerV1d0 extends StdSerializer<RecordId> {
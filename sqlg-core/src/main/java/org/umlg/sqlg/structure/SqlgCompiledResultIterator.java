@@ -348,8 +348,8 @@ public class SqlgCompiledResultIterator<E> implements Iterator<E> {
     private void closePreparedStatement() {
         if (this.queryResult != null) {
             try {
-                this.queryResult.getRight().close();
-                this.sqlgGraph.tx().getPreparedStatementCache().remove(this.queryResult.getRight());
+                this.queryResult.getLeft().close();
+                this.sqlgGraph.tx().getPreparedStatementCache().release(this.queryResult.getRight());
                 this.queryResult = null;
             } catch (SQLException e) {
                 throw new RuntimeException(e);
@@ -192,7 +192,7 @@ public class SqlgEdge extends SqlgElement implements Edge {
     @Override
     protected void load() {
         //recordId can be null when in batchMode
-        if (this.recordId != null && this.properties.isEmpty()) {
+        if (this.recordId != null && isNotLoaded()) {
             this.sqlgGraph.tx().readWrite();
             if (this.sqlgGraph.getSqlDialect().supportsBatchMode() && this.sqlgGraph.tx().getBatchManager().isStreaming()) {
                 throw new IllegalStateException("streaming is in progress, first flush or commit before querying.");
@@ -268,6 +268,7 @@ public class SqlgEdge extends SqlgElement implements Edge {
 
     @Override
     public void loadResultSet(ResultSet resultSet) throws SQLException {
+        loadingProperties(true);
         SchemaTable inVertexColumnName = null;
         SchemaTable outVertexColumnName = null;
         int inVertexColumnIndex = 0;
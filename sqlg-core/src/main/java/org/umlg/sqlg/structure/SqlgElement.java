@@ -1,6 +1,5 @@
 package org.umlg.sqlg.structure;
 
-import com.google.common.base.Preconditions;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.tinkerpop.gremlin.structure.*;
@@ -16,7 +15,6 @@ import org.umlg.sqlg.util.SqlgUtil;
 import java.sql.*;
 import java.time.*;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 
 import static org.umlg.sqlg.sql.parse.SchemaTableTree.ALIAS_SEPARATOR;
 import static org.umlg.sqlg.structure.topology.Topology.EDGE_PREFIX;
@@ -35,7 +33,9 @@ public abstract class SqlgElement implements Element {
     RecordId recordId;
     protected final SqlgGraph sqlgGraph;
     //Multiple threads can access the same element
-    protected Map<String, Object> properties = new ConcurrentHashMap<>();
+    protected Map<String, Object> properties;
+    //true if the element was loaded by a query that only selected some of its properties.
+    volatile boolean partiallyLoaded = false;
     private SqlgElementElementPropertyRollback elementPropertyRollback;
     boolean removed = false;
     //Used in the SqlgBranchStepBarrier to sort the results by the start elements.
@@ -45,6 +45,7 @@ public abstract class SqlgElement implements Element {
         this.sqlgGraph = sqlgGraph;
         this.schema = schema;
         this.table = table;
+        this.properties = sqlgGraph.newPropertyMap(this instanceof Vertex, schema, table);
         this.elementPropertyRollback = new SqlgElementElementPropertyRollback();
 //        if (!this.graph.tx().isInStreamingBatchMode() && !this.graph.tx().isInStreamingWithLockBatchMode()) {
 //            graph.tx().addElementPropertyRollback(this.elementPropertyRollback);
@@ -58,6 +59,7 @@ public abstract class SqlgElement implements Element {
         this.sqlgGraph = sqlgGraph;
         this.schema = schema;
         this.table = table;
+        this.properties = sqlgGraph.newPropertyMap(this instanceof Vertex, schema, table);
         this.recordId = RecordId.from(SchemaTable.of(this.schema, this.table), id);
         this.elementPropertyRollback = new SqlgElementElementPropertyRollback();
 //        if (!this.graph.tx().isInStreamingBatchMode() && !this.graph.tx().isInStreamingWithLockBatchMode()) {
@@ -228,6 +230,28 @@ public abstract class SqlgElement implements Element {
      */
     protected abstract void load();
 
+    /**
+     * @return true if {@link #load()} needs to load the element's row from the db.
+     */
+    boolean isNotLoaded() {
+        return this.properties.isEmpty() || this.partiallyLoaded;
+    }
+
+    /**
+     * Called before the element's properties are loaded from a query's result set.
+     * An element that was not loaded before and only gets some of its properties is partially loaded,
+     * {@link #load()} loads the rest when they are accessed.
+     *
+     * @param allProperties false if the query only selected some of the element's properties.
+     */
+    public void loadingProperties(boolean allProperties) {
+        if (allProperties) {
+            this.partiallyLoaded = false;
+        } else if (this.properties.isEmpty()) {
+            this.partiallyLoaded = true;
+        }
+    }
+
     public String getSchema() {
         return schema;
     }
@@ -238,6 +262,10 @@ public abstract class SqlgElement implements Element {
 
     private void updateRow(String key, Object value) {
 
+        if (this instanceof Vertex) {
+            this.sqlgGraph.tx().invalidateCachedVertex(this.recordId);
+        }
+
         boolean elementInInsertedCache = false;
         if (this.sqlgGraph.getSqlDialect().supportsBatchMode() && this.sqlgGraph.tx().isInBatchMode()) {
             elementInInsertedCache = this.sqlgGraph.tx().getBatchManager().updateProperty(this, key, value);
@@ -271,45 +299,49 @@ public abstract class SqlgElement implements Element {
                 SqlgElement.updateGlobalUniqueIndex(this.sqlgGraph, globalUniqueIndex, this.recordId, propertyColumnObjectPair);
             }
 
-            String tableName = (this instanceof Vertex ? VERTEX_PREFIX : EDGE_PREFIX) + this.table;
-            StringBuilder sql = new StringBuilder("UPDATE ");
-            sql.append(this.sqlgGraph.getSqlDialect().maybeWrapInQoutes(this.schema));
-            sql.append(".");
-            sql.append(this.sqlgGraph.getSqlDialect().maybeWrapInQoutes(tableName));
-            sql.append(" SET ");
-            sql.append(this.sqlgGraph.getSqlDialect().maybeWrapInQoutes(key));
-            sql.append(" = ?");
-            // some data types require several columns in the db, make sure to update them all
-            PropertyType pt = PropertyType.from(value);
-            String[] postfixes = this.sqlgGraph.getSqlDialect().propertyTypeToSqlDefinition(pt);
-            if (postfixes != null && postfixes.length > 1) {
-                for (int i = 1; i < postfixes.length; i++) {
-                    sql.append(",");
-                    sql.append(this.sqlgGraph.getSqlDialect().maybeWrapInQoutes(key + pt.getPostFixes()[i - 1]));
-                    sql.append(" = ?");
+            if (this.sqlgGraph.tx().isPropertyUpdateBufferOn()) {
+                this.sqlgGraph.tx().bufferPropertyUpdate(this, key, value);
+            } else {
+                String tableName = (this instanceof Vertex ? VERTEX_PREFIX : EDGE_PREFIX) + this.table;
+                StringBuilder sql = new StringBuilder("UPDATE ");
+                sql.append(this.sqlgGraph.getSqlDialect().maybeWrapInQoutes(this.schema));
+                sql.append(".");
+                sql.append(this.sqlgGraph.getSqlDialect().maybeWrapInQoutes(tableName));
+                sql.append(" SET ");
+                sql.append(this.sqlgGraph.getSqlDialect().maybeWrapInQoutes(key));
+                sql.append(" = ?");
+                // some data types require several columns in the db, make sure to update them all
+                PropertyType pt = PropertyType.from(value);
+                String[] postfixes = this.sqlgGraph.getSqlDialect().propertyTypeToSqlDefinition(pt);
+                if (postfixes != null && postfixes.length > 1) {
+                    for (int i = 1; i < postfixes.length; i++) {
+                        sql.append(",");
+                        sql.append(this.sqlgGraph.getSqlDialect().maybeWrapInQoutes(key + pt.getPostFixes()[i - 1]));
+                        sql.append(" = ?");
+                    }
                 }
-            }
 
-            sql.append(" WHERE ");
-            sql.append(this.sqlgGraph.getSqlDialect().maybeWrapInQoutes("ID"));
-            sql.append(" = ?");
-            if (this.sqlgGraph.getSqlDialect().needsSemicolon()) {
-                sql.append(";");
-            }
-            if (logger.isDebugEnabled()) {
-                logger.debug(sql.toString());
-            }
-            Connection conn = this.sqlgGraph.tx().getConnection();
-            try (PreparedStatement preparedStatement = conn.prepareStatement(sql.toString())) {
-                Map<String, Object> keyValue = new HashMap<>();
-                keyValue.put(key, value);
-                // the index of the id column in the statement depend on how many columns we had to use to store that data type
-                int idx = setKeyValuesAsParameter(this.sqlgGraph, 1, preparedStatement, keyValue);
-                preparedStatement.setLong(idx, ((RecordId) this.id()).getId());
-                preparedStatement.executeUpdate();
-                preparedStatement.close();
-            } catch (SQLException e) {
-                throw new RuntimeException(e);
+                sql.append(" WHERE ");
+                sql.append(this.sqlgGraph.getSqlDialect().maybeWrapInQoutes("ID"));
+                sql.append(" = ?");
+                if (this.sqlgGraph.getSqlDialect().needsSemicolon()) {
+                    sql.append(";");
+                }
+                if (logger.isDebugEnabled()) {
+                    logger.debug(sql.toString());
+                }
+                Connection conn = this.sqlgGraph.tx().getConnection();
+                try (PreparedStatement preparedStatement = conn.prepareStatement(sql.toString())) {
+                    Map<String, Object> keyValue = new HashMap<>();
+                    keyValue.put(key, value);
+                    // the index of the id column in the statement depend on how many columns we had to use to store that data type
+                    int idx = setKeyValuesAsParameter(this.sqlgGraph, 1, preparedStatement, keyValue);
+                    preparedStatement.setLong(idx, ((RecordId) this.id()).getId());
+                    preparedStatement.executeUpdate();
+                    preparedStatement.close();
+                } catch (SQLException e) {
+                    throw new RuntimeException(e);
+                }
             }
         }
 
@@ -465,25 +497,13 @@ public abstract class SqlgElement implements Element {
     }
 
     private static void updateGlobalUniqueIndex(SqlgGraph sqlgGraph, GlobalUniqueIndex globalUniqueIndex, RecordId recordId, Pair<PropertyColumn, Object> propertyColumnObjectPair) {
-        List<Vertex> globalUniqueIndexVertexes = sqlgGraph.globalUniqueIndexes()
-                .V().hasLabel(Schema.GLOBAL_UNIQUE_INDEX_SCHEMA + "." + globalUniqueIndex.getName())
-                .has(GlobalUniqueIndex.GLOBAL_UNIQUE_INDEX_RECORD_ID, recordId.toString())
-                .has(GlobalUniqueIndex.GLOBAL_UNIQUE_INDEX_PROPERTY_NAME, propertyColumnObjectPair.getKey().getName())
-                .toList();
-
-        Preconditions.checkState(globalUniqueIndexVertexes.size() <= 1, "More than one GlobalUniqueIndex for %s and recordId %s found", Schema.GLOBAL_UNIQUE_INDEX_SCHEMA + "." + globalUniqueIndex.getName(), recordId.toString());
-        if (!globalUniqueIndexVertexes.isEmpty()) {
-            Vertex globalUniqueIndexVertex = globalUniqueIndexVertexes.get(0);
-            globalUniqueIndexVertex.property(GlobalUniqueIndex.GLOBAL_UNIQUE_INDEX_VALUE, propertyColumnObjectPair.getValue());
-        } else {
-            //This happens if the property is not present at all in which case the entry in the GlobalUniqueIndex table has not been created yet.
-            sqlgGraph.addVertex(
-                    T.label, Schema.GLOBAL_UNIQUE_INDEX_SCHEMA + "." + globalUniqueIndex.getName(),
-                    GlobalUniqueIndex.GLOBAL_UNIQUE_INDEX_VALUE, propertyColumnObjectPair.getValue(),
-                    GlobalUniqueIndex.GLOBAL_UNIQUE_INDEX_RECORD_ID, recordId.toString(),
-                    GlobalUniqueIndex.GLOBAL_UNIQUE_INDEX_PROPERTY_NAME, propertyColumnObjectPair.getKey().getName()
-            );
-        }
+        //This inserts the row if the property was not present at all in which case the entry in the GlobalUniqueIndex table has not been created yet.
+        sqlgGraph.getSqlDialect().upsertGlobalUniqueIndexValues(
+                sqlgGraph,
+                globalUniqueIndex,
+                propertyColumnObjectPair.getKey(),
+                Collections.singletonMap(recordId, propertyColumnObjectPair.getValue())
+        );
     }
 
     @Override
@@ -492,6 +512,14 @@ public abstract class SqlgElement implements Element {
         return SqlgElement.this.<V>internalGetProperties(propertyKeys).values().iterator();
     }
 
+    private void putPrimitive(String key, byte type, long bits) {
+        if (this.properties instanceof CompactPropertyMap) {
+            ((CompactPropertyMap) this.properties).putPrimitive(key, type, bits);
+        } else {
+            this.properties.put(key, CompactPropertyMap.box(type, bits));
+        }
+    }
+
     public void loadProperty(ResultSet resultSet, String propertyName, int columnIndex, Map<String, String> columnNameAliasMap, int stepDepth, PropertyType propertyType) throws SQLException {
         if (propertyName.endsWith(Topology.ZONEID) ||
                 propertyName.endsWith(Topology.MONTHS) ||
@@ -505,43 +533,43 @@ public abstract class SqlgElement implements Element {
             case BOOLEAN:
                 boolean aBoolean = resultSet.getBoolean(columnIndex);
                 if (!resultSet.wasNull()) {
-                    this.properties.put(propertyName, aBoolean);
+                    putPrimitive(propertyName, CompactPropertyMap.BOOLEAN, aBoolean ? 1 : 0);
                 }
                 break;
             case BYTE:
                 byte aByte = resultSet.getByte(columnIndex);
                 if (!resultSet.wasNull()) {
-                    this.properties.put(propertyName, aByte);
+                    putPrimitive(propertyName, CompactPropertyMap.BYTE, aByte);
                 }
                 break;
             case SHORT:
                 short s = resultSet.getShort(columnIndex);
                 if (!resultSet.wasNull()) {
-                    this.properties.put(propertyName, s);
+                    putPrimitive(propertyName, CompactPropertyMap.SHORT, s);
                 }
                 break;
             case INTEGER:
                 int anInt = resultSet.getInt(columnIndex);
                 if (!resultSet.wasNull()) {
-                    this.properties.put(propertyName, anInt);
+                    putPrimitive(propertyName, CompactPropertyMap.INTEGER, anInt);
                 }
                 break;
             case LONG:
                 long aLong = resultSet.getLong(columnIndex);
                 if (!resultSet.wasNull()) {
-                    this.properties.put(propertyName, aLong);
+                    putPrimitive(propertyName, CompactPropertyMap.LONG, aLong);
                 }
                 break;
             case FLOAT:
                 float aFloat = resultSet.getFloat(columnIndex);
                 if (!resultSet.wasNull()) {
-                    this.properties.put(propertyName, aFloat);
+                    putPrimitive(propertyName, CompactPropertyMap.FLOAT, Float.floatToRawIntBits(aFloat));
                 }
                 break;
             case DOUBLE:
                 double aDouble = resultSet.getDouble(columnIndex);
                 if (!resultSet.wasNull()) {
-                    this.properties.put(propertyName, aDouble);
+                    putPrimitive(propertyName, CompactPropertyMap.DOUBLE, Double.doubleToRawLongBits(aDouble));
                 }
                 break;
             case STRING:
@@ -51,6 +51,10 @@ public class SqlgExceptions {
         return new GisNotSupportedException("Gis is not supported");
     }
 
+    public static TopologyLockDeadlockException topologyLockDeadlock(String key) {
+        return new TopologyLockDeadlockException("Deadlock detected acquiring the topology lock on '" + key + "', rollback the transaction and retry.");
+    }
+
     public static class InvalidIdException extends RuntimeException {
 
         InvalidIdException(String message) {
@@ -99,4 +103,12 @@ public class SqlgExceptions {
 
     }
 
+    public static class TopologyLockDeadlockException extends RuntimeException {
+
+        TopologyLockDeadlockException(String message) {
+            super(message);
+        }
+
+    }
+
 }
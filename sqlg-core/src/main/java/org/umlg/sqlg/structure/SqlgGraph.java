@@ -26,6 +26,7 @@ import org.umlg.sqlg.SqlgPlugin;
 import org.umlg.sqlg.sql.dialect.SqlBulkDialect;
 import org.umlg.sqlg.sql.dialect.SqlDialect;
 import org.umlg.sqlg.sql.parse.GremlinParser;
+import org.umlg.sqlg.sql.parse.SqlTemplateCache;
 import org.umlg.sqlg.strategy.*;
 import org.umlg.sqlg.strategy.barrier.*;
 import org.umlg.sqlg.structure.SqlgDataSourceFactory.SqlgDataSource;
@@ -39,6 +40,7 @@ import org.umlg.sqlg.util.SqlgUtil;
 
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
 import static org.umlg.sqlg.structure.topology.Topology.EDGE_PREFIX;
@@ -189,6 +191,29 @@ public class SqlgGraph implements Graph {
 
     public static final String JDBC_URL = "jdbc.url";
     public static final String DISTRIBUTED = "distributed";
+    /**
+     * Configuration key, if true a distributed graph locks the topology within and between jvms per schema and label,
+     * so that independent topology changes in different threads and jvms do not wait on each other. Defaults to false.
+     */
+    public static final String DISTRIBUTED_LOCK_STRIPED = "distributed.lock.striped";
+    /**
+     * Configuration key, if true the topology is locked per schema and label within the jvm, so that independent
+     * topology changes in different threads do not wait on each other. Only used if the dialect
+     * {@link org.umlg.sqlg.sql.dialect.SqlDialect#supportsConcurrentTopologyChanges()}, a distributed graph uses
+     * {@link #DISTRIBUTED_LOCK_STRIPED} instead. Defaults to false.
+     */
+    public static final String TOPOLOGY_LOCK_STRIPED = "topology.lock.striped";
+    /**
+     * Configuration key, if true elements store their properties in a {@link CompactPropertyMap}, with numeric
+     * values unboxed and the keys shared per label. Defaults to false.
+     */
+    public static final String COMPACT_PROPERTIES = "properties.compact";
+    /**
+     * Configuration key, the path of a file that caches the topology between restarts. On startup the topology is
+     * assembled from the file if it is still in sync with sqlg_schema, else it is loaded from sqlg_schema and the file
+     * rewritten. The file is also rewritten on the commit of a topology change. Not set by default.
+     */
+    public static final String TOPOLOGY_SNAPSHOT_FILE = "topology.snapshot.file";
     public static final String MODE_FOR_STREAM_VERTEX = " mode for streamVertex";
     public static final String TRANSACTION_MUST_BE_IN = "Transaction must be in ";
     private final SqlgDataSource sqlgDataSource;
@@ -196,6 +221,10 @@ public class SqlgGraph implements Graph {
     private final SqlgTransaction sqlgTransaction;
     private Topology topology;
     private GremlinParser gremlinParser;
+    private SqlTemplateCache sqlTemplateCache;
+    private VertexCache vertexCache;
+    private boolean compactProperties;
+    private final PropertyLayout.Layouts propertyLayouts = new PropertyLayout.Layouts();
     private SqlDialect sqlDialect;
     private String jdbcUrl;
     private ObjectMapper mapper = new ObjectMapper();
@@ -226,6 +255,8 @@ public class SqlgGraph implements Graph {
                         new SqlgNotStepStepStrategy(),
                         new SqlgHasStepStrategy(),
                         new SqlgDropStepStrategy(),
+                        new SqlgAggregateStrategy(),
+                        new SqlgRestrictPropertiesStrategy(),
                         TopologyStrategy.build().create())
                 .removeStrategies(
                         PathRetractionStrategy.class)
@@ -312,6 +343,9 @@ public class SqlgGraph implements Graph {
         this.sqlgTransaction.setDefaultFetchSize(this.configuration.getInteger("fetch.size", this.sqlDialect.getDefaultFetchSize()));
         
         this.tx().readWrite();
+        this.sqlTemplateCache = new SqlTemplateCache(this);
+        this.vertexCache = new VertexCache(this);
+        this.compactProperties = this.configuration.getBoolean(COMPACT_PROPERTIES, false);
         //Instantiating Topology will create the 'public' schema if it does not exist.
         this.topology = new Topology(this);
         this.gremlinParser = new GremlinParser(this);
@@ -331,6 +365,22 @@ public class SqlgGraph implements Graph {
         return jdbcUrl;
     }
 
+    public SqlTemplateCache getSqlTemplateCache() {
+        return this.sqlTemplateCache;
+    }
+
+    public VertexCache getVertexCache() {
+        return this.vertexCache;
+    }
+
+    Map<String, Object> newPropertyMap(boolean vertex, String schema, String table) {
+        if (this.compactProperties) {
+            return new CompactPropertyMap(this.propertyLayouts.get(vertex, schema, table));
+        } else {
+            return new ConcurrentHashMap<>();
+        }
+    }
+
     public Topology getTopology() {
         return this.topology;
     }
@@ -344,7 +394,7 @@ public class SqlgGraph implements Graph {
     }
 
     @Override
-    public GraphTraversalSource traversal() {
+    public SqlgGraphTraversalSource traversal() {
         return this.traversal(SqlgGraphTraversalSource.class);
     }
 
@@ -490,6 +540,30 @@ public class SqlgGraph implements Graph {
         }
     }
 
+    /**
+     * Streaming variant of {@link #bulkAddEdges(String, String, String, Pair, Collection, Object...)} for any number of pairs.
+     * The pairs are consumed in chunks of {@link BatchManager#getBulkEdgesChunkSize()}, only the current chunk is held in memory.
+     */
+    public <L, R> void bulkAddEdges(String outVertexLabel, String inVertexLabel, String edgeLabel, Pair<String, String> idFields, Iterator<Pair<L, R>> uids, Object... keyValues) {
+        if (!(this.sqlDialect instanceof SqlBulkDialect)) {
+            throw new UnsupportedOperationException(String.format("Bulk mode is not supported for %s", this.sqlDialect.dialectName()));
+        }
+        SqlBulkDialect sqlBulkDialect = (SqlBulkDialect) this.sqlDialect;
+        if (!this.tx().isInStreamingBatchMode() && !this.tx().isInStreamingWithLockBatchMode()) {
+            throw SqlgExceptions.invalidMode(TRANSACTION_MUST_BE_IN + BatchManager.BatchModeType.STREAMING + " or " + BatchManager.BatchModeType.STREAMING_WITH_LOCK + " mode for bulkAddEdges");
+        }
+        if (uids.hasNext()) {
+            SchemaTable outSchemaTable = SchemaTable.from(this, outVertexLabel);
+            SchemaTable inSchemaTable = SchemaTable.from(this, inVertexLabel);
+            Triple<Map<String, PropertyType>, Map<String, Object>, Map<String, Object>> keyValueMapTriple = SqlgUtil.validateVertexKeysValues(this.sqlDialect, keyValues);
+            sqlBulkDialect.bulkAddEdges(this, outSchemaTable, inSchemaTable, edgeLabel, idFields, uids, this.tx().getBatchManager().getBulkEdgesChunkSize(), keyValueMapTriple.getLeft(), keyValueMapTriple.getRight());
+        }
+    }
+
+    public <L, R> void bulkAddEdges(String outVertexLabel, String inVertexLabel, String edgeLabel, Pair<String, String> idFields, Stream<Pair<L, R>> uids, Object... keyValues) {
+        bulkAddEdges(outVertexLabel, inVertexLabel, edgeLabel, idFields, uids.iterator(), keyValues);
+    }
+
 
     @Override
     public <C extends GraphComputer> C compute(Class<C> graphComputerClass) throws IllegalArgumentException {
@@ -1189,6 +1263,26 @@ public class SqlgGraph implements Graph {
                 String tableName = (returnVertices ? VERTEX_PREFIX : EDGE_PREFIX) + schemaTable.getTable();
                 if (this.getTopology().getAllTables().containsKey(schemaTable.getSchema() + "." + tableName)) {
                     List<Long> schemaTableIds = schemaTableListEntry.getValue();
+                    VertexCache.Stamp stamp = null;
+                    if (returnVertices && this.vertexCache.isEnabled(schemaTable.getSchema(), schemaTable.getTable())) {
+                        stamp = this.vertexCache.stamp();
+                        List<Long> notCachedIds = new ArrayList<>();
+                        for (Long id : schemaTableIds) {
+                            RecordId recordId = RecordId.from(schemaTable, id);
+                            Map<String, Object> cachedProperties = this.tx().isVertexCacheable(recordId) ? this.vertexCache.get(recordId) : null;
+                            if (cachedProperties != null) {
+                                SqlgVertex sqlgVertex = SqlgVertex.of(this, id, schemaTable.getSchema(), schemaTable.getTable());
+                                sqlgVertex.properties.putAll(cachedProperties);
+                                sqlgElements.add((T) sqlgVertex);
+                            } else {
+                                notCachedIds.add(id);
+                            }
+                        }
+                        if (notCachedIds.isEmpty()) {
+                            continue;
+                        }
+                        schemaTableIds = notCachedIds;
+                    }
                     StringBuilder sql = new StringBuilder("SELECT * FROM ");
                     sql.append(this.sqlDialect.maybeWrapInQoutes(schemaTable.getSchema()));
                     sql.append(".");
@@ -1230,6 +1324,9 @@ public class SqlgGraph implements Graph {
                                 sqlgElement = new SqlgEdge(this, id, schemaTable.getSchema(), schemaTable.getTable());
                             }
                             sqlgElement.loadResultSet(resultSet);
+                            if (stamp != null && this.tx().isVertexCacheable((RecordId) sqlgElement.id())) {
+                                this.vertexCache.put((RecordId) sqlgElement.id(), sqlgElement.properties, stamp);
+                            }
                             sqlgElements.add((T) sqlgElement);
                         }
                     } catch (SQLException e) {
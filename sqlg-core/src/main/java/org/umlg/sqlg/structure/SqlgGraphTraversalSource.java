@@ -1,8 +1,18 @@
 package org.umlg.sqlg.structure;
 
+import org.apache.tinkerpop.gremlin.process.traversal.Path;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.DefaultGraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.umlg.sqlg.sql.parse.ShortestPath;
+import org.umlg.sqlg.step.SqlgShortestPathStep;
+
+import java.util.Arrays;
+import java.util.HashSet;
 
 /**
  * Date: 2016/05/16
@@ -18,4 +28,24 @@ public class SqlgGraphTraversalSource extends GraphTraversalSource {
     public SqlgGraphTraversalSource(Graph graph, TraversalStrategies traversalStrategies) {
         super(graph, traversalStrategies);
     }
+
+    /**
+     * Finds a shortest path in the db, the equivalent of
+     * <code>g.V(from).repeat(both(edgeLabels).simplePath()).until(hasId(to)).limit(1).path()</code>
+     * without the traversers of all the other paths.
+     * A k-hop reachability check is <code>shortestPath(from, to, direction, k, edgeLabels).hasNext()</code>.
+     *
+     * @param from       the start vertex or its id.
+     * @param to         the end vertex or its id.
+     * @param direction  the direction of the edges from the start vertex towards the end vertex.
+     * @param maxHops    the maximum number of edges on the path.
+     * @param edgeLabels the edge labels to traverse, all edge labels if none.
+     * @return a traversal with one path of vertices, or none if the end vertex is not reachable in maxHops.
+     */
+    public GraphTraversal<Vertex, Path> shortestPath(Object from, Object to, Direction direction, int maxHops, String... edgeLabels) {
+        final GraphTraversalSource clone = this.clone();
+        final GraphTraversal.Admin<Vertex, Path> traversal = new DefaultGraphTraversal<>(clone);
+        ShortestPath shortestPath = new ShortestPath(RecordId.from(from), RecordId.from(to), direction, maxHops, new HashSet<>(Arrays.asList(edgeLabels)));
+        return traversal.addStep(new SqlgShortestPathStep<>(traversal, shortestPath));
+    }
 }
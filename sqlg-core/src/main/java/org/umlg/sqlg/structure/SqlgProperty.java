@@ -59,6 +59,9 @@ public class SqlgProperty<V> implements Property<V>, Serializable {
     @Override
     public void remove() {
         this.element.properties.remove(this.key);
+        if (this.element instanceof Vertex) {
+            this.sqlgGraph.tx().invalidateCachedVertex((RecordId) this.element.id());
+        }
         boolean elementInInsertedCache = false;
         if (this.sqlgGraph.getSqlDialect().supportsBatchMode() && this.sqlgGraph.tx().isInBatchMode()) {
             elementInInsertedCache = this.sqlgGraph.tx().getBatchManager().removeProperty(this, key);
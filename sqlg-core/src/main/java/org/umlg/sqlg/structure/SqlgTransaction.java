@@ -8,6 +8,7 @@ import org.apache.tinkerpop.gremlin.structure.util.TransactionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.umlg.sqlg.sql.dialect.SqlBulkDialect;
+import org.umlg.sqlg.sql.dialect.SqlSchemaChangeDialect;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -24,6 +25,12 @@ public class SqlgTransaction extends AbstractThreadLocalTransaction {
     private static final String BATCH_MODE_NOT_SUPPORTED = "Batch mode not supported!";
     @SuppressWarnings("WeakerAccess")
     public static final String QUERY_LAZY = "query.lazy";
+    /**
+     * Configuration key, the maximum number of elements whose property updates are buffered per transaction before
+     * being flushed as batched updates. Buffered updates are flushed before any other statement executes on the
+     * transaction's connection and before commit. 0 disables the buffer. Batch mode updates are not affected.
+     */
+    public static final String PROPERTY_UPDATE_BUFFER_SIZE = "property.update.buffer.size";
     
     private SqlgGraph sqlgGraph;
     private BeforeCommit beforeCommitFunction;
@@ -31,10 +38,12 @@ public class SqlgTransaction extends AbstractThreadLocalTransaction {
     private AfterRollback afterRollbackFunction;
     private static Logger logger = LoggerFactory.getLogger(SqlgTransaction.class);
     private boolean cacheVertices = false;
+    private final int propertyUpdateBufferSize;
+    private final boolean distributed;
 
     private final ThreadLocal<TransactionCache> threadLocalTx = ThreadLocal.withInitial(() -> null);
 
-    private final ThreadLocal<PreparedStatementCache> threadLocalPreparedStatementTx = ThreadLocal.withInitial(PreparedStatementCache::new);
+    private final ThreadLocal<PreparedStatementCache> threadLocalPreparedStatementTx;
 
     /**
      * default fetch size
@@ -46,6 +55,12 @@ public class SqlgTransaction extends AbstractThreadLocalTransaction {
         super(sqlgGraph);
         this.sqlgGraph = (SqlgGraph) sqlgGraph;
         this.cacheVertices = cacheVertices;
+        this.propertyUpdateBufferSize = this.sqlgGraph.configuration().getInt(PROPERTY_UPDATE_BUFFER_SIZE, 0);
+        this.distributed = this.sqlgGraph.configuration().getBoolean(SqlgGraph.DISTRIBUTED, false);
+        int statementCacheSize = this.sqlgGraph.configuration().getInt(PreparedStatementCache.STATEMENT_CACHE_SIZE, 0);
+        boolean lru = !"fifo".equalsIgnoreCase(this.sqlgGraph.configuration().getString(PreparedStatementCache.STATEMENT_CACHE_EVICTION, "lru"));
+        this.threadLocalPreparedStatementTx = ThreadLocal.withInitial(() -> new PreparedStatementCache(statementCacheSize, lru,
+                () -> this.sqlgGraph.getTopology() == null ? 0 : this.sqlgGraph.getTopology().getChangeEventCount()));
     }
 
     @Override
@@ -68,6 +83,9 @@ public class SqlgTransaction extends AbstractThreadLocalTransaction {
                    tc = TransactionCache.of(this.cacheVertices, connection, lazy);
                 }
                 tc.setFetchSize(getDefaultFetchSize());
+                if (this.propertyUpdateBufferSize > 0) {
+                    tc.setPropertyUpdateBuffer(new PropertyUpdateBuffer(this.sqlgGraph, this.propertyUpdateBufferSize));
+                }
                 this.threadLocalTx.set(tc);
             } catch (SQLException e) {
                 throw new RuntimeException(e);
@@ -81,6 +99,7 @@ public class SqlgTransaction extends AbstractThreadLocalTransaction {
             return;
         }
         try {
+            flushPropertyUpdates();
             if (supportsBatchMode() && this.threadLocalTx.get().getBatchManager().isInBatchMode()) {
                 getBatchManager().flush();
             }
@@ -88,7 +107,22 @@ public class SqlgTransaction extends AbstractThreadLocalTransaction {
             if (this.beforeCommitFunction != null) {
                 this.beforeCommitFunction.doBeforeCommit();
             }
+            TransactionCache transactionCache = this.threadLocalTx.get();
+            boolean invalidateVertexCache = transactionCache.isVertexCacheInvalidateAll() || !transactionCache.getVertexCacheInvalidations().isEmpty();
+            if (invalidateVertexCache && this.distributed) {
+                ((SqlSchemaChangeDialect) this.sqlgGraph.getSqlDialect()).notifyVertexCacheInvalidation(
+                        this.sqlgGraph,
+                        transactionCache.isVertexCacheInvalidateAll() ? null : transactionCache.getVertexCacheInvalidations()
+                );
+            }
             connection.commit();
+            if (invalidateVertexCache) {
+                if (transactionCache.isVertexCacheInvalidateAll()) {
+                    this.sqlgGraph.getVertexCache().invalidateAll();
+                } else {
+                    this.sqlgGraph.getVertexCache().invalidate(transactionCache.getVertexCacheInvalidations());
+                }
+            }
             connection.setAutoCommit(true);
             if (this.afterCommitFunction != null) {
                 this.afterCommitFunction.doAfterCommit();
@@ -150,6 +184,9 @@ public class SqlgTransaction extends AbstractThreadLocalTransaction {
 
     public void streamingWithLockBatchModeOn() {
         if (supportsBatchMode()) {
+            if (!this.sqlgGraph.getSqlDialect().supportsStreamingWithLockBatchMode()) {
+                throw new IllegalStateException(BatchManager.BatchModeType.STREAMING_WITH_LOCK + " batch mode is not supported on " + this.sqlgGraph.getSqlDialect().dialectName() + ", it can not lock the table while allocating ids.");
+            }
             readWrite();
             this.threadLocalTx.get().getBatchManager().batchModeOn(BatchManager.BatchModeType.STREAMING_WITH_LOCK);
         } else {
@@ -235,9 +272,62 @@ public class SqlgTransaction extends AbstractThreadLocalTransaction {
         if (!isOpen()) {
             readWrite();
         }
+        flushPropertyUpdates();
         return this.threadLocalTx.get().getConnection();
     }
 
+    boolean isPropertyUpdateBufferOn() {
+        return isOpen() && !isInBatchMode() && this.threadLocalTx.get().getPropertyUpdateBuffer() != null;
+    }
+
+    void bufferPropertyUpdate(SqlgElement sqlgElement, String key, Object value) {
+        if (this.threadLocalTx.get().getPropertyUpdateBuffer().add(sqlgElement, key, value)) {
+            flushPropertyUpdates();
+        }
+    }
+
+    /**
+     * The vertex is updated or removed in this transaction. It is invalidated in the {@link VertexCache} after commit.
+     */
+    public void invalidateCachedVertex(RecordId recordId) {
+        if (this.sqlgGraph.getVertexCache().isEnabled() && recordId != null) {
+            this.threadLocalTx.get().getVertexCacheInvalidations().add(recordId);
+        }
+    }
+
+    /**
+     * Vertices are removed in bulk in this transaction. The whole {@link VertexCache} is invalidated after commit.
+     */
+    public void invalidateCachedVertices() {
+        if (this.sqlgGraph.getVertexCache().isEnabled()) {
+            this.threadLocalTx.get().setVertexCacheInvalidateAll(true);
+        }
+    }
+
+    /**
+     * @return true if the vertex may be read from and put in the {@link VertexCache}.
+     */
+    boolean isVertexCacheable(RecordId recordId) {
+        if (!isOpen() || isInBatchMode()) {
+            return false;
+        }
+        TransactionCache transactionCache = this.threadLocalTx.get();
+        return !transactionCache.isVertexCacheInvalidateAll() && !transactionCache.getVertexCacheInvalidations().contains(recordId);
+    }
+
+    /**
+     * Executes the buffered property updates, if any.
+     */
+    public void flushPropertyUpdates() {
+        if (!isOpen()) {
+            return;
+        }
+        PropertyUpdateBuffer propertyUpdateBuffer = this.threadLocalTx.get().getPropertyUpdateBuffer();
+        if (propertyUpdateBuffer != null && !propertyUpdateBuffer.isEmpty() && !propertyUpdateBuffer.isBusyFlushing()) {
+            propertyUpdateBuffer.flush(this.threadLocalTx.get().getConnection());
+        }
+    }
+
     public void flush() {
         if (!this.isInBatchMode()) {
             throw new IllegalStateException("Transaction must be in batch mode to flush");
@@ -286,6 +376,16 @@ public class SqlgTransaction extends AbstractThreadLocalTransaction {
         this.threadLocalTx.get().add(sqlgVertex);
     }
 
+    /**
+     * Registers a temporary table that the values of a large P.within or P.without are loaded into.
+     *
+     * @return true if the table is not yet created in this transaction.
+     */
+    public boolean addBulkWithinOutTemporaryTable(String table) {
+        readWrite();
+        return this.threadLocalTx.get().getBulkWithinOutTemporaryTables().add(table);
+    }
+
     public void add(PreparedStatement preparedStatement) {
         this.threadLocalPreparedStatementTx.get().add(preparedStatement);
     }
@@ -237,6 +237,7 @@ public class SqlgVertex extends SqlgElement implements Vertex {
         if (this.removed)
             throw Element.Exceptions.elementAlreadyRemoved(this.getClass(), this.id());
 
+        this.sqlgGraph.tx().invalidateCachedVertex(this.recordId);
         if (this.sqlgGraph.getSqlDialect().supportsBatchMode() && this.sqlgGraph.tx().isInBatchMode()) {
             this.sqlgGraph.tx().getBatchManager().removeVertex(this.schema, this.table, this);
         } else {
@@ -379,14 +380,26 @@ public class SqlgVertex extends SqlgElement implements Vertex {
     protected void load() {
         //if in batch mode, only load vertexes that are not new.
         //new vertexes have no id, impossible to load, but then all its properties are already cached.
-        if ((this.properties.isEmpty() && !this.sqlgGraph.tx().isInBatchMode()) ||
-                (this.properties.isEmpty() && this.sqlgGraph.getSqlDialect().supportsBatchMode() && this.sqlgGraph.tx().isInBatchMode() &&
+        if ((isNotLoaded() && !this.sqlgGraph.tx().isInBatchMode()) ||
+                (isNotLoaded() && this.sqlgGraph.getSqlDialect().supportsBatchMode() && this.sqlgGraph.tx().isInBatchMode() &&
                         !this.sqlgGraph.tx().getBatchManager().vertexIsCached(this))) {
 
             if (this.sqlgGraph.getSqlDialect().supportsBatchMode() && this.sqlgGraph.tx().isOpen() && this.sqlgGraph.tx().getBatchManager().isStreaming()) {
                 throw new IllegalStateException("streaming is in progress, first flush or commit before querying.");
             }
 
+            VertexCache vertexCache = this.sqlgGraph.getVertexCache();
+            VertexCache.Stamp stamp = null;
+            if (vertexCache.isEnabled(this.schema, this.table) && this.sqlgGraph.tx().isVertexCacheable(this.recordId)) {
+                Map<String, Object> cachedProperties = vertexCache.get(this.recordId);
+                if (cachedProperties != null) {
+                    this.properties.putAll(cachedProperties);
+                    this.partiallyLoaded = false;
+                    return;
+                }
+                stamp = vertexCache.stamp();
+            }
+
             //Generate the columns to prevent 'ERROR: cached plan must not change result type" error'
             //This happens when the schema changes after the statement is prepared.
             @SuppressWarnings("OptionalGetWithoutIsPresent")
@@ -424,6 +437,9 @@ public class SqlgVertex extends SqlgElement implements Vertex {
                 ResultSet resultSet = preparedStatement.executeQuery();
                 if (resultSet.next()) {
                     loadResultSet(resultSet);
+                    if (stamp != null) {
+                        vertexCache.put(this.recordId, this.properties, stamp);
+                    }
                 } else {
                     throw new IllegalStateException(String.format("Vertex with label %s and id %d does not exist.", new Object[]{this.schema + "." + this.table, this.recordId.getId()}));
                 }
@@ -436,8 +452,16 @@ public class SqlgVertex extends SqlgElement implements Vertex {
     //TODO optimize the if statement here to be outside the main ResultSet loop
     @Override
     public void loadResultSet(ResultSet resultSet) throws SQLException {
+        loadResultSet(resultSet, 1);
+    }
+
+    /**
+     * Loads the properties from the columns starting at firstColumn, the columns before it are not the vertex's.
+     */
+    public void loadResultSet(ResultSet resultSet, int firstColumn) throws SQLException {
+        loadingProperties(true);
         ResultSetMetaData resultSetMetaData = resultSet.getMetaData();
-        for (int i = 1; i <= resultSetMetaData.getColumnCount(); i++) {
+        for (int i = firstColumn; i <= resultSetMetaData.getColumnCount(); i++) {
             String columnName = resultSetMetaData.getColumnLabel(i);
             if (!columnName.equals("ID")
                     && !columnName.equals(Topology.VERTEX_SCHEMA)
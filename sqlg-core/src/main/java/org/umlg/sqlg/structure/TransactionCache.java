@@ -2,7 +2,9 @@ package org.umlg.sqlg.structure;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.WeakHashMap;
 
 /**
@@ -15,8 +17,14 @@ class TransactionCache {
     private Connection connection;
     private Map<ElementPropertyRollback, Object> elementPropertyRollbackFunctions = new WeakHashMap<>();
     private BatchManager batchManager;
+    private PropertyUpdateBuffer propertyUpdateBuffer;
     private boolean cacheVertices = false;
     private Map<RecordId, SqlgVertex> vertexCache = new WeakHashMap<>();
+    //vertices to invalidate in the graph's VertexCache after commit.
+    private Set<RecordId> vertexCacheInvalidations = new HashSet<>();
+    private boolean vertexCacheInvalidateAll = false;
+    //the temporary tables of bulk within/without that are created in this transaction.
+    private Set<String> bulkWithinOutTemporaryTables = new HashSet<>();
 
     /**
      * are query result processed lazily or not?
@@ -69,11 +77,41 @@ class TransactionCache {
         return this.batchManager;
     }
 
+    Set<RecordId> getVertexCacheInvalidations() {
+        return this.vertexCacheInvalidations;
+    }
+
+    boolean isVertexCacheInvalidateAll() {
+        return this.vertexCacheInvalidateAll;
+    }
+
+    void setVertexCacheInvalidateAll(boolean vertexCacheInvalidateAll) {
+        this.vertexCacheInvalidateAll = vertexCacheInvalidateAll;
+    }
+
+    Set<String> getBulkWithinOutTemporaryTables() {
+        return this.bulkWithinOutTemporaryTables;
+    }
+
+    PropertyUpdateBuffer getPropertyUpdateBuffer() {
+        return this.propertyUpdateBuffer;
+    }
+
+    void setPropertyUpdateBuffer(PropertyUpdateBuffer propertyUpdateBuffer) {
+        this.propertyUpdateBuffer = propertyUpdateBuffer;
+    }
+
     void clear() {
         this.elementPropertyRollbackFunctions.clear();
         if (this.batchManager != null) {
             this.batchManager.clear();
         }
+        if (this.propertyUpdateBuffer != null) {
+            this.propertyUpdateBuffer.clear();
+        }
+        this.vertexCacheInvalidations.clear();
+        this.vertexCacheInvalidateAll = false;
+        this.bulkWithinOutTemporaryTables.clear();
         if (this.cacheVertices) {
             this.vertexCache.clear();
         }
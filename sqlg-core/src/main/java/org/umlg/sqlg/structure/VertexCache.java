@@ -0,0 +1,289 @@
+package org.umlg.sqlg.structure;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.umlg.sqlg.structure.topology.Topology;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.util.*;
+
+/**
+ * A graph wide cache of committed vertex properties, keyed by the vertex's {@link RecordId}.
+ * The cache is bounded by the estimated size of the cached properties and evicts the least recently used vertices.
+ * It is split into segments by the vertex's id, each with its own lock and an equal share of the size, so that
+ * concurrent lookups of different vertices do not contend on one lock.
+ * <p>
+ * Vertices updated or removed in a transaction are invalidated after the transaction commits.
+ * Until then the transaction does not read them from the cache nor put them in the cache.
+ * Entries loaded before a topology change are not returned after it.
+ * In distributed mode the invalidated vertices are published to the other graphs via the dialect.
+ * Changes made outside of sqlg are not detected.
+ * <p>
+ * Date: 2026/10/17
+ */
+public class VertexCache {
+
+    private static Logger logger = LoggerFactory.getLogger(VertexCache.class);
+
+    /**
+     * Configuration key, the maximum estimated size in bytes of the cached vertex properties. 0 disables the cache.
+     */
+    public static final String VERTEX_CACHE_MAX_WEIGHT = "vertex.cache.max.weight";
+    /**
+     * Configuration key, the vertex labels to cache, as 'schema.label' or as 'label' for the public schema.
+     * If absent all vertex labels are cached.
+     */
+    public static final String VERTEX_CACHE_LABELS = "vertex.cache.labels";
+    /**
+     * The notification channel used in distributed mode to invalidate the other graphs' vertex caches.
+     */
+    public static final String VERTEX_CACHE_NOTIFICATION_CHANNEL = "SQLG_VERTEX_NOTIFY";
+
+    private static final int NOTIFY_IDS_PER_MESSAGE = 500;
+    private static final int SEGMENTS = 16;
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final SqlgGraph sqlgGraph;
+    private final long maxWeight;
+    private final Set<String> labels = new HashSet<>();
+    private final Segment[] segments = new Segment[SEGMENTS];
+    //incremented on every invalidation, vertices loaded before an invalidation are not cached.
+    private volatile long epoch = 0;
+
+    VertexCache(SqlgGraph sqlgGraph) {
+        this.sqlgGraph = sqlgGraph;
+        this.maxWeight = sqlgGraph.configuration().getLong(VERTEX_CACHE_MAX_WEIGHT, 0L);
+        for (Object label : sqlgGraph.configuration().getList(VERTEX_CACHE_LABELS, Collections.emptyList())) {
+            this.labels.add(label.toString().trim());
+        }
+        for (int i = 0; i < SEGMENTS; i++) {
+            this.segments[i] = new Segment(this.maxWeight / SEGMENTS);
+        }
+    }
+
+    public boolean isEnabled() {
+        return this.maxWeight > 0;
+    }
+
+    boolean isEnabled(String schema, String table) {
+        if (this.maxWeight == 0 || Topology.SQLG_SCHEMA.equals(schema)) {
+            return false;
+        }
+        return this.labels.isEmpty() ||
+                this.labels.contains(schema + "." + table) ||
+                (schema.equals(this.sqlgGraph.getSqlDialect().getPublicSchema()) && this.labels.contains(table));
+    }
+
+    /**
+     * @return a stamp to pass to {@link #put(RecordId, Map, Stamp)} for properties that are about to be loaded.
+     */
+    Stamp stamp() {
+        return new Stamp(this.epoch, this.sqlgGraph.getTopology().getChangeVersion());
+    }
+
+    Map<String, Object> get(RecordId recordId) {
+        return segment(recordId).get(recordId, this.sqlgGraph.getTopology().getChangeVersion());
+    }
+
+    void put(RecordId recordId, Map<String, Object> properties, Stamp stamp) {
+        if (stamp.topologyVersion != this.sqlgGraph.getTopology().getChangeVersion()) {
+            return;
+        }
+        segment(recordId).put(recordId, properties, stamp);
+    }
+
+    /**
+     * The epoch is incremented before the vertices are removed, a concurrent {@link #put(RecordId, Map, Stamp)} of
+     * properties loaded before the invalidation is either rejected or removed after it.
+     */
+    synchronized void invalidate(Collection<RecordId> recordIds) {
+        this.epoch++;
+        for (RecordId recordId : recordIds) {
+            segment(recordId).remove(recordId);
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        this.epoch++;
+        for (Segment segment : this.segments) {
+            segment.clear();
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : this.segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public long weight() {
+        long weight = 0;
+        for (Segment segment : this.segments) {
+            weight += segment.weight();
+        }
+        return weight;
+    }
+
+    private Segment segment(RecordId recordId) {
+        int hash = recordId.hashCode();
+        return this.segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    /**
+     * Serializes the invalidated vertices into notification messages for the other graphs.
+     *
+     * @param recordIds the invalidated vertices, null if all vertices are invalidated.
+     */
+    public static List<String> toNotifications(Collection<RecordId> recordIds) {
+        List<String> result = new ArrayList<>();
+        if (recordIds == null) {
+            ObjectNode all = OBJECT_MAPPER.createObjectNode();
+            all.put("all", true);
+            result.add(all.toString());
+            return result;
+        }
+        Iterator<RecordId> iterator = recordIds.iterator();
+        while (iterator.hasNext()) {
+            ArrayNode ids = OBJECT_MAPPER.createArrayNode();
+            for (int i = 0; i < NOTIFY_IDS_PER_MESSAGE && iterator.hasNext(); i++) {
+                ids.add(iterator.next().toString());
+            }
+            ObjectNode message = OBJECT_MAPPER.createObjectNode();
+            message.set("ids", ids);
+            result.add(message.toString());
+        }
+        return result;
+    }
+
+    /**
+     * Invalidates the vertices of a notification received from another graph.
+     */
+    public void fromNotification(String notification) {
+        try {
+            JsonNode jsonNode = OBJECT_MAPPER.readTree(notification);
+            if (jsonNode.has("all")) {
+                invalidateAll();
+            } else {
+                List<RecordId> recordIds = new ArrayList<>();
+                for (JsonNode id : jsonNode.get("ids")) {
+                    recordIds.add(RecordId.from(id.asText()));
+                }
+                invalidate(recordIds);
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.error("Invalid vertex cache notification, invalidating the cache.", e);
+            invalidateAll();
+        }
+    }
+
+    /**
+     * A least recently used part of the cache, bounded by its share of the size.
+     */
+    private final class Segment {
+        private final long maxWeight;
+        private final LinkedHashMap<RecordId, CachedVertex> cache = new LinkedHashMap<>(16, 0.75f, true);
+        private long weight = 0;
+
+        private Segment(long maxWeight) {
+            this.maxWeight = maxWeight;
+        }
+
+        private synchronized Map<String, Object> get(RecordId recordId, long topologyVersion) {
+            CachedVertex cachedVertex = this.cache.get(recordId);
+            if (cachedVertex == null) {
+                return null;
+            }
+            if (cachedVertex.topologyVersion != topologyVersion) {
+                remove(recordId);
+                return null;
+            }
+            return new HashMap<>(cachedVertex.properties);
+        }
+
+        private synchronized void put(RecordId recordId, Map<String, Object> properties, Stamp stamp) {
+            //checked under the segment's lock, see invalidate
+            if (stamp.epoch != VertexCache.this.epoch) {
+                return;
+            }
+            remove(recordId);
+            CachedVertex cachedVertex = new CachedVertex(new HashMap<>(properties), stamp.topologyVersion);
+            if (cachedVertex.weight > this.maxWeight) {
+                return;
+            }
+            this.cache.put(recordId, cachedVertex);
+            this.weight += cachedVertex.weight;
+            for (Iterator<CachedVertex> iterator = this.cache.values().iterator(); this.weight > this.maxWeight && iterator.hasNext(); ) {
+                this.weight -= iterator.next().weight;
+                iterator.remove();
+            }
+        }
+
+        private synchronized void remove(RecordId recordId) {
+            CachedVertex cachedVertex = this.cache.remove(recordId);
+            if (cachedVertex != null) {
+                this.weight -= cachedVertex.weight;
+            }
+        }
+
+        private synchronized void clear() {
+            this.cache.clear();
+            this.weight = 0;
+        }
+
+        private synchronized int size() {
+            return this.cache.size();
+        }
+
+        private synchronized long weight() {
+            return this.weight;
+        }
+    }
+
+    static final class Stamp {
+        private final long epoch;
+        private final long topologyVersion;
+
+        private Stamp(long epoch, long topologyVersion) {
+            this.epoch = epoch;
+            this.topologyVersion = topologyVersion;
+        }
+    }
+
+    private static final class CachedVertex {
+        private final Map<String, Object> properties;
+        private final long topologyVersion;
+        private final long weight;
+
+        private CachedVertex(Map<String, Object> properties, long topologyVersion) {
+            this.properties = properties;
+            this.topologyVersion = topologyVersion;
+            this.weight = weigh(properties);
+        }
+    }
+
+    /**
+     * A rough estimate of the heap size of the properties.
+     */
+    private static long weigh(Map<String, Object> properties) {
+        long weight = 64;
+        for (Map.Entry<String, Object> entry : properties.entrySet()) {
+            weight += 48 + 2 * entry.getKey().length();
+            Object value = entry.getValue();
+            if (value instanceof String) {
+                weight += 40 + 2 * ((String) value).length();
+            } else if (value != null && value.getClass().isArray()) {
+                weight += 16 + 8 * Array.getLength(value);
+            } else {
+                weight += 24;
+            }
+        }
+        return weight;
+    }
+}
@@ -6,13 +6,13 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.base.Preconditions;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.text.RandomStringGenerator;
-import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.umlg.sqlg.structure.*;
 
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import static org.umlg.sqlg.structure.topology.Topology.*;
@@ -27,19 +27,22 @@ public abstract class AbstractLabel implements TopologyInf {
     protected boolean committed = true;
     protected String label;
     protected SqlgGraph sqlgGraph;
-    protected Map<String, PropertyColumn> properties = new HashMap<>();
+    //read by the threads that do not hold this label's lock while the owner commits.
+    protected Map<String, PropertyColumn> properties = new ConcurrentHashMap<>();
     Map<String, PropertyColumn> uncommittedProperties = new HashMap<>();
     Set<String> uncommittedRemovedProperties = new HashSet<>();
 
-    private Map<String, PropertyColumn> globalUniqueIndexProperties = new HashMap<>();
+    private Map<String, PropertyColumn> globalUniqueIndexProperties = new ConcurrentHashMap<>();
     private Map<String, PropertyColumn> uncommittedGlobalUniqueIndexProperties = new HashMap<>();
 
-    private Map<String, Index> indexes = new HashMap<>();
+    private Map<String, Index> indexes = new ConcurrentHashMap<>();
     private Map<String, Index> uncommittedIndexes = new HashMap<>();
     private Set<String> uncommittedRemovedIndexes = new HashSet<>();
 
     //Yet another cache to speed meta data up.
     private Map<String, PropertyType> propertyTypeMap;
+    //the label's key in the topology lock, set on first use.
+    private String lockKey;
 
     /**
      * Only called for a new vertex/edge label being added.
@@ -80,7 +83,7 @@ public abstract class AbstractLabel implements TopologyInf {
             	}
             }
         	
-            this.getSchema().getTopology().lock();
+            lockLabel();
             for (Index idx:this.getIndexes().values()){
             	if (idx.getProperties().equals(properties)){
             		return idx;
@@ -96,7 +99,7 @@ public abstract class AbstractLabel implements TopologyInf {
 
 	        Optional<Index> indexOptional = this.getIndex(indexName);
 	        if (!indexOptional.isPresent()) {
-	            this.getSchema().getTopology().lock();
+	            lockLabel();
 	            indexOptional = this.getIndex(indexName);
 	            if (!indexOptional.isPresent()) {
 	                return this.createIndex(indexName, indexType, properties);
@@ -136,10 +139,33 @@ public abstract class AbstractLabel implements TopologyInf {
         return getSchema().getName() + "." + getName();
     }
 
+    /**
+     * Locks the topology to change this label.
+     */
+    void lockLabel() {
+        getSchema().getTopology().lockLabels(SchemaTable.of(getSchema().getName(), getPrefix() + getLabel()));
+    }
+
+    /**
+     * The uncommitted changes of this label are only visible to the thread that holds its lock.
+     *
+     * @return true if the current thread holds the lock on this label, or on the whole topology.
+     */
+    boolean isSqlWriteLockHeldByCurrentThread() {
+        Topology topology = getSchema().getTopology();
+        if (!topology.isSqlWriteLockHeldByCurrentThread()) {
+            return false;
+        }
+        if (this.lockKey == null) {
+            this.lockKey = SchemaTable.of(getSchema().getName(), getPrefix() + getLabel()).toString();
+        }
+        return topology.isSqlWriteLockHeldByCurrentThread(this.lockKey);
+    }
+
     public Map<String, PropertyColumn> getProperties() {
         Map<String, PropertyColumn> result = new HashMap<>();
         result.putAll(this.properties);
-        if (this.getSchema().getTopology().isSqlWriteLockHeldByCurrentThread()) {
+        if (isSqlWriteLockHeldByCurrentThread()) {
             result.putAll(this.uncommittedProperties);
             for (String s : this.uncommittedRemovedProperties) {
                 result.remove(s);
@@ -152,7 +178,7 @@ public abstract class AbstractLabel implements TopologyInf {
     public Map<String, PropertyColumn> getGlobalUniqueIndexProperties() {
         Map<String, PropertyColumn> result = new HashMap<>();
         result.putAll(this.globalUniqueIndexProperties);
-        if (this.getSchema().getTopology().isSqlWriteLockHeldByCurrentThread()) {
+        if (isSqlWriteLockHeldByCurrentThread()) {
             result.putAll(this.uncommittedGlobalUniqueIndexProperties);
         }
         return result;
@@ -170,7 +196,7 @@ public abstract class AbstractLabel implements TopologyInf {
     public Map<String, Index> getIndexes() {
         Map<String, Index> result = new HashMap<>();
         result.putAll(this.indexes);
-        if (this.getSchema().getTopology().isSqlWriteLockHeldByCurrentThread()) {
+        if (isSqlWriteLockHeldByCurrentThread()) {
             result.putAll(this.uncommittedIndexes);
             for (String i : this.uncommittedRemovedIndexes) {
                 result.remove(i);
@@ -193,7 +219,7 @@ public abstract class AbstractLabel implements TopologyInf {
         for (Map.Entry<String, PropertyColumn> propertyEntry : this.properties.entrySet()) {
             result.put(propertyEntry.getKey(), propertyEntry.getValue().getPropertyType());
         }
-        if (getSchema().getTopology().isSqlWriteLockHeldByCurrentThread()) {
+        if (isSqlWriteLockHeldByCurrentThread()) {
             for (Map.Entry<String, PropertyColumn> uncommittedPropertyEntry : this.uncommittedProperties.entrySet()) {
                 result.put(uncommittedPropertyEntry.getKey(), uncommittedPropertyEntry.getValue().getPropertyType());
             }
@@ -205,7 +231,7 @@ public abstract class AbstractLabel implements TopologyInf {
     }
 
     Map<String, PropertyColumn> getUncommittedPropertyTypeMap() {
-        if (getSchema().getTopology().isSqlWriteLockHeldByCurrentThread()) {
+        if (isSqlWriteLockHeldByCurrentThread()) {
             return this.uncommittedProperties;
         } else {
             return Collections.emptyMap();
@@ -213,7 +239,7 @@ public abstract class AbstractLabel implements TopologyInf {
     }
 
     Set<String> getUncommittedRemovedProperties() {
-        if (getSchema().getTopology().isSqlWriteLockHeldByCurrentThread()) {
+        if (isSqlWriteLockHeldByCurrentThread()) {
             return this.uncommittedRemovedProperties;
         } else {
             return Collections.emptySet();
@@ -284,18 +310,22 @@ public abstract class AbstractLabel implements TopologyInf {
         }
     }
 
-    void addProperty(Vertex propertyVertex) {
+    PropertyColumn addProperty(String name, PropertyType propertyType) {
         Preconditions.checkState(this.getSchema().getTopology().isSqlWriteLockHeldByCurrentThread());
-        PropertyColumn property = new PropertyColumn(this, propertyVertex.value(SQLG_SCHEMA_PROPERTY_NAME), PropertyType.valueOf(propertyVertex.value(SQLG_SCHEMA_PROPERTY_TYPE)));
-        this.properties.put(propertyVertex.value(SQLG_SCHEMA_PROPERTY_NAME), property);
+        PropertyColumn property = new PropertyColumn(this, name, propertyType);
+        this.properties.put(name, property);
+        return property;
     }
 
     void afterCommit() {
         Preconditions.checkState(this.getSchema().getTopology().isSqlWriteLockHeldByCurrentThread(), "Abstract.afterCommit must hold the write lock");
+        if (!isSqlWriteLockHeldByCurrentThread()) {
+            return;
+        }
         for (Iterator<Map.Entry<String, PropertyColumn>> it = this.uncommittedProperties.entrySet().iterator(); it.hasNext(); ) {
             Map.Entry<String, PropertyColumn> entry = it.next();
-            this.properties.put(entry.getKey(), entry.getValue());
             entry.getValue().afterCommit();
+            this.properties.put(entry.getKey(), entry.getValue());
             it.remove();
             if (this.propertyTypeMap != null) {
                 this.propertyTypeMap.clear();
@@ -313,14 +343,14 @@ public abstract class AbstractLabel implements TopologyInf {
         }
         for (Iterator<Map.Entry<String, PropertyColumn>> it = this.uncommittedGlobalUniqueIndexProperties.entrySet().iterator(); it.hasNext(); ) {
             Map.Entry<String, PropertyColumn> entry = it.next();
-            this.globalUniqueIndexProperties.put(entry.getKey(), entry.getValue());
             entry.getValue().afterCommit();
+            this.globalUniqueIndexProperties.put(entry.getKey(), entry.getValue());
             it.remove();
         }
         for (Iterator<Map.Entry<String, Index>> it = this.uncommittedIndexes.entrySet().iterator(); it.hasNext(); ) {
             Map.Entry<String, Index> entry = it.next();
-            this.indexes.put(entry.getKey(), entry.getValue());
             entry.getValue().afterCommit();
+            this.indexes.put(entry.getKey(), entry.getValue());
             it.remove();
         }
         for (Iterator<String> it = this.uncommittedRemovedIndexes.iterator(); it.hasNext(); ) {
@@ -337,6 +367,9 @@ public abstract class AbstractLabel implements TopologyInf {
 
     void afterRollback() {
         Preconditions.checkState(this.getSchema().getTopology().isSqlWriteLockHeldByCurrentThread(), "Abstract.afterRollback must hold the write lock");
+        if (!isSqlWriteLockHeldByCurrentThread()) {
+            return;
+        }
         for (Iterator<Map.Entry<String, PropertyColumn>> it = this.uncommittedProperties.entrySet().iterator(); it.hasNext(); ) {
             Map.Entry<String, PropertyColumn> entry = it.next();
             entry.getValue().afterRollback();
@@ -369,7 +402,7 @@ public abstract class AbstractLabel implements TopologyInf {
     }
 
     protected Optional<JsonNode> toNotifyJson() {
-        if (this.getSchema().getTopology().isSqlWriteLockHeldByCurrentThread()) {
+        if (isSqlWriteLockHeldByCurrentThread()) {
             ObjectNode result = new ObjectNode(Topology.OBJECT_MAPPER.getNodeFactory());
             ArrayNode propertyArrayNode = new ArrayNode(Topology.OBJECT_MAPPER.getNodeFactory());
             for (PropertyColumn property : this.uncommittedProperties.values()) {
@@ -522,7 +555,7 @@ public abstract class AbstractLabel implements TopologyInf {
      * @param preserveData should we keep the SQL data
      */
     void removeIndex(Index idx, boolean preserveData) {
-        this.getSchema().getTopology().lock();
+        lockLabel();
         if (!uncommittedRemovedIndexes.contains(idx.getName())) {
             uncommittedRemovedIndexes.add(idx.getName());
             TopologyManager.removeIndex(this.sqlgGraph, idx);
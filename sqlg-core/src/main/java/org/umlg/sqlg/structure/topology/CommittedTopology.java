@@ -0,0 +1,90 @@
+package org.umlg.sqlg.structure.topology;
+
+import java.util.*;
+
+import static org.umlg.sqlg.structure.topology.Topology.EDGE_PREFIX;
+import static org.umlg.sqlg.structure.topology.Topology.VERTEX_PREFIX;
+
+/**
+ * An immutable view of the committed topology. The {@link Topology} publishes a new one through a volatile reference
+ * every time the committed topology changes.
+ * Threads that do not hold the topology's sql write lock only ever see the committed topology, they look up schemas,
+ * labels and properties here without locking, without building qualified names and without allocating.
+ * The uncommitted topology is only visible to the threads holding its locks and is not part of the view.
+ * <p>
+ * Date: 2026/10/17
+ */
+final class CommittedTopology {
+
+    static final CommittedTopology EMPTY = new CommittedTopology(0, Collections.emptyList());
+
+    private final long version;
+    private final Map<String, SchemaView> schemas;
+
+    /**
+     * Must be called with the topology map write lock or the sql write lock held, i.e. while the committed topology
+     * can not change.
+     */
+    CommittedTopology(long version, Collection<Schema> schemas) {
+        this.version = version;
+        Map<String, SchemaView> schemaViews = new HashMap<>();
+        for (Schema schema : schemas) {
+            schemaViews.put(schema.getName(), new SchemaView(schema));
+        }
+        this.schemas = schemaViews;
+    }
+
+    long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * @return the view of the schema or null if there is no committed schema with the name.
+     */
+    SchemaView getSchemaView(String schemaName) {
+        return this.schemas.get(schemaName);
+    }
+
+    Optional<Schema> getSchema(String schemaName) {
+        SchemaView schemaView = this.schemas.get(schemaName);
+        return schemaView == null ? Optional.empty() : schemaView.schema;
+    }
+
+    static final class SchemaView {
+
+        private final Optional<Schema> schema;
+        //keyed by the label without prefix
+        private final Map<String, Optional<VertexLabel>> vertexLabels = new HashMap<>();
+        private final Map<String, Optional<EdgeLabel>> edgeLabels = new HashMap<>();
+        //keyed by the prefixed table name, as in SchemaTable.getTable()
+        private final Map<String, Map<String, PropertyColumn>> properties = new HashMap<>();
+
+        private SchemaView(Schema schema) {
+            this.schema = Optional.of(schema);
+            for (VertexLabel vertexLabel : schema.getVertexLabelsOnly().values()) {
+                this.vertexLabels.put(vertexLabel.getLabel(), Optional.of(vertexLabel));
+                this.properties.put(VERTEX_PREFIX + vertexLabel.getLabel(), Collections.unmodifiableMap(new HashMap<>(vertexLabel.properties)));
+            }
+            for (EdgeLabel edgeLabel : schema.getOutEdgeLabelsOnly().values()) {
+                this.edgeLabels.put(edgeLabel.getLabel(), Optional.of(edgeLabel));
+                this.properties.put(EDGE_PREFIX + edgeLabel.getLabel(), Collections.unmodifiableMap(new HashMap<>(edgeLabel.properties)));
+            }
+        }
+
+        boolean isViewOf(Schema schema) {
+            return this.schema.get() == schema;
+        }
+
+        Optional<VertexLabel> getVertexLabel(String label) {
+            return this.vertexLabels.getOrDefault(label, Optional.empty());
+        }
+
+        Optional<EdgeLabel> getEdgeLabel(String label) {
+            return this.edgeLabels.getOrDefault(label, Optional.empty());
+        }
+
+        Map<String, PropertyColumn> getPropertiesFor(String prefixedTable) {
+            return this.properties.getOrDefault(prefixedTable, Collections.emptyMap());
+        }
+    }
+}
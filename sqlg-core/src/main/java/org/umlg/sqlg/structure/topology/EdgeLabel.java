@@ -16,6 +16,7 @@ import org.umlg.sqlg.structure.TopologyChangeAction;
 
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.umlg.sqlg.structure.topology.Topology.*;
 
@@ -28,8 +29,8 @@ public class EdgeLabel extends AbstractLabel {
     private static Logger logger = LoggerFactory.getLogger(EdgeLabel.class);
     //This just won't stick in my brain.
     //hand (out) ----<label>---- finger (in)
-    Set<VertexLabel> outVertexLabels = new HashSet<>();
-    Set<VertexLabel> inVertexLabels = new HashSet<>();
+    Set<VertexLabel> outVertexLabels = ConcurrentHashMap.newKeySet();
+    Set<VertexLabel> inVertexLabels = ConcurrentHashMap.newKeySet();
     private Set<VertexLabel> uncommittedOutVertexLabels = new HashSet<>();
     private Set<VertexLabel> uncommittedInVertexLabels = new HashSet<>();
     private Set<VertexLabel> uncommittedRemovedInVertexLabels = new HashSet<>();
@@ -96,9 +97,10 @@ public class EdgeLabel extends AbstractLabel {
     public void ensurePropertiesExist(Map<String, PropertyType> columns) {
         for (Map.Entry<String, PropertyType> column : columns.entrySet()) {
             if (!this.properties.containsKey(column.getKey())) {
-                if (!this.uncommittedProperties.containsKey(column.getKey())) {
-                    this.getSchema().getTopology().lock();
-                    if (!this.uncommittedProperties.containsKey(column.getKey())) {
+                if (!isSqlWriteLockHeldByCurrentThread() || !this.uncommittedProperties.containsKey(column.getKey())) {
+                    lockLabel();
+                    //another transaction might have committed the property while this one waited for the lock.
+                    if (!this.properties.containsKey(column.getKey()) && !this.uncommittedProperties.containsKey(column.getKey())) {
                         TopologyManager.addEdgeColumn(this.sqlgGraph, this.getSchema().getName(), EDGE_PREFIX + getLabel(), column);
                         addColumn(this.getSchema().getName(), EDGE_PREFIX + getLabel(), ImmutablePair.of(column.getKey(), column.getValue()));
                         PropertyColumn propertyColumn = new PropertyColumn(this, column.getKey(), column.getValue());
@@ -236,6 +238,9 @@ public class EdgeLabel extends AbstractLabel {
     void afterCommit() {
         Preconditions.checkState(this.getSchema().getTopology().isSqlWriteLockHeldByCurrentThread(), "EdgeLabel.afterCommit must hold the write lock");
         super.afterCommit();
+        if (!isSqlWriteLockHeldByCurrentThread()) {
+            return;
+        }
         for (Iterator<VertexLabel> it = this.uncommittedInVertexLabels.iterator(); it.hasNext(); ) {
             VertexLabel vertexLabel = it.next();
             this.inVertexLabels.add(vertexLabel);
@@ -260,14 +265,18 @@ public class EdgeLabel extends AbstractLabel {
 
     void afterRollbackInEdges(VertexLabel vertexLabel) {
         Preconditions.checkState(this.getSchema().getTopology().isSqlWriteLockHeldByCurrentThread(), "EdgeLabel.afterRollback must hold the write lock");
-        super.afterRollback();
-        this.uncommittedInVertexLabels.remove(vertexLabel);
+        if (isSqlWriteLockHeldByCurrentThread()) {
+            super.afterRollback();
+            this.uncommittedInVertexLabels.remove(vertexLabel);
+        }
     }
 
     void afterRollbackOutEdges(VertexLabel vertexLabel) {
         Preconditions.checkState(this.getSchema().getTopology().isSqlWriteLockHeldByCurrentThread(), "EdgeLabel.afterRollback must hold the write lock");
-        super.afterRollback();
-        this.uncommittedOutVertexLabels.remove(vertexLabel);
+        if (isSqlWriteLockHeldByCurrentThread()) {
+            super.afterRollback();
+            this.uncommittedOutVertexLabels.remove(vertexLabel);
+        }
     }
 
     @Override
@@ -290,7 +299,7 @@ public class EdgeLabel extends AbstractLabel {
             case BOTH:
                 throw new IllegalStateException("foreignKeysContains may not be called for Direction.BOTH");
         }
-        if (this.topology.isSqlWriteLockHeldByCurrentThread()) {
+        if (isSqlWriteLockHeldByCurrentThread()) {
             switch (direction) {
                 case OUT:
                     if (this.uncommittedOutVertexLabels.contains(vertexLabel)) {
@@ -313,12 +322,12 @@ public class EdgeLabel extends AbstractLabel {
     Set<String> getAllEdgeForeignKeys() {
         Set<String> result = new HashSet<>();
         for (VertexLabel vertexLabel : this.getInVertexLabels()) {
-            if (!this.getSchema().getTopology().isSqlWriteLockHeldByCurrentThread() || !this.uncommittedRemovedInVertexLabels.contains(vertexLabel)) {
+            if (!isSqlWriteLockHeldByCurrentThread() || !this.uncommittedRemovedInVertexLabels.contains(vertexLabel)) {
                 result.add(vertexLabel.getSchema().getName() + "." + vertexLabel.getLabel() + Topology.IN_VERTEX_COLUMN_END);
             }
         }
         for (VertexLabel vertexLabel : this.getOutVertexLabels()) {
-            if (!this.getSchema().getTopology().isSqlWriteLockHeldByCurrentThread() || !this.uncommittedRemovedOutVertexLabels.contains(vertexLabel)) {
+            if (!isSqlWriteLockHeldByCurrentThread() || !this.uncommittedRemovedOutVertexLabels.contains(vertexLabel)) {
                 result.add(vertexLabel.getSchema().getName() + "." + vertexLabel.getLabel() + Topology.OUT_VERTEX_COLUMN_END);
             }
         }
@@ -328,7 +337,7 @@ public class EdgeLabel extends AbstractLabel {
     Set<String> getUncommittedEdgeForeignKeys() {
         Set<String> result = new HashSet<>();
         //noinspection Duplicates
-        if (this.getSchema().getTopology().isSqlWriteLockHeldByCurrentThread()) {
+        if (isSqlWriteLockHeldByCurrentThread()) {
             for (VertexLabel vertexLabel : this.uncommittedInVertexLabels) {
                 if (!this.uncommittedRemovedInVertexLabels.contains(vertexLabel)) {
                     result.add(vertexLabel.getFullName() + Topology.IN_VERTEX_COLUMN_END);
@@ -350,7 +359,7 @@ public class EdgeLabel extends AbstractLabel {
     public Set<VertexLabel> getOutVertexLabels() {
         Set<VertexLabel> result = new HashSet<>();
         result.addAll(this.outVertexLabels);
-        if (isValid() && this.getSchema().getTopology().isSqlWriteLockHeldByCurrentThread()) {
+        if (isValid() && isSqlWriteLockHeldByCurrentThread()) {
             result.addAll(this.uncommittedOutVertexLabels);
             result.removeAll(this.uncommittedRemovedOutVertexLabels);
         }
@@ -360,7 +369,7 @@ public class EdgeLabel extends AbstractLabel {
     public Set<VertexLabel> getInVertexLabels() {
         Set<VertexLabel> result = new HashSet<>();
         result.addAll(this.inVertexLabels);
-        if (isValid() && this.getSchema().getTopology().isSqlWriteLockHeldByCurrentThread()) {
+        if (isValid() && isSqlWriteLockHeldByCurrentThread()) {
             result.addAll(this.uncommittedInVertexLabels);
             result.removeAll(this.uncommittedRemovedInVertexLabels);
         }
@@ -375,7 +384,7 @@ public class EdgeLabel extends AbstractLabel {
             }
         }
 
-        if (this.getSchema().getTopology().isSqlWriteLockHeldByCurrentThread()) {
+        if (isSqlWriteLockHeldByCurrentThread()) {
             for (VertexLabel lbl : this.uncommittedOutVertexLabels) {
                 if (!this.uncommittedOutVertexLabels.contains(lbl)) {
                     result.add(new EdgeRole(lbl, this, Direction.OUT, false));
@@ -393,7 +402,7 @@ public class EdgeLabel extends AbstractLabel {
             }
         }
 
-        if (this.getSchema().getTopology().isSqlWriteLockHeldByCurrentThread()) {
+        if (isSqlWriteLockHeldByCurrentThread()) {
             for (VertexLabel lbl : this.uncommittedInVertexLabels) {
                 if (!this.uncommittedInVertexLabels.contains(lbl)) {
                     result.add(new EdgeRole(lbl, this, Direction.IN, false));
@@ -412,7 +421,10 @@ public class EdgeLabel extends AbstractLabel {
         if (!foreignKeysContains(direction, vertexLabel)) {
             //Make sure the current thread/transaction owns the lock
             Schema schema = this.getSchema();
-            schema.getTopology().lock();
+            schema.getTopology().lockLabels(
+                    SchemaTable.of(schema.getName(), EDGE_PREFIX + getLabel()),
+                    SchemaTable.of(vertexLabel.getSchema().getName(), VERTEX_PREFIX + vertexLabel.getLabel())
+            );
             if (!foreignKeysContains(direction, vertexLabel)) {
                 TopologyManager.addLabelToEdge(this.sqlgGraph, this.getSchema().getName(), EDGE_PREFIX + getLabel(), direction == Direction.IN, foreignKey);
                 if (direction == Direction.IN) {
@@ -541,7 +553,7 @@ public class EdgeLabel extends AbstractLabel {
         }
         EdgeLabel otherEdgeLabel = (EdgeLabel) other;
         if (isValid()) {
-            if (this.getSchema().getTopology().isSqlWriteLockHeldByCurrentThread() && !this.uncommittedInVertexLabels.isEmpty()) {
+            if (isSqlWriteLockHeldByCurrentThread() && !this.uncommittedInVertexLabels.isEmpty()) {
                 VertexLabel vertexLabel = this.uncommittedOutVertexLabels.iterator().next();
                 VertexLabel otherVertexLabel = otherEdgeLabel.uncommittedOutVertexLabels.iterator().next();
                 return vertexLabel.getSchema().equals(otherVertexLabel.getSchema()) && otherEdgeLabel.getLabel().equals(this.getLabel());
@@ -610,7 +622,7 @@ public class EdgeLabel extends AbstractLabel {
         }
         edgeLabelNode.set("inVertexLabels", inVertexLabelArrayNode);
 
-        if (isValid() && this.getSchema().getTopology().isSqlWriteLockHeldByCurrentThread()) {
+        if (isValid() && isSqlWriteLockHeldByCurrentThread()) {
             outVertexLabelArrayNode = new ArrayNode(Topology.OBJECT_MAPPER.getNodeFactory());
             for (VertexLabel outVertexLabel : this.uncommittedOutVertexLabels) {
                 ObjectNode outVertexLabelObjectNode = new ObjectNode(Topology.OBJECT_MAPPER.getNodeFactory());
@@ -648,7 +660,7 @@ public class EdgeLabel extends AbstractLabel {
             edgeLabelNode.set("uncommittedRemovedIndexes", abstractLabelNode.get().get("uncommittedRemovedIndexes"));
         }
 
-        if (this.getSchema().getTopology().isSqlWriteLockHeldByCurrentThread() && !this.uncommittedOutVertexLabels.isEmpty()) {
+        if (isSqlWriteLockHeldByCurrentThread() && !this.uncommittedOutVertexLabels.isEmpty()) {
             foundSomething = true;
             ArrayNode outVertexLabelArrayNode = new ArrayNode(Topology.OBJECT_MAPPER.getNodeFactory());
             for (VertexLabel outVertexLabel : this.uncommittedOutVertexLabels) {
@@ -659,7 +671,7 @@ public class EdgeLabel extends AbstractLabel {
             edgeLabelNode.set("uncommittedOutVertexLabels", outVertexLabelArrayNode);
         }
 
-        if (this.getSchema().getTopology().isSqlWriteLockHeldByCurrentThread() && !this.uncommittedRemovedOutVertexLabels.isEmpty()) {
+        if (isSqlWriteLockHeldByCurrentThread() && !this.uncommittedRemovedOutVertexLabels.isEmpty()) {
             foundSomething = true;
             ArrayNode outVertexLabelArrayNode = new ArrayNode(Topology.OBJECT_MAPPER.getNodeFactory());
             for (VertexLabel outVertexLabel : this.uncommittedRemovedOutVertexLabels) {
@@ -670,7 +682,7 @@ public class EdgeLabel extends AbstractLabel {
             edgeLabelNode.set("uncommittedRemovedOutVertexLabels", outVertexLabelArrayNode);
         }
 
-        if (this.getSchema().getTopology().isSqlWriteLockHeldByCurrentThread() && !this.uncommittedInVertexLabels.isEmpty()) {
+        if (isSqlWriteLockHeldByCurrentThread() && !this.uncommittedInVertexLabels.isEmpty()) {
             foundSomething = true;
             ArrayNode inVertexLabelArrayNode = new ArrayNode(Topology.OBJECT_MAPPER.getNodeFactory());
             for (VertexLabel inVertexLabel : this.uncommittedInVertexLabels) {
@@ -681,7 +693,7 @@ public class EdgeLabel extends AbstractLabel {
             edgeLabelNode.set("uncommittedInVertexLabels", inVertexLabelArrayNode);
         }
 
-        if (this.getSchema().getTopology().isSqlWriteLockHeldByCurrentThread() && !this.uncommittedRemovedInVertexLabels.isEmpty()) {
+        if (isSqlWriteLockHeldByCurrentThread() && !this.uncommittedRemovedInVertexLabels.isEmpty()) {
             foundSomething = true;
             ArrayNode inVertexLabelArrayNode = new ArrayNode(Topology.OBJECT_MAPPER.getNodeFactory());
             for (VertexLabel inVertexLabel : this.uncommittedRemovedInVertexLabels) {
@@ -723,7 +735,7 @@ public class EdgeLabel extends AbstractLabel {
 
     @Override
     void removeProperty(PropertyColumn propertyColumn, boolean preserveData) {
-        this.getSchema().getTopology().lock();
+        lockLabel();
         if (!uncommittedRemovedProperties.contains(propertyColumn.getName())) {
             uncommittedRemovedProperties.add(propertyColumn.getName());
             TopologyManager.removeEdgeColumn(this.sqlgGraph, this.getSchema().getName(), EDGE_PREFIX + getLabel(), propertyColumn.getName());
@@ -54,7 +54,7 @@ public class PropertyColumn implements TopologyInf {
     public Set<GlobalUniqueIndex> getGlobalUniqueIndices() {
         HashSet<GlobalUniqueIndex> result = new HashSet<>();
         result.addAll(this.globalUniqueIndices);
-        if (this.abstractLabel.getSchema().getTopology().isSqlWriteLockHeldByCurrentThread()) {
+        if (this.abstractLabel.isSqlWriteLockHeldByCurrentThread()) {
             result.addAll(this.uncommittedGlobalUniqueIndices);
         }
         return result;
@@ -5,20 +5,16 @@ import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.base.Preconditions;
 import org.apache.commons.lang3.tuple.Pair;
-import org.apache.tinkerpop.gremlin.process.traversal.Path;
-import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
-import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
 import org.apache.tinkerpop.gremlin.structure.Direction;
-import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.umlg.sqlg.sql.dialect.SqlDialect;
-import org.umlg.sqlg.strategy.BaseStrategy;
 import org.umlg.sqlg.structure.*;
 
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.umlg.sqlg.structure.topology.Topology.EDGE_PREFIX;
 import static org.umlg.sqlg.structure.topology.Topology.VERTEX_PREFIX;
@@ -36,20 +32,20 @@ public class Schema implements TopologyInf {
     private String name;
     private boolean committed = true;
     //The key is schema + "." + VERTEX_PREFIX + vertex label. i.e. "A.V_A"
-    private Map<String, VertexLabel> vertexLabels = new HashMap<>();
-    private Map<String, VertexLabel> uncommittedVertexLabels = new HashMap<>();
+    private Map<String, VertexLabel> vertexLabels = new ConcurrentHashMap<>();
+    //keyed by the label's lock key, each entry is only visible to the thread that holds its lock.
+    private Map<String, VertexLabel> uncommittedVertexLabels = new ConcurrentHashMap<>();
     public Set<String> uncommittedRemovedVertexLabels = new HashSet<>();
 
-    private Map<String, EdgeLabel> outEdgeLabels = new HashMap<>();
-    private Map<String, EdgeLabel> uncommittedOutEdgeLabels = new HashMap<>();
+    private Map<String, EdgeLabel> outEdgeLabels = new ConcurrentHashMap<>();
+    private Map<String, EdgeLabel> uncommittedOutEdgeLabels = new ConcurrentHashMap<>();
     Set<String> uncommittedRemovedEdgeLabels = new HashSet<>();
 
     public static final String SQLG_SCHEMA = "sqlg_schema";
     public static final String GLOBAL_UNIQUE_INDEX_SCHEMA = "gui_schema";
     private Map<String, GlobalUniqueIndex> uncommittedGlobalUniqueIndexes = new HashMap<>();
     private Set<String> uncommittedRemovedGlobalUniqueIndexes = new HashSet<>();
-    Map<String, GlobalUniqueIndex> globalUniqueIndexes = new HashMap<>();
-    private static final String MARKER = "~gremlin.incidentToAdjacent";
+    Map<String, GlobalUniqueIndex> globalUniqueIndexes = new ConcurrentHashMap<>();
 
     //temporary table map. it is in a thread local as temporary tables are only valid per session/connection.
     private final ThreadLocal<Map<String, Map<String, PropertyType>>> threadLocalTemporaryTables = ThreadLocal.withInitial(HashMap::new);
@@ -146,7 +142,7 @@ public class Schema implements TopologyInf {
 
         final String prefixedTable = VERTEX_PREFIX + label;
         if (!this.threadLocalTemporaryTables.get().containsKey(prefixedTable)) {
-            this.topology.lock();
+            this.topology.lockLabels(SchemaTable.of(this.name, prefixedTable));
             if (!this.threadLocalTemporaryTables.get().containsKey(prefixedTable)) {
                 this.threadLocalTemporaryTables.get().put(prefixedTable, columns);
                 createTempTable(prefixedTable, columns);
@@ -160,7 +156,7 @@ public class Schema implements TopologyInf {
 
         Optional<VertexLabel> vertexLabelOptional = this.getVertexLabel(label);
         if (!vertexLabelOptional.isPresent()) {
-            this.topology.lock();
+            this.topology.lockLabels(SchemaTable.of(this.name, VERTEX_PREFIX + label));
             vertexLabelOptional = this.getVertexLabel(label);
             if (!vertexLabelOptional.isPresent()) {
                 return this.createVertexLabel(label, columns, additional);
@@ -187,7 +183,11 @@ public class Schema implements TopologyInf {
         EdgeLabel edgeLabel;
         Optional<EdgeLabel> edgeLabelOptional = this.getEdgeLabel(edgeLabelName);
         if (!edgeLabelOptional.isPresent()) {
-            this.topology.lock();
+            this.topology.lockLabels(
+                    SchemaTable.of(this.name, EDGE_PREFIX + edgeLabelName),
+                    SchemaTable.of(outVertexLabel.getSchema().getName(), VERTEX_PREFIX + outVertexLabel.getLabel()),
+                    SchemaTable.of(inVertexLabel.getSchema().getName(), VERTEX_PREFIX + inVertexLabel.getLabel())
+            );
             edgeLabelOptional = this.getEdgeLabel(edgeLabelName);
             if (!edgeLabelOptional.isPresent()) {
                 edgeLabel = this.createEdgeLabel(edgeLabelName, outVertexLabel, inVertexLabel, columns, additional);
@@ -321,16 +321,38 @@ public class Schema implements TopologyInf {
     }
 
     private Map<String, VertexLabel> getUncommittedVertexLabels() {
-        return this.uncommittedVertexLabels;
+        return owned(this.uncommittedVertexLabels);
+    }
+
+    /**
+     * @return the uncommitted labels the current thread holds the lock of.
+     */
+    private <L extends AbstractLabel> Map<String, L> owned(Map<String, L> uncommittedLabels) {
+        if (uncommittedLabels.isEmpty() || !this.topology.isSqlWriteLockHeldByCurrentThread()) {
+            return Collections.emptyMap();
+        }
+        Map<String, L> result = new HashMap<>();
+        for (Map.Entry<String, L> entry : uncommittedLabels.entrySet()) {
+            if (this.topology.isSqlWriteLockHeldByCurrentThread(entry.getKey())) {
+                result.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return result;
     }
 
     public Optional<VertexLabel> getVertexLabel(String vertexLabelName) {
         Preconditions.checkArgument(!vertexLabelName.startsWith(VERTEX_PREFIX), "vertex label may not start with \"%s\"", Topology.VERTEX_PREFIX);
+        if (this.topology.readsCommittedTopology()) {
+            CommittedTopology.SchemaView committed = this.topology.getCommittedTopology().getSchemaView(this.name);
+            if (committed != null && committed.isViewOf(this)) {
+                return committed.getVertexLabel(vertexLabelName);
+            }
+        }
         if (this.topology.isSqlWriteLockHeldByCurrentThread() && this.uncommittedRemovedVertexLabels.contains(this.name + "." + VERTEX_PREFIX + vertexLabelName)) {
             return Optional.empty();
         }
         VertexLabel result = null;
-        if (this.topology.isSqlWriteLockHeldByCurrentThread()) {
+        if (this.topology.isSqlWriteLockHeldByCurrentThread(this.name + "." + VERTEX_PREFIX + vertexLabelName)) {
             result = this.uncommittedVertexLabels.get(this.name + "." + VERTEX_PREFIX + vertexLabelName);
         }
         if (result==null){
@@ -343,7 +365,7 @@ public class Schema implements TopologyInf {
         Map<String, EdgeLabel> result = new HashMap<>();
         result.putAll(this.outEdgeLabels);
         if (this.topology.isSqlWriteLockHeldByCurrentThread()) {
-            result.putAll(this.uncommittedOutEdgeLabels);
+            result.putAll(owned(this.uncommittedOutEdgeLabels));
             for (String e : uncommittedRemovedEdgeLabels) {
                 result.remove(e);
             }
@@ -357,7 +379,7 @@ public class Schema implements TopologyInf {
             result.putAll(vertexLabel.getUncommittedOutEdgeLabels());
         }
         if (this.topology.isSqlWriteLockHeldByCurrentThread()) {
-            for (VertexLabel vertexLabel : this.uncommittedVertexLabels.values()) {
+            for (VertexLabel vertexLabel : getUncommittedVertexLabels().values()) {
                 result.putAll(vertexLabel.getUncommittedOutEdgeLabels());
             }
             for (String e : uncommittedRemovedEdgeLabels) {
@@ -369,6 +391,12 @@ public class Schema implements TopologyInf {
 
     public Optional<EdgeLabel> getEdgeLabel(String edgeLabelName) {
         Preconditions.checkArgument(!edgeLabelName.startsWith(Topology.EDGE_PREFIX), "edge label may not start with \"%s\"", Topology.EDGE_PREFIX);
+        if (this.topology.readsCommittedTopology()) {
+            CommittedTopology.SchemaView committed = this.topology.getCommittedTopology().getSchemaView(this.name);
+            if (committed != null && committed.isViewOf(this)) {
+                return committed.getEdgeLabel(edgeLabelName);
+            }
+        }
         if (this.topology.isSqlWriteLockHeldByCurrentThread() && this.uncommittedRemovedEdgeLabels.contains(this.name + "." + EDGE_PREFIX + edgeLabelName)) {
             return Optional.empty();
         }
@@ -376,7 +404,7 @@ public class Schema implements TopologyInf {
         if (edgeLabel != null) {
             return Optional.of(edgeLabel);
         }
-        if (this.topology.isSqlWriteLockHeldByCurrentThread()) {
+        if (this.topology.isSqlWriteLockHeldByCurrentThread(this.name + "." + EDGE_PREFIX + edgeLabelName)) {
             edgeLabel = this.uncommittedOutEdgeLabels.get(this.name + "." + EDGE_PREFIX + edgeLabelName);
             if (edgeLabel != null) {
                 return Optional.of(edgeLabel);
@@ -393,7 +421,7 @@ public class Schema implements TopologyInf {
             result.put(vertexQualifiedName, vertexLabelEntry.getValue().getPropertyTypeMap());
         }
         if (this.topology.isSqlWriteLockHeldByCurrentThread()) {
-            for (Map.Entry<String, VertexLabel> vertexLabelEntry : this.uncommittedVertexLabels.entrySet()) {
+            for (Map.Entry<String, VertexLabel> vertexLabelEntry : getUncommittedVertexLabels().entrySet()) {
                 String vertexQualifiedName = vertexLabelEntry.getKey();
                 VertexLabel vertexLabel = vertexLabelEntry.getValue();
                 result.put(vertexQualifiedName, vertexLabel.getPropertyTypeMap());
@@ -410,11 +438,15 @@ public class Schema implements TopologyInf {
         return this.vertexLabels;
     }
 
+    Map<String, EdgeLabel> getOutEdgeLabelsOnly() {
+        return this.outEdgeLabels;
+    }
+
     public Map<String, VertexLabel> getVertexLabels() {
         Map<String, VertexLabel> result = new HashMap<>();
         result.putAll(this.vertexLabels);
         if (this.topology.isSqlWriteLockHeldByCurrentThread()) {
-            result.putAll(this.uncommittedVertexLabels);
+            result.putAll(getUncommittedVertexLabels());
             for (String e : uncommittedRemovedVertexLabels) {
                 result.remove(e);
             }
@@ -433,7 +465,7 @@ public class Schema implements TopologyInf {
                 result.put(vertexQualifiedName, vertexLabelEntry.getValue());
             }
         }
-        for (Map.Entry<String, VertexLabel> stringVertexLabelEntry : this.uncommittedVertexLabels.entrySet()) {
+        for (Map.Entry<String, VertexLabel> stringVertexLabelEntry : getUncommittedVertexLabels().entrySet()) {
             String vertexQualifiedLabel = stringVertexLabelEntry.getKey();
             VertexLabel vertexLabel = stringVertexLabelEntry.getValue();
             result.put(vertexQualifiedLabel, vertexLabel);
@@ -455,7 +487,7 @@ public class Schema implements TopologyInf {
                 result.put(schemaTable, uncommittedSchemaTableForeignKeys);
             }
         }
-        for (Map.Entry<String, VertexLabel> uncommittedVertexLabelEntry : this.uncommittedVertexLabels.entrySet()) {
+        for (Map.Entry<String, VertexLabel> uncommittedVertexLabelEntry : getUncommittedVertexLabels().entrySet()) {
             String vertexQualifiedName = this.name + "." + VERTEX_PREFIX + uncommittedVertexLabelEntry.getValue().getLabel();
             SchemaTable schemaTable = SchemaTable.from(this.sqlgGraph, vertexQualifiedName);
             Pair<Set<SchemaTable>, Set<SchemaTable>> uncommittedSchemaTableForeignKeys = uncommittedVertexLabelEntry.getValue().getUncommittedSchemaTableForeignKeys();
@@ -469,7 +501,7 @@ public class Schema implements TopologyInf {
         for (EdgeLabel outEdgeLabel : this.outEdgeLabels.values()) {
             result.put(this.getName() + "." + Topology.EDGE_PREFIX + outEdgeLabel.getLabel(), outEdgeLabel.getUncommittedEdgeForeignKeys());
         }
-        for (EdgeLabel outEdgeLabel : this.uncommittedOutEdgeLabels.values()) {
+        for (EdgeLabel outEdgeLabel : owned(this.uncommittedOutEdgeLabels).values()) {
             result.put(this.getName() + "." + Topology.EDGE_PREFIX + outEdgeLabel.getLabel(), outEdgeLabel.getUncommittedEdgeForeignKeys());
         }
         return result;
@@ -533,7 +565,7 @@ public class Schema implements TopologyInf {
         }
         Map<SchemaTable, Pair<Set<SchemaTable>, Set<SchemaTable>>> uncommittedResult = new HashMap<>();
         if (this.topology.isSqlWriteLockHeldByCurrentThread()) {
-            for (Map.Entry<String, VertexLabel> vertexLabelEntry : this.uncommittedVertexLabels.entrySet()) {
+            for (Map.Entry<String, VertexLabel> vertexLabelEntry : getUncommittedVertexLabels().entrySet()) {
                 Preconditions.checkState(!vertexLabelEntry.getValue().getLabel().startsWith(VERTEX_PREFIX), "vertexLabel may not start with " + VERTEX_PREFIX);
                 String prefixedVertexName = VERTEX_PREFIX + vertexLabelEntry.getValue().getLabel();
                 SchemaTable schemaTable = SchemaTable.of(this.getName(), prefixedVertexName);
@@ -605,10 +637,11 @@ public class Schema implements TopologyInf {
 
     void afterCommit() {
         Preconditions.checkState(this.getTopology().isSqlWriteLockHeldByCurrentThread(), "Schema.afterCommit must hold the write lock");
-        for (Iterator<Map.Entry<String, VertexLabel>> it = this.uncommittedVertexLabels.entrySet().iterator(); it.hasNext(); ) {
-            Map.Entry<String, VertexLabel> entry = it.next();
+        for (Map.Entry<String, VertexLabel> entry : getUncommittedVertexLabels().entrySet()) {
+            //lock holders of other labels read the committed labels, only add the label once it is committed itself.
+            entry.getValue().afterCommit();
             this.vertexLabels.put(entry.getKey(), entry.getValue());
-            it.remove();
+            this.uncommittedVertexLabels.remove(entry.getKey());
         }
         if (getName().equals(GLOBAL_UNIQUE_INDEX_SCHEMA)) {
             for (Iterator<Map.Entry<String, GlobalUniqueIndex>> it = this.uncommittedGlobalUniqueIndexes.entrySet().iterator(); it.hasNext(); ) {
@@ -644,21 +677,15 @@ public class Schema implements TopologyInf {
             it.remove();
         }
 
-        this.uncommittedOutEdgeLabels.clear();
+        this.uncommittedOutEdgeLabels.keySet().removeAll(owned(this.uncommittedOutEdgeLabels).keySet());
         this.committed = true;
     }
 
     void afterRollback() {
         Preconditions.checkState(this.getTopology().isSqlWriteLockHeldByCurrentThread(), "Schema.afterRollback must hold the write lock");
-        for (Iterator<Map.Entry<String, VertexLabel>> it = this.uncommittedVertexLabels.entrySet().iterator(); it.hasNext(); ) {
-            Map.Entry<String, VertexLabel> entry = it.next();
+        for (Map.Entry<String, VertexLabel> entry : getUncommittedVertexLabels().entrySet()) {
             entry.getValue().afterRollbackForInEdges();
-            it.remove();
-        }
-        for (Iterator<Map.Entry<String, VertexLabel>> it = this.uncommittedVertexLabels.entrySet().iterator(); it.hasNext(); ) {
-            Map.Entry<String, VertexLabel> entry = it.next();
-            entry.getValue().afterRollbackForOutEdges();
-            it.remove();
+            this.uncommittedVertexLabels.remove(entry.getKey());
         }
         if (getName().equals(GLOBAL_UNIQUE_INDEX_SCHEMA)) {
             for (Iterator<Map.Entry<String, GlobalUniqueIndex>> it = this.uncommittedGlobalUniqueIndexes.entrySet().iterator(); it.hasNext(); ) {
@@ -678,7 +705,7 @@ public class Schema implements TopologyInf {
                 globalUniqueIndex.afterRollback();
             }
         }
-        this.uncommittedOutEdgeLabels.clear();
+        this.uncommittedOutEdgeLabels.keySet().removeAll(owned(this.uncommittedOutEdgeLabels).keySet());
         this.uncommittedRemovedEdgeLabels.clear();
         this.uncommittedRemovedVertexLabels.clear();
         this.uncommittedRemovedGlobalUniqueIndexes.clear();
@@ -688,339 +715,38 @@ public class Schema implements TopologyInf {
         return this.name.equals(SQLG_SCHEMA);
     }
 
-    void loadVertexOutEdgesAndProperties(GraphTraversalSource traversalSource, Vertex schemaVertex) {
-        //First load the vertex and its properties
-        List<Path> vertices = traversalSource
-                .V(schemaVertex)
-                .out(SQLG_SCHEMA_SCHEMA_VERTEX_EDGE).as("vertex")
-                //a vertex does not necessarily have properties so use optional.
-                .optional(
-                        __.out(SQLG_SCHEMA_VERTEX_PROPERTIES_EDGE).as("property")
-                )
-                .path()
-                .toList();
-        for (Path vertexProperties : vertices) {
-            Vertex vertexVertex = null;
-            Vertex propertyVertex = null;
-            List<Set<String>> labelsList = vertexProperties.labels();
-            for (Set<String> labels : labelsList) {
-                for (String label : labels) {
-                    switch (label) {
-                        case "vertex":
-                            vertexVertex = vertexProperties.get("vertex");
-                            break;
-                        case "property":
-                            propertyVertex = vertexProperties.get("property");
-                            break;
-                        case "sqlgPathFakeLabel":
-                            break;
-                        case MARKER:
-                            break;
-                        default:
-                            throw new IllegalStateException(String.format("BUG: Only \"vertex\" and \"property\" is expected as a label. Found %s", label));
-                    }
-                }
-            }
-            Preconditions.checkState(vertexVertex != null, "BUG: Topology vertex not found.");
-            String schemaName = schemaVertex.value(SQLG_SCHEMA_SCHEMA_NAME);
-            String tableName = vertexVertex.value(SQLG_SCHEMA_VERTEX_LABEL_NAME);
-            VertexLabel vertexLabel = this.vertexLabels.get(schemaName + "." + VERTEX_PREFIX + tableName);
-            if (vertexLabel == null) {
-                vertexLabel = new VertexLabel(this, tableName);
-                this.vertexLabels.put(schemaName + "." + VERTEX_PREFIX + tableName, vertexLabel);
-            }
-            if (propertyVertex != null) {
-                vertexLabel.addProperty(propertyVertex);
-            }
-        }
-
-        //Load the out edges. This will load all edges as all edges have a out vertex.
-        List<Path> outEdges = traversalSource
-                .V(schemaVertex)
-                .out(SQLG_SCHEMA_SCHEMA_VERTEX_EDGE).as("vertex")
-                //a vertex does not necessarily have properties so use optional.
-                .optional(
-                        __.out(SQLG_SCHEMA_OUT_EDGES_EDGE).as("outEdgeVertex")
-                                .optional(
-                                        __.out(SQLG_SCHEMA_EDGE_PROPERTIES_EDGE).as("property")
-                                )
-                )
-                .path()
-                .toList();
-        for (Path outEdgePath : outEdges) {
-            List<Set<String>> labelsList = outEdgePath.labels();
-            Vertex vertexVertex = null;
-            Vertex outEdgeVertex = null;
-            Vertex edgePropertyVertex = null;
-            for (Set<String> labels : labelsList) {
-                for (String label : labels) {
-                    switch (label) {
-                        case "vertex":
-                            vertexVertex = outEdgePath.get("vertex");
-                            break;
-                        case "outEdgeVertex":
-                            outEdgeVertex = outEdgePath.get("outEdgeVertex");
-                            break;
-                        case "property":
-                            edgePropertyVertex = outEdgePath.get("property");
-                            break;
-                        case "sqlgPathFakeLabel":
-                            break;
-                        case MARKER:
-                            break;
-                        default:
-                            throw new IllegalStateException(String.format("BUG: Only \"vertex\", \"outEdgeVertex\" and \"property\" is expected as a label. Found \"%s\"", label));
-                    }
-                }
-            }
-            Preconditions.checkState(vertexVertex != null, "BUG: Topology vertex not found.");
-            String schemaName = schemaVertex.value(SQLG_SCHEMA_SCHEMA_NAME);
-            String tableName = vertexVertex.value(SQLG_SCHEMA_VERTEX_LABEL_NAME);
-            VertexLabel vertexLabel = this.vertexLabels.get(schemaName + "." + VERTEX_PREFIX + tableName);
-            Preconditions.checkState(vertexLabel != null, "vertexLabel must be present when loading outEdges. Not found for \"%s\"", schemaName + "." + VERTEX_PREFIX + tableName);
-            if (outEdgeVertex != null) {
-                //load the EdgeLabel
-                String edgeLabelName = outEdgeVertex.value(SQLG_SCHEMA_EDGE_LABEL_NAME);
-                Optional<EdgeLabel> edgeLabelOptional = this.getEdgeLabel(edgeLabelName);
-                EdgeLabel edgeLabel;
-                if (!edgeLabelOptional.isPresent()) {
-                    edgeLabel = EdgeLabel.loadFromDb(vertexLabel.getSchema().getTopology(), edgeLabelName);
-                    vertexLabel.addToOutEdgeLabels(schemaName, edgeLabel);
-                } else {
-                    edgeLabel = edgeLabelOptional.get();
-                    vertexLabel.addToOutEdgeLabels(schemaName, edgeLabel);
-                }
-                if (edgePropertyVertex != null) {
-                    //load the property
-                    edgeLabel.addProperty(edgePropertyVertex);
-                }
-                this.outEdgeLabels.put(schemaName + "." + EDGE_PREFIX + edgeLabelName, edgeLabel);
-            }
-        }
-
-    }
-
     /**
-     * load indices for all vertices in schema
+     * Called by the {@link TopologyLoader} when the topology is cached.
      *
-     * @param traversalSource
-     * @param schemaVertex
+     * @return the loaded VertexLabel, created if it is not yet loaded.
      */
-    void loadVertexIndices(GraphTraversalSource traversalSource, Vertex schemaVertex) {
-    	 List<Path> indices = traversalSource
-                 .V(schemaVertex)
-                 .out(SQLG_SCHEMA_SCHEMA_VERTEX_EDGE).as("vertex")
-                 .out(SQLG_SCHEMA_VERTEX_INDEX_EDGE).as("index")
-                 .outE(SQLG_SCHEMA_INDEX_PROPERTY_EDGE)
-                 .order().by(SQLG_SCHEMA_INDEX_PROPERTY_EDGE_SEQUENCE)
-                 .inV().as("property")
-                 .path()
-                 .toList();
-        for (Path vertexIndices : indices) {
-            Vertex vertexVertex = null;
-            Vertex vertexIndex = null;
-            Vertex propertyIndex = null;
-            List<Set<String>> labelsList = vertexIndices.labels();
-            for (Set<String> labels : labelsList) {
-                for (String label : labels) {
-                    switch (label) {
-                        case "vertex":
-                            vertexVertex = vertexIndices.get("vertex");
-                            break;
-                        case "index":
-                            vertexIndex = vertexIndices.get("index");
-                            break;
-                        case "property":
-                            propertyIndex = vertexIndices.get("property");
-                            break;
-                        case BaseStrategy.SQLG_PATH_FAKE_LABEL:
-                        case BaseStrategy.SQLG_PATH_ORDER_RANGE_LABEL:
-                        case Schema.MARKER:
-                            break;
-                        default:
-                            throw new IllegalStateException(String.format("BUG: Only \"vertex\",\"index\" and \"property\" is expected as a label. Found %s", label));
-                    }
-                }
-            }
-            Preconditions.checkState(vertexVertex != null, "BUG: Topology vertex not found.");
-            String schemaName = schemaVertex.value(SQLG_SCHEMA_SCHEMA_NAME);
-            String tableName = vertexVertex.value(SQLG_SCHEMA_VERTEX_LABEL_NAME);
-            VertexLabel vertexLabel = this.vertexLabels.get(schemaName + "." + VERTEX_PREFIX + tableName);
-            if (vertexLabel == null) {
-                vertexLabel = new VertexLabel(this, tableName);
-                this.vertexLabels.put(schemaName + "." + VERTEX_PREFIX + tableName, vertexLabel);
-            }
-            if (vertexIndex != null) {
-                String indexName = vertexIndex.value(SQLG_SCHEMA_INDEX_NAME);
-                Optional<Index> oidx = vertexLabel.getIndex(indexName);
-                Index idx;
-                if (oidx.isPresent()) {
-                    idx = oidx.get();
-                } else {
-                    idx = new Index(indexName, IndexType.fromString(vertexIndex.value(SQLG_SCHEMA_INDEX_INDEX_TYPE)), vertexLabel);
-                    vertexLabel.addIndex(idx);
-                }
-                if (propertyIndex != null) {
-                    String propertyName = propertyIndex.value(SQLG_SCHEMA_PROPERTY_NAME);
-                    vertexLabel.getProperty(propertyName).ifPresent((PropertyColumn pc) -> idx.addProperty(pc));
-                }
-
-            }
-        }
-    }
-
-    void loadInEdgeLabels(GraphTraversalSource traversalSource, Vertex schemaVertex) {
-        //Load the in edges via the out edges. This is necessary as the out vertex is needed to know the schema the edge is in.
-        //As all edges are already loaded via the out edges this will only set the in edge association.
-        List<Path> inEdges = traversalSource
-                .V(schemaVertex)
-                .out(SQLG_SCHEMA_SCHEMA_VERTEX_EDGE).as("vertex")
-                //a vertex does not necessarily have properties so use optional.
-                .optional(
-                        __.out(SQLG_SCHEMA_OUT_EDGES_EDGE).as("outEdgeVertex")
-                                .in(SQLG_SCHEMA_IN_EDGES_EDGE).as("inVertex")
-                                .in(SQLG_SCHEMA_SCHEMA_VERTEX_EDGE).as("inSchema")
-                )
-                .path()
-                .toList();
-        for (Path inEdgePath : inEdges) {
-            List<Set<String>> labelsList = inEdgePath.labels();
-            Vertex vertexVertex = null;
-            Vertex outEdgeVertex = null;
-            Vertex inVertex = null;
-            Vertex inSchemaVertex = null;
-            for (Set<String> labels : labelsList) {
-                for (String label : labels) {
-                    switch (label) {
-                        case "vertex":
-                            vertexVertex = inEdgePath.get("vertex");
-                            break;
-                        case "outEdgeVertex":
-                            outEdgeVertex = inEdgePath.get("outEdgeVertex");
-                            break;
-                        case "inVertex":
-                            inVertex = inEdgePath.get("inVertex");
-                            break;
-                        case "inSchema":
-                            inSchemaVertex = inEdgePath.get("inSchema");
-                            break;
-                        case "sqlgPathFakeLabel":
-                            break;
-                        case MARKER:
-                            break;
-                        default:
-                            throw new IllegalStateException(String.format("BUG: Only \"vertex\", \"outEdgeVertex\" and \"inVertex\" are expected as a label. Found %s", label));
-                    }
-                }
-            }
-            Preconditions.checkState(vertexVertex != null, "BUG: Topology vertex not found.");
-            String schemaName = schemaVertex.value(SQLG_SCHEMA_SCHEMA_NAME);
-            String tableName = vertexVertex.value(SQLG_SCHEMA_VERTEX_LABEL_NAME);
-            VertexLabel vertexLabel = this.vertexLabels.get(schemaName + "." + VERTEX_PREFIX + tableName);
-            Preconditions.checkState(vertexLabel != null, "vertexLabel must be present when loading inEdges. Not found for %s", schemaName + "." + VERTEX_PREFIX + tableName);
-            if (outEdgeVertex != null) {
-                String edgeLabelName = outEdgeVertex.value(SQLG_SCHEMA_EDGE_LABEL_NAME);
-
-                //inVertex and inSchema must be present.
-                Preconditions.checkState(inVertex != null, "BUG: In vertex not found edge for \"%s\"", edgeLabelName);
-                Preconditions.checkState(inSchemaVertex != null, "BUG: In schema vertex not found for edge \"%s\"", edgeLabelName);
-
-                Optional<EdgeLabel> outEdgeLabelOptional = this.topology.getEdgeLabel(getName(), edgeLabelName);
-                Preconditions.checkState(outEdgeLabelOptional.isPresent(), "BUG: EdgeLabel for \"%s\" should already be loaded", getName() + "." + edgeLabelName);
-                //noinspection OptionalGetWithoutIsPresent
-                EdgeLabel outEdgeLabel = outEdgeLabelOptional.get();
-
-                String inVertexLabelName = inVertex.value(SQLG_SCHEMA_VERTEX_LABEL_NAME);
-                String inSchemaVertexLabelName = inSchemaVertex.value(SQLG_SCHEMA_SCHEMA_NAME);
-                Optional<VertexLabel> vertexLabelOptional = this.topology.getVertexLabel(inSchemaVertexLabelName, inVertexLabelName);
-                Preconditions.checkState(vertexLabelOptional.isPresent(), "BUG: VertexLabel not found for schema %s and label %s", inSchemaVertexLabelName, inVertexLabelName);
-                //noinspection OptionalGetWithoutIsPresent
-                VertexLabel inVertexLabel = vertexLabelOptional.get();
-
-                inVertexLabel.addToInEdgeLabels(outEdgeLabel);
-            }
+    VertexLabel loadVertexLabel(String vertexLabelName) {
+        VertexLabel vertexLabel = this.vertexLabels.get(this.name + "." + VERTEX_PREFIX + vertexLabelName);
+        if (vertexLabel == null) {
+            vertexLabel = new VertexLabel(this, vertexLabelName);
+            this.vertexLabels.put(this.name + "." + VERTEX_PREFIX + vertexLabelName, vertexLabel);
         }
+        return vertexLabel;
     }
 
     /**
-     * load indices for (out) edges on all vertices of schema
+     * Called by the {@link TopologyLoader} when the topology is cached.
+     * All edges have an out vertex so all edges are loaded via their out vertex. Edges with the same name in the schema
+     * share the EdgeLabel.
      *
-     * @param traversalSource
-     * @param schemaVertex
+     * @return the loaded EdgeLabel, created if it is not yet loaded.
      */
-    void loadEdgeIndices(GraphTraversalSource traversalSource, Vertex schemaVertex) {
-        List<Path> indices = traversalSource
-                .V(schemaVertex)
-                .out(SQLG_SCHEMA_SCHEMA_VERTEX_EDGE).as("vertex")
-                .out(SQLG_SCHEMA_OUT_EDGES_EDGE).as("outEdgeVertex")
-                .out(SQLG_SCHEMA_EDGE_INDEX_EDGE).as("index")
-                .outE(SQLG_SCHEMA_INDEX_PROPERTY_EDGE)
-                .order().by(SQLG_SCHEMA_INDEX_PROPERTY_EDGE_SEQUENCE)
-                .inV().as("property")
-                .path()
-                .toList();
-        for (Path vertexIndices : indices) {
-            Vertex vertexVertex = null;
-            Vertex vertexEdge = null;
-            Vertex vertexIndex = null;
-            Vertex propertyIndex = null;
-            List<Set<String>> labelsList = vertexIndices.labels();
-            for (Set<String> labels : labelsList) {
-                for (String label : labels) {
-                    switch (label) {
-                        case "vertex":
-                            vertexVertex = vertexIndices.get("vertex");
-                            break;
-                        case "outEdgeVertex":
-                            vertexEdge = vertexIndices.get("outEdgeVertex");
-                            break;
-                        case "index":
-                            vertexIndex = vertexIndices.get("index");
-                            break;
-                        case "property":
-                            propertyIndex = vertexIndices.get("property");
-                            break;
-                        case BaseStrategy.SQLG_PATH_FAKE_LABEL:
-                        case BaseStrategy.SQLG_PATH_ORDER_RANGE_LABEL:
-                        case MARKER:
-                            break;
-                        default:
-                            throw new IllegalStateException(String.format("BUG: Only \"vertex\",\"outEdgeVertex\",\"index\" and \"property\" is expected as a label. Found %s", label));
-                    }
-                }
-            }
-            Preconditions.checkState(vertexVertex != null, "BUG: Topology vertex not found.");
-            String schemaName = schemaVertex.value(SQLG_SCHEMA_SCHEMA_NAME);
-            String tableName = vertexVertex.value(SQLG_SCHEMA_VERTEX_LABEL_NAME);
-            VertexLabel vertexLabel = this.vertexLabels.get(schemaName + "." + VERTEX_PREFIX + tableName);
-            if (vertexLabel == null) {
-                vertexLabel = new VertexLabel(this, tableName);
-                this.vertexLabels.put(schemaName + "." + VERTEX_PREFIX + tableName, vertexLabel);
-            }
-            if (vertexEdge != null) {
-                String edgeName = vertexEdge.value(SQLG_SCHEMA_EDGE_LABEL_NAME);
-                Optional<EdgeLabel> oel = vertexLabel.getOutEdgeLabel(edgeName);
-                if (oel.isPresent()) {
-                    EdgeLabel edgeLabel = oel.get();
-                    if (vertexIndex != null) {
-                        String indexName = vertexIndex.value(SQLG_SCHEMA_INDEX_NAME);
-                        Optional<Index> oidx = edgeLabel.getIndex(indexName);
-                        Index idx;
-                        if (oidx.isPresent()) {
-                            idx = oidx.get();
-                        } else {
-                            idx = new Index(indexName, IndexType.fromString(vertexIndex.value(SQLG_SCHEMA_INDEX_INDEX_TYPE)), edgeLabel);
-                            edgeLabel.addIndex(idx);
-                        }
-                        if (propertyIndex != null) {
-                            String propertyName = propertyIndex.value(SQLG_SCHEMA_PROPERTY_NAME);
-                            edgeLabel.getProperty(propertyName).ifPresent((PropertyColumn pc) -> idx.addProperty(pc));
-                        }
-
-                    }
-                }
-            }
+    EdgeLabel loadOutEdgeLabel(VertexLabel vertexLabel, String edgeLabelName) {
+        Optional<EdgeLabel> edgeLabelOptional = this.getEdgeLabel(edgeLabelName);
+        EdgeLabel edgeLabel;
+        if (!edgeLabelOptional.isPresent()) {
+            edgeLabel = EdgeLabel.loadFromDb(this.topology, edgeLabelName);
+        } else {
+            edgeLabel = edgeLabelOptional.get();
         }
+        vertexLabel.addToOutEdgeLabels(this.name, edgeLabel);
+        this.outEdgeLabels.put(this.name + "." + EDGE_PREFIX + edgeLabelName, edgeLabel);
+        return edgeLabel;
     }
 
     JsonNode toJson() {
@@ -1038,9 +764,10 @@ public class Schema implements TopologyInf {
         boolean foundVertexLabels = false;
         ObjectNode schemaNode = new ObjectNode(Topology.OBJECT_MAPPER.getNodeFactory());
         schemaNode.put("name", this.getName());
-        if (this.getTopology().isSqlWriteLockHeldByCurrentThread() && !this.getUncommittedVertexLabels().isEmpty()) {
+        Map<String, VertexLabel> uncommittedVertexLabels = getUncommittedVertexLabels();
+        if (!uncommittedVertexLabels.isEmpty()) {
             ArrayNode vertexLabelArrayNode = new ArrayNode(Topology.OBJECT_MAPPER.getNodeFactory());
-            for (VertexLabel vertexLabel : this.getUncommittedVertexLabels().values()) {
+            for (VertexLabel vertexLabel : uncommittedVertexLabels.values()) {
                 //VertexLabel toNotifyJson always returns something even though its an Optional.
                 //This is because it extends AbstractElement's toNotifyJson that does not always return something.
                 @SuppressWarnings("OptionalGetWithoutIsPresent")
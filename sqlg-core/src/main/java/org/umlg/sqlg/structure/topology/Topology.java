@@ -7,22 +7,23 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.base.Preconditions;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
-import org.apache.tinkerpop.gremlin.process.traversal.Order;
-import org.apache.tinkerpop.gremlin.process.traversal.P;
-import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
-import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.umlg.sqlg.sql.dialect.SqlDialect;
 import org.umlg.sqlg.sql.dialect.SqlSchemaChangeDialect;
 import org.umlg.sqlg.structure.*;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
@@ -47,17 +48,32 @@ public class Topology {
     public static final String DAYS = "~~~DAYS";
     public static final String DURATION_NANOS = "~~~NANOS";
     public static final String BULK_TEMP_EDGE = "BULK_TEMP_EDGE";
+    public static final String BULK_TEMP_WITHIN_OUT = "BULK_TEMP_WITHIN_OUT";
 
     private SqlgGraph sqlgGraph;
     private boolean distributed;
-
-    //Used to ensure that only one thread can modify the topology.
-    private ReentrantLock topologySqlWriteLock;
+    //if true the distributed topology lock is taken per schema and label instead of on the whole topology.
+    private boolean distributedLockStriped;
+    //if true the topology lock is taken per schema and label within the jvm, else always on the whole topology.
+    private boolean concurrent;
+    //the sqlg_schema.log's key in the topology lock, taken last by every transaction that logs a change.
+    private static final String LOG_LOCK_KEY = Topology.SQLG_SCHEMA + "." + VERTEX_PREFIX + Topology.SQLG_SCHEMA_LOG;
+    //null if the topology.snapshot.file is not configured.
+    private TopologySnapshot topologySnapshot;
+    //the snapshot to write after the commit of the current thread's topology change.
+    private final ThreadLocal<Pair<String, ObjectNode>> pendingSnapshot = new ThreadLocal<>();
+
+    //Used to ensure that only the thread holding a schema's or label's key can modify it.
+    private TopologyLock topologyLock;
     //Used to protect the topology maps.
     //The maps are only updated during afterCommit.
     //afterCommit locks access to the map
     //allTableCache, schemaTableForeignKeyCache, edgeForeignKeyCache, metaSchemas and schemas are protected by the topologyMapLock.
     private ReentrantReadWriteLock topologyMapLock;
+    //Incremented every time the committed topology changes.
+    private final AtomicLong changeVersion = new AtomicLong();
+    //The committed topology as seen by threads that do not hold the sql write lock, republished on every change.
+    private volatile CommittedTopology committedTopology = CommittedTopology.EMPTY;
 
     private Map<String, Map<String, PropertyType>> allTableCache = new HashMap<>();
     //This cache is needed as to much time is taken building it on the fly.
@@ -67,7 +83,8 @@ public class Topology {
     //Map the topology. This is for regular schemas. i.e. 'public.Person', 'special.Car'
     private Map<String, Schema> schemas = new HashMap<>();
 
-    private Map<String, Schema> uncommittedSchemas = new HashMap<>();
+    //keyed by the schema's lock key, each entry is only visible to the thread that holds its lock.
+    private Map<String, Schema> uncommittedSchemas = new ConcurrentHashMap<>();
     private Set<String> uncommittedRemovedSchemas = new HashSet<>();
     private Map<String, Schema> metaSchemas = new HashMap<>();
     //A cache of just the sqlg_schema's AbstractLabels
@@ -80,12 +97,15 @@ public class Topology {
     //ownPids are the pids to ignore as it is what the graph sent a notification for.
     private Set<ImmutablePair<Integer, LocalDateTime>> ownPids = Collections.synchronizedSet(new HashSet<>());
 
-    //every notification will have a unique timestamp.
-    //This is so because modification happen one at a time via the lock.
-    private SortedSet<LocalDateTime> notificationTimestamps = new TreeSet<>();
+    //the id of the last sqlg_schema.log row applied to the topology, -1 until the topology is cached.
+    //The log's ids are in commit order as every transaction that logs takes the log's key last.
+    //Guarded by the topology map write lock.
+    private long lastAppliedLogId = -1;
 
     private List<TopologyValidationError> validationErrors = new ArrayList<>();
     private List<TopologyListener> topologyListeners = new ArrayList<>();
+    //Incremented for every topology change event, uncommitted ones included.
+    private final AtomicLong changeEventCount = new AtomicLong();
 
     private static final int LOCK_TIMEOUT = 2;
 
@@ -267,7 +287,14 @@ public class Topology {
     public Topology(SqlgGraph sqlgGraph) {
         this.sqlgGraph = sqlgGraph;
         this.distributed = sqlgGraph.configuration().getBoolean(SqlgGraph.DISTRIBUTED, false);
-        this.topologySqlWriteLock = new ReentrantLock(true);
+        this.distributedLockStriped = this.distributed && sqlgGraph.configuration().getBoolean(SqlgGraph.DISTRIBUTED_LOCK_STRIPED, false);
+        String topologySnapshotFile = sqlgGraph.configuration().getString(SqlgGraph.TOPOLOGY_SNAPSHOT_FILE, null);
+        if (topologySnapshotFile != null) {
+            this.topologySnapshot = new TopologySnapshot(Paths.get(topologySnapshotFile));
+        }
+        this.concurrent = sqlgGraph.getSqlDialect().supportsConcurrentTopologyChanges() &&
+                (this.distributed ? this.distributedLockStriped : sqlgGraph.configuration().getBoolean(SqlgGraph.TOPOLOGY_LOCK_STRIPED, false));
+        this.topologyLock = new TopologyLock(LOCK_TIMEOUT, TimeUnit.MINUTES);
         this.topologyMapLock = new ReentrantReadWriteLock(true);
 
         //Pre-create the meta topology.
@@ -362,6 +389,8 @@ public class Topology {
 
         this.edgeForeignKeyCache = sqlgSchema.getAllEdgeForeignKeys();
 
+        publishCommittedTopology();
+
         if (this.distributed) {
             ((SqlSchemaChangeDialect) this.sqlgGraph.getSqlDialect()).registerListener(sqlgGraph);
         }
@@ -380,6 +409,8 @@ public class Topology {
         if (this.sqlgGraph.getSqlDialect().isPostgresql()) {
             registerListener((topologyInf, string, topologyChangeAction) -> deallocateAll());
         }
+        //cached statements might refer to the old topology, every thread's statement cache checks the version before reuse
+        registerListener((topologyInf, string, topologyChangeAction) -> this.changeEventCount.incrementAndGet());
 
     }
 
@@ -387,6 +418,15 @@ public class Topology {
         return this.sqlgGraph;
     }
 
+    /**
+     * Unlike {@link #getChangeVersion()} this also changes with the uncommitted changes of a transaction.
+     *
+     * @return the number of topology change events, made by this graph or notified by another.
+     */
+    public long getChangeEventCount() {
+        return this.changeEventCount.get();
+    }
+
     public void close() {
         if (this.distributed) {
             ((SqlSchemaChangeDialect) this.sqlgGraph.getSqlDialect()).unregisterListener();
@@ -405,57 +445,140 @@ public class Topology {
      * For distributed graph (multiple jvm) this happens on the db via a lock sql statement.
      */
     void lock() {
-        //only lock if the lock is not already owned by this thread.
+        lock(Collections.singletonList(TopologyLock.TOPOLOGY));
+    }
+
+    /**
+     * Lock on the topology to create the schema.
+     * Only differs from {@link #lock()} if the topology is locked per schema and label, see {@link SqlgGraph#TOPOLOGY_LOCK_STRIPED}.
+     */
+    void lockSchema(String schemaName) {
+        lock(Collections.singletonList(schemaName));
+    }
+
+    /**
+     * Lock on the topology to change the given vertex or edge labels.
+     * Only differs from {@link #lock()} if the topology is locked per schema and label, see {@link SqlgGraph#TOPOLOGY_LOCK_STRIPED}.
+     *
+     * @param schemaTables the labels' tables, i.e. with the vertex or edge prefix.
+     */
+    void lockLabels(SchemaTable... schemaTables) {
+        List<String> keys = new ArrayList<>(schemaTables.length);
+        for (SchemaTable schemaTable : schemaTables) {
+            keys.add(schemaTable.toString());
+        }
+        lock(keys);
+    }
+
+    /**
+     * The lock is taken on keys, the whole topology, a schema or a label, and held until the transaction ends.
+     * A schema or label key is taken exclusively together with the whole topology's key in shared mode. The whole
+     * topology's key is only taken exclusively by changes that span labels, e.g. removing a vertex label. Unless
+     * {@link SqlgGraph#TOPOLOGY_LOCK_STRIPED} or {@link SqlgGraph#DISTRIBUTED_LOCK_STRIPED} is set and the dialect
+     * {@link SqlDialect#supportsConcurrentTopologyChanges()} every call takes the whole topology exclusively, one
+     * transaction at a time changes the topology.
+     * <p>
+     * The uncommitted changes of a schema or label are only visible to the thread that holds its key.
+     * <p>
+     * The keys are taken in one global order across the whole transaction, see {@link TopologyLock}, within the jvm
+     * and with {@link SqlgGraph#DISTRIBUTED_LOCK_STRIPED} between jvms. A key that sorts before a key the transaction
+     * already holds is out of order. Within the jvm the wait for it is checked for deadlocks, on the database it is
+     * only tried, if another transaction holds it the transaction fails with a
+     * {@link SqlgExceptions.TopologyLockDeadlockException} instead of waiting.
+     * Without {@link SqlgGraph#DISTRIBUTED_LOCK_STRIPED} a distributed graph locks the whole topology on the database.
+     */
+    private void lock(List<String> keys) {
         if (!isSqlWriteLockHeldByCurrentThread()) {
             this.sqlgGraph.tx().readWrite();
-            z_internalSqlWriteLock();
-            if (this.distributed) {
-                ((SqlSchemaChangeDialect) this.sqlgGraph.getSqlDialect()).lock(this.sqlgGraph);
-                //load the log to see if the schema has not already been created.
-                //the last loaded log
-                if (!this.notificationTimestamps.isEmpty()) {
-                    LocalDateTime timestamp = this.notificationTimestamps.last();
-                    List<Vertex> logs = this.sqlgGraph.topology().V()
-                            .hasLabel(SQLG_SCHEMA + "." + SQLG_SCHEMA_LOG)
-                            .has(SQLG_SCHEMA_LOG_TIMESTAMP, P.gt(timestamp))
-                            .toList();
-                    for (Vertex logVertex : logs) {
-                        int pid = logVertex.value("pid");
-                        LocalDateTime timestamp2 = logVertex.value("timestamp");
-                        if (!ownPids.contains(new ImmutablePair<>(pid, timestamp2))) {
-                            ObjectNode log = logVertex.value("log");
-                            fromNotifyJson(timestamp, log);
-                        }
-                    }
-                }
+        }
+        Map<String, Boolean> requests = new LinkedHashMap<>();
+        if (!this.concurrent || keys.contains(TopologyLock.TOPOLOGY)) {
+            requests.put(TopologyLock.TOPOLOGY, true);
+        } else {
+            requests.put(TopologyLock.TOPOLOGY, false);
+            List<String> sortedKeys = new ArrayList<>(keys);
+            sortedKeys.sort(TopologyLock.KEY_ORDER);
+            for (String key : sortedKeys) {
+                requests.put(key, true);
             }
         }
+        boolean first = !isSqlWriteLockHeldByCurrentThread();
+        boolean newDistributedKeys = false;
+        for (Map.Entry<String, Boolean> request : requests.entrySet()) {
+            String key = request.getKey();
+            boolean exclusive = request.getValue();
+            boolean outOfOrder = this.topologyLock.isOutOfOrder(key);
+            if (this.topologyLock.lock(key, exclusive, outOfOrder && this.distributedLockStriped) && this.distributedLockStriped) {
+                lockDistributed(key, exclusive, outOfOrder);
+                newDistributedKeys = true;
+            }
+        }
+        if (first && this.distributed && !this.distributedLockStriped) {
+            ((SqlSchemaChangeDialect) this.sqlgGraph.getSqlDialect()).lock(this.sqlgGraph);
+            newDistributedKeys = true;
+        }
+        if (newDistributedKeys) {
+            //load the log to see if the changes of the other jvms are not yet applied.
+            loadUnappliedLogs();
+        }
+    }
+
+    private void lockDistributed(String key, boolean exclusive, boolean outOfOrder) {
+        SqlSchemaChangeDialect sqlSchemaChangeDialect = (SqlSchemaChangeDialect) this.sqlgGraph.getSqlDialect();
+        if (!outOfOrder) {
+            sqlSchemaChangeDialect.lock(this.sqlgGraph, key, exclusive);
+        } else if (!sqlSchemaChangeDialect.tryLock(this.sqlgGraph, key, exclusive)) {
+            throw SqlgExceptions.topologyLockDeadlock(key);
+        }
     }
 
     /**
-     * Called from {@link Topology#lock()} to attempt to take the lock.
-     * This ensures that only one thread at a time may execute schema change sql commands.
-     * Sql schema change commands takes table locks on the database and is prone to dead locks.
-     * One thread at a time reduces the dead lock risk.
+     * Applies the changes of other jvms that committed after the last applied log, i.e. while this transaction waited
+     * for its lock, or while the notification listener was not connected.
      */
-    private void z_internalSqlWriteLock() {
-        Preconditions.checkState(!isSqlWriteLockHeldByCurrentThread());
+    private void loadUnappliedLogs() {
+        z_internalTopologyMapWriteLock();
         try {
-            if (!this.topologySqlWriteLock.tryLock(LOCK_TIMEOUT, TimeUnit.MINUTES)) {
-                throw new RuntimeException("Timeout lapsed to acquire write lock for notification.");
+            if (this.lastAppliedLogId < 0) {
+                return;
             }
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
+            Connection conn = this.sqlgGraph.tx().getConnection();
+            SqlDialect sqlDialect = this.sqlgGraph.getSqlDialect();
+            String sql = "SELECT " + sqlDialect.maybeWrapInQoutes(ID) + ", " +
+                    sqlDialect.maybeWrapInQoutes(SQLG_SCHEMA_LOG_PID) + ", " +
+                    sqlDialect.maybeWrapInQoutes(SQLG_SCHEMA_LOG_TIMESTAMP) + ", " +
+                    sqlDialect.maybeWrapInQoutes(SQLG_SCHEMA_LOG_LOG) +
+                    " FROM " + sqlDialect.maybeWrapInQoutes(SQLG_SCHEMA) + "." + sqlDialect.maybeWrapInQoutes(VERTEX_PREFIX + SQLG_SCHEMA_LOG) +
+                    " WHERE " + sqlDialect.maybeWrapInQoutes(ID) + " > ? ORDER BY " + sqlDialect.maybeWrapInQoutes(ID);
+            try (PreparedStatement preparedStatement = conn.prepareStatement(sql)) {
+                preparedStatement.setLong(1, this.lastAppliedLogId);
+                try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                    while (resultSet.next()) {
+                        long id = resultSet.getLong(1);
+                        int pid = resultSet.getInt(2);
+                        LocalDateTime timestamp = resultSet.getTimestamp(3).toLocalDateTime();
+                        if (!this.ownPids.contains(new ImmutablePair<>(pid, timestamp))) {
+                            fromNotifyJson((ObjectNode) OBJECT_MAPPER.readTree(resultSet.getString(4)));
+                        }
+                        this.lastAppliedLogId = id;
+                    }
+                }
+            } catch (SQLException | IOException e) {
+                throw new RuntimeException(e);
+            }
+        } finally {
+            z_internalInternalTopologyMapWriteUnLock();
         }
     }
 
     /**
      * Called from {@link Topology#afterCommit()} and {@link Topology#afterRollback()}
-     * Releases the lock.
+     * Releases all the keys of the current thread.
      */
     private void z_internalSqlWriteUnlock() {
         Preconditions.checkState(isSqlWriteLockHeldByCurrentThread());
-        this.topologySqlWriteLock.unlock();
+        //the database releases the distributed lock keys at the end of the transaction.
+        this.topologyLock.unlockAll();
     }
 
     private void z_internalTopologyMapReadLock() {
@@ -471,7 +594,7 @@ public class Topology {
     }
 
     /**
-     * Called from {@link Topology#afterCommit()} and {@link Topology#fromNotifyJson(LocalDateTime, ObjectNode)}
+     * Called from {@link Topology#afterCommit()} and {@link Topology#fromNotifyJson(ObjectNode)}
      * These two methods are the only places where the topology maps are updated and therefore write locked.
      */
     private void z_internalTopologyMapWriteLock() {
@@ -483,7 +606,7 @@ public class Topology {
     }
 
     /**
-     * Called from {@link Topology#afterCommit()} and {@link Topology#fromNotifyJson(LocalDateTime, ObjectNode)}
+     * Called from {@link Topology#afterCommit()} and {@link Topology#fromNotifyJson(ObjectNode)}
      * These two methods are the only places where the topology maps are updated and therefore write unlocked.
      */
     private void z_internalInternalTopologyMapWriteUnLock() {
@@ -491,10 +614,46 @@ public class Topology {
     }
 
     /**
-     * @return true if the current thread owns the sql write lock.
+     * @return a number that changes every time the committed topology changes.
+     */
+    public long getChangeVersion() {
+        return this.committedTopology.getVersion();
+    }
+
+    CommittedTopology getCommittedTopology() {
+        return this.committedTopology;
+    }
+
+    /**
+     * @return true if the current thread is not changing the topology and only sees the {@link CommittedTopology}.
+     */
+    boolean readsCommittedTopology() {
+        return !isSqlWriteLockHeldByCurrentThread() && !isTopologyMapWriteLockHeldByCurrentThread();
+    }
+
+    /**
+     * Publishes a new view of the committed topology.
+     * Must be called with the topology map write lock or the sql write lock held.
      */
-    boolean isSqlWriteLockHeldByCurrentThread() {
-        return this.topologySqlWriteLock.isHeldByCurrentThread();
+    private void publishCommittedTopology() {
+        List<Schema> committed = new ArrayList<>(this.schemas.values());
+        committed.addAll(this.metaSchemas.values());
+        this.committedTopology = new CommittedTopology(this.changeVersion.incrementAndGet(), committed);
+    }
+
+    /**
+     * @return true if the current thread holds the lock on any part of the topology.
+     */
+    public boolean isSqlWriteLockHeldByCurrentThread() {
+        return this.topologyLock.isHeldByCurrentThread();
+    }
+
+    /**
+     * @param key the empty string for the whole topology, a schema's name or a label's qualified table name.
+     * @return true if the current thread holds the lock on the key, or on the whole topology exclusively.
+     */
+    boolean isSqlWriteLockHeldByCurrentThread(String key) {
+        return this.topologyLock.isHeldByCurrentThread(key);
     }
 
     boolean isTopologyMapWriteLockHeldByCurrentThread() {
@@ -510,7 +669,7 @@ public class Topology {
         Optional<Schema> schemaOptional = this.getSchema(schemaName);
         Schema schema;
         if (!schemaOptional.isPresent()) {
-            this.lock();
+            this.lockSchema(schemaName);
             //search again after the lock is obtained.
             schemaOptional = this.getSchema(schemaName);
             if (!schemaOptional.isPresent()) {
@@ -744,11 +903,23 @@ public class Topology {
             Optional<JsonNode> jsonNodeOptional = this.toNotifyJson();
             if (jsonNodeOptional.isPresent()) {
                 SqlSchemaChangeDialect sqlSchemaChangeDialect = (SqlSchemaChangeDialect) this.sqlgGraph.getSqlDialect();
+                if (this.distributedLockStriped) {
+                    //independent striped lock holders commit concurrently, taking the log's key last orders the log's ids as the commits.
+                    sqlSchemaChangeDialect.lock(this.sqlgGraph, LOG_LOCK_KEY, true);
+                }
                 LocalDateTime timestamp = LocalDateTime.now();
                 int pid = sqlSchemaChangeDialect.notifyChange(sqlgGraph, timestamp, jsonNodeOptional.get());
                 this.ownPids.add(new ImmutablePair<>(pid, timestamp));
             }
         }
+        //read the changed topology while still in the transaction, it is written to the snapshot once committed.
+        if (this.topologySnapshot != null && this.isSqlWriteLockHeldByCurrentThread()) {
+            TopologyLoader topologyLoader = new TopologyLoader(this, this.sqlgGraph);
+            String stamp = topologyLoader.stamp();
+            if (this.topologySnapshot.isStale(stamp)) {
+                this.pendingSnapshot.set(Pair.of(stamp, topologyLoader.read()));
+            }
+        }
     }
 
     private Schema removeSchemaFromCaches(String schema) {
@@ -765,10 +936,9 @@ public class Topology {
             z_internalTopologyMapWriteLock();
             try {
                 getPublicSchema().removeTemporaryTables();
-                for (Iterator<Map.Entry<String, Schema>> it = this.uncommittedSchemas.entrySet().iterator(); it.hasNext(); ) {
-                    Map.Entry<String, Schema> entry = it.next();
+                for (Map.Entry<String, Schema> entry : ownedUncommittedSchemas().entrySet()) {
                     this.schemas.put(entry.getKey(), entry.getValue());
-                    it.remove();
+                    this.uncommittedSchemas.remove(entry.getKey());
                 }
                 for (Iterator<String> it = this.uncommittedRemovedSchemas.iterator(); it.hasNext(); ) {
                     String sch = it.next();
@@ -808,25 +978,37 @@ public class Topology {
                     schema.afterCommit();
                 }
             } finally {
+                publishCommittedTopology();
                 z_internalInternalTopologyMapWriteUnLock();
                 z_internalSqlWriteUnlock();
             }
+            Pair<String, ObjectNode> snapshot = this.pendingSnapshot.get();
+            if (snapshot != null) {
+                this.pendingSnapshot.remove();
+                this.topologySnapshot.write(snapshot.getLeft(), snapshot.getRight());
+            }
         }
     }
 
     private void afterRollback() {
         if (this.isSqlWriteLockHeldByCurrentThread()) {
-            getPublicSchema().removeTemporaryTables();
-            for (Iterator<Map.Entry<String, Schema>> it = this.uncommittedSchemas.entrySet().iterator(); it.hasNext(); ) {
-                Map.Entry<String, Schema> entry = it.next();
-                entry.getValue().afterRollback();
-                it.remove();
-            }
-            this.uncommittedRemovedSchemas.clear();
-            for (Schema schema : this.schemas.values()) {
-                schema.afterRollback();
+            z_internalTopologyMapWriteLock();
+            try {
+                getPublicSchema().removeTemporaryTables();
+                for (Map.Entry<String, Schema> entry : ownedUncommittedSchemas().entrySet()) {
+                    entry.getValue().afterRollback();
+                    this.uncommittedSchemas.remove(entry.getKey());
+                }
+                this.uncommittedRemovedSchemas.clear();
+                for (Schema schema : this.schemas.values()) {
+                    schema.afterRollback();
+                }
+                this.pendingSnapshot.remove();
+            } finally {
+                publishCommittedTopology();
+                z_internalInternalTopologyMapWriteUnLock();
+                z_internalSqlWriteUnlock();
             }
-            z_internalSqlWriteUnlock();
         }
     }
 
@@ -848,102 +1030,37 @@ public class Topology {
 
     public void cacheTopology() {
         this.lock();
-        GraphTraversalSource traversalSource = this.sqlgGraph.topology();
-        //load the last log
-        //the last timestamp is needed when just after obtaining the lock the log table is queried again to ensure that the last log is indeed
-        //loaded as the notification might not have been received yet.
-        List<Vertex> logs = traversalSource.V()
-                .hasLabel(SQLG_SCHEMA + "." + SQLG_SCHEMA_LOG)
-                .order().by(SQLG_SCHEMA_LOG_TIMESTAMP, Order.decr)
-                .limit(1)
-                .toList();
-        Preconditions.checkState(logs.size() <= 1, "must load one or zero logs in cacheTopology");
-
-        if (!logs.isEmpty()) {
-            Vertex log = logs.get(0);
-            LocalDateTime timestamp = log.value("timestamp");
-            this.notificationTimestamps.add(timestamp);
-        } else {
-            this.notificationTimestamps.add(LocalDateTime.now());
+        if (this.distributed) {
+            //the logs up to the last one are in the cached topology, the later ones are replayed when the topology is locked
+            //or a notification is received.
+            SqlDialect sqlDialect = this.sqlgGraph.getSqlDialect();
+            String sql = "SELECT MAX(" + sqlDialect.maybeWrapInQoutes(ID) + ") FROM " +
+                    sqlDialect.maybeWrapInQoutes(SQLG_SCHEMA) + "." + sqlDialect.maybeWrapInQoutes(VERTEX_PREFIX + SQLG_SCHEMA_LOG);
+            Connection conn = this.sqlgGraph.tx().getConnection();
+            try (Statement statement = conn.createStatement()) {
+                ResultSet resultSet = statement.executeQuery(sql);
+                resultSet.next();
+                this.lastAppliedLogId = resultSet.getLong(1);
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
         }
 
-        //First load all VertexLabels, their out edges and properties
-        List<Vertex> schemaVertices = traversalSource.V().hasLabel(SQLG_SCHEMA + "." + SQLG_SCHEMA_SCHEMA).toList();
-        for (Vertex schemaVertex : schemaVertices) {
-            String schemaName = schemaVertex.value("name");
-            Optional<Schema> schemaOptional = getSchema(schemaName);
-            if (schemaName.equals(SQLG_SCHEMA)) {
-                Preconditions.checkState(schemaOptional.isPresent(), "\"public\" schema must always be present.");
-            }
-            Schema schema;
-            if (!schemaOptional.isPresent()) {
-                schema = Schema.loadUserSchema(this, schemaName);
-                this.schemas.put(schemaName, schema);
+        //Load the schemas, labels, properties, indices and globalUniqueIndexes with a query per sqlg_schema table.
+        //If a snapshot is configured and still in sync with sqlg_schema the topology is assembled from it instead.
+        TopologyLoader topologyLoader = new TopologyLoader(this, this.sqlgGraph);
+        if (this.topologySnapshot == null) {
+            topologyLoader.load();
+        } else {
+            String stamp = topologyLoader.stamp();
+            Optional<ObjectNode> snapshot = this.topologySnapshot.read(stamp);
+            if (snapshot.isPresent()) {
+                topologyLoader.assemble(snapshot.get());
             } else {
-                schema = schemaOptional.get();
-
-            }
-            schema.loadVertexOutEdgesAndProperties(traversalSource, schemaVertex);
-            // load vertex and edge indices
-            schema.loadVertexIndices(traversalSource, schemaVertex);
-            schema.loadEdgeIndices(traversalSource, schemaVertex);
-        }
-        //Now load the in edges
-        schemaVertices = traversalSource.V().hasLabel(SQLG_SCHEMA + "." + SQLG_SCHEMA_SCHEMA).toList();
-        for (Vertex schemaVertex : schemaVertices) {
-            String schemaName = schemaVertex.value("name");
-            Optional<Schema> schemaOptional = getSchema(schemaName);
-            Preconditions.checkState(schemaOptional.isPresent(), "schema %s must be present when loading in edges.", schemaName);
-            @SuppressWarnings("OptionalGetWithoutIsPresent")
-            Schema schema = schemaOptional.get();
-            schema.loadInEdgeLabels(traversalSource, schemaVertex);
-        }
-
-        //Load the globalUniqueIndexes.
-        List<Vertex> globalUniqueIndexVertices = traversalSource.V().hasLabel(SQLG_SCHEMA + "." + SQLG_SCHEMA_GLOBAL_UNIQUE_INDEX).toList();
-        for (Vertex globalUniqueIndexVertex : globalUniqueIndexVertices) {
-            String globalUniqueIndexName = globalUniqueIndexVertex.value("name");
-            GlobalUniqueIndex globalUniqueIndex = GlobalUniqueIndex.instantiateGlobalUniqueIndex(this, globalUniqueIndexName);
-            getGlobalUniqueIndexSchema().globalUniqueIndexes.put(globalUniqueIndexName, globalUniqueIndex);
-
-            Set<Vertex> globalUniqueIndexProperties = traversalSource.V(globalUniqueIndexVertex).out(SQLG_SCHEMA_GLOBAL_UNIQUE_INDEX_PROPERTY_EDGE).toSet();
-            Set<PropertyColumn> guiPropertyColumns = new HashSet<>();
-            for (Vertex globalUniqueIndexPropertyVertex : globalUniqueIndexProperties) {
-                //get the path to the vertex
-                List<Map<String, Vertex>> vertexSchema = traversalSource
-                        .V(globalUniqueIndexPropertyVertex)
-                        .in(SQLG_SCHEMA_VERTEX_PROPERTIES_EDGE).as("vertex")
-                        .in(SQLG_SCHEMA_SCHEMA_VERTEX_EDGE).as("schema")
-                        .<Vertex>select("vertex", "schema")
-                        .toList();
-                if (!vertexSchema.isEmpty()) {
-                    Preconditions.checkState(vertexSchema.size() == 1, "BUG: GlobalUniqueIndex %s property %s has more than one path to the schema.");
-                    Vertex schemaVertex = vertexSchema.get(0).get("schema");
-                    Vertex vertexVertex = vertexSchema.get(0).get("vertex");
-                    Schema guiPropertySchema = getSchema(schemaVertex.<String>property("name").value()).get();
-                    VertexLabel guiPropertyVertexLabel = guiPropertySchema.getVertexLabel(vertexVertex.<String>property("name").value()).get();
-                    PropertyColumn propertyColumn = guiPropertyVertexLabel.getProperty(globalUniqueIndexPropertyVertex.<String>property("name").value()).get();
-                    guiPropertyColumns.add(propertyColumn);
-                } else {
-                    vertexSchema = traversalSource
-                            .V(globalUniqueIndexPropertyVertex)
-                            .in(SQLG_SCHEMA_EDGE_PROPERTIES_EDGE).as("edge")
-                            .in(SQLG_SCHEMA_OUT_EDGES_EDGE).as("vertex")
-                            .in(SQLG_SCHEMA_SCHEMA_VERTEX_EDGE).as("schema")
-                            .<Vertex>select("edge", "vertex", "schema")
-                            .toList();
-                    Preconditions.checkState(vertexSchema.size() == 1, "BUG: GlobalUniqueIndex %s property %s has more than one path to the schema.");
-                    Vertex schemaVertex = vertexSchema.get(0).get("schema");
-                    Vertex vertexVertex = vertexSchema.get(0).get("vertex");
-                    Vertex edgeVertex = vertexSchema.get(0).get("edge");
-                    Schema guiPropertySchema = getSchema(schemaVertex.<String>property("name").value()).get();
-                    VertexLabel guiPropertyVertexLabel = guiPropertySchema.getVertexLabel(vertexVertex.<String>property("name").value()).get();
-                    EdgeLabel guiPropertyEdgeLabel = guiPropertyVertexLabel.getOutEdgeLabel(edgeVertex.<String>property("name").value()).get();
-                    PropertyColumn propertyColumn = guiPropertyEdgeLabel.getProperty(globalUniqueIndexPropertyVertex.<String>property("name").value()).get();
-                    guiPropertyColumns.add(propertyColumn);
-                }
+                ObjectNode tables = topologyLoader.read();
+                topologyLoader.assemble(tables);
+                this.topologySnapshot.write(stamp, tables);
             }
-            globalUniqueIndex.addGlobalUniqueProperties(guiPropertyColumns);
         }
 
         //populate the allTablesCache
@@ -956,6 +1073,26 @@ public class Topology {
         this.schemaTableForeignKeyCache.putAll(loadTableLabels());
         //populate the edgeForeignKey cache
         this.edgeForeignKeyCache.putAll(loadAllEdgeForeignKeys());
+        publishCommittedTopology();
+    }
+
+    /**
+     * Called by the {@link TopologyLoader} when the topology is cached.
+     *
+     * @return the loaded schema, created if it is not yet loaded.
+     */
+    Schema loadSchema(String schemaName) {
+        Optional<Schema> schemaOptional = getSchema(schemaName);
+        if (schemaName.equals(SQLG_SCHEMA)) {
+            Preconditions.checkState(schemaOptional.isPresent(), "\"public\" schema must always be present.");
+        }
+        if (!schemaOptional.isPresent()) {
+            Schema schema = Schema.loadUserSchema(this, schemaName);
+            this.schemas.put(schemaName, schema);
+            return schema;
+        } else {
+            return schemaOptional.get();
+        }
     }
 
     public void validateTopology() {
@@ -1021,7 +1158,7 @@ public class Topology {
             }
             ArrayNode unCommittedSchemaArrayNode = null;
             if (this.isSqlWriteLockHeldByCurrentThread()) {
-                for (Schema schema : this.uncommittedSchemas.values()) {
+                for (Schema schema : ownedUncommittedSchemas().values()) {
                     if (unCommittedSchemaArrayNode == null) {
                         unCommittedSchemaArrayNode = new ArrayNode(OBJECT_MAPPER.getNodeFactory());
                     }
@@ -1061,21 +1198,24 @@ public class Topology {
         }
     }
 
+    /**
+     * Called by the dialect's notification listener after it re-established its connection to the database.
+     * The notifications sent while it was not connected are lost, their logs are read from the sqlg_schema.log table instead.
+     */
+    public void fromMissedNotifications() {
+        try {
+            loadUnappliedLogs();
+        } finally {
+            this.sqlgGraph.tx().rollback();
+        }
+    }
+
     public void fromNotifyJson(int pid, LocalDateTime notifyTimestamp) {
         try {
             ImmutablePair<Integer, LocalDateTime> p = new ImmutablePair<>(pid, notifyTimestamp);
             if (!this.ownPids.contains(p)) {
-                List<Vertex> logs = this.sqlgGraph.topology().V()
-                        .hasLabel(SQLG_SCHEMA + "." + SQLG_SCHEMA_LOG)
-                        .has(SQLG_SCHEMA_LOG_TIMESTAMP, notifyTimestamp)
-                        .toList();
-                Preconditions.checkState(logs.size() == 1, "There must be one and only be one log, found %d", logs.size());
-                LocalDateTime timestamp = logs.get(0).value("timestamp");
-                Preconditions.checkState(timestamp.equals(notifyTimestamp), "notify log's timestamp does not match.");
-                int backEndPid = logs.get(0).value("pid");
-                Preconditions.checkState(backEndPid == pid, "notify pids do not match.");
-                ObjectNode log = logs.get(0).value("log");
-                fromNotifyJson(timestamp, log);
+                //replay all the logs after the last applied one, the notifications can arrive out of commit order.
+                loadUnappliedLogs();
             } else {
                 // why? we get notifications for our own things
                 //this.ownPids.remove(p);
@@ -1086,7 +1226,7 @@ public class Topology {
     }
 
     @SuppressWarnings("OptionalGetWithoutIsPresent")
-    private void fromNotifyJson(LocalDateTime timestamp, ObjectNode log) {
+    private void fromNotifyJson(ObjectNode log) {
         z_internalTopologyMapWriteLock();
         try {
             //First do all the out edges. The in edge logic assumes the out edges are present.
@@ -1138,9 +1278,8 @@ public class Topology {
                     }
                 }
             }
-
-            this.notificationTimestamps.add(timestamp);
         } finally {
+            publishCommittedTopology();
             z_internalInternalTopologyMapWriteUnLock();
 
         }
@@ -1196,7 +1335,7 @@ public class Topology {
             Set<Schema> result = new HashSet<>();
             result.addAll(this.schemas.values());
             if (this.isSqlWriteLockHeldByCurrentThread()) {
-                result.addAll(this.uncommittedSchemas.values());
+                result.addAll(ownedUncommittedSchemas().values());
                 if (uncommittedRemovedSchemas.size() > 0) {
                     for (Iterator<Schema> it = result.iterator(); it.hasNext(); ) {
                         Schema sch = it.next();
@@ -1227,6 +1366,9 @@ public class Topology {
     }
 
     public Optional<Schema> getSchema(String schema) {
+        if (readsCommittedTopology()) {
+            return this.committedTopology.getSchema(schema);
+        }
         if (isSqlWriteLockHeldByCurrentThread() && this.uncommittedRemovedSchemas.contains(schema)) {
             return Optional.empty();
         }
@@ -1234,7 +1376,7 @@ public class Topology {
         try {
             Schema result = this.schemas.get(schema);
             if (result == null) {
-                if (isSqlWriteLockHeldByCurrentThread()) {
+                if (isSqlWriteLockHeldByCurrentThread(schema)) {
                     result = this.uncommittedSchemas.get(schema);
                 }
                 if (result == null) {
@@ -1273,6 +1415,19 @@ public class Topology {
         }
     }
 
+    /**
+     * @return the uncommitted schemas whose lock the current thread holds, the other threads' ones are not visible.
+     */
+    private Map<String, Schema> ownedUncommittedSchemas() {
+        Map<String, Schema> result = new HashMap<>();
+        for (Map.Entry<String, Schema> stringSchemaEntry : this.uncommittedSchemas.entrySet()) {
+            if (isSqlWriteLockHeldByCurrentThread(stringSchemaEntry.getKey())) {
+                result.put(stringSchemaEntry.getKey(), stringSchemaEntry.getValue());
+            }
+        }
+        return result;
+    }
+
     private Map<String, AbstractLabel> getUncommittedAllTables() {
         Preconditions.checkState(isSqlWriteLockHeldByCurrentThread(), "getUncommittedAllTables must be called with the lock held");
         z_internalTopologyMapReadLock();
@@ -1282,7 +1437,7 @@ public class Topology {
                 Schema schema = stringSchemaEntry.getValue();
                 result.putAll(schema.getUncommittedLabels());
             }
-            for (Map.Entry<String, Schema> stringSchemaEntry : this.uncommittedSchemas.entrySet()) {
+            for (Map.Entry<String, Schema> stringSchemaEntry : ownedUncommittedSchemas().entrySet()) {
                 Schema schema = stringSchemaEntry.getValue();
                 result.putAll(schema.getUncommittedLabels());
             }
@@ -1301,7 +1456,7 @@ public class Topology {
                 Schema schema = stringSchemaEntry.getValue();
                 result.putAll(schema.getUncommittedSchemaTableForeignKeys());
             }
-            for (Map.Entry<String, Schema> stringSchemaEntry : this.uncommittedSchemas.entrySet()) {
+            for (Map.Entry<String, Schema> stringSchemaEntry : ownedUncommittedSchemas().entrySet()) {
                 Schema schema = stringSchemaEntry.getValue();
                 result.putAll(schema.getUncommittedSchemaTableForeignKeys());
             }
@@ -1320,7 +1475,7 @@ public class Topology {
                 Schema schema = stringSchemaEntry.getValue();
                 result.putAll(schema.getUncommittedEdgeForeignKeys());
             }
-            for (Map.Entry<String, Schema> stringSchemaEntry : this.uncommittedSchemas.entrySet()) {
+            for (Map.Entry<String, Schema> stringSchemaEntry : ownedUncommittedSchemas().entrySet()) {
                 Schema schema = stringSchemaEntry.getValue();
                 result.putAll(schema.getUncommittedEdgeForeignKeys());
             }
@@ -1436,6 +1591,11 @@ public class Topology {
     }
 
     public Map<String, PropertyColumn> getPropertiesFor(SchemaTable schemaTable) {
+        if (readsCommittedTopology()) {
+            Preconditions.checkArgument(schemaTable.getTable().startsWith(VERTEX_PREFIX) || schemaTable.getTable().startsWith(EDGE_PREFIX), "label must start with \"%s\" or \"%s\"", VERTEX_PREFIX, EDGE_PREFIX);
+            CommittedTopology.SchemaView committed = this.committedTopology.getSchemaView(schemaTable.getSchema());
+            return committed == null ? Collections.emptyMap() : committed.getPropertiesFor(schemaTable.getTable());
+        }
         Optional<Schema> schemaOptional = getSchema(schemaTable.getSchema());
         if (schemaOptional.isPresent()) {
             return Collections.unmodifiableMap(schemaOptional.get().getPropertiesFor(schemaTable));
@@ -0,0 +1,341 @@
+package org.umlg.sqlg.structure.topology;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.base.Preconditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.umlg.sqlg.sql.dialect.SqlDialect;
+import org.umlg.sqlg.structure.PropertyType;
+import org.umlg.sqlg.structure.SqlgGraph;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+
+import static org.umlg.sqlg.structure.topology.Topology.*;
+
+/**
+ * Loads the topology from the sqlg_schema tables with one flat query per table, independent of the number of labels.
+ * The rows are read into json tables, see {@link #read()}, from which the Schema, VertexLabel, EdgeLabel, PropertyColumn,
+ * Index and GlobalUniqueIndex objects are assembled in memory, see {@link #assemble(ObjectNode)}.
+ * The json tables are also what the {@link TopologySnapshot} persists.
+ * <p>
+ * Date: 2026/10/17
+ */
+final class TopologyLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(TopologyLoader.class);
+
+    private static final String SCHEMAS = "schemas";
+    private static final String VERTICES = "vertices";
+    private static final String SCHEMA_VERTICES = "schemaVertices";
+    private static final String PROPERTIES = "properties";
+    private static final String VERTEX_PROPERTIES = "vertexProperties";
+    private static final String EDGES = "edges";
+    private static final String OUT_EDGES = "outEdges";
+    private static final String EDGE_PROPERTIES = "edgeProperties";
+    private static final String IN_EDGES = "inEdges";
+    private static final String INDICES = "indices";
+    private static final String INDEX_PROPERTIES = "indexProperties";
+    private static final String VERTEX_INDICES = "vertexIndices";
+    private static final String EDGE_INDICES = "edgeIndices";
+    private static final String GLOBAL_UNIQUE_INDEXES = "globalUniqueIndexes";
+    private static final String GLOBAL_UNIQUE_INDEX_PROPERTIES = "globalUniqueIndexProperties";
+
+    //the sqlg_schema tables that the topology is loaded from, the graph table is not part of the topology.
+    private static final List<String> STAMP_TABLES = Arrays.asList(
+            VERTEX_PREFIX + SQLG_SCHEMA_SCHEMA,
+            VERTEX_PREFIX + SQLG_SCHEMA_VERTEX_LABEL,
+            VERTEX_PREFIX + SQLG_SCHEMA_EDGE_LABEL,
+            VERTEX_PREFIX + SQLG_SCHEMA_PROPERTY,
+            VERTEX_PREFIX + SQLG_SCHEMA_INDEX,
+            VERTEX_PREFIX + SQLG_SCHEMA_GLOBAL_UNIQUE_INDEX,
+            VERTEX_PREFIX + SQLG_SCHEMA_LOG,
+            EDGE_PREFIX + SQLG_SCHEMA_SCHEMA_VERTEX_EDGE,
+            EDGE_PREFIX + SQLG_SCHEMA_IN_EDGES_EDGE,
+            EDGE_PREFIX + SQLG_SCHEMA_OUT_EDGES_EDGE,
+            EDGE_PREFIX + SQLG_SCHEMA_VERTEX_PROPERTIES_EDGE,
+            EDGE_PREFIX + SQLG_SCHEMA_EDGE_PROPERTIES_EDGE,
+            EDGE_PREFIX + SQLG_SCHEMA_VERTEX_INDEX_EDGE,
+            EDGE_PREFIX + SQLG_SCHEMA_EDGE_INDEX_EDGE,
+            EDGE_PREFIX + SQLG_SCHEMA_INDEX_PROPERTY_EDGE,
+            EDGE_PREFIX + SQLG_SCHEMA_GLOBAL_UNIQUE_INDEX_PROPERTY_EDGE
+    );
+
+    private final Topology topology;
+    private final SqlgGraph sqlgGraph;
+    private final SqlDialect sqlDialect;
+
+    private final Map<Long, VertexLabel> vertexLabels = new HashMap<>();
+    //an edge's schema is the schema of its out vertex, the EdgeLabel is shared by the out vertices in the same schema.
+    private final Map<Long, Set<EdgeLabel>> edgeLabels = new HashMap<>();
+    private final Map<Long, Property> properties = new HashMap<>();
+    private final Map<Long, PropertyColumn> propertyColumns = new HashMap<>();
+
+    TopologyLoader(Topology topology, SqlgGraph sqlgGraph) {
+        this.topology = topology;
+        this.sqlgGraph = sqlgGraph;
+        this.sqlDialect = sqlgGraph.getSqlDialect();
+    }
+
+    void load() {
+        assemble(read());
+    }
+
+    /**
+     * @return a stamp of the current state of the sqlg_schema tables, the graph's version and creation time followed
+     * by the row count and max id of every table.
+     * The topology tables are only inserted into and deleted from, so the stamp changes with every topology change.
+     */
+    String stamp() {
+        StringBuilder sql = new StringBuilder();
+        for (int i = 0; i < STAMP_TABLES.size(); i++) {
+            if (i > 0) {
+                sql.append(" UNION ALL ");
+            }
+            sql.append("SELECT ").append(i).append(", COUNT(*), MAX(").append(q("ID")).append(") FROM ")
+                    .append(q(SQLG_SCHEMA)).append(".").append(q(STAMP_TABLES.get(i)));
+        }
+        String[] stamps = new String[STAMP_TABLES.size()];
+        StringBuilder graph = new StringBuilder();
+        Connection conn = this.sqlgGraph.tx().getConnection();
+        try (Statement statement = conn.createStatement()) {
+            query(statement, "SELECT " + q(VERSION) + ", " + q(CREATED_ON) + " FROM " + vertexTable(SQLG_SCHEMA_GRAPH),
+                    rs -> graph.append(rs.getString(1)).append("@").append(rs.getString(2)));
+            query(statement, sql.toString(), rs -> stamps[rs.getInt(1)] = rs.getLong(2) + ":" + rs.getLong(3));
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+        return graph + "," + String.join(",", stamps);
+    }
+
+    /**
+     * @return the rows of the sqlg_schema tables as json tables.
+     */
+    ObjectNode read() {
+        ObjectNode tables = new ObjectNode(OBJECT_MAPPER.getNodeFactory());
+        Connection conn = this.sqlgGraph.tx().getConnection();
+        try (Statement statement = conn.createStatement()) {
+            read(statement, tables, SCHEMAS, "SELECT " + q("ID") + ", " + q(SQLG_SCHEMA_SCHEMA_NAME) + " FROM " + vertexTable(SQLG_SCHEMA_SCHEMA) + " ORDER BY " + q("ID"));
+            read(statement, tables, VERTICES, "SELECT " + q("ID") + ", " + q(SQLG_SCHEMA_VERTEX_LABEL_NAME) + " FROM " + vertexTable(SQLG_SCHEMA_VERTEX_LABEL));
+            read(statement, tables, SCHEMA_VERTICES, edgeQuery(SQLG_SCHEMA_SCHEMA_VERTEX_EDGE, SQLG_SCHEMA_SCHEMA, SQLG_SCHEMA_VERTEX_LABEL));
+            read(statement, tables, PROPERTIES, "SELECT " + q("ID") + ", " + q(SQLG_SCHEMA_PROPERTY_NAME) + ", " + q(SQLG_SCHEMA_PROPERTY_TYPE) + " FROM " + vertexTable(SQLG_SCHEMA_PROPERTY));
+            read(statement, tables, VERTEX_PROPERTIES, edgeQuery(SQLG_SCHEMA_VERTEX_PROPERTIES_EDGE, SQLG_SCHEMA_VERTEX_LABEL, SQLG_SCHEMA_PROPERTY));
+            read(statement, tables, EDGES, "SELECT " + q("ID") + ", " + q(SQLG_SCHEMA_EDGE_LABEL_NAME) + " FROM " + vertexTable(SQLG_SCHEMA_EDGE_LABEL));
+            read(statement, tables, OUT_EDGES, edgeQuery(SQLG_SCHEMA_OUT_EDGES_EDGE, SQLG_SCHEMA_VERTEX_LABEL, SQLG_SCHEMA_EDGE_LABEL));
+            read(statement, tables, EDGE_PROPERTIES, edgeQuery(SQLG_SCHEMA_EDGE_PROPERTIES_EDGE, SQLG_SCHEMA_EDGE_LABEL, SQLG_SCHEMA_PROPERTY));
+            read(statement, tables, IN_EDGES, edgeQuery(SQLG_SCHEMA_IN_EDGES_EDGE, SQLG_SCHEMA_VERTEX_LABEL, SQLG_SCHEMA_EDGE_LABEL));
+            read(statement, tables, INDICES, "SELECT " + q("ID") + ", " + q(SQLG_SCHEMA_INDEX_NAME) + ", " + q(SQLG_SCHEMA_INDEX_INDEX_TYPE) + " FROM " + vertexTable(SQLG_SCHEMA_INDEX));
+            read(statement, tables, INDEX_PROPERTIES, edgeQuery(SQLG_SCHEMA_INDEX_PROPERTY_EDGE, SQLG_SCHEMA_INDEX, SQLG_SCHEMA_PROPERTY) + ", " + q(SQLG_SCHEMA_INDEX_PROPERTY_EDGE_SEQUENCE));
+            read(statement, tables, VERTEX_INDICES, edgeQuery(SQLG_SCHEMA_VERTEX_INDEX_EDGE, SQLG_SCHEMA_VERTEX_LABEL, SQLG_SCHEMA_INDEX));
+            read(statement, tables, EDGE_INDICES, edgeQuery(SQLG_SCHEMA_EDGE_INDEX_EDGE, SQLG_SCHEMA_EDGE_LABEL, SQLG_SCHEMA_INDEX));
+            read(statement, tables, GLOBAL_UNIQUE_INDEXES, "SELECT " + q("ID") + ", " + q(SQLG_SCHEMA_GLOBAL_UNIQUE_INDEX_NAME) + " FROM " + vertexTable(SQLG_SCHEMA_GLOBAL_UNIQUE_INDEX) + " ORDER BY " + q("ID"));
+            read(statement, tables, GLOBAL_UNIQUE_INDEX_PROPERTIES, edgeQuery(SQLG_SCHEMA_GLOBAL_UNIQUE_INDEX_PROPERTY_EDGE, SQLG_SCHEMA_GLOBAL_UNIQUE_INDEX, SQLG_SCHEMA_PROPERTY));
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+        return tables;
+    }
+
+    /**
+     * Assembles the topology from json tables produced by {@link #read()}.
+     */
+    void assemble(ObjectNode tables) {
+        Map<Long, Schema> schemas = new HashMap<>();
+        for (JsonNode row : tables.get(SCHEMAS)) {
+            schemas.put(row.get(0).asLong(), this.topology.loadSchema(row.get(1).asText()));
+        }
+        Map<Long, String> vertexNames = new HashMap<>();
+        for (JsonNode row : tables.get(VERTICES)) {
+            vertexNames.put(row.get(0).asLong(), row.get(1).asText());
+        }
+        for (JsonNode row : tables.get(SCHEMA_VERTICES)) {
+            Schema schema = schemas.get(row.get(0).asLong());
+            String vertexName = vertexNames.get(row.get(1).asLong());
+            Preconditions.checkState(schema != null && vertexName != null, "BUG: Topology vertex not found.");
+            this.vertexLabels.put(row.get(1).asLong(), schema.loadVertexLabel(vertexName));
+        }
+
+        for (JsonNode row : tables.get(PROPERTIES)) {
+            this.properties.put(row.get(0).asLong(), new Property(row.get(1).asText(), PropertyType.valueOf(row.get(2).asText())));
+        }
+        for (JsonNode row : tables.get(VERTEX_PROPERTIES)) {
+            VertexLabel vertexLabel = vertexLabel(row.get(0).asLong());
+            Property property = property(row.get(1).asLong());
+            this.propertyColumns.put(row.get(1).asLong(), vertexLabel.addProperty(property.name, property.propertyType));
+        }
+
+        //Load the out edges. This will load all edges as all edges have a out vertex.
+        Map<Long, String> edgeNames = new HashMap<>();
+        for (JsonNode row : tables.get(EDGES)) {
+            edgeNames.put(row.get(0).asLong(), row.get(1).asText());
+        }
+        for (JsonNode row : tables.get(OUT_EDGES)) {
+            VertexLabel vertexLabel = vertexLabel(row.get(0).asLong());
+            String edgeName = edgeNames.get(row.get(1).asLong());
+            Preconditions.checkState(edgeName != null, "BUG: Topology edge not found.");
+            EdgeLabel edgeLabel = vertexLabel.getSchema().loadOutEdgeLabel(vertexLabel, edgeName);
+            this.edgeLabels.computeIfAbsent(row.get(1).asLong(), k -> new LinkedHashSet<>()).add(edgeLabel);
+        }
+        for (JsonNode row : tables.get(EDGE_PROPERTIES)) {
+            Property property = property(row.get(1).asLong());
+            for (EdgeLabel edgeLabel : edgeLabels(row.get(0).asLong())) {
+                this.propertyColumns.put(row.get(1).asLong(), edgeLabel.addProperty(property.name, property.propertyType));
+            }
+        }
+        //Now the in edges, the out edges are all loaded.
+        for (JsonNode row : tables.get(IN_EDGES)) {
+            VertexLabel inVertexLabel = vertexLabel(row.get(0).asLong());
+            for (EdgeLabel edgeLabel : edgeLabels(row.get(1).asLong())) {
+                inVertexLabel.addToInEdgeLabels(edgeLabel);
+            }
+        }
+
+        assembleIndices(tables);
+        assembleGlobalUniqueIndexes(tables);
+    }
+
+    private void assembleIndices(ObjectNode tables) {
+        Map<Long, String[]> indices = new HashMap<>();
+        for (JsonNode row : tables.get(INDICES)) {
+            indices.put(row.get(0).asLong(), new String[]{row.get(1).asText(), row.get(2).textValue()});
+        }
+        //an index without properties is not loaded
+        Map<Long, List<String>> indexProperties = new LinkedHashMap<>();
+        for (JsonNode row : tables.get(INDEX_PROPERTIES)) {
+            indexProperties.computeIfAbsent(row.get(0).asLong(), k -> new ArrayList<>()).add(property(row.get(1).asLong()).name);
+        }
+        for (JsonNode row : tables.get(VERTEX_INDICES)) {
+            List<String> propertyNames = indexProperties.get(row.get(1).asLong());
+            if (propertyNames != null) {
+                assembleIndex(vertexLabel(row.get(0).asLong()), indices.get(row.get(1).asLong()), propertyNames);
+            }
+        }
+        for (JsonNode row : tables.get(EDGE_INDICES)) {
+            List<String> propertyNames = indexProperties.get(row.get(1).asLong());
+            if (propertyNames != null) {
+                for (EdgeLabel edgeLabel : edgeLabels(row.get(0).asLong())) {
+                    assembleIndex(edgeLabel, indices.get(row.get(1).asLong()), propertyNames);
+                }
+            }
+        }
+    }
+
+    private static void assembleIndex(AbstractLabel abstractLabel, String[] nameAndType, List<String> propertyNames) {
+        Preconditions.checkState(nameAndType != null, "BUG: Topology index not found.");
+        Optional<Index> indexOptional = abstractLabel.getIndex(nameAndType[0]);
+        Index index;
+        if (indexOptional.isPresent()) {
+            index = indexOptional.get();
+        } else {
+            index = new Index(nameAndType[0], IndexType.fromString(nameAndType[1]), abstractLabel);
+            abstractLabel.addIndex(index);
+        }
+        for (String propertyName : propertyNames) {
+            abstractLabel.getProperty(propertyName).ifPresent(index::addProperty);
+        }
+    }
+
+    private void assembleGlobalUniqueIndexes(ObjectNode tables) {
+        Map<Long, GlobalUniqueIndex> globalUniqueIndexes = new LinkedHashMap<>();
+        for (JsonNode row : tables.get(GLOBAL_UNIQUE_INDEXES)) {
+            String globalUniqueIndexName = row.get(1).asText();
+            GlobalUniqueIndex globalUniqueIndex = GlobalUniqueIndex.instantiateGlobalUniqueIndex(this.topology, globalUniqueIndexName);
+            this.topology.getGlobalUniqueIndexSchema().globalUniqueIndexes.put(globalUniqueIndexName, globalUniqueIndex);
+            globalUniqueIndexes.put(row.get(0).asLong(), globalUniqueIndex);
+        }
+        Map<Long, Set<PropertyColumn>> guiPropertyColumns = new HashMap<>();
+        for (JsonNode row : tables.get(GLOBAL_UNIQUE_INDEX_PROPERTIES)) {
+            PropertyColumn propertyColumn = this.propertyColumns.get(row.get(1).asLong());
+            Preconditions.checkState(propertyColumn != null, "BUG: GlobalUniqueIndex property not found.");
+            guiPropertyColumns.computeIfAbsent(row.get(0).asLong(), k -> new HashSet<>()).add(propertyColumn);
+        }
+        for (Map.Entry<Long, GlobalUniqueIndex> entry : globalUniqueIndexes.entrySet()) {
+            entry.getValue().addGlobalUniqueProperties(guiPropertyColumns.getOrDefault(entry.getKey(), new HashSet<>()));
+        }
+    }
+
+    private VertexLabel vertexLabel(long id) {
+        VertexLabel vertexLabel = this.vertexLabels.get(id);
+        Preconditions.checkState(vertexLabel != null, "BUG: Topology vertex not found.");
+        return vertexLabel;
+    }
+
+    private Set<EdgeLabel> edgeLabels(long id) {
+        return this.edgeLabels.getOrDefault(id, Collections.emptySet());
+    }
+
+    private Property property(long id) {
+        Property property = this.properties.get(id);
+        Preconditions.checkState(property != null, "BUG: Topology property not found.");
+        return property;
+    }
+
+    /**
+     * @return the out and in vertex ids of the sqlg_schema edge table, ordered by the out vertex.
+     */
+    private String edgeQuery(String edge, String outVertex, String inVertex) {
+        String out = q(SQLG_SCHEMA + "." + outVertex + OUT_VERTEX_COLUMN_END);
+        return "SELECT " + out + ", " + q(SQLG_SCHEMA + "." + inVertex + IN_VERTEX_COLUMN_END) +
+                " FROM " + q(SQLG_SCHEMA) + "." + q(EDGE_PREFIX + edge) +
+                " ORDER BY " + out;
+    }
+
+    private String vertexTable(String vertex) {
+        return q(SQLG_SCHEMA) + "." + q(VERTEX_PREFIX + vertex);
+    }
+
+    private String q(String identifier) {
+        return this.sqlDialect.maybeWrapInQoutes(identifier);
+    }
+
+    private void read(Statement statement, ObjectNode tables, String table, String sql) throws SQLException {
+        ArrayNode rows = tables.putArray(table);
+        query(statement, sql, rs -> {
+            ArrayNode row = rows.addArray();
+            for (int i = 1; i <= rs.getMetaData().getColumnCount(); i++) {
+                Object value = rs.getObject(i);
+                if (value instanceof Number) {
+                    row.add(((Number) value).longValue());
+                } else if (value == null) {
+                    row.addNull();
+                } else {
+                    row.add(value.toString());
+                }
+            }
+        });
+    }
+
+    private void query(Statement statement, String sql, RowHandler rowHandler) throws SQLException {
+        if (this.sqlDialect.needsSemicolon()) {
+            sql += ";";
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug(sql);
+        }
+        try (ResultSet resultSet = statement.executeQuery(sql)) {
+            while (resultSet.next()) {
+                rowHandler.handle(resultSet);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowHandler {
+        void handle(ResultSet resultSet) throws SQLException;
+    }
+
+    private static final class Property {
+        private final String name;
+        private final PropertyType propertyType;
+
+        private Property(String name, PropertyType propertyType) {
+            this.name = name;
+            this.propertyType = propertyType;
+        }
+    }
+}
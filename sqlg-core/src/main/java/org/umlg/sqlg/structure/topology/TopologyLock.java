@@ -0,0 +1,188 @@
+package org.umlg.sqlg.structure.topology;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.umlg.sqlg.structure.SqlgExceptions;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The topology's lock within the jvm. It is taken on keys and held until the end of the transaction.
+ * A key is the empty string for the whole topology, a schema's name or a label's qualified table name, e.g. "public.V_Person".
+ * <p>
+ * All keys are taken in one global order, the whole topology first, then the schemas, then the labels, each in name order.
+ * A transaction that already holds a key that sorts after the one it asks for, e.g. it changed a label and then creates
+ * an edge to a label that sorts before it, is out of order. Before any thread waits the waits-for graph of the lock is
+ * checked, should the wait close a cycle it fails with a {@link SqlgExceptions.TopologyLockDeadlockException} instead
+ * of waiting. Only out of order requests can close a cycle.
+ * <p>
+ * Date: 2026/10/17
+ */
+public class TopologyLock {
+
+    public static final String TOPOLOGY = "";
+
+    //the whole topology sorts first, then the schemas, then the labels.
+    public static final Comparator<String> KEY_ORDER = Comparator.comparingInt(TopologyLock::level).thenComparing(Comparator.naturalOrder());
+
+    private final long timeoutNanos;
+    //the threads holding a key, true if held exclusively.
+    private final Map<String, Map<Thread, Boolean>> holders = new HashMap<>();
+    //the key a thread waits for, true if it waits to hold it exclusively.
+    private final Map<Thread, Pair<String, Boolean>> waiting = new HashMap<>();
+    //the keys held by the current thread, true if held exclusively. null if the thread holds no key.
+    private final ThreadLocal<NavigableMap<String, Boolean>> held = new ThreadLocal<>();
+
+    public TopologyLock(long timeout, TimeUnit unit) {
+        this.timeoutNanos = unit.toNanos(timeout);
+    }
+
+    private static int level(String key) {
+        if (key.isEmpty()) {
+            return 0;
+        }
+        return key.indexOf('.') == -1 ? 1 : 2;
+    }
+
+    /**
+     * Takes the key for the current thread. A key held in shared mode can be taken again exclusively.
+     *
+     * @param key       the key to take.
+     * @param exclusive true to take the key exclusively, false to share it with the other shared holders.
+     * @param failFast  true to fail with a {@link SqlgExceptions.TopologyLockDeadlockException} instead of waiting,
+     *                  for requests that could close a cycle with a transaction of another jvm.
+     * @return true if the key was taken, false if the current thread already held it, or the whole topology exclusively.
+     */
+    public boolean lock(String key, boolean exclusive, boolean failFast) {
+        NavigableMap<String, Boolean> keys = this.held.get();
+        if (keys != null) {
+            Boolean heldExclusively = keys.get(key);
+            if ((heldExclusively != null && (heldExclusively || !exclusive)) || Boolean.TRUE.equals(keys.get(TOPOLOGY))) {
+                return false;
+            }
+        }
+        Thread thread = Thread.currentThread();
+        synchronized (this) {
+            if (!blockers(thread, key, exclusive).isEmpty()) {
+                if (failFast) {
+                    throw SqlgExceptions.topologyLockDeadlock(key);
+                }
+                long deadline = System.nanoTime() + this.timeoutNanos;
+                this.waiting.put(thread, Pair.of(key, exclusive));
+                try {
+                    while (!blockers(thread, key, exclusive).isEmpty()) {
+                        if (closesCycle(thread)) {
+                            throw SqlgExceptions.topologyLockDeadlock(key);
+                        }
+                        long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0) {
+                            throw new RuntimeException("Timeout lapsed to acquire the topology lock on '" + key + "'.");
+                        }
+                        TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                    }
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                } finally {
+                    this.waiting.remove(thread);
+                    //shared requests might have waited for this one.
+                    notifyAll();
+                }
+            }
+            this.holders.computeIfAbsent(key, k -> new HashMap<>()).put(thread, exclusive);
+        }
+        if (keys == null) {
+            keys = new TreeMap<>(KEY_ORDER);
+            this.held.set(keys);
+        }
+        keys.put(key, exclusive);
+        return true;
+    }
+
+    /**
+     * Releases all the keys of the current thread.
+     */
+    public void unlockAll() {
+        NavigableMap<String, Boolean> keys = this.held.get();
+        if (keys != null) {
+            this.held.remove();
+            Thread thread = Thread.currentThread();
+            synchronized (this) {
+                for (String key : keys.keySet()) {
+                    Map<Thread, Boolean> keyHolders = this.holders.get(key);
+                    keyHolders.remove(thread);
+                    if (keyHolders.isEmpty()) {
+                        this.holders.remove(key);
+                    }
+                }
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * @return true if the current thread holds a key that sorts after the given key.
+     */
+    public boolean isOutOfOrder(String key) {
+        NavigableMap<String, Boolean> keys = this.held.get();
+        return keys != null && KEY_ORDER.compare(keys.lastKey(), key) > 0;
+    }
+
+    /**
+     * @return true if the current thread holds any key.
+     */
+    public boolean isHeldByCurrentThread() {
+        return this.held.get() != null;
+    }
+
+    /**
+     * @return true if the current thread holds the key, or the whole topology exclusively.
+     */
+    public boolean isHeldByCurrentThread(String key) {
+        NavigableMap<String, Boolean> keys = this.held.get();
+        return keys != null && (keys.containsKey(key) || Boolean.TRUE.equals(keys.get(TOPOLOGY)));
+    }
+
+    /**
+     * The threads the request has to wait for. A shared request also waits for the threads that wait to take the key
+     * exclusively, else they could wait forever.
+     */
+    private Set<Thread> blockers(Thread thread, String key, boolean exclusive) {
+        Set<Thread> result = new HashSet<>();
+        Map<Thread, Boolean> keyHolders = this.holders.getOrDefault(key, Collections.emptyMap());
+        for (Map.Entry<Thread, Boolean> holder : keyHolders.entrySet()) {
+            if (holder.getKey() != thread && (exclusive || holder.getValue())) {
+                result.add(holder.getKey());
+            }
+        }
+        if (!exclusive) {
+            for (Map.Entry<Thread, Pair<String, Boolean>> waiter : this.waiting.entrySet()) {
+                if (waiter.getKey() != thread && waiter.getValue().getRight() && waiter.getValue().getLeft().equals(key)) {
+                    result.add(waiter.getKey());
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return true if one of the threads the waiting thread waits for, waits for it in turn.
+     */
+    private boolean closesCycle(Thread thread) {
+        Pair<String, Boolean> request = this.waiting.get(thread);
+        Deque<Thread> toVisit = new ArrayDeque<>(blockers(thread, request.getLeft(), request.getRight()));
+        Set<Thread> visited = new HashSet<>();
+        while (!toVisit.isEmpty()) {
+            Thread blocker = toVisit.pop();
+            if (blocker == thread) {
+                return true;
+            }
+            if (visited.add(blocker)) {
+                Pair<String, Boolean> blockerRequest = this.waiting.get(blocker);
+                if (blockerRequest != null) {
+                    toVisit.addAll(blockers(blocker, blockerRequest.getLeft(), blockerRequest.getRight()));
+                }
+            }
+        }
+        return false;
+    }
+}
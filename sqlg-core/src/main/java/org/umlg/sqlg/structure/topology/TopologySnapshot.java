@@ -0,0 +1,94 @@
+package org.umlg.sqlg.structure.topology;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.umlg.sqlg.structure.topology.Topology.OBJECT_MAPPER;
+
+/**
+ * A file with the sqlg_schema rows as read by the {@link TopologyLoader}, stamped with {@link TopologyLoader#stamp()}.
+ * If the stamp still matches the database the topology is assembled from the file instead of being read from the sqlg_schema tables.
+ * The snapshot is a cache, failing to read or write it is logged and otherwise ignored.
+ * <p>
+ * Date: 2026/10/17
+ */
+final class TopologySnapshot {
+
+    private static final Logger logger = LoggerFactory.getLogger(TopologySnapshot.class);
+    //incremented when the format of the json tables changes.
+    private static final int FORMAT = 1;
+
+    private final Path file;
+    //the stamp of the last snapshot read or written by this graph.
+    private String stamp;
+
+    TopologySnapshot(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * @return the json tables if the snapshot exists and its stamp matches.
+     */
+    Optional<ObjectNode> read(String stamp) {
+        if (!Files.exists(this.file)) {
+            return Optional.empty();
+        }
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(this.file))) {
+            JsonNode snapshot = OBJECT_MAPPER.readTree(in);
+            if (snapshot.path("format").asInt() != FORMAT || !stamp.equals(snapshot.path("stamp").asText())) {
+                logger.debug("Topology snapshot {} is out of date.", this.file);
+                return Optional.empty();
+            }
+            this.stamp = stamp;
+            return Optional.of((ObjectNode) snapshot.get("tables"));
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to read the topology snapshot " + this.file, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Writes the snapshot to a temporary file first that is then moved over the snapshot, readers never see a partial snapshot.
+     */
+    void write(String stamp, ObjectNode tables) {
+        ObjectNode snapshot = new ObjectNode(OBJECT_MAPPER.getNodeFactory());
+        snapshot.put("format", FORMAT);
+        snapshot.put("stamp", stamp);
+        snapshot.set("tables", tables);
+        try {
+            Path parent = this.file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path tmp = Files.createTempFile(parent, this.file.getFileName().toString(), ".tmp");
+            try {
+                try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tmp))) {
+                    OBJECT_MAPPER.writeValue(out, snapshot);
+                }
+                Files.move(tmp, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+            this.stamp = stamp;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to write the topology snapshot " + this.file, e);
+        }
+    }
+
+    /**
+     * @return true if the stamp differs from the last snapshot read or written.
+     */
+    boolean isStale(String stamp) {
+        return !stamp.equals(this.stamp);
+    }
+}
@@ -18,6 +18,7 @@ import org.umlg.sqlg.structure.TopologyChangeAction;
 
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.umlg.sqlg.structure.topology.Topology.*;
 
@@ -36,8 +37,8 @@ public class VertexLabel extends AbstractLabel {
     //        B.B --ab-->A.B
     //In this case 2 EdgeLabels will exist A.ab and B.ab
     //A.B's inEdgeLabels will contain both EdgeLabels
-    Map<String, EdgeLabel> inEdgeLabels = new HashMap<>();
-    Map<String, EdgeLabel> outEdgeLabels = new HashMap<>();
+    Map<String, EdgeLabel> inEdgeLabels = new ConcurrentHashMap<>();
+    Map<String, EdgeLabel> outEdgeLabels = new ConcurrentHashMap<>();
     private Map<String, EdgeLabel> uncommittedInEdgeLabels = new HashMap<>();
     private Map<String, EdgeLabel> uncommittedOutEdgeLabels = new HashMap<>();
     private Map<String,EdgeRemoveType> uncommittedRemovedInEdgeLabels = new HashMap<>();
@@ -93,7 +94,7 @@ public class VertexLabel extends AbstractLabel {
     public Map<String, EdgeLabel> getInEdgeLabels() {
         Map<String, EdgeLabel> result = new HashMap<>();
         result.putAll(this.inEdgeLabels);
-        if (this.schema.getTopology().isSqlWriteLockHeldByCurrentThread()) {
+        if (isSqlWriteLockHeldByCurrentThread()) {
             result.putAll(this.uncommittedInEdgeLabels);
             for (String e:this.uncommittedRemovedInEdgeLabels.keySet()){
             	result.remove(e);
@@ -105,7 +106,7 @@ public class VertexLabel extends AbstractLabel {
     public Map<String, EdgeLabel> getOutEdgeLabels() {
         Map<String, EdgeLabel> result = new HashMap<>();
         result.putAll(this.outEdgeLabels);
-        if (this.schema.getTopology().isSqlWriteLockHeldByCurrentThread()) {
+        if (isSqlWriteLockHeldByCurrentThread()) {
             result.putAll(this.uncommittedOutEdgeLabels);
             for (String e:this.uncommittedRemovedOutEdgeLabels.keySet()){
             	result.remove(e);
@@ -121,7 +122,7 @@ public class VertexLabel extends AbstractLabel {
         for (String k:this.inEdgeLabels.keySet()){
         	result.put(k,new EdgeRole(this,this.inEdgeLabels.get(k),Direction.IN,true));
         }
-        if (this.schema.getTopology().isSqlWriteLockHeldByCurrentThread()) {
+        if (isSqlWriteLockHeldByCurrentThread()) {
         	for (String k:this.uncommittedInEdgeLabels.keySet()){
             	result.put(k,new EdgeRole(this,this.uncommittedInEdgeLabels.get(k),Direction.IN,false));
             }
@@ -137,7 +138,7 @@ public class VertexLabel extends AbstractLabel {
          for (String k:this.outEdgeLabels.keySet()){
          	result.put(k,new EdgeRole(this,this.outEdgeLabels.get(k),Direction.OUT,true));
          }
-         if (this.schema.getTopology().isSqlWriteLockHeldByCurrentThread()) {
+         if (isSqlWriteLockHeldByCurrentThread()) {
          	for (String k:this.uncommittedOutEdgeLabels.keySet()){
              	result.put(k,new EdgeRole(this,this.uncommittedOutEdgeLabels.get(k),Direction.OUT,false));
              }
@@ -174,7 +175,10 @@ public class VertexLabel extends AbstractLabel {
     Map<String, EdgeLabel> getUncommittedOutEdgeLabels() {
         if (this.schema.getTopology().isSqlWriteLockHeldByCurrentThread()) {
             Map<String, EdgeLabel> result = new HashMap<>();
-            result.putAll(this.uncommittedOutEdgeLabels);
+            if (isSqlWriteLockHeldByCurrentThread()) {
+                result.putAll(this.uncommittedOutEdgeLabels);
+            }
+            //the committed edge labels' own lock guards their uncommitted properties.
             for (EdgeLabel outEdgeLabel : this.outEdgeLabels.values()) {
                 Map<String, PropertyColumn> propertyMap = outEdgeLabel.getUncommittedPropertyTypeMap();
                 if (!propertyMap.isEmpty() || !outEdgeLabel.getUncommittedRemovedProperties().isEmpty()) {
@@ -274,9 +278,10 @@ public class VertexLabel extends AbstractLabel {
         for (Map.Entry<String, PropertyType> column : columns.entrySet()) {
             if (!this.properties.containsKey(column.getKey())) {
                 Preconditions.checkState(!this.schema.isSqlgSchema(), "schema may not be %s", SQLG_SCHEMA);
-                if (!this.uncommittedProperties.containsKey(column.getKey())) {
-                    this.schema.getTopology().lock();
-                    if (!this.uncommittedProperties.containsKey(column.getKey())) {
+                if (!isSqlWriteLockHeldByCurrentThread() || !this.uncommittedProperties.containsKey(column.getKey())) {
+                    lockLabel();
+                    //another transaction might have committed the property while this one waited for the lock.
+                    if (!this.properties.containsKey(column.getKey()) && !this.uncommittedProperties.containsKey(column.getKey())) {
                         TopologyManager.addVertexColumn(this.sqlgGraph, this.schema.getName(), VERTEX_PREFIX + getLabel(), column);
                         addColumn(this.schema.getName(), VERTEX_PREFIX + getLabel(), ImmutablePair.of(column.getKey(), column.getValue()));
                         PropertyColumn propertyColumn = new PropertyColumn(this, column.getKey(), column.getValue());
@@ -328,7 +333,7 @@ public class VertexLabel extends AbstractLabel {
         for (EdgeLabel outEdgeLabel : this.outEdgeLabels.values()) {
             outSchemaTables.add(SchemaTable.of(outEdgeLabel.getSchema().getName(), EDGE_PREFIX + outEdgeLabel.getLabel()));
         }
-        if (this.schema.getTopology().isSqlWriteLockHeldByCurrentThread()) {
+        if (isSqlWriteLockHeldByCurrentThread()) {
             for (EdgeLabel inEdgeLabel : this.uncommittedInEdgeLabels.values()) {
                 inSchemaTables.add(SchemaTable.of(inEdgeLabel.getSchema().getName(), EDGE_PREFIX + inEdgeLabel.getLabel()));
             }
@@ -342,53 +347,56 @@ public class VertexLabel extends AbstractLabel {
     void afterCommit() {
         Preconditions.checkState(this.schema.getTopology().isSqlWriteLockHeldByCurrentThread(), "VertexLabel.afterCommit must hold the write lock");
         super.afterCommit();
-        Iterator<Map.Entry<String, EdgeLabel>> edgeLabelEntryIter = this.uncommittedOutEdgeLabels.entrySet().iterator();
-        while (edgeLabelEntryIter.hasNext()) {
-            Map.Entry<String, EdgeLabel> edgeLabelEntry = edgeLabelEntryIter.next();
-            String edgeLabelName = edgeLabelEntry.getKey();
-            EdgeLabel edgeLabel = edgeLabelEntry.getValue();
-            this.outEdgeLabels.put(edgeLabelName, edgeLabel);
-            edgeLabel.afterCommit();
-            this.getSchema().addToAllEdgeCache(edgeLabel);
-            edgeLabelEntryIter.remove();
-        }
-        edgeLabelEntryIter = this.uncommittedInEdgeLabels.entrySet().iterator();
-        while (edgeLabelEntryIter.hasNext()) {
-            Map.Entry<String, EdgeLabel> edgeLabelEntry = edgeLabelEntryIter.next();
-            String edgeLabelName = edgeLabelEntry.getKey();
-            EdgeLabel edgeLabel = edgeLabelEntry.getValue();
-            this.inEdgeLabels.put(edgeLabelName, edgeLabel);
-            edgeLabel.afterCommit();
-            edgeLabelEntryIter.remove();
+        if (isSqlWriteLockHeldByCurrentThread()) {
+            Iterator<Map.Entry<String, EdgeLabel>> edgeLabelEntryIter = this.uncommittedOutEdgeLabels.entrySet().iterator();
+            while (edgeLabelEntryIter.hasNext()) {
+                Map.Entry<String, EdgeLabel> edgeLabelEntry = edgeLabelEntryIter.next();
+                String edgeLabelName = edgeLabelEntry.getKey();
+                EdgeLabel edgeLabel = edgeLabelEntry.getValue();
+                edgeLabel.afterCommit();
+                this.outEdgeLabels.put(edgeLabelName, edgeLabel);
+                this.getSchema().addToAllEdgeCache(edgeLabel);
+                edgeLabelEntryIter.remove();
+            }
+            edgeLabelEntryIter = this.uncommittedInEdgeLabels.entrySet().iterator();
+            while (edgeLabelEntryIter.hasNext()) {
+                Map.Entry<String, EdgeLabel> edgeLabelEntry = edgeLabelEntryIter.next();
+                String edgeLabelName = edgeLabelEntry.getKey();
+                EdgeLabel edgeLabel = edgeLabelEntry.getValue();
+                edgeLabel.afterCommit();
+                this.inEdgeLabels.put(edgeLabelName, edgeLabel);
+                edgeLabelEntryIter.remove();
 
-        }
-        for (Iterator<String> it=this.uncommittedRemovedOutEdgeLabels.keySet().iterator();it.hasNext();){
-        	String s=it.next();
-        	EdgeLabel lbl=this.outEdgeLabels.remove(s);
-        	if (lbl!=null){
-        		  this.getSchema().getTopology().removeFromEdgeForeignKeyCache(
-                          lbl.getSchema().getName() + "." + EDGE_PREFIX + lbl.getLabel(),
-                          this.getSchema().getName() + "." + this.getLabel() + Topology.OUT_VERTEX_COLUMN_END);
-        		  this.getSchema().getTopology().removeOutForeignKeysFromVertexLabel(this, lbl);
+            }
+            for (Iterator<String> it=this.uncommittedRemovedOutEdgeLabels.keySet().iterator();it.hasNext();){
+            	String s=it.next();
+            	EdgeLabel lbl=this.outEdgeLabels.remove(s);
+            	if (lbl!=null){
+            		  this.getSchema().getTopology().removeFromEdgeForeignKeyCache(
+                              lbl.getSchema().getName() + "." + EDGE_PREFIX + lbl.getLabel(),
+                              this.getSchema().getName() + "." + this.getLabel() + Topology.OUT_VERTEX_COLUMN_END);
+            		  this.getSchema().getTopology().removeOutForeignKeysFromVertexLabel(this, lbl);
                   
-        	}
-        	it.remove();
+            	}
+            	it.remove();
         	
-        }
+            }
         
-        for (Iterator<String> it=this.uncommittedRemovedInEdgeLabels.keySet().iterator();it.hasNext();){
-        	String s=it.next();
-        	EdgeLabel lbl=this.inEdgeLabels.remove(s);
-        	if (lbl!=null){
-      		  this.getSchema().getTopology().removeFromEdgeForeignKeyCache(
-                        lbl.getSchema().getName() + "." + EDGE_PREFIX + lbl.getLabel(),
-                        this.getSchema().getName() + "." + this.getLabel() + Topology.IN_VERTEX_COLUMN_END);
-      		  this.getSchema().getTopology().removeInForeignKeysFromVertexLabel(this, lbl);
+            for (Iterator<String> it=this.uncommittedRemovedInEdgeLabels.keySet().iterator();it.hasNext();){
+            	String s=it.next();
+            	EdgeLabel lbl=this.inEdgeLabels.remove(s);
+            	if (lbl!=null){
+          		  this.getSchema().getTopology().removeFromEdgeForeignKeyCache(
+                            lbl.getSchema().getName() + "." + EDGE_PREFIX + lbl.getLabel(),
+                            this.getSchema().getName() + "." + this.getLabel() + Topology.IN_VERTEX_COLUMN_END);
+          		  this.getSchema().getTopology().removeInForeignKeysFromVertexLabel(this, lbl);
             
-        	}
-        	it.remove();
-        }
+            	}
+            	it.remove();
+            }
         
+        }
+        //the edge labels commit their own changes if the current thread holds their lock.
         for (EdgeLabel edgeLabel : this.outEdgeLabels.values()) {
             edgeLabel.afterCommit();
         }
@@ -400,22 +408,26 @@ public class VertexLabel extends AbstractLabel {
     void afterRollbackForInEdges() {
         Preconditions.checkState(this.schema.getTopology().isSqlWriteLockHeldByCurrentThread(), "VertexLabel.afterRollback must hold the write lock");
         super.afterRollback();
-        for (Iterator<EdgeLabel> it = this.uncommittedInEdgeLabels.values().iterator(); it.hasNext(); ) {
-            EdgeLabel edgeLabel = it.next();
-            edgeLabel.afterRollbackInEdges(this);
-            it.remove();
+        if (isSqlWriteLockHeldByCurrentThread()) {
+            for (Iterator<EdgeLabel> it = this.uncommittedInEdgeLabels.values().iterator(); it.hasNext(); ) {
+                EdgeLabel edgeLabel = it.next();
+                edgeLabel.afterRollbackInEdges(this);
+                it.remove();
+            }
         }
     }
 
     void afterRollbackForOutEdges() {
         Preconditions.checkState(this.schema.getTopology().isSqlWriteLockHeldByCurrentThread(), "VertexLabel.afterRollback must hold the write lock");
         super.afterRollback();
-        for (Iterator<EdgeLabel> it = this.uncommittedOutEdgeLabels.values().iterator(); it.hasNext(); ) {
-            EdgeLabel edgeLabel = it.next();
-            it.remove();
-            //It is important to first remove the EdgeLabel from the iterator as the EdgeLabel's outVertex is still
-            // present and its needed for the hashCode method which is invoked during the it.remove()
-            edgeLabel.afterRollbackOutEdges(this);
+        if (isSqlWriteLockHeldByCurrentThread()) {
+            for (Iterator<EdgeLabel> it = this.uncommittedOutEdgeLabels.values().iterator(); it.hasNext(); ) {
+                EdgeLabel edgeLabel = it.next();
+                it.remove();
+                //It is important to first remove the EdgeLabel from the iterator as the EdgeLabel's outVertex is still
+                // present and its needed for the hashCode method which is invoked during the it.remove()
+                edgeLabel.afterRollbackOutEdges(this);
+            }
         }
         //Only need to go though the outEdgeLabels. All edgeLabels will be touched
         for (EdgeLabel edgeLabel : this.outEdgeLabels.values()) {
@@ -457,7 +469,7 @@ public class VertexLabel extends AbstractLabel {
         }
         vertexLabelNode.set("inEdgeLabels", inEdgeLabelsArrayNode);
 
-        if (this.schema.getTopology().isSqlWriteLockHeldByCurrentThread()) {
+        if (isSqlWriteLockHeldByCurrentThread()) {
             outEdgeLabelsArrayNode = new ArrayNode(Topology.OBJECT_MAPPER.getNodeFactory());
             for (EdgeLabel edgeLabel : this.uncommittedOutEdgeLabels.values()) {
                 outEdgeLabelsArrayNode.add(edgeLabel.toJson());
@@ -485,7 +497,7 @@ public class VertexLabel extends AbstractLabel {
             vertexLabelNode.set("uncommittedRemovedIndexes", abstractLabelNode.get().get("uncommittedRemovedIndexes"));
         }
 
-        if (this.getSchema().getTopology().isSqlWriteLockHeldByCurrentThread() && !this.uncommittedOutEdgeLabels.isEmpty()) {
+        if (isSqlWriteLockHeldByCurrentThread() && !this.uncommittedOutEdgeLabels.isEmpty()) {
             ArrayNode outEdgeLabelsArrayNode = new ArrayNode(Topology.OBJECT_MAPPER.getNodeFactory());
             for (EdgeLabel edgeLabel : this.uncommittedOutEdgeLabels.values()) {
                 Optional<JsonNode> jsonNodeOptional = edgeLabel.toNotifyJson();
@@ -496,7 +508,7 @@ public class VertexLabel extends AbstractLabel {
             vertexLabelNode.set("uncommittedOutEdgeLabels", outEdgeLabelsArrayNode);
         }
 
-        if (this.getSchema().getTopology().isSqlWriteLockHeldByCurrentThread() && !this.uncommittedRemovedOutEdgeLabels.isEmpty()) {
+        if (isSqlWriteLockHeldByCurrentThread() && !this.uncommittedRemovedOutEdgeLabels.isEmpty()) {
             ArrayNode outEdgeLabelsArrayNode = new ArrayNode(Topology.OBJECT_MAPPER.getNodeFactory());
             for (String edgeLabel : this.uncommittedRemovedOutEdgeLabels.keySet()) {
             	ObjectNode edgeRemove = new ObjectNode(Topology.OBJECT_MAPPER.getNodeFactory());
@@ -508,7 +520,7 @@ public class VertexLabel extends AbstractLabel {
         }
 
         
-        if (this.getSchema().getTopology().isSqlWriteLockHeldByCurrentThread() && !this.uncommittedInEdgeLabels.isEmpty()) {
+        if (isSqlWriteLockHeldByCurrentThread() && !this.uncommittedInEdgeLabels.isEmpty()) {
             ArrayNode inEdgeLabelsArrayNode = new ArrayNode(Topology.OBJECT_MAPPER.getNodeFactory());
             for (EdgeLabel edgeLabel : this.uncommittedInEdgeLabels.values()) {
                 Optional<JsonNode> jsonNodeOptional = edgeLabel.toNotifyJson();
@@ -519,7 +531,7 @@ public class VertexLabel extends AbstractLabel {
             vertexLabelNode.set("uncommittedInEdgeLabels", inEdgeLabelsArrayNode);
         }
 
-        if (this.getSchema().getTopology().isSqlWriteLockHeldByCurrentThread() && !this.uncommittedRemovedInEdgeLabels.isEmpty()) {
+        if (isSqlWriteLockHeldByCurrentThread() && !this.uncommittedRemovedInEdgeLabels.isEmpty()) {
             ArrayNode outEdgeLabelsArrayNode = new ArrayNode(Topology.OBJECT_MAPPER.getNodeFactory());
             for (String edgeLabel : this.uncommittedRemovedInEdgeLabels.keySet()) {
             	ObjectNode edgeRemove = new ObjectNode(Topology.OBJECT_MAPPER.getNodeFactory());
@@ -757,7 +769,7 @@ public class VertexLabel extends AbstractLabel {
     
     @Override
     void removeProperty(PropertyColumn propertyColumn,boolean preserveData){
-    	this.getSchema().getTopology().lock();
+    	lockLabel();
     	if (!uncommittedRemovedProperties.contains(propertyColumn.getName())){
     		uncommittedRemovedProperties.add(propertyColumn.getName());
     		TopologyManager.removeVertexColumn(this.sqlgGraph, this.schema.getName(), VERTEX_PREFIX + getLabel(), propertyColumn.getName());
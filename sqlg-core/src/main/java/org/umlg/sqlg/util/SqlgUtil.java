@@ -17,6 +17,7 @@ import org.slf4j.LoggerFactory;
 import org.umlg.sqlg.predicate.PropertyReference;
 import org.umlg.sqlg.sql.dialect.SqlDialect;
 import org.umlg.sqlg.sql.parse.AndOrHasContainer;
+import org.umlg.sqlg.sql.parse.BulkWithinOutStrategy;
 import org.umlg.sqlg.sql.parse.SchemaTableTree;
 import org.umlg.sqlg.sql.parse.WhereClause;
 import org.umlg.sqlg.strategy.BaseStrategy;
@@ -49,6 +50,10 @@ public class SqlgUtil {
     //This is the default count to indicate whether to use in statement or join onto a temp table.
     //As it happens postgres join to temp is always faster except for count = 1 when in is not used but '='
     private final static int BULK_WITHIN_COUNT = 1;
+    //Above this count the values are loaded into a temporary table that is analyzed.
+    //A 'VALUES' expression or array parameter gives the planner no idea of how many values there are.
+    private final static int BULK_WITHIN_TEMPORARY_TABLE_COUNT = 10000;
+    private static final Set<PropertyType> BULK_WITHIN_OUT_PROPERTY_TYPES = EnumSet.of(PropertyType.SHORT, PropertyType.INTEGER, PropertyType.LONG, PropertyType.DOUBLE, PropertyType.STRING);
     private static final String PROPERTY_ARRAY_VALUE_ELEMENTS_MAY_NOT_BE_NULL = "Property array value elements may not be null.";
 
     private SqlgUtil() {
@@ -247,14 +252,87 @@ public class SqlgUtil {
         return (E) sqlgElement;
     }
 
+    /**
+     * @return true if the P.within or P.without has more than 'bulk.within.count' values and is not bound as an array
+     * parameter, i.e. it is joined on if the dialect supports bulk within/without.
+     */
     public static boolean isBulkWithinAndOut(SqlgGraph sqlgGraph, HasContainer hasContainer) {
         BiPredicate p = hasContainer.getPredicate().getBiPredicate();
-        return (p == Contains.within || p == Contains.without) && ((Collection) hasContainer.getPredicate().getValue()).size() > sqlgGraph.configuration().getInt("bulk.within.count", BULK_WITHIN_COUNT);
+        return (p == Contains.within || p == Contains.without) && isBulk(sqlgGraph, hasContainer) &&
+                bulkWithinOutStrategy(sqlgGraph, hasContainer) != BulkWithinOutStrategy.ARRAY;
     }
 
     public static boolean isBulkWithin(SqlgGraph sqlgGraph, HasContainer hasContainer) {
         BiPredicate p = hasContainer.getPredicate().getBiPredicate();
-        return p == Contains.within && ((Collection) hasContainer.getPredicate().getValue()).size() > sqlgGraph.configuration().getInt("bulk.within.count", BULK_WITHIN_COUNT);
+        return p == Contains.within && isBulk(sqlgGraph, hasContainer) &&
+                bulkWithinOutStrategy(sqlgGraph, hasContainer) != BulkWithinOutStrategy.ARRAY;
+    }
+
+    private static boolean isBulk(SqlgGraph sqlgGraph, HasContainer hasContainer) {
+        return ((Collection) hasContainer.getPredicate().getValue()).size() > sqlgGraph.configuration().getInt("bulk.within.count", BULK_WITHIN_COUNT);
+    }
+
+    /**
+     * Lists up to 'bulk.within.count' values are bound as an 'IN' list.
+     * Larger lists whose values are all of the same single column type are loaded into a temporary table once they have
+     * more than 'bulk.within.temporary.table.count' values, else they are bound as one array parameter.
+     * Everything the dialect does not support is inlined in a 'VALUES' expression.
+     */
+    public static BulkWithinOutStrategy bulkWithinOutStrategy(SqlgGraph sqlgGraph, HasContainer hasContainer) {
+        BiPredicate p = hasContainer.getPredicate().getBiPredicate();
+        SqlDialect sqlDialect = sqlgGraph.getSqlDialect();
+        if ((p != Contains.within && p != Contains.without) || !sqlDialect.supportsBulkWithinOut() || !isBulk(sqlgGraph, hasContainer)) {
+            return BulkWithinOutStrategy.IN;
+        }
+        if (bulkWithinOutPropertyType(hasContainer) == null) {
+            return BulkWithinOutStrategy.VALUES;
+        }
+        int size = ((Collection) hasContainer.getPredicate().getValue()).size();
+        if (sqlDialect.supportsBulkWithinOutTemporaryTable() &&
+                size > sqlgGraph.configuration().getInt("bulk.within.temporary.table.count", BULK_WITHIN_TEMPORARY_TABLE_COUNT)) {
+            return BulkWithinOutStrategy.TEMPORARY_TABLE;
+        } else if (sqlDialect.supportsBulkWithinOutArrayParameter()) {
+            return BulkWithinOutStrategy.ARRAY;
+        } else {
+            return BulkWithinOutStrategy.VALUES;
+        }
+    }
+
+    /**
+     * @return the type of the values of a P.within or P.without if they can be bound as an array or loaded into a
+     * temporary table, else null. Ids are always LONG.
+     */
+    public static PropertyType bulkWithinOutPropertyType(HasContainer hasContainer) {
+        if (hasContainer.getKey().equals(T.id.getAccessor())) {
+            return PropertyType.LONG;
+        }
+        Object first = null;
+        for (Object value : (Collection<?>) hasContainer.getPredicate().getValue()) {
+            if (value == null || (first != null && value.getClass() != first.getClass())) {
+                return null;
+            }
+            first = value;
+        }
+        if (first == null) {
+            return null;
+        }
+        PropertyType propertyType = PropertyType.from(first);
+        return BULK_WITHIN_OUT_PROPERTY_TYPES.contains(propertyType) ? propertyType : null;
+    }
+
+    /**
+     * @return the distinct values of a P.within or P.without as an array of their class, ids as a Long[].
+     */
+    public static Object[] bulkWithinOutValues(HasContainer hasContainer) {
+        Collection<?> values = (Collection<?>) hasContainer.getPredicate().getValue();
+        if (hasContainer.getKey().equals(T.id.getAccessor())) {
+            return values.stream()
+                    .map(v -> v instanceof Long ? (Long) v : (v instanceof RecordId ? (RecordId) v : RecordId.from(v)).getId())
+                    .distinct()
+                    .toArray(Long[]::new);
+        }
+        Set<Object> distinctValues = new LinkedHashSet<>(values);
+        return distinctValues.toArray((Object[]) Array.newInstance(values.iterator().next().getClass(), distinctValues.size()));
     }
 
     public static void setParametersOnStatement(SqlgGraph sqlgGraph, LinkedList<SchemaTableTree> schemaTableTreeStack, PreparedStatement preparedStatement, int parameterIndex) throws SQLException {
@@ -263,11 +341,11 @@ public class SqlgUtil {
             for (HasContainer hasContainer : schemaTableTree.getHasContainers()) {
                 if (!sqlgGraph.getSqlDialect().supportsBulkWithinOut() || !isBulkWithinAndOut(sqlgGraph, hasContainer)) {
                     WhereClause whereClause = WhereClause.from(hasContainer.getPredicate());
-                    whereClause.putKeyValueMap(hasContainer, keyValueMap);
+                    whereClause.putKeyValueMap(sqlgGraph, hasContainer, keyValueMap);
                 }
             }
             for (AndOrHasContainer andOrHasContainer : schemaTableTree.getAndOrHasContainers()) {
-                andOrHasContainer.setParameterOnStatement(keyValueMap);
+                andOrHasContainer.setParameterOnStatement(sqlgGraph, keyValueMap);
             }
         }
         List<ImmutablePair<PropertyType, Object>> typeAndValues = SqlgUtil.transformToTypeAndValue(keyValueMap);
@@ -276,6 +354,33 @@ public class SqlgUtil {
     }
 
 
+    /**
+     * Binds the parent ids and indexes of a vertex step as two bigint arrays, if the dialect supports it.
+     * This must be called before {@link #setParametersOnStatement(SqlgGraph, LinkedList, PreparedStatement, int)} as
+     * the parents are joined on before the where clause.
+     *
+     * @return the next parameter index.
+     */
+    public static int setParentIdsAndIndexesOnStatement(SqlgGraph sqlgGraph, LinkedList<SchemaTableTree> schemaTableTreeStack, Connection connection, PreparedStatement preparedStatement, int parameterIndex) throws SQLException {
+        SchemaTableTree first = schemaTableTreeStack.getFirst();
+        if (sqlgGraph.getSqlDialect().supportsParentIdsAsArrayParameters() &&
+                first.getStepType() != SchemaTableTree.STEP_TYPE.GRAPH_STEP &&
+                first.getParentIdsAndIndexes().size() != 1) {
+
+            List<Pair<Long, Long>> parentIdsAndIndexes = first.getParentIdsAndIndexes();
+            Long[] ids = new Long[parentIdsAndIndexes.size()];
+            Long[] indexes = new Long[parentIdsAndIndexes.size()];
+            int i = 0;
+            for (Pair<Long, Long> parentIdAndIndex : parentIdsAndIndexes) {
+                ids[i] = parentIdAndIndex.getLeft();
+                indexes[i++] = parentIdAndIndex.getRight();
+            }
+            preparedStatement.setArray(parameterIndex++, connection.createArrayOf("bigint", ids));
+            preparedStatement.setArray(parameterIndex++, connection.createArrayOf("bigint", indexes));
+        }
+        return parameterIndex;
+    }
+
     //This is called for inserts
     public static int setKeyValuesAsParameterUsingPropertyColumn(SqlgGraph sqlgGraph, int i, PreparedStatement preparedStatement, Map<String, Pair<PropertyType, Object>> properties) throws SQLException {
         i = setKeyValuesAsParameterUsingPropertyColumn(sqlgGraph, true, i, preparedStatement, properties.values());
@@ -692,6 +797,9 @@ public class SqlgUtil {
             if (key.equals(T.id.getAccessor()) || "ID".equals(key)) {
                 if (value instanceof Long) {
                     result.add(ImmutablePair.of(PropertyType.LONG, (Long) value));
+                } else if (value instanceof Long[]) {
+                    //bulk within/without as an array parameter
+                    result.add(ImmutablePair.of(PropertyType.LONG_ARRAY, value));
                 } else {
                     RecordId id;
                     if (!(value instanceof RecordId)) {
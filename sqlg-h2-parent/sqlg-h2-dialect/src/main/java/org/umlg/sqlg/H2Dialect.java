@@ -5,16 +5,16 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.collect.ImmutableSet;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.lang3.tuple.Triple;
 import org.apache.tinkerpop.gremlin.structure.Property;
 import org.h2.jdbc.JdbcArray;
 import org.umlg.sqlg.sql.dialect.BaseSqlDialect;
-import org.umlg.sqlg.structure.PropertyType;
-import org.umlg.sqlg.structure.SchemaTable;
-import org.umlg.sqlg.structure.SqlgGraph;
+import org.umlg.sqlg.structure.*;
 import org.umlg.sqlg.util.SqlgUtil;
 
 import java.io.IOException;
+import java.io.Writer;
 import java.lang.reflect.Array;
 import java.sql.*;
 import java.time.*;
@@ -40,6 +40,46 @@ public class H2Dialect extends BaseSqlDialect {
         return true;
     }
 
+    @Override
+    public boolean supportsStreamingBatchMode() {
+        return true;
+    }
+
+    @Override
+    public Writer streamVertex(SqlgGraph sqlgGraph, SqlgVertex vertex, Map<String, Object> keyValueMap) {
+        return streamInsertVertex(sqlgGraph, vertex, keyValueMap, false);
+    }
+
+    @Override
+    public Writer streamTemporaryVertex(SqlgGraph sqlgGraph, SqlgVertex vertex, Map<String, Object> keyValueMap) {
+        return streamInsertVertex(sqlgGraph, vertex, keyValueMap, true);
+    }
+
+    @Override
+    public Writer streamEdge(SqlgGraph sqlgGraph, SqlgEdge sqlgEdge, SqlgVertex outVertex, SqlgVertex inVertex, Map<String, Object> keyValueMap) {
+        return streamInsertEdge(sqlgGraph, sqlgEdge, outVertex, inVertex, keyValueMap);
+    }
+
+    @Override
+    public void writeStreamingVertex(Writer writer, SqlgVertex vertex, Map<String, Object> keyValueMap) {
+        writeStreamingInsertVertex(writer, vertex, keyValueMap);
+    }
+
+    @Override
+    public void writeStreamingEdge(Writer writer, SqlgEdge sqlgEdge, SqlgVertex outVertex, SqlgVertex inVertex, Map<String, Object> keyValueMap) {
+        writeStreamingInsertEdge(writer, sqlgEdge, outVertex, inVertex, keyValueMap);
+    }
+
+    @Override
+    public <L, R> void bulkAddEdges(SqlgGraph sqlgGraph, SchemaTable out, SchemaTable in, String edgeLabel, Pair<String, String> idFields, Collection<Pair<L, R>> uids, Map<String, PropertyType> edgeColumns, Map<String, Object> edgePropertyMap) {
+        insertBulkEdges(sqlgGraph, out, in, edgeLabel, idFields, uids.iterator(), sqlgGraph.tx().getBatchManager().getBulkEdgesChunkSize(), edgeColumns, edgePropertyMap);
+    }
+
+    @Override
+    public <L, R> void bulkAddEdges(SqlgGraph sqlgGraph, SchemaTable out, SchemaTable in, String edgeLabel, Pair<String, String> idFields, Iterator<Pair<L, R>> uids, int chunkSize, Map<String, PropertyType> edgeColumns, Map<String, Object> edgePropertyMap) {
+        insertBulkEdges(sqlgGraph, out, in, edgeLabel, idFields, uids, chunkSize, edgeColumns, edgePropertyMap);
+    }
+
     @Override
     public String dialectName() {
         return "H2Dialect";
@@ -528,6 +568,14 @@ public class H2Dialect extends BaseSqlDialect {
         throw new IllegalStateException("H2 does not support gis types, this should not have happened!");
     }
 
+    /**
+     * H2 has no table lock, without it concurrent loaders would allocate the same ids.
+     */
+    @Override
+    public boolean supportsStreamingWithLockBatchMode() {
+        return false;
+    }
+
     @Override
     public void lockTable(SqlgGraph sqlgGraph, SchemaTable schemaTable, String prefix) {
         throw new UnsupportedOperationException("H2 does not support table locking!");
@@ -540,7 +588,7 @@ public class H2Dialect extends BaseSqlDialect {
 
     @Override
     public long nextSequenceVal(SqlgGraph sqlgGraph, SchemaTable schemaTable, String prefix) {
-        throw new UnsupportedOperationException("H2 does not support batch mode!");
+        throw new UnsupportedOperationException("H2 does not support table locking!");
     }
 
     @Override
@@ -558,14 +606,30 @@ public class H2Dialect extends BaseSqlDialect {
         return false;
     }
 
+    @Override
+    public boolean supportsRecursiveQueries() {
+        return true;
+    }
+
     @Override
     public boolean supportsTransactionalSchema() {
         return false;
     }
 
+    /**
+     * A global temporary table's definition is shared by all sessions, the temporary tables must be local.
+     */
+    @Override
+    public String createTemporaryTableStatement() {
+        return "CREATE LOCAL TEMPORARY TABLE ";
+    }
+
+    /**
+     * Without TRANSACTIONAL creating the table commits the open transaction.
+     */
     @Override
     public String afterCreateTemporaryTableStatement() {
-        return "";
+        return "ON COMMIT DROP TRANSACTIONAL";
     }
 
     @Override
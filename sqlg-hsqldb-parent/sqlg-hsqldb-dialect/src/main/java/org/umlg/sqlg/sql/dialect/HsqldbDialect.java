@@ -3,22 +3,24 @@ package org.umlg.sqlg.sql.dialect;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.Preconditions;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.lang3.tuple.Triple;
 import org.apache.tinkerpop.gremlin.structure.Property;
 import org.hsqldb.jdbc.JDBCArrayBasic;
 import org.hsqldb.lib.StringConverter;
 import org.hsqldb.types.Type;
-import org.umlg.sqlg.structure.PropertyType;
-import org.umlg.sqlg.structure.SchemaTable;
-import org.umlg.sqlg.structure.SqlgExceptions;
-import org.umlg.sqlg.structure.SqlgGraph;
+import org.umlg.sqlg.structure.*;
 import org.umlg.sqlg.util.SqlgUtil;
 
 import java.io.IOException;
+import java.io.Writer;
 import java.sql.*;
 import java.time.*;
 import java.util.*;
 
+import static org.umlg.sqlg.structure.topology.Topology.EDGE_PREFIX;
+import static org.umlg.sqlg.structure.topology.Topology.VERTEX_PREFIX;
+
 /**
  * Date: 2014/07/16
  * Time: 3:09 PM
@@ -694,7 +696,22 @@ public class HsqldbDialect extends BaseSqlDialect implements SqlBulkDialect {
 
     @Override
     public void lockTable(SqlgGraph sqlgGraph, SchemaTable schemaTable, String prefix) {
-        throw new UnsupportedOperationException("Hsqldb does not support table locking!");
+        Preconditions.checkArgument(prefix.equals(VERTEX_PREFIX) || prefix.equals(EDGE_PREFIX), "prefix must be " + VERTEX_PREFIX + " or " + EDGE_PREFIX);
+        StringBuilder sql = new StringBuilder();
+        sql.append("LOCK TABLE ");
+        sql.append(maybeWrapInQoutes(schemaTable.getSchema()));
+        sql.append(".");
+        sql.append(maybeWrapInQoutes(prefix + schemaTable.getTable()));
+        sql.append(" WRITE");
+        if (logger.isDebugEnabled()) {
+            logger.debug(sql.toString());
+        }
+        Connection conn = sqlgGraph.tx().getConnection();
+        try (Statement statement = conn.createStatement()) {
+            statement.execute(sql.toString());
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
     }
 
     @Override
@@ -702,9 +719,13 @@ public class HsqldbDialect extends BaseSqlDialect implements SqlBulkDialect {
         throw new UnsupportedOperationException("Hsqldb does not support alterSequenceCacheSize!");
     }
 
+    /**
+     * The ids are identity columns, the ids following the label's highest id are allocated and inserted explicitly.
+     * The table is locked by {@link #lockTable(SqlgGraph, SchemaTable, String)}.
+     */
     @Override
     public long nextSequenceVal(SqlgGraph sqlgGraph, SchemaTable schemaTable, String prefix) {
-        throw new UnsupportedOperationException("Hsqldb does not support nextSequenceVal!");
+        return maxId(sqlgGraph, schemaTable, prefix);
     }
 
     @Override
@@ -722,11 +743,83 @@ public class HsqldbDialect extends BaseSqlDialect implements SqlBulkDialect {
         return true;
     }
 
+    @Override
+    public boolean supportsStreamingBatchMode() {
+        return true;
+    }
+
+    @Override
+    public Writer streamVertex(SqlgGraph sqlgGraph, SqlgVertex vertex, Map<String, Object> keyValueMap) {
+        return streamInsertVertex(sqlgGraph, vertex, keyValueMap, false);
+    }
+
+    @Override
+    public Writer streamTemporaryVertex(SqlgGraph sqlgGraph, SqlgVertex vertex, Map<String, Object> keyValueMap) {
+        return streamInsertVertex(sqlgGraph, vertex, keyValueMap, true);
+    }
+
+    @Override
+    public Writer streamEdge(SqlgGraph sqlgGraph, SqlgEdge sqlgEdge, SqlgVertex outVertex, SqlgVertex inVertex, Map<String, Object> keyValueMap) {
+        return streamInsertEdge(sqlgGraph, sqlgEdge, outVertex, inVertex, keyValueMap);
+    }
+
+    @Override
+    public void writeStreamingVertex(Writer writer, SqlgVertex vertex, Map<String, Object> keyValueMap) {
+        writeStreamingInsertVertex(writer, vertex, keyValueMap);
+    }
+
+    @Override
+    public void writeStreamingEdge(Writer writer, SqlgEdge sqlgEdge, SqlgVertex outVertex, SqlgVertex inVertex, Map<String, Object> keyValueMap) {
+        writeStreamingInsertEdge(writer, sqlgEdge, outVertex, inVertex, keyValueMap);
+    }
+
+    @Override
+    public <L, R> void bulkAddEdges(SqlgGraph sqlgGraph, SchemaTable out, SchemaTable in, String edgeLabel, Pair<String, String> idFields, Collection<Pair<L, R>> uids, Map<String, PropertyType> edgeColumns, Map<String, Object> edgePropertyMap) {
+        insertBulkEdges(sqlgGraph, out, in, edgeLabel, idFields, uids.iterator(), sqlgGraph.tx().getBatchManager().getBulkEdgesChunkSize(), edgeColumns, edgePropertyMap);
+    }
+
+    @Override
+    public <L, R> void bulkAddEdges(SqlgGraph sqlgGraph, SchemaTable out, SchemaTable in, String edgeLabel, Pair<String, String> idFields, Iterator<Pair<L, R>> uids, int chunkSize, Map<String, PropertyType> edgeColumns, Map<String, Object> edgePropertyMap) {
+        insertBulkEdges(sqlgGraph, out, in, edgeLabel, idFields, uids, chunkSize, edgeColumns, edgePropertyMap);
+    }
+
     @Override
     public boolean supportsBulkWithinOut() {
         return true;
     }
 
+    @Override
+    public boolean supportsBulkWithinOutArrayParameter() {
+        return true;
+    }
+
+    /**
+     * Hsqldb needs the type of the array parameter and does not support '<> ALL' with an array.
+     */
+    @Override
+    public String bulkWithinOutArrayParameter(boolean within, PropertyType propertyType) {
+        return (within ? " IN " : " NOT IN ") + "(UNNEST(CAST(? AS " + propertyTypeToSqlDefinition(propertyType)[0] + " ARRAY)))";
+    }
+
+    /**
+     * Hsqldb's session tables are not dropped on commit, only their rows are deleted.
+     * They are created 'IF NOT EXISTS' so that the next transaction on the connection reuses them.
+     */
+    @Override
+    public boolean supportsBulkWithinOutTemporaryTable() {
+        return true;
+    }
+
+    @Override
+    public boolean supportsRecursiveQueries() {
+        return true;
+    }
+
+    @Override
+    public boolean supportsRecursiveUnionAll() {
+        return false;
+    }
+
     @Override
     public String createTemporaryTableStatement() {
         return "DECLARE LOCAL TEMPORARY TABLE ";
@@ -498,6 +498,21 @@ public class MSSqlServerDialect extends BaseSqlDialect {
         return true;
     }
 
+    @Override
+    public boolean supportsRecursiveQueries() {
+        return true;
+    }
+
+    @Override
+    public String withRecursive() {
+        return "WITH";
+    }
+
+    @Override
+    public String recursiveQueryHint() {
+        return " OPTION (MAXRECURSION 0)";
+    }
+
     @Override
     public boolean supportsTransactionalSchema() {
         return true;
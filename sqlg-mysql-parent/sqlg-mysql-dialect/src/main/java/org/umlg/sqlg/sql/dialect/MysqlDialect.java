@@ -18,7 +18,9 @@ import java.util.*;
  */
 @SuppressWarnings("unused")
 public class MysqlDialect extends BaseSqlDialect {
-    
+
+    private volatile long maxAllowedPacket = -1;
+
     @Override
     public int getMaximumSchemaNameLength() {
         return 63;
@@ -54,6 +56,33 @@ public class MysqlDialect extends BaseSqlDialect {
         return true;
     }
 
+    /**
+     * MySql allows at most 65535 parameters per prepared statement.
+     * The statements are also cut to fit in max_allowed_packet, see {@link #batchInsertMaxBytes(SqlgGraph)}.
+     */
+    @Override
+    public int batchInsertRowCount(int parameterCount) {
+        return Math.max(1, 65535 / Math.max(1, parameterCount));
+    }
+
+    /**
+     * max_allowed_packet is read once, less some room for the packet's header.
+     */
+    @Override
+    public long batchInsertMaxBytes(SqlgGraph sqlgGraph) {
+        if (this.maxAllowedPacket == -1) {
+            Connection conn = sqlgGraph.tx().getConnection();
+            try (Statement statement = conn.createStatement()) {
+                ResultSet resultSet = statement.executeQuery("SELECT @@max_allowed_packet");
+                resultSet.next();
+                this.maxAllowedPacket = resultSet.getLong(1);
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        return this.maxAllowedPacket - 1024;
+    }
+
     @Override
     public boolean supportsSchemas() {
         return false;
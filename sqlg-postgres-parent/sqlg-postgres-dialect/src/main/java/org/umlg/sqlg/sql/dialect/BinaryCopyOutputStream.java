@@ -0,0 +1,418 @@
+package org.umlg.sqlg.sql.dialect;
+
+import org.umlg.sqlg.structure.PropertyType;
+import org.umlg.sqlg.structure.SqlgExceptions;
+import org.umlg.sqlg.util.SqlgUtil;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.*;
+import java.util.*;
+
+/**
+ * Writes rows for a 'COPY ... FROM stdin BINARY' command.
+ * The column layout is fixed when the copy starts, every row is encoded straight from the java values
+ * into PostgreSQL's binary wire format, no intermediate strings or escaping.
+ * Closing the stream writes the trailer and ends the copy.
+ */
+class BinaryCopyOutputStream extends OutputStream {
+
+    private static final byte[] SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0};
+    private static final int BUFFER_SIZE = 65536;
+    //2000-01-01T00:00:00Z, PostgreSQL's epoch for dates and timestamps
+    private static final long POSTGRES_EPOCH_SECONDS = 946684800L;
+    private static final long POSTGRES_EPOCH_DAYS = 10957L;
+
+    private static final int BOOL_OID = 16;
+    private static final int INT8_OID = 20;
+    private static final int INT2_OID = 21;
+    private static final int INT4_OID = 23;
+    private static final int TEXT_OID = 25;
+    private static final int FLOAT4_OID = 700;
+    private static final int FLOAT8_OID = 701;
+    private static final int DATE_OID = 1082;
+    private static final int TIMESTAMPTZ_OID = 1184;
+
+    private final DataOutputStream out;
+    private final int idColumns;
+    private final List<String> keys;
+    private final List<PropertyType> propertyTypes;
+    private final boolean dummyColumn;
+    private final short fieldCount;
+    private final ZoneId zoneId = ZoneId.systemDefault();
+    //arrays need their length up front, they are encoded here first
+    private final ByteArrayOutputStream arrayBuffer = new ByteArrayOutputStream();
+    private final DataOutputStream arrayOut = new DataOutputStream(this.arrayBuffer);
+
+    /**
+     * @param copyStream  the stream of the copy command.
+     * @param idColumns   the number of leading bigint columns, i.e. the "ID" and/or the in and out vertex ids.
+     * @param columns     the property columns in the order of the copy command.
+     * @param dummyColumn true if the copy command only has the dummy column.
+     */
+    BinaryCopyOutputStream(OutputStream copyStream, int idColumns, LinkedHashMap<String, PropertyType> columns, boolean dummyColumn) {
+        this.out = new DataOutputStream(new BufferedOutputStream(copyStream, BUFFER_SIZE));
+        this.idColumns = idColumns;
+        this.keys = new ArrayList<>(columns.keySet());
+        this.propertyTypes = new ArrayList<>(columns.values());
+        this.dummyColumn = dummyColumn;
+        int count = idColumns + (dummyColumn ? 1 : 0);
+        for (PropertyType propertyType : this.propertyTypes) {
+            count += propertyType.getPostFixes().length + 1;
+        }
+        this.fieldCount = (short) count;
+        try {
+            this.out.write(SIGNATURE);
+            //flags
+            this.out.writeInt(0);
+            //header extension length
+            this.out.writeInt(0);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * The types {@link #writeValue(PropertyType, Object)} encodes, anything else goes via the text format.
+     * LocalTime and its array are not here as 'time with time zone' needs the DST correction in {@link PostgresDialect}.
+     */
+    static boolean supports(PropertyType propertyType) {
+        switch (propertyType) {
+            case BOOLEAN:
+            case SHORT:
+            case INTEGER:
+            case LONG:
+            case FLOAT:
+            case DOUBLE:
+            case STRING:
+            case JSON:
+            case LOCALDATE:
+            case LOCALDATETIME:
+            case ZONEDDATETIME:
+            case PERIOD:
+            case DURATION:
+            case byte_ARRAY:
+            case BYTE_ARRAY:
+            case boolean_ARRAY:
+            case BOOLEAN_ARRAY:
+            case short_ARRAY:
+            case SHORT_ARRAY:
+            case int_ARRAY:
+            case INTEGER_ARRAY:
+            case long_ARRAY:
+            case LONG_ARRAY:
+            case float_ARRAY:
+            case FLOAT_ARRAY:
+            case double_ARRAY:
+            case DOUBLE_ARRAY:
+            case STRING_ARRAY:
+            case LOCALDATE_ARRAY:
+            case LOCALDATETIME_ARRAY:
+            case ZONEDDATETIME_ARRAY:
+            case DURATION_ARRAY:
+            case PERIOD_ARRAY:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    void writeRow(Map<String, Object> keyValueMap, long... ids) throws IOException {
+        if (ids.length != this.idColumns) {
+            throw new IllegalStateException(String.format("Expected %d id columns, found %d", this.idColumns, ids.length));
+        }
+        this.out.writeShort(this.fieldCount);
+        for (long id : ids) {
+            this.out.writeInt(8);
+            this.out.writeLong(id);
+        }
+        if (this.dummyColumn) {
+            this.out.writeInt(4);
+            this.out.writeInt(1);
+        }
+        for (int i = 0; i < this.keys.size(); i++) {
+            writeValue(this.propertyTypes.get(i), keyValueMap.get(this.keys.get(i)));
+        }
+    }
+
+    private void writeValue(PropertyType propertyType, Object value) throws IOException {
+        if (value == null) {
+            for (int i = 0; i <= propertyType.getPostFixes().length; i++) {
+                this.out.writeInt(-1);
+            }
+            return;
+        }
+        switch (propertyType) {
+            case BOOLEAN:
+                this.out.writeInt(1);
+                this.out.writeBoolean((Boolean) value);
+                break;
+            case SHORT:
+                this.out.writeInt(2);
+                this.out.writeShort(((Number) value).shortValue());
+                break;
+            case INTEGER:
+                this.out.writeInt(4);
+                this.out.writeInt(Math.toIntExact(((Number) value).longValue()));
+                break;
+            case LONG:
+                this.out.writeInt(8);
+                this.out.writeLong(((Number) value).longValue());
+                break;
+            case FLOAT:
+                this.out.writeInt(4);
+                this.out.writeFloat(((Number) value).floatValue());
+                break;
+            case DOUBLE:
+                this.out.writeInt(8);
+                this.out.writeDouble(((Number) value).doubleValue());
+                break;
+            case STRING:
+                writeText(this.out, value.toString());
+                break;
+            case JSON:
+                //jsonb's binary format is a version byte followed by the text
+                byte[] json = value.toString().getBytes(StandardCharsets.UTF_8);
+                this.out.writeInt(json.length + 1);
+                this.out.writeByte(1);
+                this.out.write(json);
+                break;
+            case LOCALDATE:
+                writeDate(this.out, (LocalDate) value);
+                break;
+            case LOCALDATETIME:
+                writeTimestamp(this.out, (LocalDateTime) value);
+                break;
+            case ZONEDDATETIME:
+                ZonedDateTime zonedDateTime = (ZonedDateTime) value;
+                writeTimestamp(this.out, zonedDateTime.toLocalDateTime());
+                writeText(this.out, TimeZone.getTimeZone(zonedDateTime.getZone()).getID());
+                break;
+            case PERIOD:
+                Period period = (Period) value;
+                this.out.writeInt(4);
+                this.out.writeInt(period.getYears());
+                this.out.writeInt(4);
+                this.out.writeInt(period.getMonths());
+                this.out.writeInt(4);
+                this.out.writeInt(period.getDays());
+                break;
+            case DURATION:
+                Duration duration = (Duration) value;
+                this.out.writeInt(8);
+                this.out.writeLong(duration.getSeconds());
+                this.out.writeInt(4);
+                this.out.writeInt(duration.getNano());
+                break;
+            case byte_ARRAY:
+                byte[] bytes = (byte[]) value;
+                this.out.writeInt(bytes.length);
+                this.out.write(bytes);
+                break;
+            case BYTE_ARRAY:
+                bytes = (byte[]) SqlgUtil.convertByteArrayToPrimitiveArray((Byte[]) value);
+                this.out.writeInt(bytes.length);
+                this.out.write(bytes);
+                break;
+            case boolean_ARRAY:
+                boolean[] booleans = (boolean[]) value;
+                writeArray(BOOL_OID, booleans.length, (o, i) -> {
+                    o.writeInt(1);
+                    o.writeBoolean(booleans[i]);
+                });
+                break;
+            case BOOLEAN_ARRAY:
+                Boolean[] booleanObjects = (Boolean[]) value;
+                writeArray(BOOL_OID, booleanObjects.length, (o, i) -> {
+                    o.writeInt(1);
+                    o.writeBoolean(booleanObjects[i]);
+                });
+                break;
+            case short_ARRAY:
+                short[] shorts = (short[]) value;
+                writeArray(INT2_OID, shorts.length, (o, i) -> {
+                    o.writeInt(2);
+                    o.writeShort(shorts[i]);
+                });
+                break;
+            case SHORT_ARRAY:
+                Short[] shortObjects = (Short[]) value;
+                writeArray(INT2_OID, shortObjects.length, (o, i) -> {
+                    o.writeInt(2);
+                    o.writeShort(shortObjects[i]);
+                });
+                break;
+            case int_ARRAY:
+                int[] ints = (int[]) value;
+                writeArray(INT4_OID, ints.length, (o, i) -> {
+                    o.writeInt(4);
+                    o.writeInt(ints[i]);
+                });
+                break;
+            case INTEGER_ARRAY:
+                Integer[] integers = (Integer[]) value;
+                writeArray(INT4_OID, integers.length, (o, i) -> {
+                    o.writeInt(4);
+                    o.writeInt(integers[i]);
+                });
+                break;
+            case long_ARRAY:
+                long[] longs = (long[]) value;
+                writeArray(INT8_OID, longs.length, (o, i) -> {
+                    o.writeInt(8);
+                    o.writeLong(longs[i]);
+                });
+                break;
+            case LONG_ARRAY:
+                Long[] longObjects = (Long[]) value;
+                writeArray(INT8_OID, longObjects.length, (o, i) -> {
+                    o.writeInt(8);
+                    o.writeLong(longObjects[i]);
+                });
+                break;
+            case float_ARRAY:
+                float[] floats = (float[]) value;
+                writeArray(FLOAT4_OID, floats.length, (o, i) -> {
+                    o.writeInt(4);
+                    o.writeFloat(floats[i]);
+                });
+                break;
+            case FLOAT_ARRAY:
+                Float[] floatObjects = (Float[]) value;
+                writeArray(FLOAT4_OID, floatObjects.length, (o, i) -> {
+                    o.writeInt(4);
+                    o.writeFloat(floatObjects[i]);
+                });
+                break;
+            case double_ARRAY:
+                double[] doubles = (double[]) value;
+                writeArray(FLOAT8_OID, doubles.length, (o, i) -> {
+                    o.writeInt(8);
+                    o.writeDouble(doubles[i]);
+                });
+                break;
+            case DOUBLE_ARRAY:
+                Double[] doubleObjects = (Double[]) value;
+                writeArray(FLOAT8_OID, doubleObjects.length, (o, i) -> {
+                    o.writeInt(8);
+                    o.writeDouble(doubleObjects[i]);
+                });
+                break;
+            case STRING_ARRAY:
+                String[] strings = (String[]) value;
+                writeArray(TEXT_OID, strings.length, (o, i) -> writeText(o, strings[i]));
+                break;
+            case LOCALDATE_ARRAY:
+                LocalDate[] localDates = (LocalDate[]) value;
+                writeArray(DATE_OID, localDates.length, (o, i) -> writeDate(o, localDates[i]));
+                break;
+            case LOCALDATETIME_ARRAY:
+                LocalDateTime[] localDateTimes = (LocalDateTime[]) value;
+                writeArray(TIMESTAMPTZ_OID, localDateTimes.length, (o, i) -> writeTimestamp(o, localDateTimes[i]));
+                break;
+            case ZONEDDATETIME_ARRAY:
+                ZonedDateTime[] zonedDateTimes = (ZonedDateTime[]) value;
+                writeArray(TIMESTAMPTZ_OID, zonedDateTimes.length, (o, i) -> writeTimestamp(o, zonedDateTimes[i].toLocalDateTime()));
+                writeArray(TEXT_OID, zonedDateTimes.length, (o, i) -> writeText(o, TimeZone.getTimeZone(zonedDateTimes[i].getZone()).getID()));
+                break;
+            case DURATION_ARRAY:
+                Duration[] durations = (Duration[]) value;
+                writeArray(INT8_OID, durations.length, (o, i) -> {
+                    o.writeInt(8);
+                    o.writeLong(durations[i].getSeconds());
+                });
+                writeArray(INT4_OID, durations.length, (o, i) -> {
+                    o.writeInt(4);
+                    o.writeInt(durations[i].getNano());
+                });
+                break;
+            case PERIOD_ARRAY:
+                Period[] periods = (Period[]) value;
+                writeArray(INT4_OID, periods.length, (o, i) -> {
+                    o.writeInt(4);
+                    o.writeInt(periods[i].getYears());
+                });
+                writeArray(INT4_OID, periods.length, (o, i) -> {
+                    o.writeInt(4);
+                    o.writeInt(periods[i].getMonths());
+                });
+                writeArray(INT4_OID, periods.length, (o, i) -> {
+                    o.writeInt(4);
+                    o.writeInt(periods[i].getDays());
+                });
+                break;
+            default:
+                throw SqlgExceptions.invalidPropertyType(propertyType);
+        }
+    }
+
+    /**
+     * One dimensional array, ndim, flags, element oid, dimension size and lower bound followed by the elements.
+     */
+    private void writeArray(int elementOid, int length, ArrayElementWriter elementWriter) throws IOException {
+        this.arrayBuffer.reset();
+        this.arrayOut.writeInt(length == 0 ? 0 : 1);
+        this.arrayOut.writeInt(0);
+        this.arrayOut.writeInt(elementOid);
+        if (length > 0) {
+            this.arrayOut.writeInt(length);
+            this.arrayOut.writeInt(1);
+        }
+        for (int i = 0; i < length; i++) {
+            elementWriter.write(this.arrayOut, i);
+        }
+        this.arrayOut.flush();
+        this.out.writeInt(this.arrayBuffer.size());
+        this.arrayBuffer.writeTo(this.out);
+    }
+
+    private static void writeText(DataOutputStream o, String s) throws IOException {
+        if (s == null) {
+            o.writeInt(-1);
+        } else {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            o.writeInt(bytes.length);
+            o.write(bytes);
+        }
+    }
+
+    private static void writeDate(DataOutputStream o, LocalDate localDate) throws IOException {
+        o.writeInt(4);
+        o.writeInt((int) (localDate.toEpochDay() - POSTGRES_EPOCH_DAYS));
+    }
+
+    /**
+     * The text format lets the server interpret the timestamp in the session's time zone, which the jdbc driver sets to the jvm's.
+     */
+    private void writeTimestamp(DataOutputStream o, LocalDateTime localDateTime) throws IOException {
+        Instant instant = localDateTime.atZone(this.zoneId).toInstant();
+        o.writeInt(8);
+        o.writeLong((instant.getEpochSecond() - POSTGRES_EPOCH_SECONDS) * 1_000_000L + instant.getNano() / 1_000);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        this.out.write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        this.out.write(b, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        this.out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.out.writeShort(-1);
+        this.out.close();
+    }
+
+    @FunctionalInterface
+    private interface ArrayElementWriter {
+        void write(DataOutputStream out, int index) throws IOException;
+    }
+}
@@ -2,8 +2,10 @@ package org.umlg.sqlg.sql.dialect;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableSet;
+import org.apache.commons.configuration.Configuration;
 import org.apache.commons.text.StringEscapeUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
@@ -24,6 +26,7 @@ import org.umlg.sqlg.predicate.FullText;
 import org.umlg.sqlg.sql.parse.SchemaTableTree;
 import org.umlg.sqlg.strategy.SqlgSqlExecutor;
 import org.umlg.sqlg.structure.*;
+import org.umlg.sqlg.structure.ds.JNDIDataSource;
 import org.umlg.sqlg.structure.topology.*;
 import org.umlg.sqlg.util.SqlgUtil;
 
@@ -36,6 +39,8 @@ import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.umlg.sqlg.structure.PropertyType.*;
@@ -56,6 +61,9 @@ public class PostgresDialect extends BaseSqlDialect implements SqlBulkDialect {
     private static final char ESCAPE = '\\';
     private static final int PARAMETER_LIMIT = 32767;
     private static final String COPY_DUMMY = "_copy_dummy";
+    private static final int COPY_BUFFER_SIZE = 65536;
+    //the first key of the two key advisory locks that sqlg takes on the topology.
+    private static final int TOPOLOGY_LOCK_CLASS = SQLG_SCHEMA.hashCode();
     private PropertyType postGisType;
 
     private ScheduledFuture<?> future;
@@ -72,6 +80,11 @@ public class PostgresDialect extends BaseSqlDialect implements SqlBulkDialect {
         return true;
     }
 
+    @Override
+    public boolean supportsConcurrentTopologyChanges() {
+        return true;
+    }
+
     @Override
     public String dialectName() {
         return "Postgresql";
@@ -229,6 +242,11 @@ public class PostgresDialect extends BaseSqlDialect implements SqlBulkDialect {
             }
             Iterator<Long> it = ids.iterator();
 
+            if (!schemaTable.isTemporary() && sqlgGraph.tx().getBatchManager().isBinaryCopy(schemaTable.withPrefix(VERTEX_PREFIX), vertices.getLeft())) {
+                flushVertexCacheBinary(sqlgGraph, schemaTable, vertices, it);
+                continue;
+            }
+
             String sql = internalConstructCompleteCopyCommandSqlVertex(sqlgGraph, schemaTable.isTemporary(), schemaTable.getSchema(), schemaTable.getTable(), !schemaTable.isTemporary(), vertices.getLeft());
 
             try (Writer writer = streamSql(sqlgGraph, sql)) {
@@ -255,6 +273,20 @@ public class PostgresDialect extends BaseSqlDialect implements SqlBulkDialect {
         }
     }
 
+    private void flushVertexCacheBinary(SqlgGraph sqlgGraph, SchemaTable schemaTable, Pair<SortedSet<String>, Map<SqlgVertex, Map<String, Object>>> vertices, Iterator<Long> ids) {
+        String sql = internalConstructCompleteCopyCommandSqlVertex(sqlgGraph, false, true, schemaTable.getSchema(), schemaTable.getTable(), true, vertices.getLeft());
+        LinkedHashMap<String, PropertyType> columns = copyColumns(sqlgGraph.getTopology().getTableFor(schemaTable.withPrefix(VERTEX_PREFIX)), vertices.getLeft());
+        try (BinaryCopyOutputStream out = streamBinarySql(sqlgGraph, sql, 1, columns, false)) {
+            for (Map.Entry<SqlgVertex, Map<String, Object>> sqlgVertexMapEntry : vertices.getRight().entrySet()) {
+                long id = ids.next();
+                sqlgVertexMapEntry.getKey().setInternalPrimaryKey(RecordId.from(schemaTable, id));
+                out.writeRow(sqlgVertexMapEntry.getValue(), id);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     @Override
     public void flushEdgeGlobalUniqueIndexes(SqlgGraph sqlgGraph, Map<MetaEdge, Pair<SortedSet<String>, Map<SqlgEdge, Triple<SqlgVertex, SqlgVertex, Map<String, Object>>>>> edgeCache) {
         for (MetaEdge metaEdge : edgeCache.keySet()) {
@@ -343,6 +375,65 @@ public class PostgresDialect extends BaseSqlDialect implements SqlBulkDialect {
         }
     }
 
+    /**
+     * One INSERT ... ON CONFLICT per batch, the conflict target is the GlobalUniqueIndex's unique index on recordId and property.
+     * A conflict on the value's unique index is still a unique constraint violation.
+     */
+    @Override
+    public void upsertGlobalUniqueIndexValues(SqlgGraph sqlgGraph, GlobalUniqueIndex globalUniqueIndex, PropertyColumn propertyColumn, Map<RecordId, Object> values) {
+        if (values.isEmpty()) {
+            return;
+        }
+        List<String> valueColumns = globalUniqueIndexValueColumns(propertyColumn.getPropertyType());
+        StringBuilder sql = new StringBuilder();
+        sql.append("INSERT INTO ");
+        sql.append(maybeWrapInQoutes(Schema.GLOBAL_UNIQUE_INDEX_SCHEMA));
+        sql.append(".");
+        sql.append(maybeWrapInQoutes(VERTEX_PREFIX + globalUniqueIndex.getName()));
+        sql.append(" (");
+        for (String valueColumn : valueColumns) {
+            sql.append(maybeWrapInQoutes(valueColumn));
+            sql.append(", ");
+        }
+        sql.append(maybeWrapInQoutes(GlobalUniqueIndex.GLOBAL_UNIQUE_INDEX_RECORD_ID));
+        sql.append(", ");
+        sql.append(maybeWrapInQoutes(GlobalUniqueIndex.GLOBAL_UNIQUE_INDEX_PROPERTY_NAME));
+        sql.append(") VALUES (");
+        for (@SuppressWarnings("unused") String valueColumn : valueColumns) {
+            sql.append("?, ");
+        }
+        sql.append("?, ?)\nON CONFLICT (");
+        sql.append(maybeWrapInQoutes(GlobalUniqueIndex.GLOBAL_UNIQUE_INDEX_RECORD_ID));
+        sql.append(", ");
+        sql.append(maybeWrapInQoutes(GlobalUniqueIndex.GLOBAL_UNIQUE_INDEX_PROPERTY_NAME));
+        sql.append(") DO UPDATE SET ");
+        int count = 1;
+        for (String valueColumn : valueColumns) {
+            sql.append(maybeWrapInQoutes(valueColumn));
+            sql.append(" = EXCLUDED.");
+            sql.append(maybeWrapInQoutes(valueColumn));
+            if (count++ < valueColumns.size()) {
+                sql.append(", ");
+            }
+        }
+        sql.append(";");
+        if (logger.isDebugEnabled()) {
+            logger.debug(sql.toString());
+        }
+        Connection conn = sqlgGraph.tx().getConnection();
+        try (PreparedStatement preparedStatement = conn.prepareStatement(sql.toString())) {
+            for (Map.Entry<RecordId, Object> recordIdValue : values.entrySet()) {
+                int idx = SqlgUtil.setKeyValuesAsParameterUsingPropertyColumn(sqlgGraph, true, 1, preparedStatement, Collections.singleton(Pair.of(propertyColumn.getPropertyType(), recordIdValue.getValue())));
+                preparedStatement.setString(idx++, recordIdValue.getKey().toString());
+                preparedStatement.setString(idx, propertyColumn.getName());
+                preparedStatement.addBatch();
+            }
+            preparedStatement.executeBatch();
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     @Override
     public void flushEdgeCache(SqlgGraph sqlgGraph, Map<MetaEdge, Pair<SortedSet<String>, Map<SqlgEdge, Triple<SqlgVertex, SqlgVertex, Map<String, Object>>>>> edgeCache) {
         Connection con = sqlgGraph.tx().getConnection();
@@ -374,6 +465,11 @@ public class PostgresDialect extends BaseSqlDialect implements SqlBulkDialect {
 
                 Map<String, PropertyType> propertyTypeMap = sqlgGraph.getTopology().getTableFor(metaEdge.getSchemaTable().withPrefix(EDGE_PREFIX));
 
+                if (sqlgGraph.tx().getBatchManager().isBinaryCopy(metaEdge.getSchemaTable().withPrefix(EDGE_PREFIX), triples.getLeft())) {
+                    flushEdgeCacheBinary(sqlgGraph, metaEdge, triples, propertyTypeMap, it);
+                    continue;
+                }
+
                 StringBuilder sql = new StringBuilder();
                 sql.append("COPY ");
                 sql.append(maybeWrapInQoutes(metaEdge.getSchemaTable().getSchema()));
@@ -450,123 +546,56 @@ public class PostgresDialect extends BaseSqlDialect implements SqlBulkDialect {
         }
     }
 
-    @Override
-    public void flushVertexPropertyCache(SqlgGraph sqlgGraph, Map<SchemaTable, Pair<SortedSet<String>, Map<SqlgVertex, Map<String, Object>>>> schemaVertexPropertyCache) {
-        flushElementPropertyCache(sqlgGraph, true, schemaVertexPropertyCache);
+    private void flushEdgeCacheBinary(SqlgGraph sqlgGraph, MetaEdge metaEdge, Pair<SortedSet<String>, Map<SqlgEdge, Triple<SqlgVertex, SqlgVertex, Map<String, Object>>>> triples, Map<String, PropertyType> propertyTypeMap, Iterator<Long> ids) throws IOException {
+        StringBuilder sql = new StringBuilder();
+        sql.append("COPY ");
+        sql.append(maybeWrapInQoutes(metaEdge.getSchemaTable().getSchema()));
+        sql.append(".");
+        sql.append(maybeWrapInQoutes(EDGE_PREFIX + metaEdge.getSchemaTable().getTable()));
+        sql.append(" (");
+        sql.append(maybeWrapInQoutes(metaEdge.getOutLabel() + Topology.OUT_VERTEX_COLUMN_END));
+        sql.append(", ");
+        sql.append(maybeWrapInQoutes(metaEdge.getInLabel() + Topology.IN_VERTEX_COLUMN_END));
+        sql.append(", \"ID\"");
+        for (String key : triples.getLeft()) {
+            sql.append(", ");
+            appendKeyForStream(propertyTypeMap.get(key), sql, key);
+        }
+        sql.append(") FROM stdin BINARY;");
+        if (logger.isDebugEnabled()) {
+            logger.debug(sql.toString());
+        }
+        try (BinaryCopyOutputStream out = streamBinarySql(sqlgGraph, sql.toString(), 3, copyColumns(propertyTypeMap, triples.getLeft()), false)) {
+            for (Map.Entry<SqlgEdge, Triple<SqlgVertex, SqlgVertex, Map<String, Object>>> sqlgEdgeTripleEntry : triples.getRight().entrySet()) {
+                long id = ids.next();
+                sqlgEdgeTripleEntry.getKey().setInternalPrimaryKey(RecordId.from(metaEdge.getSchemaTable(), id));
+                Triple<SqlgVertex, SqlgVertex, Map<String, Object>> outInVertexKeyValueMap = sqlgEdgeTripleEntry.getValue();
+                out.writeRow(
+                        outInVertexKeyValueMap.getRight(),
+                        ((RecordId) outInVertexKeyValueMap.getLeft().id()).getId(),
+                        ((RecordId) outInVertexKeyValueMap.getMiddle().id()).getId(),
+                        id
+                );
+            }
+        }
     }
 
-    @Override
-    public void flushVertexGlobalUniqueIndexPropertyCache(SqlgGraph sqlgGraph, Map<SchemaTable, Pair<SortedSet<String>, Map<SqlgVertex, Map<String, Object>>>> schemaVertexPropertyCache) {
-        flushElementGlobalUniqueIndexPropertyCache(sqlgGraph, true, schemaVertexPropertyCache);
+    private static LinkedHashMap<String, PropertyType> copyColumns(Map<String, PropertyType> propertyTypeMap, Collection<String> keys) {
+        LinkedHashMap<String, PropertyType> columns = new LinkedHashMap<>();
+        for (String key : keys) {
+            columns.put(key, propertyTypeMap.get(key));
+        }
+        return columns;
     }
 
     @Override
-    public void flushEdgePropertyCache(SqlgGraph sqlgGraph, Map<SchemaTable, Pair<SortedSet<String>, Map<SqlgEdge, Map<String, Object>>>> edgePropertyCache) {
-        flushElementPropertyCache(sqlgGraph, false, edgePropertyCache);
+    public void flushVertexPropertyCache(SqlgGraph sqlgGraph, Map<SchemaTable, Pair<SortedSet<String>, Map<SqlgVertex, Map<String, Object>>>> schemaVertexPropertyCache) {
+        flushElementPropertyCache(sqlgGraph, true, schemaVertexPropertyCache);
     }
 
     @Override
-    public void flushEdgeGlobalUniqueIndexPropertyCache(SqlgGraph sqlgGraph, Map<SchemaTable, Pair<SortedSet<String>, Map<SqlgEdge, Map<String, Object>>>> edgePropertyCache) {
-        flushElementGlobalUniqueIndexPropertyCache(sqlgGraph, false, edgePropertyCache);
-    }
-
-    private <T extends SqlgElement> void flushElementGlobalUniqueIndexPropertyCache(SqlgGraph sqlgGraph, boolean forVertices, Map<SchemaTable, Pair<SortedSet<String>, Map<T, Map<String, Object>>>> schemaVertexPropertyCache) {
-
-        Connection conn = sqlgGraph.tx().getConnection();
-        for (SchemaTable schemaTable : schemaVertexPropertyCache.keySet()) {
-
-            Pair<SortedSet<String>, Map<T, Map<String, Object>>> vertexPropertyCache = schemaVertexPropertyCache.get(schemaTable);
-            Map<String, PropertyColumn> globalUniqueIndexPropertyMap = sqlgGraph.getTopology().getPropertiesWithGlobalUniqueIndexFor(schemaTable.withPrefix(VERTEX_PREFIX));
-
-            for (Map.Entry<String, PropertyColumn> propertyColumnEntry : globalUniqueIndexPropertyMap.entrySet()) {
-                PropertyColumn propertyColumn = propertyColumnEntry.getValue();
-                for (GlobalUniqueIndex globalUniqueIndex : propertyColumn.getGlobalUniqueIndices()) {
-                    SortedSet<String> keys = new TreeSet<>();
-                    keys.add("value");
-                    StringBuilder sql = new StringBuilder();
-                    sql.append("UPDATE ");
-                    sql.append(maybeWrapInQoutes(Schema.GLOBAL_UNIQUE_INDEX_SCHEMA));
-                    sql.append(".");
-                    sql.append(maybeWrapInQoutes((forVertices ? VERTEX_PREFIX : EDGE_PREFIX) + globalUniqueIndex.getName()));
-                    sql.append(" a \nSET\n\t(");
-                    appendKeyForBatchUpdate(PropertyType.STRING, sql, "recordId", false);
-                    sql.append(", ");
-                    appendKeyForBatchUpdate(PropertyType.STRING, sql, "property", false);
-                    sql.append(", ");
-                    appendKeyForBatchUpdate(propertyColumn.getPropertyType(), sql, "value", false);
-                    sql.append(") = \n\t(");
-                    sql.append("v.");
-                    appendKeyForBatchUpdate(PropertyType.STRING, sql, "recordId", true);
-                    sql.append(", v.");
-                    appendKeyForBatchUpdate(PropertyType.STRING, sql, "property", true);
-                    sql.append(", ");
-                    int count = 1;
-                    for (String key : keys) {
-                        sql.append("v.");
-                        PropertyType propertyType = propertyColumn.getPropertyType();
-                        appendKeyForBatchUpdate(propertyType, sql, key, true);
-                        sqlCastArray(sql, propertyType);
-                        if (count++ < keys.size()) {
-                            sql.append(", ");
-                        }
-                    }
-                    sql.append(")\nFROM (\nVALUES\n\t");
-                    count = 1;
-                    boolean foundSomething = false;
-                    for (SqlgElement sqlgElement : vertexPropertyCache.getRight().keySet()) {
-                        Map<String, Object> properties = vertexPropertyCache.getRight().get(sqlgElement);
-                        if (!foundSomething && properties.containsKey(propertyColumn.getName())) {
-                            foundSomething = true;
-                        }
-                        sql.append("($token$");
-                        sql.append(sqlgElement.id().toString());
-                        sql.append("$token$, $token$");
-                        sql.append(propertyColumn.getName());
-                        sql.append("$token$, ");
-                        int countProperties = 1;
-                        Object value = properties.get(propertyColumn.getName());
-                        if (value == null) {
-                            if (sqlgElement.property(propertyColumn.getName()).isPresent()) {
-                                value = sqlgElement.value(propertyColumn.getName());
-                            } else {
-                                value = null;
-                            }
-                        }
-                        PropertyType propertyType = propertyColumn.getPropertyType();
-                        appendSqlValue(sql, value, propertyType);
-                        sql.append(")");
-                        if (count++ < vertexPropertyCache.getRight().size()) {
-                            sql.append(",\n\t");
-                        }
-                    }
-
-                    if (!foundSomething) {
-                        continue;
-                    }
-
-                    sql.append("\n) AS v(\"recordId\", property, ");
-                    count = 1;
-                    for (String key : keys) {
-                        PropertyType propertyType = propertyColumn.getPropertyType();
-                        appendKeyForBatchUpdate(propertyType, sql, key, false);
-                        if (count++ < keys.size()) {
-                            sql.append(", ");
-                        }
-                    }
-                    sql.append(")");
-                    sql.append("\nWHERE a.\"recordId\" = v.\"recordId\" and a.property = v.property");
-                    if (logger.isDebugEnabled()) {
-                        logger.debug(sql.toString());
-                    }
-                    try (Statement statement = conn.createStatement()) {
-                        statement.execute(sql.toString());
-                    } catch (SQLException e) {
-                        throw new RuntimeException(e);
-                    }
-                }
-            }
-        }
-
+    public void flushEdgePropertyCache(SqlgGraph sqlgGraph, Map<SchemaTable, Pair<SortedSet<String>, Map<SqlgEdge, Map<String, Object>>>> edgePropertyCache) {
+        flushElementPropertyCache(sqlgGraph, false, edgePropertyCache);
     }
 
     private void appendSqlValue(StringBuilder sql, Object value, PropertyType propertyType) {
@@ -1283,18 +1312,23 @@ public class PostgresDialect extends BaseSqlDialect implements SqlBulkDialect {
         return internalConstructCompleteCopyCommandSqlVertex(sqlgGraph, isTemp, vertex.getSchema(), vertex.getTable(), needID, keyValueMap.keySet());
     }
 
+    private String internalConstructCompleteCopyCommandSqlVertex(SqlgGraph sqlgGraph, boolean isTemp, String schema, String table, boolean needID, Set<String> keys) {
+        return internalConstructCompleteCopyCommandSqlVertex(sqlgGraph, isTemp, false, schema, table, needID, keys);
+    }
+
     /**
      * construct the copy command for a vertex
      *
      * @param sqlgGraph the graph
      * @param isTemp    is the table temporary?
+     * @param binary    copy in the binary format?
      * @param schema    the schema
      * @param table     the table name
      * @param needID    do we need the ID column to be copied?
      * @param keys      the property keys
      * @return the SQL generated
      */
-    private String internalConstructCompleteCopyCommandSqlVertex(SqlgGraph sqlgGraph, boolean isTemp, String schema, String table, boolean needID, Set<String> keys) {
+    private String internalConstructCompleteCopyCommandSqlVertex(SqlgGraph sqlgGraph, boolean isTemp, boolean binary, String schema, String table, boolean needID, Set<String> keys) {
         Map<String, PropertyType> propertyTypeMap;
         if (isTemp) {
             propertyTypeMap = sqlgGraph.getTopology().getPublicSchema().getTemporaryTable(VERTEX_PREFIX + table);
@@ -1340,17 +1374,21 @@ public class PostgresDialect extends BaseSqlDialect implements SqlBulkDialect {
             }
         }
         sql.append(")");
-        sql.append(" FROM stdin CSV DELIMITER '");
-        sql.append(COPY_COMMAND_DELIMITER);
-        sql.append("' ");
-        sql.append("QUOTE ");
-        sql.append(COPY_COMMAND_QUOTE);
-        sql.append(" ESCAPE '");
-        sql.append(ESCAPE);
-        sql.append("'");
-        sql.append(" NULL'");
-        sql.append(BATCH_NULL);
-        sql.append("';");
+        if (binary) {
+            sql.append(" FROM stdin BINARY;");
+        } else {
+            sql.append(" FROM stdin CSV DELIMITER '");
+            sql.append(COPY_COMMAND_DELIMITER);
+            sql.append("' ");
+            sql.append("QUOTE ");
+            sql.append(COPY_COMMAND_QUOTE);
+            sql.append(" ESCAPE '");
+            sql.append(ESCAPE);
+            sql.append("'");
+            sql.append(" NULL'");
+            sql.append(BATCH_NULL);
+            sql.append("';");
+        }
         if (logger.isDebugEnabled()) {
             logger.debug(sql.toString());
         }
@@ -1359,6 +1397,10 @@ public class PostgresDialect extends BaseSqlDialect implements SqlBulkDialect {
 
     @Override
     public String constructCompleteCopyCommandSqlEdge(SqlgGraph sqlgGraph, SqlgEdge sqlgEdge, SqlgVertex outVertex, SqlgVertex inVertex, Map<String, Object> keyValueMap) {
+        return internalConstructCompleteCopyCommandSqlEdge(sqlgGraph, false, sqlgEdge, outVertex, inVertex, keyValueMap);
+    }
+
+    private String internalConstructCompleteCopyCommandSqlEdge(SqlgGraph sqlgGraph, boolean binary, SqlgEdge sqlgEdge, SqlgVertex outVertex, SqlgVertex inVertex, Map<String, Object> keyValueMap) {
         Map<String, PropertyType> propertyTypeMap = sqlgGraph.getTopology().getTableFor(SchemaTable.of(sqlgEdge.getSchema(), EDGE_PREFIX + sqlgEdge.getTable()));
         StringBuilder sql = new StringBuilder();
         sql.append("COPY ");
@@ -1379,18 +1421,59 @@ public class PostgresDialect extends BaseSqlDialect implements SqlBulkDialect {
         }
         sql.append(") ");
 
-        sql.append(" FROM stdin CSV DELIMITER '");
-        sql.append(COPY_COMMAND_DELIMITER);
-        sql.append("' ");
-        sql.append("QUOTE ");
-        sql.append(COPY_COMMAND_QUOTE);
-        sql.append(";");
+        if (binary) {
+            sql.append(" FROM stdin BINARY;");
+        } else {
+            sql.append(" FROM stdin CSV DELIMITER '");
+            sql.append(COPY_COMMAND_DELIMITER);
+            sql.append("' ");
+            sql.append("QUOTE ");
+            sql.append(COPY_COMMAND_QUOTE);
+            sql.append(";");
+        }
         if (logger.isDebugEnabled()) {
             logger.debug(sql.toString());
         }
         return sql.toString();
     }
 
+    @Override
+    public boolean supportsBinaryCopy(PropertyType propertyType) {
+        return BinaryCopyOutputStream.supports(propertyType);
+    }
+
+    @Override
+    public OutputStream streamBinaryCopyVertex(SqlgGraph sqlgGraph, SqlgVertex vertex, Map<String, Object> keyValueMap) {
+        String sql = internalConstructCompleteCopyCommandSqlVertex(sqlgGraph, false, true, vertex.getSchema(), vertex.getTable(), false, keyValueMap.keySet());
+        LinkedHashMap<String, PropertyType> columns = copyColumns(sqlgGraph.getTopology().getTableFor(SchemaTable.of(vertex.getSchema(), VERTEX_PREFIX + vertex.getTable())), keyValueMap.keySet());
+        return streamBinarySql(sqlgGraph, sql, 0, columns, keyValueMap.isEmpty());
+    }
+
+    @Override
+    public OutputStream streamBinaryCopyEdge(SqlgGraph sqlgGraph, SqlgEdge sqlgEdge, SqlgVertex outVertex, SqlgVertex inVertex, Map<String, Object> keyValueMap) {
+        String sql = internalConstructCompleteCopyCommandSqlEdge(sqlgGraph, true, sqlgEdge, outVertex, inVertex, keyValueMap);
+        LinkedHashMap<String, PropertyType> columns = copyColumns(sqlgGraph.getTopology().getTableFor(SchemaTable.of(sqlgEdge.getSchema(), EDGE_PREFIX + sqlgEdge.getTable())), keyValueMap.keySet());
+        return streamBinarySql(sqlgGraph, sql, 2, columns, false);
+    }
+
+    @Override
+    public void writeStreamingVertex(OutputStream outputStream, Map<String, Object> keyValueMap) {
+        try {
+            ((BinaryCopyOutputStream) outputStream).writeRow(keyValueMap);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void writeStreamingEdge(OutputStream outputStream, SqlgEdge sqlgEdge, SqlgVertex outVertex, SqlgVertex inVertex, Map<String, Object> keyValueMap) {
+        try {
+            ((BinaryCopyOutputStream) outputStream).writeRow(keyValueMap, ((RecordId) outVertex.id()).getId(), ((RecordId) inVertex.id()).getId());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     private void appendKeyForStream(PropertyType propertyType, StringBuilder sql, String key) {
         String[] sqlDefinitions = propertyTypeToSqlDefinition(propertyType);
         int countPerKey = 1;
@@ -1524,9 +1607,15 @@ public class PostgresDialect extends BaseSqlDialect implements SqlBulkDialect {
     }
 
     private void valueToStreamBytes(Writer outputStream, PropertyType propertyType, Object value) throws UnsupportedEncodingException {
-        String s = valueToStringForBulkLoad(propertyType, value);
         try {
-            outputStream.write(s);
+            if (value == null) {
+                outputStream.write(getBatchNull());
+            } else if (propertyType == STRING) {
+                //write straight to the copy stream, no need for the intermediate escaped string
+                escapeSpecialCharacters(outputStream, (String) value);
+            } else {
+                outputStream.write(valueToStringForBulkLoad(propertyType, value));
+            }
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
@@ -1834,83 +1923,6 @@ public class PostgresDialect extends BaseSqlDialect implements SqlBulkDialect {
     }
 
 
-    private InputStream mapVertexToInputStream(Map<String, PropertyType> propertyTypeMap, Pair<SortedSet<String>, Map<SqlgVertex, Map<String, Object>>> vertexCache) throws SQLException {
-        //String str = "2,peter\n3,john";
-        StringBuilder sb = new StringBuilder();
-        int count = 1;
-        for (SqlgVertex sqlgVertex : vertexCache.getRight().keySet()) {
-            Map<String, Object> triple = vertexCache.getRight().get(sqlgVertex);
-            //set the internal batch id to be used with inserting batch edges
-            if (!vertexCache.getLeft().isEmpty()) {
-                int countKeys = 1;
-                for (String key : vertexCache.getLeft()) {
-                    PropertyType propertyType = propertyTypeMap.get(key);
-                    if (countKeys > 1 && countKeys <= vertexCache.getLeft().size()) {
-                        sb.append(COPY_COMMAND_DELIMITER);
-                    }
-                    countKeys++;
-                    Object value = triple.get(key);
-                    switch (propertyType) {
-                        case BYTE_ARRAY:
-                            String valueOfArrayAsString = PGbytea.toPGString((byte[]) SqlgUtil.convertByteArrayToPrimitiveArray((Byte[]) value));
-                            sb.append(valueOfArrayAsString);
-                            break;
-                        case byte_ARRAY:
-                            valueOfArrayAsString = PGbytea.toPGString((byte[]) value);
-                            sb.append(valueOfArrayAsString);
-                            break;
-                        default:
-                            sb.append(valueToStringForBulkLoad(propertyType, value));
-                    }
-                }
-            } else {
-                sb.append("0");
-            }
-            if (count++ < vertexCache.getRight().size()) {
-                sb.append("\n");
-            }
-        }
-        return new ByteArrayInputStream(sb.toString().getBytes());
-    }
-
-    private InputStream mapEdgeToInputStream(Map<String, PropertyType> propertyTypeMap, Pair<SortedSet<String>, Map<SqlgEdge, Triple<SqlgVertex, SqlgVertex, Map<String, Object>>>> edgeCache) throws SQLException {
-        StringBuilder sb = new StringBuilder();
-        int count = 1;
-        for (Triple<SqlgVertex, SqlgVertex, Map<String, Object>> triple : edgeCache.getRight().values()) {
-            sb.append(((RecordId) triple.getLeft().id()).getId());
-            sb.append(COPY_COMMAND_DELIMITER);
-            sb.append(((RecordId) triple.getMiddle().id()).getId());
-            if (!edgeCache.getLeft().isEmpty()) {
-                sb.append(COPY_COMMAND_DELIMITER);
-            }
-            int countKeys = 1;
-            for (String key : edgeCache.getLeft()) {
-                PropertyType propertyType = propertyTypeMap.get(key);
-                Object value = triple.getRight().get(key);
-                switch (propertyType) {
-                    case BYTE_ARRAY:
-                        String valueOfArrayAsString = PGbytea.toPGString((byte[]) SqlgUtil.convertByteArrayToPrimitiveArray((Byte[]) value));
-                        sb.append(valueOfArrayAsString);
-                        break;
-                    case byte_ARRAY:
-                        valueOfArrayAsString = PGbytea.toPGString((byte[]) value);
-                        sb.append(valueOfArrayAsString);
-                        break;
-                    default:
-                        sb.append(valueToStringForBulkLoad(propertyType, value));
-                }
-                if (countKeys < edgeCache.getLeft().size()) {
-                    sb.append(COPY_COMMAND_DELIMITER);
-                }
-                countKeys++;
-            }
-            if (count++ < edgeCache.getRight().size()) {
-                sb.append("\n");
-            }
-        }
-        return new ByteArrayInputStream(sb.toString().getBytes());
-    }
-
     /**
      * this follows the PostgreSQL rules at https://www.postgresql.org/docs/current/static/sql-copy.html#AEN77663
      * "If the value contains the delimiter character, the QUOTE character, the NULL string, a carriage return,
@@ -1941,6 +1953,33 @@ public class PostgresDialect extends BaseSqlDialect implements SqlBulkDialect {
         return s;
     }
 
+    /**
+     * Same as {@link #escapeSpecialCharacters(String)} but writes the escaped value directly to the copy writer.
+     */
+    private void escapeSpecialCharacters(Writer writer, String s) throws IOException {
+        boolean needQuote = s.length() == 0;
+        for (int a = 0; a < s.length() && !needQuote; a++) {
+            char c = s.charAt(a);
+            needQuote = c == '\n' || c == '\r' || c == 0 || c == COPY_COMMAND_DELIMITER.charAt(0) || c == ESCAPE || c == QUOTE;
+        }
+        if (!needQuote) {
+            writer.write(s);
+            return;
+        }
+        writer.write(QUOTE);
+        int start = 0;
+        for (int a = 0; a < s.length(); a++) {
+            char c = s.charAt(a);
+            if (c == ESCAPE || c == QUOTE) {
+                writer.write(s, start, a - start);
+                writer.write(ESCAPE);
+                start = a;
+            }
+        }
+        writer.write(s, start, s.length() - start);
+        writer.write(QUOTE);
+    }
+
     @Override
     public String[] propertyTypeToSqlDefinition(PropertyType propertyType) {
         switch (propertyType) {
@@ -2587,20 +2626,45 @@ public class PostgresDialect extends BaseSqlDialect implements SqlBulkDialect {
         return true;
     }
 
+    @Override
+    public boolean supportsParentIdsAsArrayParameters() {
+        return true;
+    }
+
+    @Override
+    public boolean supportsRecursiveQueries() {
+        return true;
+    }
+
     @Override
     public Writer streamSql(SqlgGraph sqlgGraph, String sql) {
         Connection conn = sqlgGraph.tx().getConnection();
         PGConnection pgConnection;
         try {
             pgConnection = conn.unwrap(PGConnection.class);
-            OutputStream out = new PGCopyOutputStream(pgConnection, sql);
-            return new OutputStreamWriter(out, "UTF-8");
+            //rows are encoded incrementally into the bounded copy buffer, the batch is never materialized in memory
+            OutputStream out = new PGCopyOutputStream(pgConnection, sql, COPY_BUFFER_SIZE);
+            return new BufferedWriter(new OutputStreamWriter(out, "UTF-8"), COPY_BUFFER_SIZE);
         } catch (SQLException | UnsupportedEncodingException e) {
             throw new RuntimeException(e);
         }
     }
 
-    private <L, R> void copyInBulkTempEdges(SqlgGraph sqlgGraph, SchemaTable schemaTable, Collection<Pair<L, R>> uids, PropertyType inPropertyType, PropertyType outPropertyType) {
+    private BinaryCopyOutputStream streamBinarySql(SqlgGraph sqlgGraph, String sql, int idColumns, LinkedHashMap<String, PropertyType> columns, boolean dummyColumn) {
+        Connection conn = sqlgGraph.tx().getConnection();
+        try {
+            PGConnection pgConnection = conn.unwrap(PGConnection.class);
+            return new BinaryCopyOutputStream(new PGCopyOutputStream(pgConnection, sql), idColumns, columns, dummyColumn);
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private <L, R> void copyInBulkTempEdges(SqlgGraph sqlgGraph, SchemaTable schemaTable, Collection<Pair<L, R>> uids, PropertyType outPropertyType, PropertyType inPropertyType) {
+        if (sqlgGraph.tx().getBatchManager().isBinaryCopy() && supportsBinaryCopy(outPropertyType) && supportsBinaryCopy(inPropertyType)) {
+            copyInBulkTempEdgesBinary(sqlgGraph, schemaTable, uids, outPropertyType, inPropertyType);
+            return;
+        }
         try {
             StringBuilder sql = new StringBuilder();
             sql.append("COPY ");
@@ -2623,9 +2687,9 @@ public class PostgresDialect extends BaseSqlDialect implements SqlBulkDialect {
             }
             Writer writer = streamSql(sqlgGraph, sql.toString());
             for (Pair<L, R> uid : uids) {
-                valueToStreamBytes(writer, inPropertyType, uid.getLeft());
+                valueToStreamBytes(writer, outPropertyType, uid.getLeft());
                 writer.write(COPY_COMMAND_DELIMITER);
-                valueToStreamBytes(writer, outPropertyType, uid.getRight());
+                valueToStreamBytes(writer, inPropertyType, uid.getRight());
                 writer.write("\n");
             }
             writer.close();
@@ -2634,83 +2698,40 @@ public class PostgresDialect extends BaseSqlDialect implements SqlBulkDialect {
         }
     }
 
+    private <L, R> void copyInBulkTempEdgesBinary(SqlgGraph sqlgGraph, SchemaTable schemaTable, Collection<Pair<L, R>> uids, PropertyType outPropertyType, PropertyType inPropertyType) {
+        String sql = "COPY " + maybeWrapInQoutes(schemaTable.getTable()) + " (" + maybeWrapInQoutes("out") + ", " + maybeWrapInQoutes("in") + ") FROM stdin BINARY;";
+        if (logger.isDebugEnabled()) {
+            logger.debug(sql);
+        }
+        LinkedHashMap<String, PropertyType> columns = new LinkedHashMap<>();
+        columns.put("out", outPropertyType);
+        columns.put("in", inPropertyType);
+        Map<String, Object> row = new HashMap<>();
+        try (BinaryCopyOutputStream out = streamBinarySql(sqlgGraph, sql, 0, columns, false)) {
+            for (Pair<L, R> uid : uids) {
+                row.put("out", uid.getLeft());
+                row.put("in", uid.getRight());
+                out.writeRow(row);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     @Override
     public <L, R> void bulkAddEdges(SqlgGraph sqlgGraph, SchemaTable out, SchemaTable in, String edgeLabel, Pair<String, String> idFields, Collection<Pair<L, R>> uids, Map<String, PropertyType> edgeColumns, Map<String, Object> edgePropertyMap) {
         if (!sqlgGraph.tx().isInStreamingBatchMode() && !sqlgGraph.tx().isInStreamingWithLockBatchMode()) {
             throw SqlgExceptions.invalidMode("Transaction must be in " + BatchManager.BatchModeType.STREAMING + " or " + BatchManager.BatchModeType.STREAMING_WITH_LOCK + " mode for bulkAddEdges");
         }
         if (!uids.isEmpty()) {
-            //createVertexLabel temp table and copy the uids into it
-            Map<String, PropertyType> columns = new HashMap<>();
-            Map<String, PropertyType> outProperties = sqlgGraph.getTopology().getTableFor(out.withPrefix(VERTEX_PREFIX));
-            Map<String, PropertyType> inProperties = sqlgGraph.getTopology().getTableFor(in.withPrefix(VERTEX_PREFIX));
-            PropertyType outPropertyType;
-            if (idFields.getLeft().equals(Topology.ID)) {
-                outPropertyType = PropertyType.INTEGER;
-            } else {
-                outPropertyType = outProperties.get(idFields.getLeft());
-            }
-            PropertyType inPropertyType;
-            if (idFields.getRight().equals(Topology.ID)) {
-                inPropertyType = PropertyType.INTEGER;
-            } else {
-                inPropertyType = inProperties.get(idFields.getRight());
-            }
-            columns.put("out", outPropertyType);
-            columns.put("in", inPropertyType);
-            SecureRandom random = new SecureRandom();
-            byte bytes[] = new byte[6];
-            random.nextBytes(bytes);
-            String tmpTableIdentified = Base64.getEncoder().encodeToString(bytes);
-            tmpTableIdentified = Topology.BULK_TEMP_EDGE + tmpTableIdentified;
-            sqlgGraph.getTopology().getPublicSchema().createTempTable(tmpTableIdentified, columns);
+            PropertyType outPropertyType = bulkTempEdgePropertyType(sqlgGraph, out, idFields.getLeft());
+            PropertyType inPropertyType = bulkTempEdgePropertyType(sqlgGraph, in, idFields.getRight());
+            String tmpTableIdentified = createBulkTempEdgeTable(sqlgGraph, outPropertyType, inPropertyType);
             this.copyInBulkTempEdges(sqlgGraph, SchemaTable.of(out.getSchema(), tmpTableIdentified), uids, outPropertyType, inPropertyType);
             //executeRegularQuery copy from select. select the edge ids to copy into the new table by joining on the temp table
-
-            Optional<VertexLabel> outVertexLabelOptional = sqlgGraph.getTopology().getVertexLabel(out.getSchema(), out.getTable());
-            Optional<VertexLabel> inVertexLabelOptional = sqlgGraph.getTopology().getVertexLabel(in.getSchema(), in.getTable());
-            Preconditions.checkState(outVertexLabelOptional.isPresent(), "Out VertexLabel must be present. Not found for %s", out.toString());
-            Preconditions.checkState(inVertexLabelOptional.isPresent(), "In VertexLabel must be present. Not found for %s", in.toString());
-
-            //noinspection OptionalGetWithoutIsPresent
-            sqlgGraph.getTopology().ensureEdgeLabelExist(edgeLabel, outVertexLabelOptional.get(), inVertexLabelOptional.get(), edgeColumns);
-
-            StringBuilder sql = new StringBuilder("INSERT INTO \n");
-            sql.append(this.maybeWrapInQoutes(out.getSchema()));
-            sql.append(".");
-            sql.append(this.maybeWrapInQoutes(EDGE_PREFIX + edgeLabel));
-            sql.append(" (");
-            sql.append(this.maybeWrapInQoutes(out.getSchema() + "." + out.getTable() + Topology.OUT_VERTEX_COLUMN_END));
-            sql.append(",");
-            sql.append(this.maybeWrapInQoutes(in.getSchema() + "." + in.getTable() + Topology.IN_VERTEX_COLUMN_END));
-            edgePropertyMap.keySet().forEach(k -> sql.append(',').append(this.maybeWrapInQoutes(k)));
-            sql.append(") \n");
-            sql.append("select _out.\"ID\" as \"");
-            sql.append(out.getSchema() + "." + out.getTable() + Topology.OUT_VERTEX_COLUMN_END);
-            sql.append("\", _in.\"ID\" as \"");
-            sql.append(in.getSchema() + "." + in.getTable() + Topology.IN_VERTEX_COLUMN_END);
-            sql.append("\"");
-            edgePropertyMap.forEach((k, v) -> {
-                sql.append(',');
-                sql.append(this.valueToValuesString(edgeColumns.get(k), v));
-                sql.append(" as ");
-                sql.append(this.maybeWrapInQoutes(k));
-            });
-            sql.append(" FROM ");
-            sql.append(this.maybeWrapInQoutes(in.getSchema()));
-            sql.append(".");
-            sql.append(this.maybeWrapInQoutes(VERTEX_PREFIX + in.getTable()));
-            sql.append(" _in join ");
-            sql.append(this.maybeWrapInQoutes(tmpTableIdentified) + " ab on ab.in = _in." + this.maybeWrapInQoutes(idFields.getRight()) + " join ");
-            sql.append(this.maybeWrapInQoutes(out.getSchema()));
-            sql.append(".");
-            sql.append(this.maybeWrapInQoutes(VERTEX_PREFIX + out.getTable()));
-            sql.append(" _out on ab.out = _out." + this.maybeWrapInQoutes(idFields.getLeft()));
-            if (logger.isDebugEnabled()) {
-                logger.debug(sql.toString());
-            }
+            String sql = insertFromBulkTempEdgesSql(sqlgGraph, out, in, edgeLabel, idFields, tmpTableIdentified, edgeColumns, edgePropertyMap);
             Connection conn = sqlgGraph.tx().getConnection();
-            try (PreparedStatement preparedStatement = conn.prepareStatement(sql.toString())) {
+            try (PreparedStatement preparedStatement = conn.prepareStatement(sql)) {
                 preparedStatement.executeUpdate();
             } catch (SQLException e) {
                 throw new RuntimeException(e);
@@ -2718,6 +2739,211 @@ public class PostgresDialect extends BaseSqlDialect implements SqlBulkDialect {
         }
     }
 
+    /**
+     * Copies the pairs into the temp table one chunk at a time. While the join insert of a chunk runs on the connection
+     * the next chunk is read from the iterator and encoded, so only two chunks are ever held in memory.
+     * The iterator is only consumed on the calling thread.
+     */
+    @Override
+    public <L, R> void bulkAddEdges(SqlgGraph sqlgGraph, SchemaTable out, SchemaTable in, String edgeLabel, Pair<String, String> idFields, Iterator<Pair<L, R>> uids, int chunkSize, Map<String, PropertyType> edgeColumns, Map<String, Object> edgePropertyMap) {
+        if (!sqlgGraph.tx().isInStreamingBatchMode() && !sqlgGraph.tx().isInStreamingWithLockBatchMode()) {
+            throw SqlgExceptions.invalidMode("Transaction must be in " + BatchManager.BatchModeType.STREAMING + " or " + BatchManager.BatchModeType.STREAMING_WITH_LOCK + " mode for bulkAddEdges");
+        }
+        if (!uids.hasNext()) {
+            return;
+        }
+        PropertyType outPropertyType = bulkTempEdgePropertyType(sqlgGraph, out, idFields.getLeft());
+        PropertyType inPropertyType = bulkTempEdgePropertyType(sqlgGraph, in, idFields.getRight());
+        String tmpTableIdentified = createBulkTempEdgeTable(sqlgGraph, outPropertyType, inPropertyType);
+        String insertSql = insertFromBulkTempEdgesSql(sqlgGraph, out, in, edgeLabel, idFields, tmpTableIdentified, edgeColumns, edgePropertyMap);
+        String truncateSql = "TRUNCATE " + maybeWrapInQoutes(tmpTableIdentified);
+        boolean binary = sqlgGraph.tx().getBatchManager().isBinaryCopy() && supportsBinaryCopy(inPropertyType) && supportsBinaryCopy(outPropertyType);
+        String copySql = "COPY " + maybeWrapInQoutes(tmpTableIdentified) + " (" + maybeWrapInQoutes("out") + ", " + maybeWrapInQoutes("in") + ") FROM stdin" +
+                (binary ? " BINARY;" : " DELIMITER '" + COPY_COMMAND_DELIMITER + "';");
+        if (logger.isDebugEnabled()) {
+            logger.debug(copySql);
+            logger.debug(insertSql);
+        }
+        Connection conn = sqlgGraph.tx().getConnection();
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        AtomicReference<Statement> running = new AtomicReference<>();
+        boolean succeeded = false;
+        try {
+            PGConnection pgConnection = conn.unwrap(PGConnection.class);
+            Future<?> insert = null;
+            while (uids.hasNext()) {
+                byte[] chunk = encodeBulkTempEdges(uids, chunkSize, binary, outPropertyType, inPropertyType);
+                waitFor(insert);
+                pgConnection.getCopyAPI().copyIn(copySql, new ByteArrayInputStream(chunk));
+                //the connection is not touched on this thread until the insert is done
+                insert = executorService.submit(() -> {
+                    try (Statement statement = conn.createStatement()) {
+                        running.set(statement);
+                        statement.executeUpdate(insertSql);
+                        statement.executeUpdate(truncateSql);
+                    } finally {
+                        running.set(null);
+                    }
+                    return null;
+                });
+            }
+            waitFor(insert);
+            succeeded = true;
+        } catch (SQLException | IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            if (!succeeded) {
+                //the iterator or the copy failed while a chunk's insert may still be running on the connection
+                cancelQuietly(running.get());
+            }
+            executorService.shutdown();
+            //the caller's rollback must not race the insert on the connection
+            awaitTerminationUninterruptibly(executorService);
+        }
+    }
+
+    private void cancelQuietly(Statement statement) {
+        if (statement != null) {
+            try {
+                statement.cancel();
+            } catch (SQLException e) {
+                logger.debug("failed to cancel the bulk edges insert", e);
+            }
+        }
+    }
+
+    private static void awaitTerminationUninterruptibly(ExecutorService executorService) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    if (executorService.awaitTermination(1, TimeUnit.MINUTES)) {
+                        return;
+                    }
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void waitFor(Future<?> future) {
+        if (future == null) {
+            return;
+        }
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    private <L, R> byte[] encodeBulkTempEdges(Iterator<Pair<L, R>> uids, int chunkSize, boolean binary, PropertyType outPropertyType, PropertyType inPropertyType) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        if (binary) {
+            LinkedHashMap<String, PropertyType> columns = new LinkedHashMap<>();
+            columns.put("out", outPropertyType);
+            columns.put("in", inPropertyType);
+            Map<String, Object> row = new HashMap<>();
+            try (BinaryCopyOutputStream out = new BinaryCopyOutputStream(bytes, 0, columns, false)) {
+                for (int i = 0; i < chunkSize && uids.hasNext(); i++) {
+                    Pair<L, R> uid = uids.next();
+                    row.put("out", uid.getLeft());
+                    row.put("in", uid.getRight());
+                    out.writeRow(row);
+                }
+            }
+        } else {
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(bytes, "UTF-8"), COPY_BUFFER_SIZE)) {
+                for (int i = 0; i < chunkSize && uids.hasNext(); i++) {
+                    Pair<L, R> uid = uids.next();
+                    valueToStreamBytes(writer, outPropertyType, uid.getLeft());
+                    writer.write(COPY_COMMAND_DELIMITER);
+                    valueToStreamBytes(writer, inPropertyType, uid.getRight());
+                    writer.write("\n");
+                }
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private PropertyType bulkTempEdgePropertyType(SqlgGraph sqlgGraph, SchemaTable schemaTable, String idField) {
+        if (idField.equals(Topology.ID)) {
+            return PropertyType.LONG;
+        } else {
+            return sqlgGraph.getTopology().getTableFor(schemaTable.withPrefix(VERTEX_PREFIX)).get(idField);
+        }
+    }
+
+    private String createBulkTempEdgeTable(SqlgGraph sqlgGraph, PropertyType outPropertyType, PropertyType inPropertyType) {
+        Map<String, PropertyType> columns = new HashMap<>();
+        columns.put("out", outPropertyType);
+        columns.put("in", inPropertyType);
+        SecureRandom random = new SecureRandom();
+        byte bytes[] = new byte[6];
+        random.nextBytes(bytes);
+        String tmpTableIdentified = Base64.getEncoder().encodeToString(bytes);
+        tmpTableIdentified = Topology.BULK_TEMP_EDGE + tmpTableIdentified;
+        sqlgGraph.getTopology().getPublicSchema().createTempTable(tmpTableIdentified, columns);
+        return tmpTableIdentified;
+    }
+
+    private String insertFromBulkTempEdgesSql(SqlgGraph sqlgGraph, SchemaTable out, SchemaTable in, String edgeLabel, Pair<String, String> idFields, String tmpTableIdentified, Map<String, PropertyType> edgeColumns, Map<String, Object> edgePropertyMap) {
+        Optional<VertexLabel> outVertexLabelOptional = sqlgGraph.getTopology().getVertexLabel(out.getSchema(), out.getTable());
+        Optional<VertexLabel> inVertexLabelOptional = sqlgGraph.getTopology().getVertexLabel(in.getSchema(), in.getTable());
+        Preconditions.checkState(outVertexLabelOptional.isPresent(), "Out VertexLabel must be present. Not found for %s", out.toString());
+        Preconditions.checkState(inVertexLabelOptional.isPresent(), "In VertexLabel must be present. Not found for %s", in.toString());
+
+        //noinspection OptionalGetWithoutIsPresent
+        sqlgGraph.getTopology().ensureEdgeLabelExist(edgeLabel, outVertexLabelOptional.get(), inVertexLabelOptional.get(), edgeColumns);
+
+        StringBuilder sql = new StringBuilder("INSERT INTO \n");
+        sql.append(this.maybeWrapInQoutes(out.getSchema()));
+        sql.append(".");
+        sql.append(this.maybeWrapInQoutes(EDGE_PREFIX + edgeLabel));
+        sql.append(" (");
+        sql.append(this.maybeWrapInQoutes(out.getSchema() + "." + out.getTable() + Topology.OUT_VERTEX_COLUMN_END));
+        sql.append(",");
+        sql.append(this.maybeWrapInQoutes(in.getSchema() + "." + in.getTable() + Topology.IN_VERTEX_COLUMN_END));
+        edgePropertyMap.keySet().forEach(k -> sql.append(',').append(this.maybeWrapInQoutes(k)));
+        sql.append(") \n");
+        sql.append("select _out.\"ID\" as \"");
+        sql.append(out.getSchema() + "." + out.getTable() + Topology.OUT_VERTEX_COLUMN_END);
+        sql.append("\", _in.\"ID\" as \"");
+        sql.append(in.getSchema() + "." + in.getTable() + Topology.IN_VERTEX_COLUMN_END);
+        sql.append("\"");
+        edgePropertyMap.forEach((k, v) -> {
+            sql.append(',');
+            sql.append(this.valueToValuesString(edgeColumns.get(k), v));
+            sql.append(" as ");
+            sql.append(this.maybeWrapInQoutes(k));
+        });
+        sql.append(" FROM ");
+        sql.append(this.maybeWrapInQoutes(in.getSchema()));
+        sql.append(".");
+        sql.append(this.maybeWrapInQoutes(VERTEX_PREFIX + in.getTable()));
+        sql.append(" _in join ");
+        sql.append(this.maybeWrapInQoutes(tmpTableIdentified) + " ab on ab.in = _in." + this.maybeWrapInQoutes(idFields.getRight()) + " join ");
+        sql.append(this.maybeWrapInQoutes(out.getSchema()));
+        sql.append(".");
+        sql.append(this.maybeWrapInQoutes(VERTEX_PREFIX + out.getTable()));
+        sql.append(" _out on ab.out = _out." + this.maybeWrapInQoutes(idFields.getLeft()));
+        if (logger.isDebugEnabled()) {
+            logger.debug(sql.toString());
+        }
+        return sql.toString();
+    }
+
     @Override
     public void lockTable(SqlgGraph sqlgGraph, SchemaTable schemaTable, String prefix) {
         Preconditions.checkArgument(prefix.equals(VERTEX_PREFIX) || prefix.equals(EDGE_PREFIX), "prefix must be " + VERTEX_PREFIX + " or " + EDGE_PREFIX);
@@ -2834,6 +3060,51 @@ public class PostgresDialect extends BaseSqlDialect implements SqlBulkDialect {
         return true;
     }
 
+    @Override
+    public boolean supportsBulkWithinOutArrayParameter() {
+        return true;
+    }
+
+    @Override
+    public String bulkWithinOutArrayParameter(boolean within, PropertyType propertyType) {
+        return (within ? " = ANY(?::" : " <> ALL(?::") + propertyTypeToSqlDefinition(propertyType)[0] + "[])";
+    }
+
+    @Override
+    public boolean supportsBulkWithinOutTemporaryTable() {
+        return true;
+    }
+
+    /**
+     * Copies the values into the temporary table and analyzes it.
+     * Without statistics the planner assumes a small table and does not pick a hash join.
+     */
+    @Override
+    public void loadBulkWithinOutTemporaryTable(SqlgGraph sqlgGraph, String table, String column, PropertyType propertyType, Object[] values, boolean create) {
+        prepareBulkWithinOutTemporaryTable(sqlgGraph, table, column, propertyType, create);
+        String copySql = "COPY " + maybeWrapInQoutes(table) + " (" + column + ") FROM stdin CSV DELIMITER '" + COPY_COMMAND_DELIMITER + "' " +
+                "QUOTE " + COPY_COMMAND_QUOTE + " ESCAPE '" + ESCAPE + "';";
+        String analyzeSql = "ANALYZE " + maybeWrapInQoutes(table) + ";";
+        if (logger.isDebugEnabled()) {
+            logger.debug(copySql);
+            logger.debug(analyzeSql);
+        }
+        try (Writer writer = streamSql(sqlgGraph, copySql)) {
+            for (Object value : values) {
+                writer.write(valueToStringForBulkLoad(propertyType, value));
+                writer.write("\n");
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        Connection conn = sqlgGraph.tx().getConnection();
+        try (Statement statement = conn.createStatement()) {
+            statement.execute(analyzeSql);
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     @Override
     public boolean isPostgresql() {
         return true;
@@ -3126,6 +3397,38 @@ public class PostgresDialect extends BaseSqlDialect implements SqlBulkDialect {
         }
     }
 
+    /**
+     * Takes a transaction level advisory lock on the key. The key's String.hashCode() is the same in every jvm,
+     * keys with the same hash code only lock more than needed.
+     */
+    @Override
+    public void lock(SqlgGraph sqlgGraph, String key, boolean exclusive) {
+        advisoryLock(sqlgGraph, key, exclusive ? "pg_advisory_xact_lock" : "pg_advisory_xact_lock_shared");
+    }
+
+    @Override
+    public boolean tryLock(SqlgGraph sqlgGraph, String key, boolean exclusive) {
+        return advisoryLock(sqlgGraph, key, exclusive ? "pg_try_advisory_xact_lock" : "pg_try_advisory_xact_lock_shared");
+    }
+
+    private boolean advisoryLock(SqlgGraph sqlgGraph, String key, String function) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("{} '{}'", function, key);
+        }
+        Connection conn = sqlgGraph.tx().getConnection();
+        try (PreparedStatement preparedStatement = conn.prepareStatement("SELECT " + function + "(?, ?)")) {
+            preparedStatement.setInt(1, TOPOLOGY_LOCK_CLASS);
+            preparedStatement.setInt(2, key.hashCode());
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                resultSet.next();
+                //the blocking functions return void
+                return !function.startsWith("pg_try_") || resultSet.getBoolean(1);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     @Override
     public void registerListener(SqlgGraph sqlgGraph) {
         this.executorService = Executors.newSingleThreadExecutor(r -> new Thread(r, "Sqlg notification merge " + sqlgGraph.toString()));
@@ -3134,7 +3437,7 @@ public class PostgresDialect extends BaseSqlDialect implements SqlBulkDialect {
         try {
             Semaphore listeningSemaphore = new Semaphore(1);
             listener = new TopologyChangeListener(sqlgGraph, listeningSemaphore);
-            this.future = scheduledExecutorService.schedule(listener, 500, MILLISECONDS);
+            this.future = scheduledExecutorService.schedule(listener, 0, MILLISECONDS);
             //block here to only return once the listener is listening.
             listeningSemaphore.acquire();
             listeningSemaphore.tryAcquire(5, TimeUnit.MINUTES);
@@ -3154,6 +3457,12 @@ public class PostgresDialect extends BaseSqlDialect implements SqlBulkDialect {
         this.executorService.shutdownNow();
     }
 
+    @Override
+    public String getListenerStatsAsJson() {
+        TopologyChangeListener topologyChangeListener = this.listener;
+        return topologyChangeListener == null ? "{\"connected\":false}" : topologyChangeListener.getStatsAsJson();
+    }
+
     @Override
     public int notifyChange(SqlgGraph sqlgGraph, LocalDateTime timestamp, JsonNode jsonNode) {
         Connection connection = sqlgGraph.tx().getConnection();
@@ -3191,19 +3500,50 @@ public class PostgresDialect extends BaseSqlDialect implements SqlBulkDialect {
         }
     }
 
+    @Override
+    public void notifyVertexCacheInvalidation(SqlgGraph sqlgGraph, Collection<RecordId> recordIds) {
+        Connection connection = sqlgGraph.tx().getConnection();
+        try (PreparedStatement preparedStatement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            for (String notification : VertexCache.toNotifications(recordIds)) {
+                preparedStatement.setString(1, VertexCache.VERTEX_CACHE_NOTIFICATION_CHANNEL);
+                preparedStatement.setString(2, notification);
+                preparedStatement.executeQuery().close();
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     /**
-     * Listens to topology changes notifications from the database and loads the changes into our own version of the schema
+     * Listens to topology changes notifications from the database and loads the changes into our own version of the schema.
+     * The listener owns a connection that is not part of the pool, it LISTENs once and then blocks in
+     * {@link PGConnection#getNotifications(int)} until a notification arrives, there is no polling.
+     * If the connection is lost it reconnects with an exponential backoff and then reads the logs of the notifications
+     * it missed meanwhile.
      */
     private class TopologyChangeListener implements Runnable {
 
-        private SqlgGraph sqlgGraph;
-        private Semaphore semaphore;
+        //how long getNotifications blocks before checking if the listener must stop.
+        private static final int NOTIFICATION_TIMEOUT = 1000;
+        //how long the connection may be silent before it is validated.
+        private static final long VALIDATION_INTERVAL = 30_000;
+        private static final long MIN_BACKOFF = 100;
+        private static final long MAX_BACKOFF = 30_000;
+
+        private final SqlgGraph sqlgGraph;
+        private final Semaphore semaphore;
         /**
          * should we keep running?
          */
-        private AtomicBoolean run = new AtomicBoolean(true);
-
-        TopologyChangeListener(SqlgGraph sqlgGraph, Semaphore semaphore) throws SQLException {
+        private final AtomicBoolean run = new AtomicBoolean(true);
+        private volatile boolean connected = false;
+        private final AtomicLong reconnects = new AtomicLong();
+        private final AtomicLong notifications = new AtomicLong();
+        //epoch millis of the last time the database was heard from, i.e. getNotifications returned or the connection was validated.
+        private volatile long lastContact;
+        private volatile long lastNotification;
+
+        TopologyChangeListener(SqlgGraph sqlgGraph, Semaphore semaphore) {
             this.sqlgGraph = sqlgGraph;
             this.semaphore = semaphore;
         }
@@ -3214,63 +3554,160 @@ public class PostgresDialect extends BaseSqlDialect implements SqlBulkDialect {
 
         @Override
         public void run() {
+            long backoff = MIN_BACKOFF;
+            boolean listened = false;
+            while (run.get()) {
+                try (Connection connection = listen()) {
+                    this.connected = true;
+                    backoff = MIN_BACKOFF;
+                    if (!listened) {
+                        listened = true;
+                        this.semaphore.release();
+                    } else {
+                        this.reconnects.incrementAndGet();
+                        logger.info(String.format("change listener on graph %s reconnected.", this.sqlgGraph.toString()));
+                        PostgresDialect.this.executorService.submit(this::fromMissedNotifications);
+                    }
+                    receive(connection);
+                } catch (SQLException | RuntimeException e) {
+                    if (!run.get()) {
+                        break;
+                    }
+                    logger.error(String.format("change listener on graph %s lost its connection, reconnecting in %d ms.", this.sqlgGraph.toString(), backoff), e);
+                } finally {
+                    this.connected = false;
+                }
+                try {
+                    if (run.get()) {
+                        Thread.sleep(backoff);
+                        backoff = Math.min(backoff * 2, MAX_BACKOFF);
+                    }
+                } catch (InterruptedException e) {
+                    if (run.get()) {
+                        logger.warn(String.format("change listener on graph %s interrupted.", this.sqlgGraph.toString()));
+                    }
+                    //swallow
+                    break;
+                }
+            }
+        }
+
+        /**
+         * Opens the listener's own connection, in auto commit mode as notifications are not delivered within a transaction.
+         * With a jndi datasource there are no credentials to connect with, then a connection is taken from the pool and never returned.
+         */
+        private Connection listen() throws SQLException {
+            Configuration configuration = this.sqlgGraph.configuration();
+            String jdbcUrl = configuration.getString(SqlgGraph.JDBC_URL);
+            Connection connection;
+            if (JNDIDataSource.isJNDIUrl(jdbcUrl)) {
+                connection = this.sqlgGraph.getSqlgDataSource().getDatasource().getConnection();
+            } else {
+                Properties properties = new Properties();
+                String username = configuration.getString("jdbc.username");
+                String password = configuration.getString("jdbc.password");
+                if (!StringUtils.isEmpty(username)) {
+                    properties.setProperty("user", username);
+                }
+                if (!StringUtils.isEmpty(password)) {
+                    properties.setProperty("password", password);
+                }
+                properties.setProperty("ApplicationName", "Sqlg notification listener");
+                connection = DriverManager.getConnection(jdbcUrl, properties);
+            }
             try {
-                Connection connection = this.sqlgGraph.tx().getConnection();
-                while (run.get()) {
-                    PGConnection pgConnection = connection.unwrap(org.postgresql.PGConnection.class);
-                    Statement stmt = connection.createStatement();
-                    stmt.execute("LISTEN " + SQLG_NOTIFICATION_CHANNEL);
-                    stmt.close();
-                    connection.commit();
-                    this.semaphore.release();
-                    // issue a dummy query to contact the backend
-                    // and receive any pending notifications.
-                    stmt = connection.createStatement();
-                    ResultSet rs = stmt.executeQuery("SELECT 1");
-                    rs.close();
-                    stmt.close();
-                    //Does not work while in a transaction.
-                    connection.rollback();
-                    PGNotification notifications[] = pgConnection.getNotifications();
-                    if (notifications != null) {
-                        for (int i = 0; i < notifications.length; i++) {
-                            int pid = notifications[i].getPID();
-                            String notify = notifications[i].getParameter();
-                            LocalDateTime timestamp = LocalDateTime.parse(notify, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
-                            PostgresDialect.this.executorService.submit(() -> {
-                                try {
-                                    Topology topology = this.sqlgGraph.getTopology();
-                                    //It is possible for the topology to be null when a notification is received just
-                                    // after the connection pool is setup but before the topology is created.
-                                    if (topology != null) {
-                                        topology.fromNotifyJson(pid, timestamp);
-                                    }
-                                } catch (Exception e) {
-                                    // we may get InterruptedException when we shut down
-                                    if (run.get()) {
-                                        logger.error("Error in Postgresql notification", e);
-                                    }
-                                } finally {
-                                    this.sqlgGraph.tx().rollback();
-                                }
-                            });
-                        }
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + SQLG_NOTIFICATION_CHANNEL);
+                    if (this.sqlgGraph.getVertexCache() != null && this.sqlgGraph.getVertexCache().isEnabled()) {
+                        statement.execute("LISTEN \"" + VertexCache.VERTEX_CACHE_NOTIFICATION_CHANNEL + "\"");
                     }
-                    Thread.sleep(500);
                 }
-                this.sqlgGraph.tx().rollback();
+                this.lastContact = System.currentTimeMillis();
+                return connection;
             } catch (SQLException e) {
-                logger.error(String.format("change listener on graph %s error", this.sqlgGraph.toString()), e);
-                this.sqlgGraph.tx().rollback();
-                throw new RuntimeException(e);
-            } catch (InterruptedException e) {
+                connection.close();
+                throw e;
+            }
+        }
+
+        private void receive(Connection connection) throws SQLException {
+            PGConnection pgConnection = connection.unwrap(PGConnection.class);
+            while (run.get()) {
+                PGNotification notifications[] = pgConnection.getNotifications(NOTIFICATION_TIMEOUT);
+                long now = System.currentTimeMillis();
+                if (notifications != null && notifications.length > 0) {
+                    this.lastContact = now;
+                    this.lastNotification = now;
+                    this.notifications.addAndGet(notifications.length);
+                    for (PGNotification notification : notifications) {
+                        dispatch(notification);
+                    }
+                } else if (now - this.lastContact > VALIDATION_INTERVAL) {
+                    //a connection that died silently does not fail getNotifications, it just never returns any.
+                    if (!connection.isValid(NOTIFICATION_TIMEOUT / 1000)) {
+                        throw new SQLException("The notification listener's connection is not valid.");
+                    }
+                    this.lastContact = now;
+                }
+            }
+        }
+
+        private void dispatch(PGNotification notification) {
+            if (VertexCache.VERTEX_CACHE_NOTIFICATION_CHANNEL.equals(notification.getName())) {
+                this.sqlgGraph.getVertexCache().fromNotification(notification.getParameter());
+                return;
+            }
+            int pid = notification.getPID();
+            String notify = notification.getParameter();
+            LocalDateTime timestamp = LocalDateTime.parse(notify, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+            PostgresDialect.this.executorService.submit(() -> {
+                try {
+                    Topology topology = this.sqlgGraph.getTopology();
+                    //It is possible for the topology to be null when a notification is received just
+                    // after the connection pool is setup but before the topology is created.
+                    if (topology != null) {
+                        topology.fromNotifyJson(pid, timestamp);
+                    }
+                } catch (Exception e) {
+                    // we may get InterruptedException when we shut down
+                    if (run.get()) {
+                        logger.error("Error in Postgresql notification", e);
+                    }
+                } finally {
+                    this.sqlgGraph.tx().rollback();
+                }
+            });
+        }
+
+        /**
+         * Runs on the notification merge thread, in order with the notifications received after the reconnect.
+         */
+        private void fromMissedNotifications() {
+            try {
+                if (this.sqlgGraph.getVertexCache() != null && this.sqlgGraph.getVertexCache().isEnabled()) {
+                    this.sqlgGraph.getVertexCache().invalidateAll();
+                }
+                Topology topology = this.sqlgGraph.getTopology();
+                if (topology != null) {
+                    topology.fromMissedNotifications();
+                }
+            } catch (Exception e) {
                 if (run.get()) {
-                    logger.warn(String.format("change listener on graph %s interrupted.", this.sqlgGraph.toString()));
+                    logger.error("Error loading the missed Postgresql notifications", e);
                 }
-                this.sqlgGraph.tx().rollback();
-                //swallow
             }
         }
+
+        String getStatsAsJson() {
+            ObjectNode stats = new ObjectMapper().createObjectNode();
+            stats.put("connected", this.connected);
+            stats.put("reconnects", this.reconnects.get());
+            stats.put("notifications", this.notifications.get());
+            stats.put("lastContact", this.lastContact);
+            stats.put("lastNotification", this.lastNotification);
+            return stats.toString();
+        }
     }
 
     /**
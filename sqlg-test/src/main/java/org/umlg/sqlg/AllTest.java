@@ -4,6 +4,8 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 import org.umlg.sqlg.test.*;
 import org.umlg.sqlg.test.aggregate.TestAggregate;
+import org.umlg.sqlg.test.aggregate.TestDbAggregate;
+import org.umlg.sqlg.test.aggregate.TestDbGroupBy;
 import org.umlg.sqlg.test.aggregate.TestGroupCount;
 import org.umlg.sqlg.test.aggregate.TestMax;
 import org.umlg.sqlg.test.batch.*;
@@ -40,11 +42,17 @@ import org.umlg.sqlg.test.localvertexstep.*;
 import org.umlg.sqlg.test.match.TestMatch;
 import org.umlg.sqlg.test.memory.TestMemoryUsage;
 import org.umlg.sqlg.test.mod.*;
+import org.umlg.sqlg.test.preparedStatement.TestStatementCache;
 import org.umlg.sqlg.test.process.dropstep.TestDropStep;
 import org.umlg.sqlg.test.process.dropstep.TestDropStepBarrier;
 import org.umlg.sqlg.test.process.dropstep.TestDropStepTruncate;
+import org.umlg.sqlg.test.properties.TestCompactProperties;
 import org.umlg.sqlg.test.properties.TestEscapedValues;
+import org.umlg.sqlg.test.properties.TestPropertyUpdateBuffer;
+import org.umlg.sqlg.test.properties.TestRestrictProperties;
 import org.umlg.sqlg.test.remove.TestRemoveEdge;
+import org.umlg.sqlg.test.repeatstep.TestRecursiveRepeatStep;
+import org.umlg.sqlg.test.repeatstep.TestShortestPath;
 import org.umlg.sqlg.test.repeatstep.TestUnoptimizedRepeatStep;
 import org.umlg.sqlg.test.rollback.TestRollback;
 import org.umlg.sqlg.test.sack.TestSack;
@@ -77,9 +85,12 @@ import org.umlg.sqlg.test.where.TestTraversalFilterStepBarrier;
         TestLoadArrayProperties.class,
         TestLoadElementProperties.class,
         TestLoadSchema.class,
+        TestTopologySnapshot.class,
         TestPool.class,
         TestRemoveElement.class,
         TestSetProperty.class,
+        TestPropertyUpdateBuffer.class,
+        TestCompactProperties.class,
         TestVertexCreation.class,
         TestVertexEdgeSameName.class,
         TestVertexNavToEdges.class,
@@ -103,6 +114,7 @@ import org.umlg.sqlg.test.where.TestTraversalFilterStepBarrier;
         TestNewVertex.class,
         TestEdgeCache.class,
         TestVertexCache.class,
+        TestSecondLevelVertexCache.class,
         TestTinkerpopBug.class,
         TestLoadSchemaViaNotify.class,
         TestCreateEdgeBetweenVertices.class,
@@ -117,6 +129,7 @@ import org.umlg.sqlg.test.where.TestTraversalFilterStepBarrier;
         TestGremlinCompileWithInOutV.class,
         TestGremlinCompileV.class,
         TestGremlinCompileGraphStep.class,
+        TestSqlTemplateCache.class,
         TestGremlinCompileGraphV.class,
         TestGremlinCompileWhere.class,
         TestGremlinCompileTextPredicate.class,
@@ -138,6 +151,7 @@ import org.umlg.sqlg.test.where.TestTraversalFilterStepBarrier;
         TestBatchedStreaming.class,
         TestBulkWithin.class,
         TestBulkWithout.class,
+        TestBulkWithinOutStrategy.class,
         TestRemoveProperty.class,
         TestSchemaManagerGetTablesFor.class,
         TestAggregate.class,
@@ -152,6 +166,9 @@ import org.umlg.sqlg.test.where.TestTraversalFilterStepBarrier;
         TestGremlinMod.class,
         TestTopologyUpgrade.class,
         TestTopologyMultipleGraphs.class,
+        TestTopologyStripedLock.class,
+        TestTopologyLock.class,
+        TestTopologyConcurrentChanges.class,
         TestTraversals.class,
         TestGremlinOptional.class,
         TestAlias.class,
@@ -161,6 +178,8 @@ import org.umlg.sqlg.test.where.TestTraversalFilterStepBarrier;
         TestLocalEdgeVertexStep.class,
         TestLocalEdgeOtherVertexStep.class,
         TestBatchNormalDateTime.class,
+        TestBatchBinaryCopy.class,
+        TestBatchMultiRowInsert.class,
         TestBatchEdgeDateTime.class,
         TestBatchJson.class,
         TestMemoryUsage.class,
@@ -235,7 +254,13 @@ import org.umlg.sqlg.test.where.TestTraversalFilterStepBarrier;
         TestDropStepTruncate.class,
         TestTopologyGraph.class,
         TestUnoptimizedRepeatStep.class,
-        TestPropertyReference.class
+        TestPropertyReference.class,
+        TestStatementCache.class,
+        TestDbAggregate.class,
+        TestDbGroupBy.class,
+        TestRestrictProperties.class,
+        TestRecursiveRepeatStep.class,
+        TestShortestPath.class
 
 })
 public class AllTest {
@@ -7,6 +7,8 @@ import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.junit.Assert;
 import org.junit.Assume;
 import org.junit.Test;
+import org.umlg.sqlg.structure.RecordId;
+import org.umlg.sqlg.structure.SqlgExceptions;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -42,9 +44,34 @@ public class TestGetById extends BaseTest {
         Assert.assertEquals(familyEdge, this.sqlgGraph.traversal().E(familyEdge.id()).next());
     }
 
+    @Test
+    public void testRecordIdFromString() {
+        Vertex marko = this.sqlgGraph.addVertex(T.label, "Person", "name", "marko");
+        Vertex john = this.sqlgGraph.addVertex(T.label, "Person", "name", "john");
+        this.sqlgGraph.tx().commit();
+        RecordId markoId = RecordId.from(marko.id().toString());
+        RecordId johnId = RecordId.from(john.id().toString());
+        Assert.assertEquals(marko.id(), markoId);
+        Assert.assertEquals(marko.id().hashCode(), markoId.hashCode());
+        Assert.assertEquals(marko.id().toString(), markoId.toString());
+        Assert.assertNotEquals(markoId, johnId);
+        //record ids of the same table share their label
+        Assert.assertSame(markoId.getSchemaTable(), johnId.getSchemaTable());
+        Assert.assertSame(((RecordId) marko.id()).getSchemaTable(), markoId.getSchemaTable());
+        Assert.assertEquals(marko, this.sqlgGraph.traversal().V(marko.id().toString()).next());
+        for (String invalid : new String[]{"Person", markoId.toString() + RecordId.RECORD_ID_DELIMITER + "1", markoId.getSchemaTable() + RecordId.RECORD_ID_DELIMITER + "a"}) {
+            try {
+                RecordId.from(invalid);
+                Assert.fail("Expected an invalid id for " + invalid);
+            } catch (SqlgExceptions.InvalidIdException e) {
+                //swallow
+            }
+        }
+    }
+
     @Test
     public void testByCollectionOfIds() {
-        Assume.assumeTrue(this.sqlgGraph.getSqlDialect().supportsStreamingBatchMode());
+        Assume.assumeTrue(this.sqlgGraph.getSqlDialect().supportsStreamingWithLockBatchMode());
         StopWatch stopWatch = new StopWatch();
         stopWatch.start();
         this.sqlgGraph.tx().streamingWithLockBatchModeOn();
@@ -0,0 +1,159 @@
+package org.umlg.sqlg.test.aggregate;
+
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.DefaultGraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.CountGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.SumGlobalStep;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Assert;
+import org.junit.Test;
+import org.umlg.sqlg.step.SqlgGraphStep;
+import org.umlg.sqlg.test.BaseTest;
+
+import java.util.function.Function;
+
+/**
+ * Test count, sum, min, max and mean executed on the db.
+ * The results are compared with the same traversal reduced in memory, fold().unfold() prevents the optimization.
+ * Date: 2026/10/17
+ */
+public class TestDbAggregate extends BaseTest {
+
+    @Test
+    public void testCount() {
+        for (int i = 0; i < 10; i++) {
+            this.sqlgGraph.addVertex(T.label, "A", "name", "a" + i);
+        }
+        this.sqlgGraph.tx().commit();
+        DefaultGraphTraversal<Vertex, Long> traversal = (DefaultGraphTraversal<Vertex, Long>) this.sqlgGraph.traversal().V().hasLabel("A").count();
+        Assert.assertEquals(10L, traversal.next().longValue());
+        Assert.assertEquals(2, traversal.getSteps().size());
+        Assert.assertTrue(traversal.getSteps().get(0) instanceof SqlgGraphStep);
+        Assert.assertTrue(traversal.getSteps().get(1) instanceof CountGlobalStep);
+
+        Assert.assertEquals(1L, this.sqlgGraph.traversal().V().hasLabel("A").has("name", "a1").count().next().longValue());
+        Assert.assertEquals(0L, this.sqlgGraph.traversal().V().hasLabel("A").has("name", "x").count().next().longValue());
+        Assert.assertEquals(0L, this.sqlgGraph.traversal().V().hasLabel("X").count().next().longValue());
+        Assert.assertEquals(10L, this.sqlgGraph.traversal().V().count().next().longValue());
+    }
+
+    @Test
+    public void testCountVertexSteps() {
+        Vertex a1 = this.sqlgGraph.addVertex(T.label, "A", "name", "a1", "age", 1);
+        Vertex a2 = this.sqlgGraph.addVertex(T.label, "A", "name", "a2", "age", 2);
+        for (int i = 0; i < 5; i++) {
+            Vertex b = this.sqlgGraph.addVertex(T.label, "B", "name", "b" + i);
+            a1.addEdge("ab", b);
+            a2.addEdge("ab", b);
+            Vertex c = this.sqlgGraph.addVertex(T.label, "C", "name", "c" + i);
+            a1.addEdge("ac", c);
+            b.addEdge("ba", a1);
+        }
+        this.sqlgGraph.tx().commit();
+        assertCount(g -> g.V().hasLabel("A").out());
+        assertCount(g -> g.V().hasLabel("A").out("ab"));
+        assertCount(g -> g.V().hasLabel("A").outE());
+        assertCount(g -> g.V(a1).out().has("name", "c1"));
+        assertCount(g -> g.V().hasLabel("A").out("ab").out("ba"));
+        assertCount(g -> g.V().hasLabel("A").out("ab").out("ba").out("ab"));
+        assertCount(g -> g.V().hasLabel("A").repeat(__.out("ab")).times(1));
+        assertCount(g -> g.E().hasLabel("ab").inV());
+        assertAggregates(g -> g.V().hasLabel("A").out("ab").out("ba").values("age"));
+        assertCount(g -> g.V().hasLabel("A").out("ab").out("ba").values("name"));
+        Assert.assertEquals(15L, this.sqlgGraph.traversal().V().hasLabel("A").out().count().next().longValue());
+        Assert.assertEquals(50L, this.sqlgGraph.traversal().V().hasLabel("A").out("ab").out("ba").out("ab").count().next().longValue());
+    }
+
+    @Test
+    public void testNumericAggregates() {
+        this.sqlgGraph.addVertex(T.label, "A", "age", 1, "weight", 1.5D, "size", 10L, "short", (short) 1);
+        this.sqlgGraph.addVertex(T.label, "A", "age", 2, "weight", 2.5D, "size", 20L, "short", (short) 2);
+        this.sqlgGraph.addVertex(T.label, "A", "name", "noAge");
+        this.sqlgGraph.addVertex(T.label, "B", "age", 7, "weight", 0.5D);
+        this.sqlgGraph.addVertex(T.label, "C", "name", "noAge");
+        this.sqlgGraph.tx().commit();
+        for (String property : new String[]{"age", "weight", "size", "short", "notAProperty"}) {
+            assertAggregates(g -> g.V().hasLabel("A").values(property));
+            assertAggregates(g -> g.V().hasLabel("A", "B", "C").values(property));
+            assertAggregates(g -> g.V().hasLabel("C").values(property));
+            assertAggregates(g -> g.V().hasLabel("X").values(property));
+        }
+
+        DefaultGraphTraversal<Vertex, Number> traversal = (DefaultGraphTraversal<Vertex, Number>) this.sqlgGraph.traversal().V().hasLabel("A", "B").values("age").sum();
+        Assert.assertEquals(10, traversal.next().intValue());
+        Assert.assertEquals(2, traversal.getSteps().size());
+        Assert.assertTrue(traversal.getSteps().get(0) instanceof SqlgGraphStep);
+        Assert.assertTrue(traversal.getSteps().get(1) instanceof SumGlobalStep);
+        Assert.assertEquals(3.3333333D, this.sqlgGraph.traversal().V().hasLabel("A", "B").values("age").mean().next().doubleValue(), 0.00001D);
+        Assert.assertEquals(3L, this.sqlgGraph.traversal().V().hasLabel("A", "B").values("age").count().next().longValue());
+    }
+
+    @Test
+    public void testEdgeAggregates() {
+        Vertex a = this.sqlgGraph.addVertex(T.label, "A");
+        for (int i = 0; i < 10; i++) {
+            Vertex b = this.sqlgGraph.addVertex(T.label, "B", "age", i);
+            a.addEdge("ab", b, "weight", i * 1.5D);
+        }
+        this.sqlgGraph.tx().commit();
+        assertAggregates(g -> g.E().hasLabel("ab").values("weight"));
+        assertAggregates(g -> g.V(a).outE("ab").values("weight"));
+        assertAggregates(g -> g.V(a).out("ab").has("age", 3).values("age"));
+        Assert.assertEquals(67.5D, this.sqlgGraph.traversal().E().hasLabel("ab").values("weight").sum().next().doubleValue(), 0D);
+    }
+
+    @Test
+    public void testStringAggregatesInMemory() {
+        this.sqlgGraph.addVertex(T.label, "A", "name", "a1");
+        this.sqlgGraph.addVertex(T.label, "A", "name", "a2");
+        this.sqlgGraph.addVertex(T.label, "A");
+        this.sqlgGraph.tx().commit();
+        Assert.assertEquals(2L, this.sqlgGraph.traversal().V().hasLabel("A").values("name").count().next().longValue());
+        try {
+            this.sqlgGraph.traversal().V().hasLabel("A").values("name").sum().next();
+            Assert.fail("The sum of strings must fail as it does in memory.");
+        } catch (ClassCastException e) {
+            //expected, strings are aggregated in memory
+        }
+    }
+
+    @Test
+    public void testCountInNormalBatchMode() {
+        if (this.sqlgGraph.getSqlDialect().supportsBatchMode()) {
+            this.sqlgGraph.tx().normalBatchModeOn();
+        }
+        for (int i = 0; i < 10; i++) {
+            this.sqlgGraph.addVertex(T.label, "A", "age", i);
+        }
+        Assert.assertEquals(10L, this.sqlgGraph.traversal().V().hasLabel("A").count().next().longValue());
+        Assert.assertEquals(45, this.sqlgGraph.traversal().V().hasLabel("A").values("age").sum().next().intValue());
+        this.sqlgGraph.tx().commit();
+    }
+
+    private void assertCount(Function<GraphTraversalSource, GraphTraversal<?, ?>> traversal) {
+        Assert.assertEquals(
+                traversal.apply(this.sqlgGraph.traversal()).fold().unfold().count().next(),
+                traversal.apply(this.sqlgGraph.traversal()).count().next()
+        );
+    }
+
+    private void assertAggregates(Function<GraphTraversalSource, GraphTraversal<?, Object>> traversal) {
+        assertEqualResults(traversal.apply(this.sqlgGraph.traversal()).fold().unfold().count(), traversal.apply(this.sqlgGraph.traversal()).count());
+        assertEqualResults(traversal.apply(this.sqlgGraph.traversal()).fold().unfold().sum(), traversal.apply(this.sqlgGraph.traversal()).sum());
+        assertEqualResults(traversal.apply(this.sqlgGraph.traversal()).fold().unfold().min(), traversal.apply(this.sqlgGraph.traversal()).min());
+        assertEqualResults(traversal.apply(this.sqlgGraph.traversal()).fold().unfold().max(), traversal.apply(this.sqlgGraph.traversal()).max());
+        GraphTraversal<?, Number> inMemoryMean = traversal.apply(this.sqlgGraph.traversal()).fold().unfold().mean();
+        GraphTraversal<?, Number> mean = traversal.apply(this.sqlgGraph.traversal()).mean();
+        Assert.assertEquals(inMemoryMean.hasNext(), mean.hasNext());
+        if (mean.hasNext()) {
+            Assert.assertEquals(inMemoryMean.next().doubleValue(), mean.next().doubleValue(), 0.0000001D);
+        }
+    }
+
+    private void assertEqualResults(GraphTraversal<?, ?> inMemory, GraphTraversal<?, ?> onDb) {
+        Assert.assertEquals(inMemory.toList(), onDb.toList());
+    }
+}
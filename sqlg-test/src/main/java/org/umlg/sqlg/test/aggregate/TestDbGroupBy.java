@@ -0,0 +1,137 @@
+package org.umlg.sqlg.test.aggregate;
+
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.DefaultGraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GroupCountStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GroupStep;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Assert;
+import org.junit.Test;
+import org.umlg.sqlg.step.SqlgGraphStep;
+import org.umlg.sqlg.test.BaseTest;
+
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Test groupCount() and group().by(count()) executed as GROUP BY queries.
+ * The results are compared with the same traversal grouped in memory, fold().unfold() prevents the optimization.
+ * Date: 2026/10/17
+ */
+public class TestDbGroupBy extends BaseTest {
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testGroupCount() {
+        for (int i = 0; i < 10; i++) {
+            this.sqlgGraph.addVertex(T.label, "A", "type", "t" + (i % 3), "age", i % 2);
+        }
+        this.sqlgGraph.tx().commit();
+        DefaultGraphTraversal<Vertex, Map<Object, Long>> traversal = (DefaultGraphTraversal<Vertex, Map<Object, Long>>) this.sqlgGraph.traversal()
+                .V().hasLabel("A").<Object>groupCount().by("type");
+        Map<Object, Long> groupCount = traversal.next();
+        Assert.assertEquals(3, groupCount.size());
+        Assert.assertEquals(4L, groupCount.get("t0").longValue());
+        Assert.assertEquals(3L, groupCount.get("t1").longValue());
+        Assert.assertEquals(3L, groupCount.get("t2").longValue());
+        Assert.assertEquals(2, traversal.getSteps().size());
+        Assert.assertTrue(traversal.getSteps().get(0) instanceof SqlgGraphStep);
+        Assert.assertTrue(traversal.getSteps().get(1) instanceof GroupCountStep);
+
+        assertGroupCount(g -> g.V().hasLabel("A"), "type");
+        assertGroupCount(g -> g.V().hasLabel("A"), "age");
+        assertGroupCount(g -> g.V().hasLabel("A").has("age", 1), "type");
+        assertGroupCount(g -> g.V().hasLabel("X"), "type");
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testGroupByCount() {
+        for (int i = 0; i < 10; i++) {
+            this.sqlgGraph.addVertex(T.label, "A", "type", "t" + (i % 3), "active", i % 2 == 0, "size", (long) (i % 4));
+        }
+        this.sqlgGraph.addVertex(T.label, "B", "type", "t0", "active", true, "size", 1);
+        this.sqlgGraph.tx().commit();
+        DefaultGraphTraversal<Vertex, Map<Object, Long>> traversal = (DefaultGraphTraversal<Vertex, Map<Object, Long>>) this.sqlgGraph.traversal()
+                .V().hasLabel("A", "B").<Object, Long>group().by("type").by(__.count());
+        Map<Object, Long> group = traversal.next();
+        Assert.assertEquals(5L, group.get("t0").longValue());
+        Assert.assertEquals(2, traversal.getSteps().size());
+        Assert.assertTrue(traversal.getSteps().get(1) instanceof GroupStep);
+
+        for (String property : new String[]{"type", "active", "size"}) {
+            assertGroupByCount(g -> g.V().hasLabel("A"), property);
+            assertGroupByCount(g -> g.V().hasLabel("A", "B"), property);
+            assertGroupCount(g -> g.V().hasLabel("A", "B"), property);
+        }
+    }
+
+    @Test
+    public void testGroupCountVertexSteps() {
+        Vertex a1 = this.sqlgGraph.addVertex(T.label, "A", "name", "a1");
+        Vertex a2 = this.sqlgGraph.addVertex(T.label, "A", "name", "a2");
+        for (int i = 0; i < 6; i++) {
+            Vertex b = this.sqlgGraph.addVertex(T.label, "B", "name", "b" + (i % 2));
+            a1.addEdge("ab", b, "weight", i % 3);
+            a2.addEdge("ab", b, "weight", 1);
+            b.addEdge("ba", a1);
+        }
+        this.sqlgGraph.tx().commit();
+        assertGroupCount(g -> g.V().hasLabel("A").out("ab"), "name");
+        assertGroupCount(g -> g.V().hasLabel("A").outE("ab"), "weight");
+        assertGroupCount(g -> g.V().hasLabel("A").out("ab").out("ba"), "name");
+        assertGroupCount(g -> g.V().hasLabel("A").out("ab").out("ba").out("ab"), "name");
+        assertGroupByCount(g -> g.V().hasLabel("A").out("ab").out("ba").out("ab"), "name");
+        assertGroupByCount(g -> g.E().hasLabel("ab"), "weight");
+    }
+
+    @Test
+    public void testGroupCountMissingProperty() {
+        this.sqlgGraph.addVertex(T.label, "A", "type", "t1");
+        this.sqlgGraph.addVertex(T.label, "A");
+        this.sqlgGraph.addVertex(T.label, "B");
+        this.sqlgGraph.tx().commit();
+        for (String label : new String[]{"A", "B"}) {
+            try {
+                this.sqlgGraph.traversal().V().hasLabel(label).groupCount().by("type").next();
+                Assert.fail("Grouping by a property an element does not have must fail as it does in memory.");
+            } catch (IllegalStateException e) {
+                //expected, the elements are grouped in memory
+            }
+        }
+        Assert.assertEquals(1L, this.sqlgGraph.traversal().V().hasLabel("A").has("type").groupCount().by("type").next().get("t1").longValue());
+        Assert.assertTrue(this.sqlgGraph.traversal().V().hasLabel("B").has("type").groupCount().by("type").next().isEmpty());
+    }
+
+    @Test
+    public void testGroupByInMemory() {
+        for (int i = 0; i < 4; i++) {
+            this.sqlgGraph.addVertex(T.label, "A", "type", "t" + (i % 2), "age", i);
+        }
+        this.sqlgGraph.tx().commit();
+        Map<Object, Number> group = this.sqlgGraph.traversal().V().hasLabel("A").<Object, Number>group().by("type").by(__.values("age").sum()).next();
+        Assert.assertEquals(2, group.get("t0").intValue());
+        Assert.assertEquals(4, group.get("t1").intValue());
+        Assert.assertEquals(
+                this.sqlgGraph.traversal().V().hasLabel("A").fold().unfold().group().by("type").next(),
+                this.sqlgGraph.traversal().V().hasLabel("A").group().by("type").next()
+        );
+    }
+
+    private void assertGroupCount(Function<GraphTraversalSource, GraphTraversal<?, ?>> traversal, String propertyKey) {
+        Assert.assertEquals(
+                traversal.apply(this.sqlgGraph.traversal()).fold().unfold().groupCount().by(propertyKey).next(),
+                traversal.apply(this.sqlgGraph.traversal()).groupCount().by(propertyKey).next()
+        );
+    }
+
+    private void assertGroupByCount(Function<GraphTraversalSource, GraphTraversal<?, ?>> traversal, String propertyKey) {
+        Assert.assertEquals(
+                traversal.apply(this.sqlgGraph.traversal()).fold().unfold().group().by(propertyKey).by(__.count()).next(),
+                traversal.apply(this.sqlgGraph.traversal()).group().by(propertyKey).by(__.count()).next()
+        );
+    }
+}
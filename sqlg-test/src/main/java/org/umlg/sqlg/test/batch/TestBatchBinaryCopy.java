@@ -0,0 +1,175 @@
+package org.umlg.sqlg.test.batch;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.*;
+import org.umlg.sqlg.structure.BatchManager;
+import org.umlg.sqlg.structure.RecordId;
+import org.umlg.sqlg.structure.SqlgVertex;
+import org.umlg.sqlg.structure.topology.Topology;
+import org.umlg.sqlg.test.BaseTest;
+
+import java.beans.PropertyVetoException;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.*;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Batch mode with the binary copy format switched on.
+ * Date: 2026/10/17
+ */
+public class TestBatchBinaryCopy extends BaseTest {
+
+    @BeforeClass
+    public static void beforeClass() throws ClassNotFoundException, IOException, PropertyVetoException {
+        BaseTest.beforeClass();
+        configuration.addProperty(BatchManager.BINARY_COPY, true);
+    }
+
+    @Before
+    public void beforeTest() {
+        Assume.assumeTrue(isPostgres());
+    }
+
+    @Test
+    public void testNormalBatchMode() {
+        this.sqlgGraph.tx().normalBatchModeOn();
+        Map<String, Object> properties = properties();
+        List<Vertex> vertices = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            vertices.add(this.sqlgGraph.addVertex("A", properties));
+        }
+        Vertex b = this.sqlgGraph.addVertex(T.label, "B");
+        for (Vertex a : vertices) {
+            ((SqlgVertex) a).addEdgeWithMap("ab", b, properties);
+        }
+        this.sqlgGraph.tx().commit();
+        Assert.assertEquals(100, this.sqlgGraph.traversal().V().hasLabel("A").count().next(), 0);
+        Assert.assertEquals(100, this.sqlgGraph.traversal().E().hasLabel("ab").count().next(), 0);
+        assertProperties(properties, this.sqlgGraph.traversal().V(vertices.get(0)).next());
+        assertProperties(properties, this.sqlgGraph.traversal().V(b).inE("ab").next());
+    }
+
+    @Test
+    public void testNullValues() {
+        this.sqlgGraph.tx().normalBatchModeOn();
+        this.sqlgGraph.addVertex(T.label, "A", "name", "a1", "age", 1);
+        this.sqlgGraph.addVertex(T.label, "A", "name", "a2");
+        this.sqlgGraph.tx().commit();
+        Assert.assertEquals(1, this.sqlgGraph.traversal().V().hasLabel("A").has("age").count().next(), 0);
+        Assert.assertEquals(2, this.sqlgGraph.traversal().V().hasLabel("A").has("name").count().next(), 0);
+    }
+
+    @Test
+    public void testStreamingBatchMode() {
+        this.sqlgGraph.tx().streamingBatchModeOn();
+        Map<String, Object> properties = properties();
+        for (int i = 0; i < 100; i++) {
+            this.sqlgGraph.streamVertex("A", new LinkedHashMap<>(properties));
+        }
+        this.sqlgGraph.tx().flush();
+        for (int i = 0; i < 10; i++) {
+            this.sqlgGraph.streamVertex("B", new LinkedHashMap<>());
+        }
+        this.sqlgGraph.tx().commit();
+        Assert.assertEquals(100, this.sqlgGraph.traversal().V().hasLabel("A").count().next(), 0);
+        Assert.assertEquals(10, this.sqlgGraph.traversal().V().hasLabel("B").count().next(), 0);
+        assertProperties(properties, this.sqlgGraph.traversal().V().hasLabel("A").next());
+
+        List<Vertex> as = this.sqlgGraph.traversal().V().hasLabel("A").toList();
+        Vertex b = this.sqlgGraph.traversal().V().hasLabel("B").next();
+        this.sqlgGraph.tx().streamingBatchModeOn();
+        for (Vertex a : as) {
+            ((SqlgVertex) a).streamEdge("ab", b, new LinkedHashMap<>(properties));
+        }
+        this.sqlgGraph.tx().commit();
+        Assert.assertEquals(100, this.sqlgGraph.traversal().V(b).inE("ab").count().next(), 0);
+        assertProperties(properties, this.sqlgGraph.traversal().V(b).inE("ab").next());
+    }
+
+    @Test
+    public void testBulkAddEdges() {
+        this.sqlgGraph.tx().streamingBatchModeOn();
+        List<Pair<String, String>> uids = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            this.sqlgGraph.streamVertex(T.label, "A", "index", Integer.toString(i));
+        }
+        this.sqlgGraph.tx().flush();
+        for (int i = 0; i < 100; i++) {
+            this.sqlgGraph.streamVertex(T.label, "B", "index", Integer.toString(i));
+            uids.add(Pair.of(Integer.toString(i), Integer.toString(i)));
+        }
+        this.sqlgGraph.tx().flush();
+        this.sqlgGraph.tx().streamingBatchModeOn();
+        this.sqlgGraph.bulkAddEdges("A", "B", "AB", Pair.of("index", "index"), uids);
+        this.sqlgGraph.tx().commit();
+        Assert.assertEquals(100, this.sqlgGraph.traversal().E().hasLabel("AB").count().next(), 0);
+        Assert.assertEquals("5", this.sqlgGraph.traversal().V().hasLabel("A").has("index", "5").out("AB").values("index").next());
+    }
+
+    @Test
+    public void testBulkAddEdgesOnLargeIds() throws SQLException {
+        this.sqlgGraph.getTopology().ensureVertexLabelExist("A");
+        this.sqlgGraph.getTopology().ensureVertexLabelExist("B");
+        this.sqlgGraph.tx().commit();
+        Connection connection = this.sqlgGraph.tx().getConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER SEQUENCE \"public\".\"V_A_ID_seq\" RESTART WITH 3000000000");
+            statement.execute("ALTER SEQUENCE \"public\".\"V_B_ID_seq\" RESTART WITH 4000000000");
+        }
+        this.sqlgGraph.tx().commit();
+        List<Pair<Long, Long>> ids = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Vertex a = this.sqlgGraph.addVertex(T.label, "A", "index", Integer.toString(i));
+            Vertex b = this.sqlgGraph.addVertex(T.label, "B", "index", Integer.toString(9 - i));
+            ids.add(Pair.of(((RecordId) a.id()).getId(), ((RecordId) b.id()).getId()));
+        }
+        this.sqlgGraph.tx().commit();
+        Assert.assertTrue(ids.get(0).getLeft() > Integer.MAX_VALUE);
+        this.sqlgGraph.tx().streamingBatchModeOn();
+        this.sqlgGraph.bulkAddEdges("A", "B", "AB", Pair.of(Topology.ID, Topology.ID), ids);
+        this.sqlgGraph.tx().commit();
+        Assert.assertEquals(10, this.sqlgGraph.traversal().E().hasLabel("AB").count().next(), 0);
+        Assert.assertEquals("7", this.sqlgGraph.traversal().V().hasLabel("A").has("index", "2").out("AB").values("index").next());
+    }
+
+    private static Map<String, Object> properties() {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("aBoolean", true);
+        properties.put("aShort", (short) 1);
+        properties.put("anInteger", 1);
+        properties.put("aLong", 1L);
+        properties.put("aFloat", 1.1F);
+        properties.put("aDouble", 1.1D);
+        properties.put("aString", "a\tb\nc\\d");
+        properties.put("aLocalDate", LocalDate.now());
+        properties.put("aLocalDateTime", LocalDateTime.now().withNano(123456000));
+        properties.put("aZonedDateTime", ZonedDateTime.of(LocalDateTime.now().withNano(0), ZoneId.of("Africa/Johannesburg")));
+        properties.put("aPeriod", Period.of(1, 2, 3));
+        properties.put("aDuration", Duration.ofSeconds(10, 5));
+        properties.put("anIntegerArray", new int[]{1, 2, 3});
+        properties.put("aLongArray", new Long[]{1L, 2L, 3L});
+        properties.put("aStringArray", new String[]{"a", "b", "c"});
+        return properties;
+    }
+
+    private static void assertProperties(Map<String, Object> expected, Element element) {
+        for (Map.Entry<String, Object> entry : expected.entrySet()) {
+            Object value = element.value(entry.getKey());
+            if (entry.getValue().getClass().isArray()) {
+                Assert.assertTrue(entry.getKey(), Objects.deepEquals(new Object[]{entry.getValue()}, new Object[]{value}));
+            } else {
+                Assert.assertEquals(entry.getKey(), entry.getValue(), value);
+            }
+        }
+    }
+}
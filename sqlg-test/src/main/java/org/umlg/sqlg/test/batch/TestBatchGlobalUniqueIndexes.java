@@ -194,6 +194,52 @@ public class TestBatchGlobalUniqueIndexes extends BaseTest {
 
     }
 
+    @SuppressWarnings("OptionalGetWithoutIsPresent")
+    @Test
+    public void testGlobalUniqueIndexUpdateOnEdgeNormalBatchMode() {
+        Assume.assumeTrue(this.sqlgGraph.getSqlDialect().supportsBatchMode());
+
+        VertexLabel vertexLabelA = this.sqlgGraph.getTopology().ensureVertexLabelExist("A");
+        VertexLabel vertexLabelB = this.sqlgGraph.getTopology().ensureVertexLabelExist("B");
+        Map<String, PropertyType> properties = new HashMap<>();
+        properties.put("namea", PropertyType.STRING);
+        vertexLabelA.ensureEdgeLabelExist("ab", vertexLabelB, properties);
+        Collection<PropertyColumn> propertyColumns = this.sqlgGraph.getTopology().getPublicSchema().getEdgeLabel("ab").get().getProperties().values();
+        this.sqlgGraph.getTopology().ensureGlobalUniqueIndexExist(new HashSet<>(propertyColumns));
+        this.sqlgGraph.tx().commit();
+
+        Vertex a1 = this.sqlgGraph.addVertex(T.label, "A");
+        Vertex b1 = this.sqlgGraph.addVertex(T.label, "B");
+        Edge edge1 = a1.addEdge("ab", b1, "namea", "a");
+        Edge edge2 = a1.addEdge("ab", b1, "namea", "b");
+        this.sqlgGraph.tx().commit();
+
+        this.sqlgGraph.tx().normalBatchModeOn();
+        edge1.property("namea", "aa");
+        edge2.property("namea", "bb");
+        this.sqlgGraph.tx().commit();
+
+        List<Vertex> globalUniqueIndexVertexes = this.sqlgGraph.globalUniqueIndexes().V().toList();
+        Assert.assertEquals(2, globalUniqueIndexVertexes.size());
+        Set<String> values = new HashSet<>();
+        for (Vertex globalUniqueIndexVertex : globalUniqueIndexVertexes) {
+            values.add(globalUniqueIndexVertex.value(GlobalUniqueIndex.GLOBAL_UNIQUE_INDEX_VALUE));
+        }
+        Assert.assertEquals(new HashSet<>(Arrays.asList("aa", "bb")), values);
+
+        //the old values are free again, the new ones are taken.
+        a1.addEdge("ab", b1, "namea", "a");
+        this.sqlgGraph.tx().commit();
+        try {
+            a1.addEdge("ab", b1, "namea", "bb");
+            this.sqlgGraph.tx().commit();
+            Assert.fail("GlobalUniqueIndex should prevent this from executing");
+        } catch (Exception e) {
+            //swallow
+        }
+        this.sqlgGraph.tx().rollback();
+    }
+
     @SuppressWarnings("OptionalGetWithoutIsPresent")
     @Test
     public void testGlobalUniqueIndexOnVertexNormalBatchMode() throws InterruptedException {
@@ -0,0 +1,135 @@
+package org.umlg.sqlg.test.batch;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.umlg.sqlg.structure.PropertyType;
+import org.umlg.sqlg.test.BaseTest;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Normal batch mode flushes, the dialects with {@link org.umlg.sqlg.sql.dialect.SqlDialect#batchInsertRowCount(int)} greater than 1
+ * insert them with multi row inserts. The generated ids must map back to the right rows.
+ * <p>
+ * Date: 2026/10/17
+ */
+public class TestBatchMultiRowInsert extends BaseTest {
+
+    @Before
+    public void beforeTest() {
+        Assume.assumeTrue(this.sqlgGraph.getSqlDialect().supportsBatchMode());
+    }
+
+    @Test
+    public void testVertexAndEdgeIdsMapToTheirRows() {
+        this.sqlgGraph.tx().normalBatchModeOn();
+        List<Vertex> vertices = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            if (i % 3 == 0) {
+                vertices.add(this.sqlgGraph.addVertex(T.label, "A", "index", i));
+            } else {
+                vertices.add(this.sqlgGraph.addVertex(T.label, "A", "index", i, "name", "a" + i));
+            }
+        }
+        List<Edge> edges = new ArrayList<>();
+        for (int i = 1; i < vertices.size(); i++) {
+            edges.add(vertices.get(i - 1).addEdge("next", vertices.get(i), "index", i));
+        }
+        this.sqlgGraph.tx().commit();
+
+        Set<Object> ids = new HashSet<>();
+        for (int i = 0; i < vertices.size(); i++) {
+            Assert.assertTrue(ids.add(vertices.get(i).id()));
+            Vertex vertex = this.sqlgGraph.traversal().V(vertices.get(i).id()).next();
+            Assert.assertEquals(i, (int) vertex.value("index"));
+            if (i % 3 == 0) {
+                Assert.assertFalse(vertex.property("name").isPresent());
+            } else {
+                Assert.assertEquals("a" + i, vertex.value("name"));
+            }
+        }
+        for (int i = 0; i < edges.size(); i++) {
+            Edge edge = this.sqlgGraph.traversal().E(edges.get(i).id()).next();
+            Assert.assertEquals(i + 1, (int) edge.value("index"));
+            Assert.assertEquals(vertices.get(i), edge.outVertex());
+            Assert.assertEquals(vertices.get(i + 1), edge.inVertex());
+        }
+    }
+
+    /**
+     * Transactions flush into the same table at the same time. With MySql's innodb_autoinc_lock_mode=2 their
+     * auto increment values interleave, each multi row insert must still get its own consecutive ids.
+     */
+    @Test
+    public void testConcurrentFlushes() throws Exception {
+        Assume.assumeTrue(this.sqlgGraph.getSqlDialect().batchInsertRowCount(2) > 1);
+        Map<String, PropertyType> properties = new HashMap<>();
+        properties.put("thread", PropertyType.INTEGER);
+        properties.put("index", PropertyType.INTEGER);
+        this.sqlgGraph.getTopology().ensureVertexLabelExist("A", properties);
+        this.sqlgGraph.tx().commit();
+        int threads = 4;
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        CyclicBarrier start = new CyclicBarrier(threads);
+        try {
+            List<Future<List<Vertex>>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executorService.submit(() -> {
+                    List<Vertex> vertices = new ArrayList<>();
+                    try {
+                        this.sqlgGraph.tx().normalBatchModeOn();
+                        for (int i = 0; i < 3000; i++) {
+                            vertices.add(this.sqlgGraph.addVertex(T.label, "A", "thread", thread, "index", i));
+                        }
+                        start.await();
+                        this.sqlgGraph.tx().commit();
+                    } finally {
+                        this.sqlgGraph.tx().rollback();
+                    }
+                    return vertices;
+                }));
+            }
+            Set<Object> ids = new HashSet<>();
+            for (int t = 0; t < threads; t++) {
+                List<Vertex> vertices = futures.get(t).get(1, TimeUnit.MINUTES);
+                for (int i = 0; i < vertices.size(); i++) {
+                    Assert.assertTrue(ids.add(vertices.get(i).id()));
+                    Vertex vertex = this.sqlgGraph.traversal().V(vertices.get(i).id()).next();
+                    Assert.assertEquals(t, (int) vertex.value("thread"));
+                    Assert.assertEquals(i, (int) vertex.value("index"));
+                }
+            }
+            Assert.assertEquals(threads * 3000, this.sqlgGraph.traversal().V().hasLabel("A").count().next(), 0L);
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    /**
+     * The rows are larger than MySql's default max_allowed_packet of 4MB together, the inserts must be cut by size.
+     */
+    @Test
+    public void testLargeRows() {
+        this.sqlgGraph.tx().normalBatchModeOn();
+        List<Vertex> vertices = new ArrayList<>();
+        for (int i = 0; i < 1500; i++) {
+            vertices.add(this.sqlgGraph.addVertex(T.label, "A", "index", i, "text", StringUtils.repeat((char) ('a' + i % 26), 4000)));
+        }
+        this.sqlgGraph.tx().commit();
+
+        Assert.assertEquals(1500, this.sqlgGraph.traversal().V().hasLabel("A").count().next(), 0L);
+        for (int i = 0; i < vertices.size(); i++) {
+            Vertex vertex = this.sqlgGraph.traversal().V(vertices.get(i).id()).next();
+            Assert.assertEquals(i, (int) vertex.value("index"));
+            Assert.assertEquals(StringUtils.repeat((char) ('a' + i % 26), 4000), vertex.value("text"));
+        }
+    }
+}
@@ -18,6 +18,7 @@ import org.umlg.sqlg.test.BaseTest;
 import java.beans.PropertyVetoException;
 import java.io.IOException;
 import java.util.*;
+import java.util.stream.IntStream;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -97,6 +98,52 @@ public class TestBatchServerSideEdgeCreation extends BaseTest {
         assertEquals(100, sqlgGraph.traversal().V().hasLabel("A.A").out().count().next(), 0);
     }
 
+    @Test
+    public void testBulkEdgesFromStream() throws InterruptedException {
+        this.sqlgGraph.tx().normalBatchModeOn();
+        for (int i = 0; i < 10; i++) {
+            this.sqlgGraph.addVertex(T.label, "A", "index", Integer.toString(i));
+        }
+        for (int i = 0; i < 100; i++) {
+            this.sqlgGraph.addVertex(T.label, "B", "index", Integer.toString(i));
+        }
+        this.sqlgGraph.tx().commit();
+        this.sqlgGraph.tx().streamingBatchModeOn();
+        //chunks that do not divide the pairs evenly
+        this.sqlgGraph.tx().getBatchManager().setBulkEdgesChunkSize(7);
+        this.sqlgGraph.bulkAddEdges("A", "B", "AB", Pair.of("index", "index"),
+                IntStream.range(0, 100).mapToObj(i -> Pair.of(Integer.toString(i / 10), Integer.toString(i))),
+                "x", "y");
+        this.sqlgGraph.tx().commit();
+
+        testBulkEdges_assert(this.sqlgGraph);
+        if (this.sqlgGraph1 != null) {
+            Thread.sleep(SLEEP_TIME);
+            testBulkEdges_assert(this.sqlgGraph1);
+        }
+    }
+
+    @Test
+    public void testBulkEdgesFromIterator() {
+        this.sqlgGraph.tx().normalBatchModeOn();
+        this.sqlgGraph.addVertex(T.label, "A", "index", 1);
+        for (int i = 0; i < 1000; i++) {
+            this.sqlgGraph.addVertex(T.label, "B", "index", i);
+        }
+        this.sqlgGraph.tx().commit();
+        this.sqlgGraph.tx().streamingBatchModeOn();
+        this.sqlgGraph.tx().getBatchManager().setBulkEdgesChunkSize(100);
+        Iterator<Pair<Integer, Integer>> uids = IntStream.range(0, 1000).mapToObj(i -> Pair.of(1, i)).iterator();
+        this.sqlgGraph.bulkAddEdges("A", "B", "AB", Pair.of("index", "index"), uids);
+        this.sqlgGraph.tx().commit();
+        assertEquals(1000, this.sqlgGraph.traversal().V().hasLabel("A").out("AB").count().next(), 0);
+        //an empty iterator does nothing
+        this.sqlgGraph.tx().streamingBatchModeOn();
+        this.sqlgGraph.bulkAddEdges("A", "B", "AB", Pair.of("index", "index"), Collections.<Pair<Integer, Integer>>emptyIterator());
+        this.sqlgGraph.tx().commit();
+        assertEquals(1000, this.sqlgGraph.traversal().E().hasLabel("AB").count().next(), 0);
+    }
+
     @Test
     public void testBulkEdges2() throws InterruptedException {
         StopWatch stopWatch = new StopWatch();
@@ -205,8 +252,9 @@ public class TestBatchServerSideEdgeCreation extends BaseTest {
 
         this.sqlgGraph.tx().streamingBatchModeOn();
         List<Pair<String, Integer>> ids = new ArrayList<>();
-        ids.add(Pair.of("a", 1));
-        ids.add(Pair.of("b", 1));
+        int virtualGroupId = ((RecordId) virtualGroup.id()).getId().intValue();
+        ids.add(Pair.of("a", virtualGroupId));
+        ids.add(Pair.of("b", virtualGroupId));
         this.sqlgGraph.bulkAddEdges("RealWorkspaceElement", "VirtualGroup", "realWorkspaceElement_virtualGroup", Pair.of("cmUid", "ID"), ids);
         this.sqlgGraph.tx().commit();
 
@@ -225,6 +273,7 @@ public class TestBatchServerSideEdgeCreation extends BaseTest {
 
     @Test
     public void testOnIds() throws InterruptedException {
+        Assume.assumeTrue(sqlgGraph.getSqlDialect().supportsStreamingWithLockBatchMode());
         StopWatch stopWatch = new StopWatch();
         stopWatch.start();
         Vertex virtualGroup = sqlgGraph.addVertex(T.label, "VirtualGroup", "name", "halo");
@@ -47,7 +47,10 @@ public class TestBatchStreamTemporaryVertex extends BaseTest {
         int count = 0;
         Connection conn = this.sqlgGraph.tx().getConnection();
         try (PreparedStatement s = conn.prepareStatement("select * from \"V_halo\"")) {
-            Assert.assertEquals("", s.getMetaData().getSchemaName(1));
+            //hsqldb declares local temporary tables in its MODULE schema
+            if (isPostgres()) {
+                Assert.assertEquals("", s.getMetaData().getSchemaName(1));
+            }
             ResultSet resultSet = s.executeQuery();
             while (resultSet.next()) {
                 count++;
@@ -62,6 +65,8 @@ public class TestBatchStreamTemporaryVertex extends BaseTest {
     //Testing issue #226
     @Test
     public void testStreamTemporaryVertexMultipleThreads() throws InterruptedException {
+        //H2's temporary tables are in the public schema, the temporary V_halo can not exist next to the vertex label's.
+        Assume.assumeFalse(this.sqlgGraph.getSqlDialect().getClass().getSimpleName().contains("H2"));
 
         VertexLabel haloVertexLabel = this.sqlgGraph.getTopology().ensureVertexLabelExist("halo");
         haloVertexLabel.ensurePropertiesExist(new HashMap<String, PropertyType>() {{
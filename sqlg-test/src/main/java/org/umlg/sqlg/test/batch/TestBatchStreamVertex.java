@@ -335,6 +335,8 @@ public class TestBatchStreamVertex extends BaseTest {
 
     @Test
     public void testStreamingRollback() throws InterruptedException {
+        //creating the Female label commits the transaction if the schema is not transactional
+        Assume.assumeTrue(this.sqlgGraph.getSqlDialect().supportsTransactionalSchema());
         this.sqlgGraph.tx().streamingBatchModeOn();
         LinkedHashMap<String, Object> keyValues = new LinkedHashMap<>();
         keyValues.put("name", "halo");
@@ -611,6 +613,7 @@ public class TestBatchStreamVertex extends BaseTest {
 
     @Test
     public void testStreamFloatArray() throws InterruptedException {
+        Assume.assumeTrue(this.sqlgGraph.getSqlDialect().supportsFloatArrayValues());
         this.sqlgGraph.tx().streamingBatchModeOn();
         float[] floatArray = new float[]{11,11f, 22.22f};
         for (int i = 0; i < 10; i++) {
@@ -873,6 +876,7 @@ public class TestBatchStreamVertex extends BaseTest {
 
     @Test(expected = SqlgExceptions.InvalidPropertyTypeException.class)
     public void testStreamJsonAsArray() {
+        Assume.assumeFalse(this.sqlgGraph.getSqlDialect().supportsJsonArrayValues());
         ObjectMapper objectMapper =  new ObjectMapper();
         ObjectNode json1 = new ObjectNode(objectMapper.getNodeFactory());
         json1.put("username", "john1");
@@ -66,6 +66,7 @@ public class TestBatchedStreaming extends BaseTest {
 
     @Test
     public void testStreamingWithBatchSize() throws InterruptedException {
+        Assume.assumeTrue(this.sqlgGraph.getSqlDialect().supportsStreamingWithLockBatchMode());
         int BATCH_SIZE = 100;
         StopWatch stopWatch = new StopWatch();
         stopWatch.start();
@@ -128,6 +129,7 @@ public class TestBatchedStreaming extends BaseTest {
 
     @Test
     public void testStreamingWithBatchSizeNonDefaultSchema() throws InterruptedException {
+        Assume.assumeTrue(this.sqlgGraph.getSqlDialect().supportsStreamingWithLockBatchMode());
         final int BATCH_SIZE = 1000;
         StopWatch stopWatch = new StopWatch();
         stopWatch.start();
@@ -187,6 +189,7 @@ public class TestBatchedStreaming extends BaseTest {
 
     @Test
     public void testStreamingWithBatchSizeWithCallBack() throws InterruptedException {
+        Assume.assumeTrue(this.sqlgGraph.getSqlDialect().supportsStreamingWithLockBatchMode());
         LinkedHashMap properties = new LinkedHashMap();
         List<Vertex> persons = new ArrayList<>();
         this.sqlgGraph.tx().streamingWithLockBatchModeOn();
@@ -236,6 +239,7 @@ public class TestBatchedStreaming extends BaseTest {
 
     @Test
     public void testBatchContinuations() throws InterruptedException {
+        Assume.assumeTrue(this.sqlgGraph.getSqlDialect().supportsStreamingWithLockBatchMode());
         this.sqlgGraph.tx().normalBatchModeOn();
         Vertex v1 = this.sqlgGraph.addVertex(T.label, "Person");
         Vertex v2 = this.sqlgGraph.addVertex(T.label, "Dog");
@@ -273,4 +277,45 @@ public class TestBatchedStreaming extends BaseTest {
         this.sqlgGraph.tx().commit();
     }
 
+    @Test
+    public void testStreamingWithLockInsertBatchSize() {
+        Assume.assumeTrue(this.sqlgGraph.getSqlDialect().supportsStreamingWithLockBatchMode());
+        this.sqlgGraph.addVertex(T.label, "Person", "name", "existing");
+        this.sqlgGraph.tx().commit();
+        this.sqlgGraph.tx().streamingWithLockBatchModeOn();
+        //batches that do not divide the elements evenly
+        this.sqlgGraph.tx().getBatchManager().setStreamingInsertBatchSize(7);
+        List<Vertex> persons = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            persons.add(this.sqlgGraph.addVertex(T.label, "Person", "name", "p" + i));
+        }
+        this.sqlgGraph.tx().flush();
+        for (int i = 1; i < 100; i++) {
+            persons.get(i - 1).addEdge("next", persons.get(i), "index", i);
+        }
+        this.sqlgGraph.tx().commit();
+        Vertex after = this.sqlgGraph.addVertex(T.label, "Person", "name", "after");
+        this.sqlgGraph.tx().commit();
+
+        assertEquals(102, this.sqlgGraph.traversal().V().hasLabel("Person").count().next(), 0L);
+        assertEquals(99, this.sqlgGraph.traversal().E().hasLabel("next").count().next(), 0L);
+        for (int i = 0; i < 100; i++) {
+            assertEquals("p" + i, this.sqlgGraph.traversal().V(persons.get(i).id()).values("name").next());
+        }
+        assertEquals("p50", this.sqlgGraph.traversal().V(persons.get(49).id()).out("next").values("name").next());
+        assertEquals(50, this.sqlgGraph.traversal().V(persons.get(49).id()).outE("next").values("index").next());
+        assertEquals("after", this.sqlgGraph.traversal().V(after.id()).values("name").next());
+    }
+
+
+    @Test
+    public void testStreamingWithLockNotSupported() {
+        Assume.assumeFalse(this.sqlgGraph.getSqlDialect().supportsStreamingWithLockBatchMode());
+        try {
+            this.sqlgGraph.tx().streamingWithLockBatchModeOn();
+            fail("streaming with lock batch mode must fail on " + this.sqlgGraph.getSqlDialect().dialectName());
+        } catch (IllegalStateException e) {
+            //expected
+        }
+    }
 }
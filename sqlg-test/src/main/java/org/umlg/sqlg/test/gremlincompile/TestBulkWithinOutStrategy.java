@@ -0,0 +1,149 @@
+package org.umlg.sqlg.test.gremlincompile;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.umlg.sqlg.sql.dialect.SqlDialect;
+import org.umlg.sqlg.sql.parse.BulkWithinOutStrategy;
+import org.umlg.sqlg.sql.parse.SqlTemplateCache;
+import org.umlg.sqlg.test.BaseTest;
+import org.umlg.sqlg.util.SqlgUtil;
+
+import java.beans.PropertyVetoException;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Test the choice between an 'IN' list, an array parameter, a 'VALUES' expression and a temporary table for P.within and P.without.
+ * <p>
+ * Date: 2026/10/17
+ */
+public class TestBulkWithinOutStrategy extends BaseTest {
+
+    @BeforeClass
+    public static void beforeClass() throws ClassNotFoundException, IOException, PropertyVetoException {
+        BaseTest.beforeClass();
+        configuration.setProperty("bulk.within.count", 1);
+        configuration.addProperty("bulk.within.temporary.table.count", 10);
+        configuration.addProperty(SqlTemplateCache.SQL_TEMPLATE_CACHE_SIZE, 10);
+    }
+
+    @Test
+    public void testStrategy() {
+        SqlDialect sqlDialect = this.sqlgGraph.getSqlDialect();
+        Assume.assumeTrue(sqlDialect.supportsBulkWithinOut());
+        BulkWithinOutStrategy small = sqlDialect.supportsBulkWithinOutArrayParameter() ? BulkWithinOutStrategy.ARRAY : BulkWithinOutStrategy.VALUES;
+        BulkWithinOutStrategy large = sqlDialect.supportsBulkWithinOutTemporaryTable() ? BulkWithinOutStrategy.TEMPORARY_TABLE : small;
+        Assert.assertEquals(BulkWithinOutStrategy.IN, strategy("name", P.within("p0")));
+        Assert.assertEquals(small, strategy("name", P.within("p0", "p1")));
+        Assert.assertEquals(small, strategy("name", P.without(names(0, 10))));
+        Assert.assertEquals(large, strategy("name", P.within(names(0, 11))));
+        Assert.assertEquals(large, strategy(T.id.getAccessor(), P.without(Arrays.asList(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L, 11L))));
+        //values of different types or of a multi column type are inlined
+        Assert.assertEquals(BulkWithinOutStrategy.VALUES, strategy("age", P.within(1, 2L)));
+        Assert.assertEquals(BulkWithinOutStrategy.VALUES, strategy("date", P.within(LocalDate.now(), LocalDate.now().plusDays(1))));
+    }
+
+    @Test
+    public void testWithinWithoutArray() {
+        Assume.assumeTrue(this.sqlgGraph.getSqlDialect().supportsBulkWithinOutArrayParameter());
+        List<Vertex> persons = addPersons();
+        List<Object> ids = persons.subList(0, 5).stream().map(Vertex::id).collect(Collectors.toList());
+        Assert.assertEquals(5, this.sqlgGraph.traversal().V().hasLabel("Person").has("name", P.within(names(0, 5))).toList().size());
+        Assert.assertEquals(95, this.sqlgGraph.traversal().V().hasLabel("Person").has("name", P.without(names(0, 5))).toList().size());
+        Assert.assertEquals(3, this.sqlgGraph.traversal().V().hasLabel("Person").has("age", P.within(1, 2, 3)).toList().size());
+        Assert.assertEquals(3, this.sqlgGraph.traversal().V().hasLabel("Person").has("weight", P.within(1D, 2D, 3D)).toList().size());
+        Assert.assertEquals(3, this.sqlgGraph.traversal().V().hasLabel("Person").has("score", P.within(1L, 2L, 3L)).toList().size());
+        Assert.assertEquals(97, this.sqlgGraph.traversal().V().hasLabel("Person").has("score", P.without(1L, 2L, 3L)).toList().size());
+        Assert.assertEquals(5, this.sqlgGraph.traversal().V().hasLabel("Person").has(T.id, P.within(ids)).toList().size());
+        Assert.assertEquals(95, this.sqlgGraph.traversal().V().hasLabel("Person").has(T.id, P.without(ids)).toList().size());
+        Assert.assertEquals(2, this.sqlgGraph.traversal().V().hasLabel("Person").has("name", P.within("p1", "p2", "p1", "p2")).toList().size());
+        Assert.assertEquals(5, this.sqlgGraph.traversal().V().hasLabel("God").out("creator").has("name", P.within(names(0, 5))).toList().size());
+    }
+
+    @Test
+    public void testArrayTemplateIsSharedBetweenSizes() {
+        Assume.assumeTrue(this.sqlgGraph.getSqlDialect().supportsBulkWithinOutArrayParameter());
+        addPersons();
+        this.sqlgGraph.getSqlTemplateCache().clear();
+        Assert.assertEquals(5, this.sqlgGraph.traversal().V().hasLabel("Person").has("name", P.within(names(0, 5))).toList().size());
+        Assert.assertEquals(7, this.sqlgGraph.traversal().V().hasLabel("Person").has("name", P.within(names(0, 7))).toList().size());
+        Assert.assertEquals(9, this.sqlgGraph.traversal().V().hasLabel("Person").has("name", P.within(names(10, 19))).toList().size());
+        Assert.assertEquals(1, this.sqlgGraph.getSqlTemplateCache().size());
+        Assert.assertEquals(3, this.sqlgGraph.traversal().V().hasLabel("Person").has("age", P.within(1, 2, 3)).toList().size());
+        Assert.assertEquals(2, this.sqlgGraph.getSqlTemplateCache().size());
+    }
+
+    @Test
+    public void testWithinWithoutTemporaryTable() {
+        Assume.assumeTrue(this.sqlgGraph.getSqlDialect().supportsBulkWithinOutTemporaryTable());
+        List<Vertex> persons = addPersons();
+        List<Object> ids = persons.subList(0, 30).stream().map(Vertex::id).collect(Collectors.toList());
+        Assert.assertEquals(50, this.sqlgGraph.traversal().V().hasLabel("Person").has("name", P.within(names(0, 50))).toList().size());
+        Assert.assertEquals(50, this.sqlgGraph.traversal().V().hasLabel("Person").has("name", P.without(names(0, 50))).toList().size());
+        //the temporary tables are reused with other values
+        Assert.assertEquals(20, this.sqlgGraph.traversal().V().hasLabel("Person").has("name", P.within(names(80, 100))).toList().size());
+        Assert.assertEquals(20, this.sqlgGraph.traversal().V().hasLabel("Person").has("age", P.within(range(80, 100))).toList().size());
+        //two temporary tables of the same type in one query
+        Assert.assertEquals(10, this.sqlgGraph.traversal().V().hasLabel("Person")
+                .has("name", P.within(names(0, 50)))
+                .has("name", P.within(names(40, 70)))
+                .toList().size());
+        Assert.assertEquals(30, this.sqlgGraph.traversal().V().hasLabel("Person").has(T.id, P.within(ids)).toList().size());
+        Assert.assertEquals(70, this.sqlgGraph.traversal().V().hasLabel("Person").has(T.id, P.without(ids)).toList().size());
+        List<String> duplicates = new ArrayList<>(names(0, 20));
+        duplicates.addAll(names(0, 20));
+        Assert.assertEquals(20, this.sqlgGraph.traversal().V().hasLabel("Person").has("name", P.within(duplicates)).toList().size());
+        Assert.assertEquals(50, this.sqlgGraph.traversal().V().hasLabel("God").out("creator").has("name", P.within(names(0, 50))).toList().size());
+        Assert.assertEquals(50, this.sqlgGraph.traversal().V().hasLabel("Person").has("name", P.within(names(0, 50))).count().next(), 0);
+        this.sqlgGraph.tx().commit();
+
+        Assert.assertEquals(50, this.sqlgGraph.traversal().V().hasLabel("Person").has("name", P.within(names(50, 100))).toList().size());
+        this.sqlgGraph.traversal().V().hasLabel("Person").has("name", P.within(names(0, 15))).drop().iterate();
+        this.sqlgGraph.tx().commit();
+        Assert.assertEquals(85, this.sqlgGraph.traversal().V().hasLabel("Person").toList().size());
+        this.sqlgGraph.tx().rollback();
+        Assert.assertEquals(5, this.sqlgGraph.traversal().V().hasLabel("Person").has("name", P.within(names(10, 20))).toList().size());
+    }
+
+    private List<Vertex> addPersons() {
+        Vertex god = this.sqlgGraph.addVertex(T.label, "God");
+        List<Vertex> persons = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Vertex person = this.sqlgGraph.addVertex(T.label, "Person", "name", "p" + i, "age", i, "weight", (double) i, "score", (long) i);
+            god.addEdge("creator", person);
+            persons.add(person);
+        }
+        this.sqlgGraph.tx().commit();
+        return persons;
+    }
+
+    private BulkWithinOutStrategy strategy(String key, P<?> predicate) {
+        return SqlgUtil.bulkWithinOutStrategy(this.sqlgGraph, new HasContainer(key, predicate));
+    }
+
+    private static List<String> names(int from, int to) {
+        List<String> names = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            names.add("p" + i);
+        }
+        return names;
+    }
+
+    private static List<Integer> range(int from, int to) {
+        List<Integer> range = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            range.add(i);
+        }
+        return range;
+    }
+}
@@ -0,0 +1,60 @@
+package org.umlg.sqlg.test.gremlincompile;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.umlg.sqlg.sql.parse.SqlTemplateCache;
+import org.umlg.sqlg.test.BaseTest;
+
+import java.beans.PropertyVetoException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Date: 2026/10/17
+ */
+public class TestSqlTemplateCache extends BaseTest {
+
+    @BeforeClass
+    public static void beforeClass() throws ClassNotFoundException, IOException, PropertyVetoException {
+        BaseTest.beforeClass();
+        configuration.addProperty(SqlTemplateCache.SQL_TEMPLATE_CACHE_SIZE, 10);
+    }
+
+    @Test
+    public void testSameStructureDifferentValues() {
+        for (int i = 0; i < 10; i++) {
+            this.sqlgGraph.addVertex(T.label, "Person", "name", "p" + i, "age", i);
+        }
+        this.sqlgGraph.tx().commit();
+        this.sqlgGraph.getSqlTemplateCache().clear();
+        for (int i = 0; i < 10; i++) {
+            List<Vertex> persons = this.sqlgGraph.traversal().V().hasLabel("Person").has("name", "p" + i).toList();
+            Assert.assertEquals(1, persons.size());
+            Assert.assertEquals(i, (int) persons.get(0).value("age"));
+        }
+        Assert.assertEquals(1, this.sqlgGraph.getSqlTemplateCache().size());
+
+        Assert.assertEquals(3, this.sqlgGraph.traversal().V().hasLabel("Person").has("age", P.lt(3)).toList().size());
+        Assert.assertEquals(5, this.sqlgGraph.traversal().V().hasLabel("Person").has("age", P.lt(5)).toList().size());
+        Assert.assertEquals(2, this.sqlgGraph.getSqlTemplateCache().size());
+
+        Assert.assertEquals(2, this.sqlgGraph.traversal().V().hasLabel("Person").has("name", P.within(Arrays.asList("p1", "p2"))).toList().size());
+        Assert.assertEquals(3, this.sqlgGraph.traversal().V().hasLabel("Person").has("name", P.within(Arrays.asList("p1", "p2", "p3"))).toList().size());
+    }
+
+    @Test
+    public void testTopologyChange() {
+        this.sqlgGraph.addVertex(T.label, "Person", "name", "p1");
+        this.sqlgGraph.tx().commit();
+        Assert.assertFalse(this.sqlgGraph.traversal().V().hasLabel("Person").next().property("surname").isPresent());
+
+        this.sqlgGraph.traversal().V().hasLabel("Person").next().property("surname", "s1");
+        this.sqlgGraph.tx().commit();
+        Assert.assertEquals("s1", this.sqlgGraph.traversal().V().hasLabel("Person").next().value("surname"));
+    }
+}
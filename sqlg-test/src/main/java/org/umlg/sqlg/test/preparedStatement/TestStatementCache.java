@@ -0,0 +1,102 @@
+package org.umlg.sqlg.test.preparedStatement;
+
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.umlg.sqlg.structure.PreparedStatementCache;
+import org.umlg.sqlg.test.BaseTest;
+
+import java.beans.PropertyVetoException;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Date: 2026/10/17
+ */
+public class TestStatementCache extends BaseTest {
+
+    @BeforeClass
+    public static void beforeClass() throws ClassNotFoundException, IOException, PropertyVetoException {
+        BaseTest.beforeClass();
+        configuration.addProperty(PreparedStatementCache.STATEMENT_CACHE_SIZE, 2);
+    }
+
+    @Test
+    public void testRepeatedQueryReusesStatement() {
+        Vertex a1 = this.sqlgGraph.addVertex(T.label, "A", "name", "a1");
+        Vertex a2 = this.sqlgGraph.addVertex(T.label, "A", "name", "a2");
+        Vertex b1 = this.sqlgGraph.addVertex(T.label, "B", "name", "b1");
+        a1.addEdge("ab", b1);
+        this.sqlgGraph.tx().commit();
+
+        List<Vertex> vertices = this.sqlgGraph.traversal().V().hasLabel("A").has("name", "a1").out("ab").toList();
+        Assert.assertEquals(1, vertices.size());
+        Assert.assertEquals(b1, vertices.get(0));
+        Assert.assertTrue(this.sqlgGraph.tx().getPreparedStatementCache().isEmpty());
+        Assert.assertEquals(1, this.sqlgGraph.tx().getPreparedStatementCache().statementCacheSize());
+
+        vertices = this.sqlgGraph.traversal().V().hasLabel("A").has("name", "a2").out("ab").toList();
+        Assert.assertEquals(0, vertices.size());
+        Assert.assertEquals(1, this.sqlgGraph.tx().getPreparedStatementCache().statementCacheSize());
+
+        vertices = this.sqlgGraph.traversal().V().hasLabel("A").has("name", "a1").out("ab").toList();
+        Assert.assertEquals(1, vertices.size());
+        Assert.assertEquals(1, this.sqlgGraph.tx().getPreparedStatementCache().statementCacheSize());
+
+        this.sqlgGraph.tx().commit();
+        Assert.assertEquals(0, this.sqlgGraph.tx().getPreparedStatementCache().statementCacheSize());
+        Assert.assertEquals(a2, this.sqlgGraph.traversal().V().hasLabel("A").has("name", "a2").next());
+    }
+
+    @Test
+    public void testEviction() {
+        this.sqlgGraph.addVertex(T.label, "A", "name", "a");
+        this.sqlgGraph.addVertex(T.label, "B", "name", "b");
+        this.sqlgGraph.addVertex(T.label, "C", "name", "c");
+        this.sqlgGraph.tx().commit();
+        Assert.assertEquals(1, this.sqlgGraph.traversal().V().hasLabel("A").toList().size());
+        Assert.assertEquals(1, this.sqlgGraph.traversal().V().hasLabel("B").toList().size());
+        Assert.assertEquals(1, this.sqlgGraph.traversal().V().hasLabel("C").toList().size());
+        Assert.assertEquals(2, this.sqlgGraph.tx().getPreparedStatementCache().statementCacheSize());
+        Assert.assertEquals(1, this.sqlgGraph.traversal().V().hasLabel("A").toList().size());
+        this.sqlgGraph.tx().rollback();
+    }
+
+    @Test
+    public void testTopologyChangeInvalidatesCache() {
+        this.sqlgGraph.addVertex(T.label, "A", "name", "a");
+        this.sqlgGraph.tx().commit();
+        Assert.assertEquals(1, this.sqlgGraph.traversal().V().hasLabel("A").toList().size());
+        Assert.assertEquals(1, this.sqlgGraph.tx().getPreparedStatementCache().statementCacheSize());
+        this.sqlgGraph.addVertex(T.label, "A", "surname", "b");
+        Assert.assertEquals(0, this.sqlgGraph.tx().getPreparedStatementCache().statementCacheSize());
+        this.sqlgGraph.tx().commit();
+        Assert.assertEquals(2, this.sqlgGraph.traversal().V().hasLabel("A").toList().size());
+    }
+
+    @Test
+    public void testTopologyChangeOnAnotherThreadInvalidatesCache() throws InterruptedException {
+        //hsqldb's ddl waits for the open transaction
+        Assume.assumeFalse(this.sqlgGraph.getSqlDialect().isHsqldb());
+        this.sqlgGraph.addVertex(T.label, "A", "name", "a");
+        this.sqlgGraph.tx().commit();
+        Assert.assertEquals(1, this.sqlgGraph.traversal().V().hasLabel("A").toList().size());
+        Assert.assertEquals(1, this.sqlgGraph.tx().getPreparedStatementCache().statementCacheSize());
+        this.sqlgGraph.tx().rollback();
+        Assert.assertEquals(1, this.sqlgGraph.traversal().V().hasLabel("A").toList().size());
+        Assert.assertEquals(1, this.sqlgGraph.tx().getPreparedStatementCache().statementCacheSize());
+        Thread thread = new Thread(() -> {
+            this.sqlgGraph.getTopology().ensureVertexLabelExist("B");
+            this.sqlgGraph.tx().commit();
+        });
+        thread.start();
+        thread.join(30_000);
+        Assert.assertFalse(thread.isAlive());
+        Assert.assertEquals(0, this.sqlgGraph.tx().getPreparedStatementCache().statementCacheSize());
+        Assert.assertEquals(1, this.sqlgGraph.traversal().V().hasLabel("A").toList().size());
+        this.sqlgGraph.tx().rollback();
+    }
+}
@@ -0,0 +1,117 @@
+package org.umlg.sqlg.test.properties;
+
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.umlg.sqlg.structure.SqlgGraph;
+import org.umlg.sqlg.test.BaseTest;
+
+import java.beans.PropertyVetoException;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Date: 2026/10/17
+ */
+public class TestCompactProperties extends BaseTest {
+
+    @BeforeClass
+    public static void beforeClass() throws ClassNotFoundException, IOException, PropertyVetoException {
+        BaseTest.beforeClass();
+        configuration.addProperty(SqlgGraph.COMPACT_PROPERTIES, true);
+    }
+
+    @Test
+    public void testPrimitiveProperties() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        Vertex a = this.sqlgGraph.addVertex(T.label, "A",
+                "aBoolean", true,
+                "anInteger", 1,
+                "aLong", 2L,
+                "aDouble", 3.3D,
+                "aShort", (short) 5,
+                "aString", "a",
+                "aLocalDateTime", now
+        );
+        if (this.sqlgGraph.getSqlDialect().supportsFloatValues()) {
+            a.property("aFloat", 4.4F);
+        }
+        if (this.sqlgGraph.getSqlDialect().supportsByteValues()) {
+            a.property("aByte", (byte) 6);
+        }
+        this.sqlgGraph.tx().commit();
+
+        a = this.sqlgGraph.traversal().V().hasLabel("A").next();
+        Assert.assertEquals(true, a.value("aBoolean"));
+        Assert.assertEquals(1, (int) a.value("anInteger"));
+        Assert.assertEquals(2L, (long) a.value("aLong"));
+        Assert.assertEquals(3.3D, a.value("aDouble"), 0);
+        Assert.assertEquals((short) 5, (short) a.value("aShort"));
+        Assert.assertEquals("a", a.value("aString"));
+        Assert.assertEquals(now, a.value("aLocalDateTime"));
+        if (this.sqlgGraph.getSqlDialect().supportsFloatValues()) {
+            Assert.assertEquals(4.4F, a.value("aFloat"), 0);
+        }
+        if (this.sqlgGraph.getSqlDialect().supportsByteValues()) {
+            Assert.assertEquals((byte) 6, (byte) a.value("aByte"));
+        }
+        Assert.assertTrue(a.keys().containsAll(Arrays.asList("aBoolean", "anInteger", "aLong", "aDouble", "aString", "aLocalDateTime")));
+    }
+
+    @Test
+    public void testUpdateAndRemove() {
+        Vertex a = this.sqlgGraph.addVertex(T.label, "A", "name", "a", "age", 1);
+        this.sqlgGraph.tx().commit();
+        a = this.sqlgGraph.traversal().V().hasLabel("A").next();
+        a.property("age", 2);
+        a.property("name", "aa");
+        a.property("surname", "s");
+        a.property("age").remove();
+        Assert.assertFalse(a.property("age").isPresent());
+        Assert.assertEquals(new HashSet<>(Arrays.asList("name", "surname")), a.keys());
+        this.sqlgGraph.tx().commit();
+
+        a = this.sqlgGraph.traversal().V().hasLabel("A").next();
+        Assert.assertFalse(a.property("age").isPresent());
+        Assert.assertEquals("aa", a.value("name"));
+        Assert.assertEquals("s", a.value("surname"));
+        a.property("age", 3);
+        this.sqlgGraph.tx().rollback();
+        a = this.sqlgGraph.traversal().V().hasLabel("A").next();
+        Assert.assertFalse(a.property("age").isPresent());
+    }
+
+    @Test
+    public void testVerticesOfALabelWithDifferentProperties() {
+        Vertex a1 = this.sqlgGraph.addVertex(T.label, "A", "name", "a1");
+        Vertex a2 = this.sqlgGraph.addVertex(T.label, "A", "age", 1);
+        Vertex a3 = this.sqlgGraph.addVertex(T.label, "A", "name", "a3", "age", 3, "weight", 3.3D);
+        Vertex b = this.sqlgGraph.addVertex(T.label, "B", "weight", 1.1D);
+        Edge e = a3.addEdge("ab", b, "weight", 2L);
+        this.sqlgGraph.tx().commit();
+
+        List<Vertex> vertices = this.sqlgGraph.traversal().V(a1.id(), a2.id(), a3.id()).toList();
+        Assert.assertEquals(3, vertices.size());
+        for (Vertex vertex : vertices) {
+            if (vertex.equals(a1)) {
+                Assert.assertEquals(Collections.singleton("name"), vertex.keys());
+            } else if (vertex.equals(a2)) {
+                Assert.assertEquals(Collections.singleton("age"), vertex.keys());
+                Assert.assertEquals(1, (int) vertex.value("age"));
+            } else {
+                Assert.assertEquals(3, vertex.keys().size());
+                Assert.assertEquals(3.3D, vertex.value("weight"), 0);
+            }
+        }
+        Assert.assertEquals(1.1D, this.sqlgGraph.traversal().V(b.id()).next().value("weight"), 0);
+        Assert.assertEquals(2L, (long) this.sqlgGraph.traversal().E(e.id()).next().value("weight"));
+    }
+}
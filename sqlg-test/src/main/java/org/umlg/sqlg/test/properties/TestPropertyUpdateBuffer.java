@@ -0,0 +1,83 @@
+package org.umlg.sqlg.test.properties;
+
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.umlg.sqlg.structure.SqlgTransaction;
+import org.umlg.sqlg.test.BaseTest;
+
+import java.beans.PropertyVetoException;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Date: 2026/10/17
+ */
+public class TestPropertyUpdateBuffer extends BaseTest {
+
+    @BeforeClass
+    public static void beforeClass() throws ClassNotFoundException, IOException, PropertyVetoException {
+        BaseTest.beforeClass();
+        configuration.addProperty(SqlgTransaction.PROPERTY_UPDATE_BUFFER_SIZE, 10);
+    }
+
+    @Test
+    public void testUpdatesAreFlushedOnCommit() {
+        List<Vertex> vertices = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            vertices.add(this.sqlgGraph.addVertex(T.label, "Person", "name", "p" + i, "age", i, "surname", "s"));
+        }
+        this.sqlgGraph.tx().commit();
+        for (int i = 0; i < 25; i++) {
+            Vertex v = vertices.get(i);
+            v.property("name", "pp" + i);
+            v.property("age", i * 10);
+            if (i % 2 == 0) {
+                v.property("surname", "ss");
+            }
+        }
+        this.sqlgGraph.tx().commit();
+        for (int i = 0; i < 25; i++) {
+            Vertex v = this.sqlgGraph.traversal().V(vertices.get(i).id()).next();
+            Assert.assertEquals("pp" + i, v.value("name"));
+            Assert.assertEquals(i * 10, (int) v.value("age"));
+            Assert.assertEquals(i % 2 == 0 ? "ss" : "s", v.value("surname"));
+        }
+    }
+
+    @Test
+    public void testUpdatesAreVisibleToQueries() {
+        Vertex a = this.sqlgGraph.addVertex(T.label, "A", "name", "a");
+        Vertex b = this.sqlgGraph.addVertex(T.label, "B", "name", "b");
+        Edge e = a.addEdge("ab", b, "weight", 1);
+        this.sqlgGraph.tx().commit();
+        a.property("name", "aa");
+        e.property("weight", 2);
+        Assert.assertEquals(1, this.sqlgGraph.traversal().V().hasLabel("A").has("name", "aa").count().next(), 0);
+        Assert.assertEquals(1, this.sqlgGraph.traversal().E().hasLabel("ab").has("weight", 2).count().next(), 0);
+        a.property("name", "aaa");
+        this.sqlgGraph.tx().rollback();
+        Assert.assertEquals("a", this.sqlgGraph.traversal().V(a.id()).next().value("name"));
+    }
+
+    @Test
+    public void testMultiColumnTypes() {
+        Vertex a = this.sqlgGraph.addVertex(T.label, "A", "created", LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS), "zoned", ZonedDateTime.now().truncatedTo(ChronoUnit.MILLIS));
+        this.sqlgGraph.tx().commit();
+        LocalDateTime localDateTime = LocalDateTime.now().minusDays(1).truncatedTo(ChronoUnit.MILLIS);
+        ZonedDateTime zonedDateTime = ZonedDateTime.now().minusDays(2).truncatedTo(ChronoUnit.MILLIS);
+        a.property("created", localDateTime);
+        a.property("zoned", zonedDateTime);
+        this.sqlgGraph.tx().commit();
+        a = this.sqlgGraph.traversal().V(a.id()).next();
+        Assert.assertEquals(localDateTime, a.value("created"));
+        Assert.assertEquals(zonedDateTime, a.value("zoned"));
+    }
+}
@@ -0,0 +1,114 @@
+package org.umlg.sqlg.test.properties;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Path;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.DefaultGraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Assert;
+import org.junit.Test;
+import org.umlg.sqlg.sql.parse.ReplacedStep;
+import org.umlg.sqlg.step.SqlgStep;
+import org.umlg.sqlg.test.BaseTest;
+
+import java.util.*;
+
+/**
+ * Test that only the properties the traversal reads are selected and that partially loaded elements load the rest
+ * of their properties when accessed.
+ * Date: 2026/10/17
+ */
+public class TestRestrictProperties extends BaseTest {
+
+    @Test
+    public void testRestrictValues() {
+        this.sqlgGraph.addVertex(T.label, "Doc", "title", "t1", "body", "b1", "size", 1);
+        this.sqlgGraph.addVertex(T.label, "Doc", "title", "t2", "body", "b2", "size", 2);
+        this.sqlgGraph.tx().commit();
+
+        DefaultGraphTraversal<Vertex, Object> traversal = (DefaultGraphTraversal<Vertex, Object>) this.sqlgGraph.traversal()
+                .V().hasLabel("Doc").values("title");
+        Assert.assertEquals(new HashSet<>(Arrays.asList("t1", "t2")), new HashSet<>(traversal.toList()));
+        Assert.assertEquals(Collections.singleton("title"), restrictedProperties(traversal));
+
+        Assert.assertEquals(2, this.sqlgGraph.traversal().V().hasLabel("Doc").valueMap("title", "size").toList().size());
+        Assert.assertEquals(2, this.sqlgGraph.traversal().V().hasLabel("Doc").id().toList().size());
+        Assert.assertEquals(Arrays.asList("Doc", "Doc"), this.sqlgGraph.traversal().V().hasLabel("Doc").label().toList());
+    }
+
+    @Test
+    public void testNotRestricted() {
+        this.sqlgGraph.addVertex(T.label, "Doc", "title", "t1", "body", "b1");
+        this.sqlgGraph.tx().commit();
+        DefaultGraphTraversal<Vertex, Object> traversal = (DefaultGraphTraversal<Vertex, Object>) this.sqlgGraph.traversal()
+                .V().hasLabel("Doc").values();
+        Assert.assertEquals(2, traversal.toList().size());
+        Assert.assertNull(restrictedProperties(traversal));
+
+        DefaultGraphTraversal<Vertex, Vertex> vertexTraversal = (DefaultGraphTraversal<Vertex, Vertex>) this.sqlgGraph.traversal()
+                .V().hasLabel("Doc");
+        Assert.assertEquals("b1", vertexTraversal.next().value("body"));
+        Assert.assertNull(restrictedProperties(vertexTraversal));
+    }
+
+    @Test
+    public void testPartiallyLoadedElementLoadsOnAccess() {
+        Vertex doc = this.sqlgGraph.addVertex(T.label, "Doc", "title", "t1", "body", "b1", "size", 1);
+        this.sqlgGraph.tx().commit();
+
+        Path path = this.sqlgGraph.traversal().V().hasLabel("Doc").values("title").path().next();
+        Vertex partial = path.get(0);
+        Assert.assertEquals("b1", partial.value("body"));
+        Assert.assertEquals(new HashSet<>(Arrays.asList("title", "body", "size")), partial.keys());
+        this.sqlgGraph.tx().rollback();
+
+        //the vertex is cached in the transaction, g.V(id) returns the partially loaded vertex
+        Assert.assertEquals("t1", this.sqlgGraph.traversal().V().hasLabel("Doc").values("title").next());
+        Vertex vertex = this.sqlgGraph.traversal().V(doc.id()).next();
+        Assert.assertEquals(1, vertex.<Integer>value("size").intValue());
+        Assert.assertEquals(3, this.sqlgGraph.traversal().V(doc.id()).properties().toList().size());
+        this.sqlgGraph.tx().rollback();
+
+        vertex = this.sqlgGraph.traversal().V().hasLabel("Doc").values("title").path().next().get(0);
+        vertex.property("size", 2);
+        Assert.assertEquals("b1", vertex.value("body"));
+        this.sqlgGraph.tx().commit();
+        Assert.assertEquals(2, this.sqlgGraph.traversal().V(doc.id()).next().<Integer>value("size").intValue());
+    }
+
+    @Test
+    public void testRestrictVertexSteps() {
+        Vertex a = this.sqlgGraph.addVertex(T.label, "A", "name", "a");
+        for (int i = 0; i < 3; i++) {
+            Vertex b = this.sqlgGraph.addVertex(T.label, "B", "name", "b" + i, "body", "body" + i);
+            a.addEdge("ab", b, "weight", i, "note", "n" + i);
+        }
+        this.sqlgGraph.tx().commit();
+
+        DefaultGraphTraversal<Vertex, Object> traversal = (DefaultGraphTraversal<Vertex, Object>) this.sqlgGraph.traversal()
+                .V().hasLabel("A").out("ab").values("name");
+        Assert.assertEquals(new HashSet<>(Arrays.asList("b0", "b1", "b2")), new HashSet<>(traversal.toList()));
+        Assert.assertEquals(Collections.singleton("name"), restrictedProperties(traversal));
+
+        List<Object> weights = this.sqlgGraph.traversal().V().hasLabel("A").outE("ab").values("weight").toList();
+        Assert.assertEquals(new HashSet<>(Arrays.asList(0, 1, 2)), new HashSet<>(weights));
+        Edge edge = this.sqlgGraph.traversal().V().hasLabel("A").outE("ab").has("weight", 1).values("weight").path().next().get(1);
+        Assert.assertEquals("n1", edge.value("note"));
+        Assert.assertEquals("body1", edge.inVertex().value("body"));
+
+        Assert.assertEquals(
+                new HashSet<>(Arrays.asList("b0", "b1", "b2")),
+                new HashSet<>(this.sqlgGraph.traversal().V(a).local(__.out("ab").values("name")).toList())
+        );
+        Assert.assertEquals(
+                Collections.singletonList("body2"),
+                this.sqlgGraph.traversal().V().hasLabel("A").out("ab").as("b").values("name").is("b2").select("b").values("body").toList()
+        );
+    }
+
+    private static Set<String> restrictedProperties(DefaultGraphTraversal<?, ?> traversal) {
+        List<ReplacedStep<?, ?>> replacedSteps = ((SqlgStep) traversal.getSteps().get(0)).getReplacedSteps();
+        return replacedSteps.get(replacedSteps.size() - 1).getRestrictedProperties();
+    }
+}
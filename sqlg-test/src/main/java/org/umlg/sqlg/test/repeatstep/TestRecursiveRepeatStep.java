@@ -0,0 +1,161 @@
+package org.umlg.sqlg.test.repeatstep;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Path;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.DefaultGraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.umlg.sqlg.step.barrier.SqlgRecursiveRepeatStepBarrier;
+import org.umlg.sqlg.test.BaseTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Test repeat().until()/emit() executed as a recursive query.
+ * The results are compared with the same repeat executed in memory, a repeat nested in local() is not executed recursively.
+ * Date: 2026/10/17
+ */
+public class TestRecursiveRepeatStep extends BaseTest {
+
+    @Before
+    public void beforeTest() {
+        Assume.assumeTrue(this.sqlgGraph.getSqlDialect().supportsRecursiveQueries());
+    }
+
+    @Test
+    public void testOrgChart() {
+        loadOrgChart();
+        DefaultGraphTraversal<Vertex, Vertex> traversal = (DefaultGraphTraversal<Vertex, Vertex>) this.sqlgGraph.traversal()
+                .V().hasLabel("Employee").has("name", "e19_0")
+                .repeat(__.out("reportsTo")).until(__.has("title", "ceo"));
+        List<Vertex> ceos = traversal.toList();
+        Assert.assertEquals(1, ceos.size());
+        Assert.assertEquals("e0", ceos.get(0).value("name"));
+        Assert.assertEquals(0, ceos.get(0).<Integer>value("level").intValue());
+        Assert.assertTrue(traversal.getSteps().stream().anyMatch(s -> s instanceof SqlgRecursiveRepeatStepBarrier));
+
+        assertRepeat(g -> g.V().hasLabel("Employee"), t -> t.repeat(__.out("reportsTo")).until(__.has("title", "ceo")));
+        assertRepeat(g -> g.V().hasLabel("Employee"), t -> t.until(__.has("title", "ceo")).repeat(__.out("reportsTo")));
+        assertRepeat(g -> g.V().hasLabel("Employee"), t -> t.repeat(__.out("reportsTo")).until(__.has("level", P.lte(5)).has("title", "manager")));
+        assertRepeat(g -> g.V().hasLabel("Employee").has("title", "ceo"), t -> t.repeat(__.in("reportsTo")).until(__.has("level", 19)));
+        assertRepeat(g -> g.V().hasLabel("Employee").has("title", "ceo"), t -> t.repeat(__.in("reportsTo")).until(__.has("unknown", "x")));
+    }
+
+    @Test
+    public void testEmit() {
+        loadOrgChart();
+        assertRepeat(g -> g.V().hasLabel("Employee"), t -> t.repeat(__.out("reportsTo")).emit());
+        assertRepeat(g -> g.V().hasLabel("Employee"), t -> t.emit().repeat(__.out("reportsTo")));
+        assertRepeat(g -> g.V().hasLabel("Employee").has("title", "ceo"), t -> t.repeat(__.in("reportsTo")).emit(__.has("title", "manager")));
+        assertRepeat(g -> g.V().hasLabel("Employee"), t -> t.repeat(__.out("reportsTo")).emit().until(__.has("title", "manager")));
+        assertRepeat(g -> g.V().hasLabel("Employee"), t -> t.emit().repeat(__.out("reportsTo")).until(__.has("title", "manager")));
+        assertRepeat(g -> g.V().hasLabel("Employee"), t -> t.until(__.has("title", "manager")).repeat(__.out("reportsTo")).emit());
+        assertRepeat(g -> g.V().hasLabel("Employee"), t -> t.emit().until(__.has("title", "manager")).repeat(__.out("reportsTo")));
+    }
+
+    @Test
+    public void testLoops() {
+        loadOrgChart();
+        assertRepeat(g -> g.V().hasLabel("Employee"), t -> t.repeat(__.out("reportsTo")).until(__.loops().is(3)));
+        assertRepeat(g -> g.V().hasLabel("Employee"), t -> t.repeat(__.out("reportsTo")).until(__.loops().is(P.gte(2))).emit());
+        assertRepeat(g -> g.V().hasLabel("Employee").has("title", "ceo"), t -> t.repeat(__.in("reportsTo")).emit().times(4));
+        Assert.assertEquals(
+                15,
+                this.sqlgGraph.traversal().V().hasLabel("Employee").has("name", "e19_0")
+                        .repeat(__.out("reportsTo")).until(__.loops().is(4)).next().<Integer>value("level").intValue()
+        );
+    }
+
+    @Test
+    public void testSimplePath() {
+        Vertex a = this.sqlgGraph.addVertex(T.label, "Node", "name", "a");
+        Vertex b = this.sqlgGraph.addVertex(T.label, "Node", "name", "b");
+        Vertex c = this.sqlgGraph.addVertex(T.label, "Node", "name", "c");
+        Vertex d = this.sqlgGraph.addVertex(T.label, "Node", "name", "d");
+        a.addEdge("link", b);
+        b.addEdge("link", c);
+        c.addEdge("link", a);
+        b.addEdge("link", d);
+        c.addEdge("link", d);
+        this.sqlgGraph.tx().commit();
+        List<Object> names = this.sqlgGraph.traversal().V(a).repeat(__.out("link").simplePath()).emit().values("name").toList();
+        Assert.assertEquals(4, names.size());
+        assertRepeat(g -> g.V().hasLabel("Node"), t -> t.repeat(__.out("link").simplePath()).emit());
+        assertRepeat(g -> g.V().hasLabel("Node"), t -> t.repeat(__.out("link").simplePath()).until(__.has("name", "d")));
+        assertRepeat(g -> g.V().hasLabel("Node"), t -> t.repeat(__.in("link").simplePath()).until(__.has("name", P.within("a", "d"))).emit());
+        //the start's path is longer than the start itself, it is executed in memory
+        assertRepeat(g -> g.V().hasLabel("Node").has("name", "a").out("link"), t -> t.repeat(__.out("link").simplePath()).emit());
+    }
+
+    @Test
+    public void testNotSelfReferencing() {
+        loadOrgChart();
+        Vertex contractor = this.sqlgGraph.addVertex(T.label, "Contractor", "name", "c1");
+        Vertex employee = this.sqlgGraph.traversal().V().hasLabel("Employee").has("name", "e5_1").next();
+        contractor.addEdge("reportsTo", employee);
+        this.sqlgGraph.tx().commit();
+        List<Vertex> ceos = this.sqlgGraph.traversal().V().hasLabel("Contractor", "Employee")
+                .repeat(__.out("reportsTo")).until(__.has("title", "ceo")).toList();
+        Assert.assertEquals(this.sqlgGraph.traversal().V().hasLabel("Contractor", "Employee").count().next() - 1, ceos.size());
+        assertRepeat(g -> g.V().hasLabel("Contractor", "Employee"), t -> t.repeat(__.out("reportsTo")).until(__.has("title", "ceo")));
+        assertRepeat(g -> g.V().hasLabel("Employee").has("title", "ceo"), t -> t.repeat(__.in("reportsTo")).emit());
+    }
+
+    @Test
+    public void testPathIsExecutedInMemory() {
+        loadOrgChart();
+        DefaultGraphTraversal<Vertex, Path> traversal = (DefaultGraphTraversal<Vertex, Path>) this.sqlgGraph.traversal()
+                .V().hasLabel("Employee").has("name", "e3_0")
+                .repeat(__.out("reportsTo")).until(__.has("title", "ceo")).path();
+        Assert.assertEquals(4, traversal.next().size());
+        Assert.assertTrue(traversal.getSteps().stream().noneMatch(s -> s instanceof SqlgRecursiveRepeatStepBarrier));
+    }
+
+    /**
+     * A chain of 20 levels with 2 employees per level below the ceo, reporting to the first employee of the level above.
+     * Every 5th level are managers.
+     */
+    private void loadOrgChart() {
+        Vertex ceo = this.sqlgGraph.addVertex(T.label, "Employee", "name", "e0", "level", 0, "title", "ceo");
+        Vertex boss = ceo;
+        for (int level = 1; level < 20; level++) {
+            Vertex first = null;
+            for (int i = 0; i < 2; i++) {
+                Vertex employee = this.sqlgGraph.addVertex(T.label, "Employee", "name", "e" + level + "_" + i, "level", level, "title", level % 5 == 0 ? "manager" : "employee");
+                employee.addEdge("reportsTo", boss);
+                if (first == null) {
+                    first = employee;
+                }
+            }
+            boss = first;
+        }
+        this.sqlgGraph.tx().commit();
+    }
+
+    private void assertRepeat(
+            Function<GraphTraversalSource, GraphTraversal<Vertex, Vertex>> start,
+            Function<GraphTraversal<Vertex, Vertex>, GraphTraversal<Vertex, Vertex>> repeat) {
+
+        GraphTraversal<Vertex, Vertex> recursive = repeat.apply(start.apply(this.sqlgGraph.traversal()));
+        GraphTraversal<Vertex, Vertex> inMemory = start.apply(this.sqlgGraph.traversal()).local(repeat.apply(__.<Vertex>start()));
+        Assert.assertEquals(ids(inMemory.toList()), ids(recursive.toList()));
+    }
+
+    private static List<String> ids(List<Vertex> vertices) {
+        List<String> ids = new ArrayList<>();
+        for (Vertex vertex : vertices) {
+            ids.add(vertex.id().toString());
+        }
+        return ids.stream().sorted().collect(Collectors.toList());
+    }
+}
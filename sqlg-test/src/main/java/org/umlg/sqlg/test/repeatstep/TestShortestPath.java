@@ -0,0 +1,113 @@
+package org.umlg.sqlg.test.repeatstep;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Path;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Assert;
+import org.junit.Test;
+import org.umlg.sqlg.test.BaseTest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Test SqlgGraphTraversalSource.shortestPath
+ * Date: 2026/10/17
+ */
+public class TestShortestPath extends BaseTest {
+
+    @Test
+    public void testShortestPathBoth() {
+        //a 10 by 10 grid with links to the right and down
+        Vertex[][] grid = new Vertex[10][10];
+        for (int i = 0; i < 10; i++) {
+            for (int j = 0; j < 10; j++) {
+                grid[i][j] = this.sqlgGraph.addVertex(T.label, "Cell", "name", i + "_" + j);
+                if (i > 0) {
+                    grid[i - 1][j].addEdge("link", grid[i][j]);
+                }
+                if (j > 0) {
+                    grid[i][j - 1].addEdge("link", grid[i][j]);
+                }
+            }
+        }
+        this.sqlgGraph.tx().commit();
+        List<Path> paths = this.sqlgGraph.traversal().shortestPath(grid[9][0], grid[0][9], Direction.BOTH, 20, "link").toList();
+        Assert.assertEquals(1, paths.size());
+        Path path = paths.get(0);
+        Assert.assertEquals(19, path.size());
+        Assert.assertEquals("9_0", path.<Vertex>get(0).value("name"));
+        Assert.assertEquals("0_9", path.<Vertex>get(18).value("name"));
+        assertConnected(path, Direction.BOTH);
+
+        Path inMemory = this.sqlgGraph.traversal().V(grid[1][0]).repeat(__.both("link").simplePath()).until(__.hasId(grid[0][2].id())).limit(1).path().next();
+        Assert.assertEquals(inMemory.size(), this.sqlgGraph.traversal().shortestPath(grid[1][0], grid[0][2], Direction.BOTH, 20, "link").next().size());
+
+        Assert.assertFalse(this.sqlgGraph.traversal().shortestPath(grid[9][0], grid[0][9], Direction.BOTH, 17, "link").hasNext());
+        Assert.assertTrue(this.sqlgGraph.traversal().shortestPath(grid[9][0], grid[0][9], Direction.BOTH, 18, "link").hasNext());
+    }
+
+    @Test
+    public void testShortestPathDirection() {
+        Vertex a = this.sqlgGraph.addVertex(T.label, "Node", "name", "a");
+        Vertex b = this.sqlgGraph.addVertex(T.label, "Node", "name", "b");
+        Vertex c = this.sqlgGraph.addVertex(T.label, "Node", "name", "c");
+        Vertex d = this.sqlgGraph.addVertex(T.label, "Node", "name", "d");
+        a.addEdge("link", b);
+        b.addEdge("link", c);
+        c.addEdge("link", d);
+        d.addEdge("link", a);
+        this.sqlgGraph.tx().commit();
+        Assert.assertEquals(Arrays.asList("a", "b", "c"), names(this.sqlgGraph.traversal().shortestPath(a, c, Direction.OUT, 10).next()));
+        Assert.assertEquals(Arrays.asList("c", "d", "a"), names(this.sqlgGraph.traversal().shortestPath(c, a, Direction.OUT, 10).next()));
+        Assert.assertEquals(Arrays.asList("c", "b", "a"), names(this.sqlgGraph.traversal().shortestPath(c, a, Direction.IN, 10).next()));
+        Assert.assertEquals(Arrays.asList("a", "d"), names(this.sqlgGraph.traversal().shortestPath(a.id(), d.id(), Direction.BOTH, 10).next()));
+        Assert.assertEquals(Collections.singletonList("a"), names(this.sqlgGraph.traversal().shortestPath(a, a, Direction.OUT, 0).next()));
+        Assert.assertFalse(this.sqlgGraph.traversal().shortestPath(a, c, Direction.OUT, 1).hasNext());
+    }
+
+    @Test
+    public void testShortestPathAcrossLabels() {
+        Vertex person1 = this.sqlgGraph.addVertex(T.label, "Person", "name", "p1");
+        Vertex person2 = this.sqlgGraph.addVertex(T.label, "Person", "name", "p2");
+        Vertex account1 = this.sqlgGraph.addVertex(T.label, "Account", "name", "a1");
+        Vertex account2 = this.sqlgGraph.addVertex(T.label, "Account", "name", "a2");
+        Vertex device = this.sqlgGraph.addVertex(T.label, "Device", "name", "d1");
+        person1.addEdge("owns", account1);
+        person2.addEdge("owns", account2);
+        account1.addEdge("usedBy", device);
+        account2.addEdge("usedBy", device);
+        person1.addEdge("knows", person2);
+        this.sqlgGraph.tx().commit();
+        Assert.assertEquals(
+                Arrays.asList("p1", "a1", "d1", "a2", "p2"),
+                names(this.sqlgGraph.traversal().shortestPath(person1, person2, Direction.BOTH, 10, "owns", "usedBy").next())
+        );
+        Assert.assertEquals(
+                Arrays.asList("p1", "p2"),
+                names(this.sqlgGraph.traversal().shortestPath(person1, person2, Direction.BOTH, 10).next())
+        );
+        Assert.assertFalse(this.sqlgGraph.traversal().shortestPath(person1, person2, Direction.OUT, 10, "owns", "usedBy").hasNext());
+        Assert.assertFalse(this.sqlgGraph.traversal().shortestPath(person1, person2, Direction.BOTH, 10, "owns").hasNext());
+    }
+
+    private static List<String> names(Path path) {
+        List<String> names = new ArrayList<>();
+        for (Object vertex : path.objects()) {
+            names.add(((Vertex) vertex).value("name"));
+        }
+        return names;
+    }
+
+    private void assertConnected(Path path, Direction direction) {
+        for (int i = 1; i < path.size(); i++) {
+            Vertex vertex = path.get(i - 1);
+            Vertex next = path.get(i);
+            Assert.assertTrue(this.sqlgGraph.traversal().V(vertex).to(direction).hasId(next.id()).hasNext());
+        }
+    }
+}
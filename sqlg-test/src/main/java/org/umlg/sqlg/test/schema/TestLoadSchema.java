@@ -11,6 +11,8 @@ import org.junit.Test;
 import org.umlg.sqlg.structure.*;
 import org.umlg.sqlg.structure.topology.EdgeLabel;
 import org.umlg.sqlg.structure.topology.GlobalUniqueIndex;
+import org.umlg.sqlg.structure.topology.Index;
+import org.umlg.sqlg.structure.topology.IndexType;
 import org.umlg.sqlg.structure.topology.PropertyColumn;
 import org.umlg.sqlg.structure.topology.VertexLabel;
 import org.umlg.sqlg.test.BaseTest;
@@ -19,6 +21,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.*;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
 
@@ -37,6 +40,40 @@ public class TestLoadSchema extends BaseTest {
         assertEquals(1, cars.size());
     }
 
+    @Test
+    public void testLoadTopology() throws Exception {
+        Vertex person = this.sqlgGraph.addVertex(T.label, "A.Person", "name", "john", "surname", "smith");
+        Vertex car = this.sqlgGraph.addVertex(T.label, "B.Car", "model", "vw");
+        Vertex dog = this.sqlgGraph.addVertex(T.label, "A.Dog", "name", "snowy");
+        person.addEdge("owns", car, "bought", 1);
+        person.addEdge("owns", dog, "bought", 2);
+        dog.addEdge("likes", car);
+        this.sqlgGraph.tx().commit();
+        VertexLabel personVertexLabel = this.sqlgGraph.getTopology().getVertexLabel("A", "Person").get();
+        personVertexLabel.ensureIndexExists(IndexType.NON_UNIQUE, Arrays.asList(
+                personVertexLabel.getProperty("surname").get(), personVertexLabel.getProperty("name").get()));
+        EdgeLabel ownsEdgeLabel = this.sqlgGraph.getTopology().getEdgeLabel("A", "owns").get();
+        ownsEdgeLabel.ensureIndexExists(IndexType.UNIQUE, Collections.singletonList(ownsEdgeLabel.getProperty("bought").get()));
+        this.sqlgGraph.getTopology().ensureGlobalUniqueIndexExist(new HashSet<>(Arrays.asList(
+                personVertexLabel.getProperty("name").get(), ownsEdgeLabel.getProperty("bought").get())));
+        this.sqlgGraph.tx().commit();
+        this.sqlgGraph.close();
+        try (SqlgGraph sqlgGraph1 = SqlgGraph.open(configuration)) {
+            Assert.assertEquals(this.sqlgGraph.getTopology(), sqlgGraph1.getTopology());
+            VertexLabel loadedPerson = sqlgGraph1.getTopology().getVertexLabel("A", "Person").get();
+            Index index = loadedPerson.getIndexes().values().iterator().next();
+            Assert.assertEquals(IndexType.NON_UNIQUE, index.getIndexType());
+            Assert.assertEquals(Arrays.asList("surname", "name"), index.getProperties().stream().map(PropertyColumn::getName).collect(Collectors.toList()));
+            EdgeLabel loadedOwns = sqlgGraph1.getTopology().getEdgeLabel("A", "owns").get();
+            Assert.assertEquals(IndexType.UNIQUE, loadedOwns.getIndexes().values().iterator().next().getIndexType());
+            Assert.assertEquals(2, loadedOwns.getInVertexLabels().size());
+            Assert.assertTrue(sqlgGraph1.getTopology().getVertexLabel("B", "Car").get().getInEdgeLabels().containsKey("A.likes"));
+            Assert.assertEquals(1, sqlgGraph1.getTopology().getGlobalUniqueIndexes().size());
+            Assert.assertEquals(2, sqlgGraph1.getTopology().getGlobalUniqueIndexes().iterator().next().getProperties().size());
+            Assert.assertEquals(2, sqlgGraph1.traversal().V().hasLabel("A.Person").out("owns").count().next(), 0);
+        }
+    }
+
     @Test
     public void testLoadingLocalDateTime() throws Exception {
         Vertex v = this.sqlgGraph.addVertex(T.label, "Person", "createOn", LocalDateTime.now());
@@ -1,5 +1,7 @@
 package org.umlg.sqlg.test.schema;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.collections4.IteratorUtils;
 import org.apache.commons.configuration.ConfigurationException;
 import org.apache.commons.configuration.PropertiesConfiguration;
@@ -12,6 +14,7 @@ import org.junit.Assert;
 import org.junit.Assume;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.umlg.sqlg.sql.dialect.SqlSchemaChangeDialect;
 import org.umlg.sqlg.structure.*;
 import org.umlg.sqlg.structure.topology.*;
 import org.umlg.sqlg.test.BaseTest;
@@ -43,6 +46,26 @@ public class TestLoadSchemaViaNotify extends BaseTest {
         }
     }
 
+    @Test
+    public void testNotificationIsReceivedWithoutPolling() throws Exception {
+        try (SqlgGraph sqlgGraph1 = SqlgGraph.open(configuration)) {
+            SqlSchemaChangeDialect sqlDialect = (SqlSchemaChangeDialect) sqlgGraph1.getSqlDialect();
+            JsonNode stats = new ObjectMapper().readTree(sqlDialect.getListenerStatsAsJson());
+            Assert.assertTrue(stats.get("connected").asBoolean());
+            long notifications = stats.get("notifications").asLong();
+            this.sqlgGraph.addVertex(T.label, "Person", "name", "a");
+            this.sqlgGraph.tx().commit();
+            int count = 0;
+            while (!sqlgGraph1.getTopology().getVertexLabel(sqlgGraph1.getSqlDialect().getPublicSchema(), "Person").isPresent() && count++ < 100) {
+                Thread.sleep(10);
+            }
+            Assert.assertTrue(sqlgGraph1.getTopology().getVertexLabel(sqlgGraph1.getSqlDialect().getPublicSchema(), "Person").isPresent());
+            stats = new ObjectMapper().readTree(sqlDialect.getListenerStatsAsJson());
+            Assert.assertTrue(stats.get("notifications").asLong() > notifications);
+            Assert.assertEquals(0, stats.get("reconnects").asLong());
+        }
+    }
+
     @Test
     public void testLoadSchemaForeignKeyOutSchemaToPublic() throws Exception {
         //Create a new sqlgGraph
@@ -11,6 +11,7 @@ import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 import org.junit.Assert;
 import org.junit.Test;
 import org.umlg.sqlg.structure.PropertyType;
+import org.umlg.sqlg.structure.SchemaTable;
 import org.umlg.sqlg.structure.topology.Topology;
 import org.umlg.sqlg.structure.TopologyInf;
 import org.umlg.sqlg.structure.topology.VertexLabel;
@@ -21,6 +22,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Date: 2016/06/27
@@ -155,4 +158,34 @@ public class TestTopology extends BaseTest {
         v.remove();
         sqlgGraph.tx().commit();
     }
+
+    @Test
+    public void testUncommittedTopologyIsNotVisibleToOtherThreads() throws Exception {
+        this.sqlgGraph.addVertex(T.label, "A", "name", "a");
+        this.sqlgGraph.tx().commit();
+        String publicSchema = this.sqlgGraph.getSqlDialect().getPublicSchema();
+        SchemaTable a = SchemaTable.of(publicSchema, Topology.VERTEX_PREFIX + "A");
+        long changeVersion = this.sqlgGraph.getTopology().getChangeVersion();
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            Vertex a1 = this.sqlgGraph.addVertex(T.label, "A", "name", "a1", "surname", "s");
+            a1.addEdge("ab", this.sqlgGraph.addVertex(T.label, "B", "name", "b"));
+            Assert.assertTrue(this.sqlgGraph.getTopology().getPropertiesFor(a).containsKey("surname"));
+            Assert.assertTrue(executorService.submit(() ->
+                    !this.sqlgGraph.getTopology().getVertexLabel(publicSchema, "B").isPresent() &&
+                            !this.sqlgGraph.getTopology().getEdgeLabel(publicSchema, "ab").isPresent() &&
+                            !this.sqlgGraph.getTopology().getPropertiesFor(a).containsKey("surname") &&
+                            this.sqlgGraph.getTopology().getPropertiesFor(a).containsKey("name")
+            ).get());
+            this.sqlgGraph.tx().commit();
+            Assert.assertNotEquals(changeVersion, this.sqlgGraph.getTopology().getChangeVersion());
+            Assert.assertTrue(executorService.submit(() ->
+                    this.sqlgGraph.getTopology().getVertexLabel(publicSchema, "B").isPresent() &&
+                            this.sqlgGraph.getTopology().getEdgeLabel(publicSchema, "ab").isPresent() &&
+                            this.sqlgGraph.getTopology().getPropertiesFor(a).containsKey("surname")
+            ).get());
+        } finally {
+            executorService.shutdown();
+        }
+    }
 }
@@ -0,0 +1,130 @@
+package org.umlg.sqlg.test.topology;
+
+import org.apache.commons.configuration.ConfigurationException;
+import org.apache.commons.configuration.PropertiesConfiguration;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.junit.*;
+import org.umlg.sqlg.structure.SqlgExceptions;
+import org.umlg.sqlg.structure.SqlgGraph;
+import org.umlg.sqlg.test.BaseTest;
+
+import java.beans.PropertyVetoException;
+import java.io.IOException;
+import java.net.URL;
+import java.util.concurrent.*;
+
+/**
+ * Tests topology changes of different labels within one jvm, locked per schema and label.
+ * <p>
+ * Date: 2026/10/17
+ */
+public class TestTopologyConcurrentChanges extends BaseTest {
+
+    @SuppressWarnings("Duplicates")
+    @BeforeClass
+    public static void beforeClass() throws ClassNotFoundException, IOException, PropertyVetoException {
+        URL sqlProperties = Thread.currentThread().getContextClassLoader().getResource("sqlg.properties");
+        try {
+            configuration = new PropertiesConfiguration(sqlProperties);
+            configuration.addProperty(SqlgGraph.TOPOLOGY_LOCK_STRIPED, true);
+            if (!configuration.containsKey("jdbc.url"))
+                throw new IllegalArgumentException(String.format("SqlGraph configuration requires that the %s be set", "jdbc.url"));
+
+        } catch (ConfigurationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Before
+    public void assumeConcurrentTopologyChanges() {
+        Assume.assumeTrue(this.sqlgGraph.getSqlDialect().supportsConcurrentTopologyChanges());
+    }
+
+    @Test
+    public void testIndependentLabelsDoNotWait() throws Exception {
+        this.sqlgGraph.addVertex(T.label, "A", "name", "a");
+        this.sqlgGraph.addVertex(T.label, "B", "name", "b");
+        this.sqlgGraph.tx().commit();
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            this.sqlgGraph.addVertex(T.label, "A", "name", "a", "surname", "s");
+            Future<?> future = executorService.submit(() -> {
+                this.sqlgGraph.addVertex(T.label, "B", "name", "b", "surname", "s");
+                this.sqlgGraph.addVertex(T.label, "C", "name", "c");
+                this.sqlgGraph.tx().commit();
+            });
+            future.get(10, TimeUnit.SECONDS);
+            this.sqlgGraph.tx().commit();
+            Assert.assertTrue(this.sqlgGraph.getTopology().getPublicSchema().getVertexLabel("A").get().getProperty("surname").isPresent());
+            Assert.assertTrue(this.sqlgGraph.getTopology().getPublicSchema().getVertexLabel("B").get().getProperty("surname").isPresent());
+            Assert.assertTrue(this.sqlgGraph.getTopology().getPublicSchema().getVertexLabel("C").isPresent());
+            Assert.assertEquals(2, this.sqlgGraph.traversal().V().hasLabel("A").count().next(), 0);
+            Assert.assertEquals(2, this.sqlgGraph.traversal().V().hasLabel("B").count().next(), 0);
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void testSameLabelWaits() throws Exception {
+        this.sqlgGraph.addVertex(T.label, "A", "name", "a");
+        this.sqlgGraph.tx().commit();
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            this.sqlgGraph.addVertex(T.label, "A", "name", "a", "surname", "s");
+            Future<?> future = executorService.submit(() -> {
+                this.sqlgGraph.addVertex(T.label, "A", "name", "a", "age", 1);
+                this.sqlgGraph.tx().commit();
+            });
+            try {
+                future.get(1, TimeUnit.SECONDS);
+                Assert.fail("the column must wait for the lock on A");
+            } catch (TimeoutException ignore) {
+            }
+            this.sqlgGraph.tx().commit();
+            future.get(10, TimeUnit.SECONDS);
+            Assert.assertTrue(this.sqlgGraph.getTopology().getPublicSchema().getVertexLabel("A").get().getProperty("surname").isPresent());
+            Assert.assertTrue(this.sqlgGraph.getTopology().getPublicSchema().getVertexLabel("A").get().getProperty("age").isPresent());
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void testCycleFails() throws Exception {
+        this.sqlgGraph.addVertex(T.label, "A", "name", "a");
+        this.sqlgGraph.addVertex(T.label, "B", "name", "b");
+        this.sqlgGraph.tx().commit();
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            Thread thread = executorService.submit(Thread::currentThread).get();
+            this.sqlgGraph.addVertex(T.label, "A", "name", "a", "surname", "s");
+            Future<?> future = executorService.submit(() -> {
+                this.sqlgGraph.addVertex(T.label, "B", "name", "b", "surname", "s");
+                //A sorts before B, waits for this thread.
+                this.sqlgGraph.addVertex(T.label, "A", "name", "a", "age", 1);
+                this.sqlgGraph.tx().commit();
+            });
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (thread.getState() != Thread.State.TIMED_WAITING) {
+                Assert.assertTrue("the other thread must wait for the lock on A", System.currentTimeMillis() < deadline);
+                Thread.sleep(10);
+            }
+            try {
+                this.sqlgGraph.addVertex(T.label, "B", "name", "b", "age", 1);
+                Assert.fail("waiting for the lock on B closes a cycle");
+            } catch (SqlgExceptions.TopologyLockDeadlockException ignore) {
+            } finally {
+                this.sqlgGraph.tx().rollback();
+            }
+            future.get(10, TimeUnit.SECONDS);
+            Assert.assertFalse(this.sqlgGraph.getTopology().getPublicSchema().getVertexLabel("A").get().getProperty("surname").isPresent());
+            Assert.assertTrue(this.sqlgGraph.getTopology().getPublicSchema().getVertexLabel("A").get().getProperty("age").isPresent());
+            Assert.assertTrue(this.sqlgGraph.getTopology().getPublicSchema().getVertexLabel("B").get().getProperty("surname").isPresent());
+            Assert.assertFalse(this.sqlgGraph.getTopology().getPublicSchema().getVertexLabel("B").get().getProperty("age").isPresent());
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,236 @@
+package org.umlg.sqlg.test.topology;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.umlg.sqlg.structure.SqlgExceptions;
+import org.umlg.sqlg.structure.topology.TopologyLock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Tests the topology's lock within the jvm, no database is needed.
+ * <p>
+ * Date: 2026/10/17
+ */
+public class TestTopologyLock {
+
+    private TopologyLock topologyLock;
+    private ExecutorService other;
+    private Thread otherThread;
+
+    @Before
+    public void before() throws Exception {
+        this.topologyLock = new TopologyLock(10, TimeUnit.SECONDS);
+        this.other = Executors.newSingleThreadExecutor();
+        this.otherThread = this.other.submit(Thread::currentThread).get();
+    }
+
+    @After
+    public void after() throws Exception {
+        this.topologyLock.unlockAll();
+        this.other.submit(() -> this.topologyLock.unlockAll()).get();
+        this.other.shutdown();
+    }
+
+    @Test
+    public void testKeyOrder() {
+        List<String> keys = new ArrayList<>(Arrays.asList("b.V_a", "a.V_b", "b", "a.V_a", TopologyLock.TOPOLOGY, "a"));
+        keys.sort(TopologyLock.KEY_ORDER);
+        Assert.assertEquals(Arrays.asList(TopologyLock.TOPOLOGY, "a", "b", "a.V_a", "a.V_b", "b.V_a"), keys);
+    }
+
+    @Test
+    public void testOutOfOrder() {
+        Assert.assertFalse(this.topologyLock.isOutOfOrder("public.V_B"));
+        Assert.assertTrue(this.topologyLock.lock(TopologyLock.TOPOLOGY, false, false));
+        Assert.assertTrue(this.topologyLock.lock("public.V_B", true, false));
+        Assert.assertTrue(this.topologyLock.isOutOfOrder("public.V_A"));
+        Assert.assertTrue(this.topologyLock.isOutOfOrder("public"));
+        Assert.assertTrue(this.topologyLock.isOutOfOrder(TopologyLock.TOPOLOGY));
+        Assert.assertFalse(this.topologyLock.isOutOfOrder("public.V_C"));
+    }
+
+    @Test
+    public void testReentrantAndUpgrade() {
+        Assert.assertFalse(this.topologyLock.isHeldByCurrentThread());
+        Assert.assertTrue(this.topologyLock.lock(TopologyLock.TOPOLOGY, false, false));
+        Assert.assertFalse(this.topologyLock.lock(TopologyLock.TOPOLOGY, false, false));
+        Assert.assertTrue(this.topologyLock.lock("public.V_A", true, false));
+        Assert.assertFalse(this.topologyLock.lock("public.V_A", false, false));
+        Assert.assertTrue(this.topologyLock.isHeldByCurrentThread("public.V_A"));
+        Assert.assertFalse(this.topologyLock.isHeldByCurrentThread("public.V_B"));
+        //the shared topology key is upgraded, it then covers every key
+        Assert.assertTrue(this.topologyLock.lock(TopologyLock.TOPOLOGY, true, false));
+        Assert.assertTrue(this.topologyLock.isHeldByCurrentThread("public.V_B"));
+        Assert.assertFalse(this.topologyLock.lock("public.V_B", true, false));
+        this.topologyLock.unlockAll();
+        Assert.assertFalse(this.topologyLock.isHeldByCurrentThread());
+        Assert.assertFalse(this.topologyLock.isHeldByCurrentThread(TopologyLock.TOPOLOGY));
+    }
+
+    @Test
+    public void testSharedDoesNotWait() throws Exception {
+        Assert.assertTrue(this.topologyLock.lock(TopologyLock.TOPOLOGY, false, false));
+        Assert.assertTrue(this.topologyLock.lock("public.V_A", true, false));
+        Assert.assertTrue(this.other.submit(() -> this.topologyLock.lock(TopologyLock.TOPOLOGY, false, false)).get(1, TimeUnit.SECONDS));
+        Assert.assertTrue(this.other.submit(() -> this.topologyLock.lock("public.V_B", true, false)).get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testExclusiveWaits() throws Exception {
+        Assert.assertTrue(this.topologyLock.lock("public.V_A", true, false));
+        Future<Boolean> future = this.other.submit(() -> this.topologyLock.lock("public.V_A", true, false));
+        awaitWaiting(this.otherThread);
+        Assert.assertFalse(future.isDone());
+        this.topologyLock.unlockAll();
+        Assert.assertTrue(future.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testUpgradeWaitsForTheOtherSharedHolders() throws Exception {
+        Assert.assertTrue(this.topologyLock.lock(TopologyLock.TOPOLOGY, false, false));
+        Assert.assertTrue(this.other.submit(() -> this.topologyLock.lock(TopologyLock.TOPOLOGY, false, false)).get());
+        Future<Boolean> future = this.other.submit(() -> this.topologyLock.lock(TopologyLock.TOPOLOGY, true, false));
+        awaitWaiting(this.otherThread);
+        Assert.assertFalse(future.isDone());
+        this.topologyLock.unlockAll();
+        Assert.assertTrue(future.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testSharedWaitsForWaitingExclusive() throws Exception {
+        ExecutorService third = Executors.newSingleThreadExecutor();
+        try {
+            Assert.assertTrue(this.topologyLock.lock(TopologyLock.TOPOLOGY, false, false));
+            Future<Boolean> exclusive = this.other.submit(() -> this.topologyLock.lock(TopologyLock.TOPOLOGY, true, false));
+            awaitWaiting(this.otherThread);
+            Thread thirdThread = third.submit(Thread::currentThread).get();
+            Future<Boolean> shared = third.submit(() -> this.topologyLock.lock(TopologyLock.TOPOLOGY, false, false));
+            awaitWaiting(thirdThread);
+            this.topologyLock.unlockAll();
+            Assert.assertTrue(exclusive.get(1, TimeUnit.SECONDS));
+            Assert.assertFalse(shared.isDone());
+            this.other.submit(() -> this.topologyLock.unlockAll()).get();
+            Assert.assertTrue(shared.get(1, TimeUnit.SECONDS));
+            third.submit(() -> this.topologyLock.unlockAll()).get();
+        } finally {
+            third.shutdown();
+        }
+    }
+
+    @Test
+    public void testCycleIsDetected() throws Exception {
+        Assert.assertTrue(this.topologyLock.lock("public.V_A", true, false));
+        Assert.assertTrue(this.other.submit(() -> this.topologyLock.lock("public.V_B", true, false)).get());
+        //out of order, waits for this thread
+        Future<Boolean> future = this.other.submit(() -> this.topologyLock.lock("public.V_A", true, false));
+        awaitWaiting(this.otherThread);
+        try {
+            this.topologyLock.lock("public.V_B", true, false);
+            Assert.fail("waiting for public.V_B closes a cycle");
+        } catch (SqlgExceptions.TopologyLockDeadlockException ignore) {
+        }
+        //rollback
+        this.topologyLock.unlockAll();
+        Assert.assertTrue(future.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testUpgradeCycleIsDetected() throws Exception {
+        Assert.assertTrue(this.topologyLock.lock(TopologyLock.TOPOLOGY, false, false));
+        Assert.assertTrue(this.other.submit(() -> this.topologyLock.lock(TopologyLock.TOPOLOGY, false, false)).get());
+        Future<Boolean> future = this.other.submit(() -> this.topologyLock.lock(TopologyLock.TOPOLOGY, true, false));
+        awaitWaiting(this.otherThread);
+        try {
+            this.topologyLock.lock(TopologyLock.TOPOLOGY, true, false);
+            Assert.fail("both shared holders upgrading closes a cycle");
+        } catch (SqlgExceptions.TopologyLockDeadlockException ignore) {
+        }
+        this.topologyLock.unlockAll();
+        Assert.assertTrue(future.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testFailFast() throws Exception {
+        Assert.assertTrue(this.other.submit(() -> this.topologyLock.lock("public.V_A", true, false)).get());
+        try {
+            this.topologyLock.lock("public.V_A", true, true);
+            Assert.fail("a fail fast request must not wait");
+        } catch (SqlgExceptions.TopologyLockDeadlockException ignore) {
+        }
+        Assert.assertFalse(this.topologyLock.isHeldByCurrentThread());
+        Assert.assertTrue(this.topologyLock.lock("public.V_B", true, true));
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        this.topologyLock = new TopologyLock(100, TimeUnit.MILLISECONDS);
+        Assert.assertTrue(this.other.submit(() -> this.topologyLock.lock("public.V_A", true, false)).get());
+        long start = System.nanoTime();
+        try {
+            this.topologyLock.lock("public.V_A", true, false);
+            Assert.fail("the lock must time out");
+        } catch (SqlgExceptions.TopologyLockDeadlockException e) {
+            Assert.fail("a timeout is not a deadlock");
+        } catch (RuntimeException e) {
+            Assert.assertTrue(e.getMessage().startsWith("Timeout lapsed"));
+        }
+        Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 100);
+        Assert.assertFalse(this.topologyLock.isHeldByCurrentThread());
+    }
+
+    @Test
+    public void testConcurrentLabels() throws Exception {
+        int threads = 8;
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<Integer>> tasks = new ArrayList<>();
+            int[] counters = new int[2];
+            for (int i = 0; i < threads; i++) {
+                tasks.add(() -> {
+                    int deadlocks = 0;
+                    for (int j = 0; j < 200; j++) {
+                        List<String> keys = new ArrayList<>(Arrays.asList("public.V_A", "public.V_B"));
+                        Collections.shuffle(keys);
+                        try {
+                            this.topologyLock.lock(TopologyLock.TOPOLOGY, false, false);
+                            for (String key : keys) {
+                                this.topologyLock.lock(key, true, false);
+                            }
+                            //both keys are held exclusively, no other thread changes the counters
+                            counters[0]++;
+                            counters[1]++;
+                        } catch (SqlgExceptions.TopologyLockDeadlockException e) {
+                            deadlocks++;
+                        } finally {
+                            this.topologyLock.unlockAll();
+                        }
+                    }
+                    return deadlocks;
+                });
+            }
+            int deadlocks = 0;
+            for (Future<Integer> future : executorService.invokeAll(tasks)) {
+                deadlocks += future.get();
+            }
+            Assert.assertEquals(threads * 200 - deadlocks, counters[0]);
+            Assert.assertEquals(counters[0], counters[1]);
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    private static void awaitWaiting(Thread thread) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (thread.getState() != Thread.State.TIMED_WAITING) {
+            Assert.assertTrue("the thread must wait for the lock", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package org.umlg.sqlg.test.topology;
+
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.umlg.sqlg.structure.SqlgGraph;
+import org.umlg.sqlg.test.BaseTest;
+
+import java.beans.PropertyVetoException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+/**
+ * Date: 2026/10/17
+ */
+public class TestTopologySnapshot extends BaseTest {
+
+    private static final FileTime MARKER = FileTime.fromMillis(0);
+    private static Path snapshot;
+
+    @BeforeClass
+    public static void beforeClass() throws ClassNotFoundException, IOException, PropertyVetoException {
+        BaseTest.beforeClass();
+        snapshot = Files.createTempDirectory("sqlg").resolve("topology.snapshot");
+        configuration.addProperty(SqlgGraph.TOPOLOGY_SNAPSHOT_FILE, snapshot.toString());
+    }
+
+    @Test
+    public void testTopologyLoadedFromSnapshot() throws Exception {
+        this.sqlgGraph.addVertex(T.label, "A.A", "name", "a").addEdge("ab", this.sqlgGraph.addVertex(T.label, "B.B", "name", "b"), "weight", 1);
+        this.sqlgGraph.tx().commit();
+        Assert.assertTrue(Files.exists(snapshot));
+        this.sqlgGraph.close();
+        //a graph that rewrites the snapshot resets the marker.
+        Files.setLastModifiedTime(snapshot, MARKER);
+        try (SqlgGraph sqlgGraph1 = SqlgGraph.open(configuration)) {
+            Assert.assertEquals(MARKER, Files.getLastModifiedTime(snapshot));
+            Assert.assertEquals(this.sqlgGraph.getTopology(), sqlgGraph1.getTopology());
+            Assert.assertTrue(sqlgGraph1.getTopology().getEdgeLabel("A", "ab").get().getProperty("weight").isPresent());
+            Assert.assertEquals(1, sqlgGraph1.traversal().V().hasLabel("A.A").out("ab").count().next(), 0);
+        }
+    }
+
+    @Test
+    public void testSnapshotRefreshedOnTopologyChange() throws Exception {
+        this.sqlgGraph.addVertex(T.label, "A", "name", "a");
+        this.sqlgGraph.tx().commit();
+        Files.setLastModifiedTime(snapshot, MARKER);
+        //no topology change
+        this.sqlgGraph.addVertex(T.label, "A", "name", "aa");
+        this.sqlgGraph.tx().commit();
+        Assert.assertEquals(MARKER, Files.getLastModifiedTime(snapshot));
+        this.sqlgGraph.addVertex(T.label, "A", "name", "aaa", "surname", "s");
+        this.sqlgGraph.tx().commit();
+        Assert.assertNotEquals(MARKER, Files.getLastModifiedTime(snapshot));
+        this.sqlgGraph.close();
+        try (SqlgGraph sqlgGraph1 = SqlgGraph.open(configuration)) {
+            Assert.assertTrue(sqlgGraph1.getTopology().getPublicSchema().getVertexLabel("A").get().getProperty("surname").isPresent());
+        }
+    }
+
+    @Test
+    public void testSnapshotNotRefreshedOnRollback() throws Exception {
+        Assume.assumeTrue(this.sqlgGraph.getSqlDialect().supportsTransactionalSchema());
+        this.sqlgGraph.addVertex(T.label, "A", "name", "a");
+        this.sqlgGraph.tx().commit();
+        Files.setLastModifiedTime(snapshot, MARKER);
+        this.sqlgGraph.addVertex(T.label, "B", "name", "b");
+        this.sqlgGraph.tx().rollback();
+        Assert.assertEquals(MARKER, Files.getLastModifiedTime(snapshot));
+    }
+
+    @Test
+    public void testStaleSnapshotIsIgnored() throws Exception {
+        this.sqlgGraph.addVertex(T.label, "A", "name", "a");
+        this.sqlgGraph.tx().commit();
+        this.sqlgGraph.close();
+        //change the topology with a graph that does not maintain the snapshot.
+        configuration.clearProperty(SqlgGraph.TOPOLOGY_SNAPSHOT_FILE);
+        try (SqlgGraph sqlgGraph1 = SqlgGraph.open(configuration)) {
+            sqlgGraph1.addVertex(T.label, "B", "name", "b");
+            sqlgGraph1.tx().commit();
+        } finally {
+            configuration.addProperty(SqlgGraph.TOPOLOGY_SNAPSHOT_FILE, snapshot.toString());
+        }
+        try (SqlgGraph sqlgGraph1 = SqlgGraph.open(configuration)) {
+            Assert.assertTrue(sqlgGraph1.getTopology().getPublicSchema().getVertexLabel("B").isPresent());
+            Assert.assertEquals(1, sqlgGraph1.traversal().V().hasLabel("B").count().next(), 0);
+        }
+    }
+}
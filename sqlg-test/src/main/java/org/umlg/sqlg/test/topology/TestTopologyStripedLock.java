@@ -0,0 +1,139 @@
+package org.umlg.sqlg.test.topology;
+
+import org.apache.commons.configuration.ConfigurationException;
+import org.apache.commons.configuration.PropertiesConfiguration;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.umlg.sqlg.structure.SqlgExceptions;
+import org.umlg.sqlg.structure.SqlgGraph;
+import org.umlg.sqlg.test.BaseTest;
+
+import java.beans.PropertyVetoException;
+import java.io.IOException;
+import java.net.URL;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Date: 2026/10/17
+ */
+public class TestTopologyStripedLock extends BaseTest {
+
+    @SuppressWarnings("Duplicates")
+    @BeforeClass
+    public static void beforeClass() throws ClassNotFoundException, IOException, PropertyVetoException {
+        URL sqlProperties = Thread.currentThread().getContextClassLoader().getResource("sqlg.properties");
+        try {
+            configuration = new PropertiesConfiguration(sqlProperties);
+            Assume.assumeTrue(isPostgres());
+            configuration.addProperty(SqlgGraph.DISTRIBUTED, true);
+            configuration.addProperty(SqlgGraph.DISTRIBUTED_LOCK_STRIPED, true);
+            if (!configuration.containsKey("jdbc.url"))
+                throw new IllegalArgumentException(String.format("SqlGraph configuration requires that the %s be set", "jdbc.url"));
+
+        } catch (ConfigurationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Test
+    public void testIndependentLabelsDoNotWait() throws Exception {
+        this.sqlgGraph.addVertex(T.label, "A", "name", "a");
+        this.sqlgGraph.tx().commit();
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try (SqlgGraph sqlgGraph1 = SqlgGraph.open(configuration)) {
+            this.sqlgGraph.addVertex(T.label, "A", "name", "a", "surname", "s");
+            Future<?> future = executorService.submit(() -> {
+                sqlgGraph1.addVertex(T.label, "B.B", "name", "b");
+                sqlgGraph1.tx().commit();
+            });
+            future.get(10, TimeUnit.SECONDS);
+            this.sqlgGraph.tx().commit();
+            Thread.sleep(1_000);
+            Assert.assertEquals(this.sqlgGraph.getTopology(), sqlgGraph1.getTopology());
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void testSameLabelWaits() throws Exception {
+        this.sqlgGraph.addVertex(T.label, "A", "name", "a");
+        this.sqlgGraph.tx().commit();
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try (SqlgGraph sqlgGraph1 = SqlgGraph.open(configuration)) {
+            this.sqlgGraph.addVertex(T.label, "A", "name", "a", "surname", "s");
+            Future<?> future = executorService.submit(() -> {
+                sqlgGraph1.addVertex(T.label, "A", "name", "a", "age", 1);
+                sqlgGraph1.tx().commit();
+            });
+            try {
+                future.get(1, TimeUnit.SECONDS);
+                Assert.fail("the column must wait for the other graph's lock on A");
+            } catch (TimeoutException ignore) {
+            }
+            this.sqlgGraph.tx().commit();
+            future.get(10, TimeUnit.SECONDS);
+            Assert.assertTrue(sqlgGraph1.getTopology().getPublicSchema().getVertexLabel("A").get().getProperty("surname").isPresent());
+            Thread.sleep(1_000);
+            Assert.assertEquals(this.sqlgGraph.getTopology(), sqlgGraph1.getTopology());
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void testIndependentLabelsInTheSameGraphDoNotWait() throws Exception {
+        this.sqlgGraph.addVertex(T.label, "A", "name", "a");
+        this.sqlgGraph.addVertex(T.label, "B", "name", "b");
+        this.sqlgGraph.tx().commit();
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            this.sqlgGraph.addVertex(T.label, "A", "name", "a", "surname", "s");
+            Future<?> future = executorService.submit(() -> {
+                this.sqlgGraph.addVertex(T.label, "B", "name", "b", "surname", "s");
+                this.sqlgGraph.tx().commit();
+            });
+            future.get(10, TimeUnit.SECONDS);
+            this.sqlgGraph.tx().commit();
+            Assert.assertTrue(this.sqlgGraph.getTopology().getPublicSchema().getVertexLabel("A").get().getProperty("surname").isPresent());
+            Assert.assertTrue(this.sqlgGraph.getTopology().getPublicSchema().getVertexLabel("B").get().getProperty("surname").isPresent());
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void testOutOfOrderLockFails() throws Exception {
+        this.sqlgGraph.addVertex(T.label, "A", "name", "a");
+        this.sqlgGraph.addVertex(T.label, "B", "name", "b");
+        this.sqlgGraph.tx().commit();
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            this.sqlgGraph.addVertex(T.label, "A", "name", "a", "surname", "s");
+            Future<?> future = executorService.submit(() -> {
+                try {
+                    this.sqlgGraph.addVertex(T.label, "B", "name", "b", "surname", "s");
+                    //A sorts before B and is held by the other transaction.
+                    this.sqlgGraph.addVertex(T.label, "A", "name", "a", "age", 1);
+                    Assert.fail("the out of order lock on A must fail");
+                } catch (SqlgExceptions.TopologyLockDeadlockException ignore) {
+                } finally {
+                    this.sqlgGraph.tx().rollback();
+                }
+            });
+            future.get(10, TimeUnit.SECONDS);
+            this.sqlgGraph.tx().commit();
+            Assert.assertTrue(this.sqlgGraph.getTopology().getPublicSchema().getVertexLabel("A").get().getProperty("surname").isPresent());
+            Assert.assertFalse(this.sqlgGraph.getTopology().getPublicSchema().getVertexLabel("B").get().getProperty("surname").isPresent());
+        } finally {
+            executorService.shutdown();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package org.umlg.sqlg.test.vertex;
+
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.umlg.sqlg.structure.RecordId;
+import org.umlg.sqlg.structure.VertexCache;
+import org.umlg.sqlg.structure.topology.Topology;
+import org.umlg.sqlg.test.BaseTest;
+
+import java.beans.PropertyVetoException;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Date: 2026/10/17
+ */
+public class TestSecondLevelVertexCache extends BaseTest {
+
+    @BeforeClass
+    public static void beforeClass() throws ClassNotFoundException, IOException, PropertyVetoException {
+        BaseTest.beforeClass();
+        configuration.addProperty(VertexCache.VERTEX_CACHE_MAX_WEIGHT, 1024 * 1024);
+        configuration.addProperty(VertexCache.VERTEX_CACHE_LABELS, Arrays.asList("Person", "Big"));
+    }
+
+    @Test
+    public void testCommittedUpdatesInvalidate() {
+        Vertex person = this.sqlgGraph.addVertex(T.label, "Person", "name", "john");
+        this.sqlgGraph.tx().commit();
+        Assert.assertEquals("john", this.sqlgGraph.vertices(person.id()).next().value("name"));
+        Assert.assertEquals(1, this.sqlgGraph.getVertexCache().size());
+        this.sqlgGraph.tx().commit();
+
+        //changes made outside of sqlg are not seen
+        updateName(person, "peter");
+        Assert.assertEquals("john", this.sqlgGraph.vertices(person.id()).next().value("name"));
+        this.sqlgGraph.tx().commit();
+
+        person = this.sqlgGraph.vertices(person.id()).next();
+        person.property("name", "joe");
+        Assert.assertEquals("joe", this.sqlgGraph.vertices(person.id()).next().value("name"));
+        this.sqlgGraph.tx().rollback();
+        Assert.assertEquals("john", this.sqlgGraph.vertices(person.id()).next().value("name"));
+        this.sqlgGraph.tx().rollback();
+
+        person = this.sqlgGraph.vertices(person.id()).next();
+        person.property("name", "joe");
+        this.sqlgGraph.tx().commit();
+        Assert.assertEquals(0, this.sqlgGraph.getVertexCache().size());
+        Assert.assertEquals("joe", this.sqlgGraph.vertices(person.id()).next().value("name"));
+        this.sqlgGraph.tx().commit();
+    }
+
+    @Test
+    public void testRemoveInvalidates() {
+        Vertex person1 = this.sqlgGraph.addVertex(T.label, "Person", "name", "john");
+        Vertex person2 = this.sqlgGraph.addVertex(T.label, "Person", "name", "peter");
+        this.sqlgGraph.tx().commit();
+        Assert.assertEquals(2, this.sqlgGraph.traversal().V(person1.id(), person2.id()).toList().size());
+        Assert.assertEquals(2, count(this.sqlgGraph.vertices(person1.id(), person2.id())));
+        Assert.assertEquals(2, this.sqlgGraph.getVertexCache().size());
+        this.sqlgGraph.tx().commit();
+
+        this.sqlgGraph.vertices(person1.id()).next().remove();
+        this.sqlgGraph.tx().commit();
+        Assert.assertEquals(1, count(this.sqlgGraph.vertices(person1.id(), person2.id())));
+
+        this.sqlgGraph.traversal().V().hasLabel("Person").drop().iterate();
+        this.sqlgGraph.tx().commit();
+        Assert.assertEquals(0, this.sqlgGraph.getVertexCache().size());
+        Assert.assertEquals(0, count(this.sqlgGraph.vertices(person1.id(), person2.id())));
+    }
+
+    @Test
+    public void testLoadViaEdge() {
+        Vertex person = this.sqlgGraph.addVertex(T.label, "Person", "name", "john");
+        Vertex dog = this.sqlgGraph.addVertex(T.label, "Dog", "name", "snowy");
+        person.addEdge("owns", dog);
+        this.sqlgGraph.tx().commit();
+        Assert.assertEquals("snowy", this.sqlgGraph.traversal().E().hasLabel("owns").next().inVertex().value("name"));
+        Assert.assertEquals("john", this.sqlgGraph.traversal().E().hasLabel("owns").next().outVertex().value("name"));
+        //Dog is not a cached label
+        Assert.assertEquals(1, this.sqlgGraph.getVertexCache().size());
+        Assert.assertEquals(1, count(this.sqlgGraph.vertices(dog.id())));
+        Assert.assertEquals(1, this.sqlgGraph.getVertexCache().size());
+        this.sqlgGraph.tx().commit();
+    }
+
+    @Test
+    public void testTopologyChangeInvalidates() {
+        Vertex person = this.sqlgGraph.addVertex(T.label, "Person", "name", "john");
+        this.sqlgGraph.tx().commit();
+        Assert.assertEquals(1, count(this.sqlgGraph.vertices(person.id())));
+        Assert.assertEquals(1, this.sqlgGraph.getVertexCache().size());
+        this.sqlgGraph.addVertex(T.label, "Person", "surname", "smith");
+        this.sqlgGraph.tx().commit();
+        Assert.assertFalse(this.sqlgGraph.vertices(person.id()).next().property("surname").isPresent());
+    }
+
+    @Test
+    public void testWeightBound() {
+        char[] chars = new char[10000];
+        Arrays.fill(chars, 'a');
+        String big = new String(chars);
+        List<Object> ids = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            ids.add(this.sqlgGraph.addVertex(T.label, "Big", "name", big).id());
+        }
+        this.sqlgGraph.tx().commit();
+        Assert.assertEquals(200, count(this.sqlgGraph.vertices(ids.toArray())));
+        Assert.assertTrue(this.sqlgGraph.getVertexCache().size() > 0);
+        Assert.assertTrue(this.sqlgGraph.getVertexCache().size() < 200);
+        Assert.assertTrue(this.sqlgGraph.getVertexCache().weight() <= 1024 * 1024);
+        Assert.assertEquals(200, count(this.sqlgGraph.vertices(ids.toArray())));
+        this.sqlgGraph.tx().commit();
+    }
+
+    private void updateName(Vertex vertex, String name) {
+        RecordId recordId = (RecordId) vertex.id();
+        Connection connection = this.sqlgGraph.tx().getConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("UPDATE " +
+                    this.sqlgGraph.getSqlDialect().maybeWrapInQoutes(recordId.getSchemaTable().getSchema()) + "." +
+                    this.sqlgGraph.getSqlDialect().maybeWrapInQoutes(Topology.VERTEX_PREFIX + recordId.getSchemaTable().getTable()) +
+                    " SET " + this.sqlgGraph.getSqlDialect().maybeWrapInQoutes("name") + " = '" + name + "'" +
+                    " WHERE " + this.sqlgGraph.getSqlDialect().maybeWrapInQoutes("ID") + " = " + recordId.getId());
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+        this.sqlgGraph.tx().commit();
+    }
+
+    private static int count(java.util.Iterator<?> iterator) {
+        int count = 0;
+        while (iterator.hasNext()) {
+            iterator.next();
+            count++;
+        }
+        return count;
+    }
+}